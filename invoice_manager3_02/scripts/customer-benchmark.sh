@@ -0,0 +1,53 @@
+#!/usr/bin/env bash
+#
+# Starts the application on the in-memory benchmark database seeded with
+# 1,000,000 customers and measures the customer list, deep keyset pages,
+# prefix search and batched status updates.
+#
+# Usage: scripts/customer-benchmark.sh <application.jar> [pages]
+
+set -euo pipefail
+
+JAR=${1:?usage: customer-benchmark.sh <application.jar> [pages]}
+PAGES=${2:-500}
+PORT=${PORT:-8080}
+BASE_URL="http://localhost:${PORT}"
+LOGIN_BODY='{"email":"benchmark-admin@invoicemanager.dev","password":"password"}'
+LOCATIONS=classpath:db/migration,classpath:db/benchmark,classpath:db/benchmark-admin,classpath:db/benchmark-customers
+
+java -Xmx2g -jar "$JAR" --server.port="$PORT" --spring.profiles.active=benchmark \
+    --spring.flyway.locations="$LOCATIONS" --application.warmup.enabled=false > /dev/null 2>&1 &
+PID=$!
+trap 'kill $PID; wait $PID || true' EXIT
+
+until TOKEN=$(curl -sf -H 'Content-Type: application/json' -d "$LOGIN_BODY" "${BASE_URL}/user/login" |
+    sed -n 's/.*"access_token":"\([^"]*\)".*/\1/p') && [[ -n "$TOKEN" ]]; do
+    sleep 1
+done
+AUTH="Authorization: Bearer ${TOKEN}"
+
+time_ms() {
+    curl -s -o /dev/null -w '%{time_total}' -H "$AUTH" "$@" | awk '{printf "%.2f", $1 * 1000}'
+}
+
+next_cursor() {
+    curl -s -H "$AUTH" "$1" | sed -n 's/.*"nextCursor":"\([^"]*\)".*/\1/p'
+}
+
+echo "first page:        $(time_ms "${BASE_URL}/customer/list?size=50") ms"
+
+cursor=""
+start=$(date +%s%N)
+for _ in $(seq 1 "$PAGES"); do
+    cursor=$(next_cursor "${BASE_URL}/customer/list?size=100${cursor:+&cursor=$cursor}")
+done
+echo "keyset walk:       $(( ($(date +%s%N) - start) / PAGES / 1000 )) us per page over ${PAGES} pages"
+echo "page at depth:     $(time_ms "${BASE_URL}/customer/list?size=50&cursor=$cursor") ms (cursor ${cursor})"
+
+echo "search 'Ab':       $(time_ms "${BASE_URL}/customer/search?name=Ab&size=50") ms"
+search_cursor=$(next_cursor "${BASE_URL}/customer/search?name=Ab&size=50")
+echo "search next page:  $(time_ms "${BASE_URL}/customer/search?name=Ab&size=50&cursor=${search_cursor}") ms"
+
+ids=$(seq -s, 1 1000)
+echo "status x1000:      $(time_ms -X PATCH -H 'Content-Type: application/json' \
+    -d "{\"ids\":[${ids}],\"status\":\"INACTIVE\"}" "${BASE_URL}/customer/status") ms"
@@ -0,0 +1,92 @@
+#!/usr/bin/env bash
+#
+# Starts the application on the in-memory benchmark database seeded with
+# 1,000,000 customers, generates a CSV export of invoices with three lines
+# each and measures the streaming import end to end. The file is then uploaded
+# a second time to check that no invoice is imported twice. Exits non-zero when
+# a throughput goal (invoices/s, overridable through GOAL_IMPORT and
+# GOAL_REUPLOAD) is missed.
+#
+# Usage: scripts/invoice-import-benchmark.sh <application.jar> [invoices]
+
+set -euo pipefail
+
+JAR=${1:?usage: invoice-import-benchmark.sh <application.jar> [invoices]}
+INVOICES=${2:-100000}
+PORT=${PORT:-8080}
+# A month of ERP exports is a few hundred thousand invoices; the goals import a
+# 500,000 invoice month in about four minutes and skip a re-upload of it in one.
+GOAL_IMPORT=${GOAL_IMPORT:-2000}
+GOAL_REUPLOAD=${GOAL_REUPLOAD:-10000}
+BASE_URL="http://localhost:${PORT}"
+LOGIN_BODY='{"email":"benchmark-admin@invoicemanager.dev","password":"password"}'
+LOCATIONS=classpath:db/migration,classpath:db/benchmark,classpath:db/benchmark-admin,classpath:db/benchmark-customers
+CSV=$(mktemp --suffix=.csv)
+
+java -Xmx2g -jar "$JAR" --server.port="$PORT" --spring.profiles.active=benchmark \
+    --spring.flyway.locations="$LOCATIONS" --application.warmup.enabled=false > /dev/null 2>&1 &
+PID=$!
+trap 'kill $PID; wait $PID || true; rm -f "$CSV"' EXIT
+
+awk -v invoices="$INVOICES" 'BEGIN {
+    srand(42);
+    print "reference,customer_email,due_date,description,quantity,unit_price";
+    for (i = 1; i <= invoices; i++) {
+        customer = int(rand() * 1000000) + 1;
+        for (line = 1; line <= 3; line++) {
+            printf "ERP-%d,customer%d@invoicemanager.dev,2026-12-31,\"Service, item %d\",%d,%.2f\n",
+                i, customer, line, int(rand() * 10) + 1, rand() * 500;
+        }
+    }
+}' > "$CSV"
+echo "generated:  ${INVOICES} invoices, $(( $(wc -l < "$CSV") - 1 )) rows, $(du -h "$CSV" | cut -f1)"
+
+until TOKEN=$(curl -sf -H 'Content-Type: application/json' -d "$LOGIN_BODY" "${BASE_URL}/user/login" |
+    sed -n 's/.*"access_token":"\([^"]*\)".*/\1/p') && [[ -n "$TOKEN" ]]; do
+    sleep 1
+done
+
+upload() {
+    local start elapsed_ms result job created rejected
+    start=$(date +%s%N)
+    result=$(curl -s -H "Authorization: Bearer ${TOKEN}" -H 'Content-Type: text/csv' \
+        --data-binary @"$CSV" "${BASE_URL}/invoice/import")
+    job=$(sed -n 's/.*"job":{"id":\([0-9]*\).*/\1/p' <<< "$result")
+    while [[ -n "$job" && "$(sed -n 's/.*"job":{"id":[0-9]*,"status":"\([A-Z]*\)".*/\1/p' <<< "$result")" == RUNNING ]]; do
+        sleep 0.5
+        result=$(curl -s -H "Authorization: Bearer ${TOKEN}" "${BASE_URL}/invoice/import/${job}")
+        printf '\r  rows read %s' "$(sed -n 's/.*"rowsRead":\([0-9]*\).*/\1/p' <<< "$result")"
+    done
+    printf '\r'
+    elapsed_ms=$(( ($(date +%s%N) - start) / 1000000 ))
+    created=$(sed -n 's/.*"invoicesCreated":\([0-9]*\).*/\1/p' <<< "$result")
+    rejected=$(sed -n 's/.*"invoicesRejected":\([0-9]*\).*/\1/p' <<< "$result")
+    THROUGHPUT=$(( (${created:-0} + ${rejected:-0}) * 1000 / (elapsed_ms > 0 ? elapsed_ms : 1) ))
+    CREATED=${created:-0}
+    echo "$1"
+    echo "  status:     $(sed -n 's/.*"status":"\([A-Z]*\)".*/\1/p' <<< "$result")"
+    echo "  created:    ${CREATED} invoices, rejected ${rejected:-0}"
+    echo "  elapsed:    ${elapsed_ms} ms"
+    echo "  throughput: ${THROUGHPUT} invoices/s"
+}
+
+upload "first upload"
+first_throughput=$THROUGHPUT
+first_created=$CREATED
+upload "re-upload of the same file"
+
+failed=0
+if (( first_created != INVOICES )); then
+    echo "goal missed: the first upload created ${first_created} of ${INVOICES} invoices"; failed=1
+fi
+if (( first_throughput < GOAL_IMPORT )); then
+    echo "goal missed: first upload ran at ${first_throughput} invoices/s, goal ${GOAL_IMPORT}"; failed=1
+fi
+if (( CREATED != 0 )); then
+    echo "goal missed: the re-upload created ${CREATED} duplicate invoices"; failed=1
+fi
+if (( THROUGHPUT < GOAL_REUPLOAD )); then
+    echo "goal missed: re-upload ran at ${THROUGHPUT} invoices/s, goal ${GOAL_REUPLOAD}"; failed=1
+fi
+(( failed == 0 )) && echo "goals met"
+exit $failed
@@ -0,0 +1,36 @@
+#!/usr/bin/env bash
+#
+# Drives a running instance past saturation and prints goodput (2xx per second),
+# rejections (503) and latency for increasing client counts. With the adaptive
+# concurrency limit in place goodput should stay flat while the extra load is
+# shed as 503 + Retry-After instead of queueing in Tomcat.
+#
+# Usage: scripts/overload-benchmark.sh [base-url] [seconds-per-step]
+#
+# Requires hey (https://github.com/rakyll/hey). Logs in as the benchmark user,
+# so start the application with the benchmark profile.
+
+set -euo pipefail
+
+BASE_URL=${1:-http://localhost:8080}
+DURATION=${2:-20}
+CLIENTS=${CLIENTS:-"8 32 128 512 1024"}
+LOGIN_BODY='{"email":"benchmark@invoicemanager.dev","password":"password"}'
+
+TOKEN=$(curl -sf -H 'Content-Type: application/json' -d "$LOGIN_BODY" "${BASE_URL}/user/login" |
+    sed -n 's/.*"access_token":"\([^"]*\)".*/\1/p')
+if [[ -z "$TOKEN" ]]; then
+    echo "Unable to log in as the benchmark user" >&2
+    exit 1
+fi
+
+printf '%8s %12s %10s %12s %12s\n' clients goodput/s 503/s p50-ms p99-ms
+for clients in $CLIENTS; do
+    report=$(hey -z "${DURATION}s" -c "$clients" -H "Authorization: Bearer ${TOKEN}" "${BASE_URL}/user/profile")
+    ok=$(awk '/\[200\]/ {print $2}' <<< "$report")
+    rejected=$(awk '/\[503\]/ {print $2}' <<< "$report")
+    p50=$(awk '/ 50% in / {print $3 * 1000}' <<< "$report")
+    p99=$(awk '/ 99% in / {print $3 * 1000}' <<< "$report")
+    printf '%8d %12d %10d %12s %12s\n' "$clients" $(( ${ok:-0} / DURATION )) $(( ${rejected:-0} / DURATION )) "${p50:-n/a}" "${p99:-n/a}"
+    curl -s -H "Authorization: Bearer ${TOKEN}" "${BASE_URL}/actuator/prometheus" | grep -E '^concurrency_(limit|rejected)' || true
+done
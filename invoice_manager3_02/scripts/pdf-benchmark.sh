@@ -0,0 +1,77 @@
+#!/usr/bin/env bash
+#
+# Starts the application on the in-memory benchmark database seeded with
+# 1,000,000 customers, imports invoices with three lines each, renders all
+# of them in one PDF batch and reports the batch throughput in PDFs/second.
+# A second request fetches one rendered file with a Range header.
+#
+# Usage: scripts/pdf-benchmark.sh <application.jar> [invoices]
+
+set -euo pipefail
+
+JAR=${1:?usage: pdf-benchmark.sh <application.jar> [invoices]}
+INVOICES=${2:-50000}
+PORT=${PORT:-8080}
+BASE_URL="http://localhost:${PORT}"
+LOGIN_BODY='{"email":"benchmark-admin@invoicemanager.dev","password":"password"}'
+LOCATIONS=classpath:db/migration,classpath:db/benchmark,classpath:db/benchmark-admin,classpath:db/benchmark-customers
+CSV=$(mktemp --suffix=.csv)
+PDFS=$(mktemp -d)
+
+java -Xmx2g -jar "$JAR" --server.port="$PORT" --spring.profiles.active=benchmark \
+    --spring.flyway.locations="$LOCATIONS" --application.warmup.enabled=false \
+    --application.invoice.pdf.directory="$PDFS" > /dev/null 2>&1 &
+PID=$!
+trap 'kill $PID; wait $PID || true; rm -rf "$CSV" "$PDFS"' EXIT
+
+awk -v invoices="$INVOICES" 'BEGIN {
+    srand(42);
+    print "reference,customer_email,due_date,description,quantity,unit_price";
+    for (i = 1; i <= invoices; i++) {
+        customer = int(rand() * 1000000) + 1;
+        for (line = 1; line <= 3; line++) {
+            printf "ERP-%d,customer%d@invoicemanager.dev,2026-12-31,\"Service, item %d\",%d,%.2f\n",
+                i, customer, line, int(rand() * 10) + 1, rand() * 500;
+        }
+    }
+}' > "$CSV"
+
+until TOKEN=$(curl -sf -H 'Content-Type: application/json' -d "$LOGIN_BODY" "${BASE_URL}/user/login" |
+    sed -n 's/.*"access_token":"\([^"]*\)".*/\1/p') && [[ -n "$TOKEN" ]]; do
+    sleep 1
+done
+
+result=$(curl -s -H "Authorization: Bearer ${TOKEN}" -H 'Content-Type: text/csv' \
+    --data-binary @"$CSV" "${BASE_URL}/invoice/import")
+JOB=$(sed -n 's/.*"job":{"id":\([0-9]*\).*/\1/p' <<< "$result")
+while [[ "$(sed -n 's/.*"job":{"id":[0-9]*,"status":"\([A-Z]*\)".*/\1/p' <<< "$result")" == RUNNING ]]; do
+    sleep 0.5
+    result=$(curl -s -H "Authorization: Bearer ${TOKEN}" "${BASE_URL}/invoice/import/${JOB}")
+done
+TODAY=$(date +%F)
+
+start=$(date +%s%N)
+result=$(curl -s -H "Authorization: Bearer ${TOKEN}" -H 'Content-Type: application/json' \
+    -d "{\"from\":\"${TODAY}\",\"to\":\"${TODAY}\"}" "${BASE_URL}/invoice/pdf/batch")
+BATCH=$(sed -n 's/.*"batch":{"id":\([0-9]*\).*/\1/p' <<< "$result")
+status=RUNNING
+while [[ "$status" == RUNNING ]]; do
+    sleep 0.5
+    result=$(curl -s -H "Authorization: Bearer ${TOKEN}" "${BASE_URL}/invoice/pdf/batch/${BATCH}")
+    status=$(sed -n 's/.*"batch":{"id":[0-9]*,"status":"\([A-Z]*\)".*/\1/p' <<< "$result")
+done
+elapsed_ms=$(( ($(date +%s%N) - start) / 1000000 ))
+
+rendered=$(sed -n 's/.*"rendered":\([0-9]*\).*/\1/p' <<< "$result")
+failed=$(sed -n 's/.*"failed":\([0-9]*\).*/\1/p' <<< "$result")
+echo "status:     ${status}"
+echo "rendered:   ${rendered:-0} PDFs, failed ${failed:-0}, $(du -sh "$PDFS" | cut -f1) on disk"
+echo "elapsed:    ${elapsed_ms} ms"
+echo "throughput: $(( ${rendered:-0} * 1000 / (elapsed_ms > 0 ? elapsed_ms : 1) )) PDFs/s"
+
+FIRST=$(find "$PDFS" -name '*.pdf' -print -quit)
+NAME=$(basename "$FIRST" .pdf)
+ID=${NAME%-v*}
+echo "range:      $(curl -s -o /dev/null -w '%{http_code} %{size_download} bytes' -H "Authorization: Bearer ${TOKEN}" \
+    -H 'Range: bytes=0-1023' "${BASE_URL}/invoice/pdf/${ID}")"
+[[ "$status" == COMPLETED && "${failed:-0}" == 0 ]]
@@ -0,0 +1,65 @@
+#!/usr/bin/env bash
+#
+# Starts the application on the in-memory benchmark database seeded with
+# 1,000,000 customers and one recurring schedule each, all due at midnight
+# on 2030-01-01. The clock is simulated so the run begins shortly before the
+# first of the month, and the script measures how long the scheduler takes
+# to generate every invoice once they fall due. It fails unless all of them
+# are generated without failures inside the window (seconds, default 1800).
+#
+# Usage: scripts/recurring-billing-benchmark.sh <application.jar> [clock-rate] [window-seconds]
+
+set -euo pipefail
+
+JAR=${1:?usage: recurring-billing-benchmark.sh <application.jar> [clock-rate] [window-seconds]}
+RATE=${2:-1}
+WINDOW_MS=$(( ${3:-1800} * 1000 ))
+EXPECTED=1000000
+PORT=${PORT:-8080}
+BASE_URL="http://localhost:${PORT}"
+LOGIN_BODY='{"email":"benchmark-admin@invoicemanager.dev","password":"password"}'
+LOCATIONS=classpath:db/migration,classpath:db/benchmark,classpath:db/benchmark-admin,classpath:db/benchmark-customers,classpath:db/benchmark-recurring
+
+java -Xmx4g -jar "$JAR" --server.port="$PORT" --spring.profiles.active=benchmark \
+    --spring.flyway.locations="$LOCATIONS" --application.warmup.enabled=false \
+    --application.clock.start=2029-12-31T23:58:00 --application.clock.rate="$RATE" > /dev/null 2>&1 &
+PID=$!
+trap 'kill $PID; wait $PID || true' EXIT
+
+until TOKEN=$(curl -sf -H 'Content-Type: application/json' -d "$LOGIN_BODY" "${BASE_URL}/user/login" |
+    sed -n 's/.*"access_token":"\([^"]*\)".*/\1/p') && [[ -n "$TOKEN" ]]; do
+    sleep 1
+done
+
+field() {
+    sed -n "s/.*\"$1\":\"\{0,1\}\([^,\"}]*\).*/\1/p" <<< "$2"
+}
+
+start=0
+while true; do
+    status=$(curl -s -H "Authorization: Bearer ${TOKEN}" "${BASE_URL}/invoice/recurring/status")
+    generated=$(field generated "$status")
+    generated=${generated:-0}
+    if (( start == 0 && generated > 0 )); then
+        start=$(date +%s%N)
+        echo "first invoices at $(field clock "$status") (simulated)"
+    fi
+    if (( generated >= EXPECTED )); then
+        break
+    fi
+    if (( start > 0 && ($(date +%s%N) - start) / 1000000 > WINDOW_MS )); then
+        break
+    fi
+    printf '\rclock %s  scheduled %s  pending %s  generated %s' "$(field clock "$status")" \
+        "$(field scheduled "$status")" "$(field pending "$status")" "$generated"
+    sleep 1
+done
+elapsed_ms=$(( ($(date +%s%N) - start) / 1000000 ))
+
+echo
+echo "generated:  ${generated} invoices, failed $(field failed "$status")"
+echo "goal:       ${EXPECTED} invoices within ${WINDOW_MS} ms"
+echo "window:     ${elapsed_ms} ms"
+echo "throughput: $(( generated * 1000 / (elapsed_ms > 0 ? elapsed_ms : 1) )) invoices/s"
+failed=$(field failed "$status")
+(( generated >= EXPECTED && ${failed:-0} == 0 && elapsed_ms <= WINDOW_MS ))
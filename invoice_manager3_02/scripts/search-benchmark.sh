@@ -0,0 +1,54 @@
+#!/usr/bin/env bash
+#
+# Starts the application on the in-memory benchmark database seeded with
+# 1,000,000 customers, waits for the search index to load and measures
+# /search latency for selective and broad prefix queries. Index memory per
+# million documents and server-side query percentiles come from the
+# search.index.* and search.query metrics.
+#
+# Usage: scripts/search-benchmark.sh <application.jar> [requests]
+
+set -euo pipefail
+
+JAR=${1:?usage: search-benchmark.sh <application.jar> [requests]}
+REQUESTS=${2:-200}
+PORT=${PORT:-8080}
+BASE_URL="http://localhost:${PORT}"
+LOGIN_BODY='{"email":"benchmark@invoicemanager.dev","password":"password"}'
+LOCATIONS=classpath:db/migration,classpath:db/benchmark,classpath:db/benchmark-customers
+
+java -Xmx2g -jar "$JAR" --server.port="$PORT" --spring.profiles.active=benchmark \
+    --spring.flyway.locations="$LOCATIONS" --application.warmup.enabled=false > /dev/null 2>&1 &
+PID=$!
+trap 'kill $PID; wait $PID || true' EXIT
+
+until TOKEN=$(curl -sf -H 'Content-Type: application/json' -d "$LOGIN_BODY" "${BASE_URL}/user/login" |
+    sed -n 's/.*"access_token":"\([^"]*\)".*/\1/p') && [[ -n "$TOKEN" ]]; do
+    sleep 1
+done
+AUTH="Authorization: Bearer ${TOKEN}"
+until curl -sf -o /dev/null -H "$AUTH" "${BASE_URL}/search?q=customer&size=1"; do
+    sleep 1
+done
+
+metric() {
+    curl -s -H "$AUTH" "${BASE_URL}/actuator/prometheus" | awk -v name="$1" -v labels="$2" \
+        'index($0, name "{") == 1 && index($0, labels) { printf "%.6f", $NF; exit }'
+}
+
+documents=$(metric search_index_documents 'type="customer"')
+bytes=$(metric search_index_bytes 'type="customer"')
+echo "documents:      ${documents%.*} customers, $(awk -v b="$bytes" 'BEGIN { printf "%.1f", b / 1048576 }') MB"
+echo "per million:    $(awk -v b="$bytes" -v d="$documents" 'BEGIN { printf "%.1f", d > 0 ? b * 1000000 / d / 1048576 : 0 }') MB"
+
+for query in "Abc" "Ab" "A" "customer 12345" "Abc 1" "customer12" "invoicemanager"; do
+    encoded=${query// /%20}
+    start=$(date +%s%N)
+    for _ in $(seq 1 "$REQUESTS"); do
+        curl -s -o /dev/null -H "$AUTH" "${BASE_URL}/search?q=${encoded}&size=50"
+    done
+    printf "%-16s %6d us per request\n" "'${query}':" $(( ($(date +%s%N) - start) / REQUESTS / 1000 ))
+done
+
+echo "server p50:     $(awk -v s="$(metric search_query_seconds 'quantile="0.5",type="customer"')" 'BEGIN { printf "%.1f", s * 1000000 }') us"
+echo "server p99:     $(awk -v s="$(metric search_query_seconds 'quantile="0.99",type="customer"')" 'BEGIN { printf "%.1f", s * 1000000 }') us"
@@ -0,0 +1,75 @@
+#!/usr/bin/env bash
+#
+# Measures the time from JVM launch to the first successful POST /user/login
+# against the in-memory benchmark database, for the default configuration and
+# for the faststart profile with and without an application CDS archive.
+#
+# Usage: scripts/startup-benchmark.sh <application.jar> [runs]
+#
+# Set AOT=1 when the jar was built with Spring AOT processing (process-aot)
+# to add a run with -Dspring.aot.enabled=true.
+
+set -euo pipefail
+
+JAR=${1:?usage: startup-benchmark.sh <application.jar> [runs]}
+RUNS=${2:-5}
+PORT=${PORT:-8080}
+TIMEOUT_SECONDS=${TIMEOUT_SECONDS:-120}
+ARCHIVE=${ARCHIVE:-$(dirname "$JAR")/invoice-manager.jsa}
+LOGIN_URL="http://localhost:${PORT}/user/login"
+LOGIN_BODY='{"email":"benchmark@invoicemanager.dev","password":"password"}'
+
+now_ms() {
+    date +%s%3N
+}
+
+wait_for_login() {
+    local deadline=$(( $(date +%s) + TIMEOUT_SECONDS ))
+    until curl -sf -o /dev/null -H 'Content-Type: application/json' -d "$LOGIN_BODY" "$LOGIN_URL"; do
+        if (( $(date +%s) > deadline )); then
+            echo "No successful login within ${TIMEOUT_SECONDS}s" >&2
+            return 1
+        fi
+        sleep 0.01
+    done
+}
+
+stop() {
+    kill "$1"
+    wait "$1" || true
+}
+
+measure() {
+    local label=$1
+    shift
+    local total=0
+    for run in $(seq 1 "$RUNS"); do
+        local start
+        start=$(now_ms)
+        java "$@" -jar "$JAR" --server.port="$PORT" > /dev/null 2>&1 &
+        local pid=$!
+        wait_for_login
+        local elapsed=$(( $(now_ms) - start ))
+        stop "$pid"
+        echo "${label} run ${run}: ${elapsed} ms"
+        total=$(( total + elapsed ))
+    done
+    echo "${label} average: $(( total / RUNS )) ms"
+}
+
+train() {
+    java -XX:ArchiveClassesAtExit="$ARCHIVE" -Dspring.profiles.active=benchmark,faststart \
+        -jar "$JAR" --server.port="$PORT" > /dev/null 2>&1 &
+    local pid=$!
+    wait_for_login
+    stop "$pid"
+    echo "CDS archive written to ${ARCHIVE}"
+}
+
+measure baseline -Dspring.profiles.active=benchmark
+measure faststart -Dspring.profiles.active=benchmark,faststart
+train
+measure faststart+cds -XX:SharedArchiveFile="$ARCHIVE" -Dspring.profiles.active=benchmark,faststart
+if [[ "${AOT:-0}" == "1" ]]; then
+    measure faststart+cds+aot -XX:SharedArchiveFile="$ARCHIVE" -Dspring.aot.enabled=true -Dspring.profiles.active=benchmark,faststart
+fi
@@ -1,12 +1,15 @@
 package com.vladimirpandurov.invoice_manager3_02;
 
+import com.vladimirpandurov.invoice_manager3_02.jfr.ProfiledBCryptPasswordEncoder;
 import org.springframework.boot.SpringApplication;
 import org.springframework.boot.autoconfigure.SpringBootApplication;
 import org.springframework.boot.autoconfigure.security.servlet.SecurityAutoConfiguration;
 import org.springframework.context.annotation.Bean;
+import org.springframework.scheduling.annotation.EnableScheduling;
 import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
 
 @SpringBootApplication(exclude = SecurityAutoConfiguration.class)
+@EnableScheduling
 public class InvoiceManager302Application {
 
 	private static final int STRENGTH = 12;
@@ -17,7 +20,7 @@ public class InvoiceManager302Application {
 
 	@Bean
 	public BCryptPasswordEncoder encoder(){
-		return new BCryptPasswordEncoder(STRENGTH);
+		return new ProfiledBCryptPasswordEncoder(STRENGTH);
 	}
 
 }
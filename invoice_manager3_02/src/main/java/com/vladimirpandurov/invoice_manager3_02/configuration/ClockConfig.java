@@ -0,0 +1,25 @@
+package com.vladimirpandurov.invoice_manager3_02.configuration;
+
+import com.vladimirpandurov.invoice_manager3_02.utils.SimulatedClock;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import java.time.Clock;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+
+@Configuration
+@Slf4j
+public class ClockConfig {
+
+    @Bean
+    public Clock clock(@Value("${application.clock.start:}") String start, @Value("${application.clock.rate:1}") double rate){
+        ZoneId zone = ZoneId.systemDefault();
+        if(start.isBlank() && rate == 1) return Clock.system(zone);
+        LocalDateTime startAt = start.isBlank() ? LocalDateTime.now(zone) : LocalDateTime.parse(start);
+        log.warn("Running on a simulated clock starting at {} at {}x speed", startAt, rate);
+        return new SimulatedClock(startAt.atZone(zone).toInstant(), rate, zone);
+    }
+}
@@ -0,0 +1,35 @@
+package com.vladimirpandurov.invoice_manager3_02.configuration;
+
+import jdk.jfr.Recording;
+import org.springframework.boot.LazyInitializationExcludeFilter;
+import org.springframework.context.ApplicationListener;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Profile;
+import org.springframework.context.event.EventListener;
+import org.springframework.core.annotation.AnnotatedElementUtils;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.util.ReflectionUtils;
+
+import java.util.concurrent.atomic.AtomicBoolean;
+
+@Configuration
+@Profile("faststart")
+public class FastStartConfig {
+
+    @Bean
+    public static LazyInitializationExcludeFilter eagerBackgroundBeans(){
+        return (beanName, beanDefinition, beanType) -> Recording.class.isAssignableFrom(beanType) ||
+                ApplicationListener.class.isAssignableFrom(beanType) ||
+                hasAnnotatedMethod(beanType);
+    }
+
+    private static boolean hasAnnotatedMethod(Class<?> beanType){
+        AtomicBoolean found = new AtomicBoolean();
+        ReflectionUtils.doWithMethods(beanType, method -> found.set(true), method ->
+                AnnotatedElementUtils.hasAnnotation(method, Scheduled.class) ||
+                AnnotatedElementUtils.hasAnnotation(method, EventListener.class));
+        return found.get();
+    }
+
+}
@@ -0,0 +1,31 @@
+package com.vladimirpandurov.invoice_manager3_02.configuration;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.flyway.FlywayConfigurationCustomizer;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import java.math.BigInteger;
+import java.util.Currency;
+import java.util.HashMap;
+import java.util.Map;
+
+@Configuration
+public class FlywayConfig {
+
+    @Bean
+    public FlywayConfigurationCustomizer currencyPlaceholderCustomizer(@Value("${application.invoice.currency:USD}") Currency currency){
+        Map<String, String> currencyPlaceholders = currencyPlaceholders(currency);
+        return configuration -> {
+            Map<String, String> placeholders = new HashMap<>(configuration.getPlaceholders());
+            placeholders.putAll(currencyPlaceholders);
+            configuration.placeholders(placeholders);
+        };
+    }
+
+    public static Map<String, String> currencyPlaceholders(Currency currency){
+        int fractionDigits = currency.getDefaultFractionDigits();
+        if(fractionDigits < 0) throw new IllegalStateException("Currency " + currency.getCurrencyCode() + " has no minor unit and cannot be stored in minor units");
+        return Map.of("currency", currency.getCurrencyCode(), "minorUnitFactor", BigInteger.TEN.pow(fractionDigits).toString());
+    }
+}
@@ -0,0 +1,18 @@
+package com.vladimirpandurov.invoice_manager3_02.configuration;
+
+import com.vladimirpandurov.invoice_manager3_02.jdbc.InstrumentedJdbcTemplate;
+import com.vladimirpandurov.invoice_manager3_02.metric.QueryMetrics;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+
+@Configuration
+public class JdbcConfig {
+
+    @Bean
+    public NamedParameterJdbcTemplate namedParameterJdbcTemplate(JdbcTemplate jdbcTemplate, QueryMetrics queryMetrics){
+        return new InstrumentedJdbcTemplate(jdbcTemplate, queryMetrics);
+    }
+
+}
@@ -3,6 +3,7 @@ package com.vladimirpandurov.invoice_manager3_02.configuration;
 import com.vladimirpandurov.invoice_manager3_02.filter.CustomAuthorizationFilter;
 import com.vladimirpandurov.invoice_manager3_02.handler.CustomAccessDeniedHandler;
 import com.vladimirpandurov.invoice_manager3_02.handler.CustomAuthenticationEntryPoin;
+import com.vladimirpandurov.invoice_manager3_02.limit.ConcurrencyLimitFilter;
 import lombok.RequiredArgsConstructor;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
@@ -19,6 +20,9 @@ import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
 import org.springframework.security.web.SecurityFilterChain;
 import org.springframework.security.web.authentication.UsernamePasswordAuthenticationFilter;
 
+import static com.vladimirpandurov.invoice_manager3_02.enumeration.Permission.*;
+import static com.vladimirpandurov.invoice_manager3_02.permission.PermissionAuthorizationManager.hasPermission;
+
 @Configuration
 @EnableWebSecurity
 @EnableMethodSecurity
@@ -29,22 +33,29 @@ public class SecurityConfig {
     private final CustomAccessDeniedHandler customAccessDeniedHandler;
     private final CustomAuthenticationEntryPoin customAuthenticationEntryPoin;
     private final CustomAuthorizationFilter customAuthorizationFilter;
+    private final ConcurrencyLimitFilter concurrencyLimitFilter;
     private final BCryptPasswordEncoder encoder;
     private static final String[] PUBLIC_URLS = {"/user/login/**", "/user/register/**", "/user/verify/code/**",
             "/user/resetpassword/**", "/user/verify/password/**", "/user/verify/account/**",
-    "user/refresh/token/**"};
+    "user/refresh/token/**", "/actuator/health/**"};
 
     @Bean
     public SecurityFilterChain securityFilterChain(HttpSecurity http) throws Exception{
         http.csrf().disable();
         http.sessionManagement().sessionCreationPolicy(SessionCreationPolicy.STATELESS);
         http.authorizeHttpRequests().requestMatchers(PUBLIC_URLS).permitAll();
-        http.authorizeHttpRequests().requestMatchers(HttpMethod.DELETE, "/user/delete/**").hasAnyAuthority("DELETE:USER");
-        http.authorizeHttpRequests().requestMatchers(HttpMethod.DELETE, "/customer/delete/**").hasAnyAuthority("DELETE:CUSTOMER");
+        http.authorizeHttpRequests().requestMatchers(HttpMethod.DELETE, "/user/delete/**").access(hasPermission(DELETE_USER));
+        http.authorizeHttpRequests().requestMatchers(HttpMethod.DELETE, "/customer/delete/**").access(hasPermission(DELETE_CUSTOMER));
+        http.authorizeHttpRequests().requestMatchers(HttpMethod.DELETE, "/invoice/delete/**").access(hasPermission(DELETE_CUSTOMER));
+        http.authorizeHttpRequests().requestMatchers(HttpMethod.GET, "/customer/**", "/invoice/**", "/search/**", "/dashboard/**").access(hasPermission(READ_CUSTOMER));
+        http.authorizeHttpRequests().requestMatchers(HttpMethod.POST, "/customer/**", "/invoice/**").access(hasPermission(CREATE_CUSTOMER));
+        http.authorizeHttpRequests().requestMatchers(HttpMethod.PUT, "/customer/**", "/invoice/**").access(hasPermission(UPDATE_CUSTOMER));
+        http.authorizeHttpRequests().requestMatchers(HttpMethod.PATCH, "/customer/**", "/invoice/**").access(hasPermission(UPDATE_CUSTOMER));
 
         http.exceptionHandling().accessDeniedHandler(customAccessDeniedHandler).authenticationEntryPoint(customAuthenticationEntryPoin);
         http.authorizeHttpRequests().anyRequest().authenticated();
         http.addFilterBefore(customAuthorizationFilter, UsernamePasswordAuthenticationFilter.class);
+        http.addFilterBefore(concurrencyLimitFilter, CustomAuthorizationFilter.class);
         return http.build();
     }
 
@@ -0,0 +1,66 @@
+package com.vladimirpandurov.invoice_manager3_02.datasource;
+
+import com.vladimirpandurov.invoice_manager3_02.domain.UserChange;
+import com.vladimirpandurov.invoice_manager3_02.feed.UserChangeListener;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Supplier;
+
+@Component
+public class ReadRouting implements UserChangeListener {
+
+    private final Map<Object, Long> recentWrites = new ConcurrentHashMap<>();
+    private final Counter replicaReads;
+    private final Counter pinnedReads;
+    @Value("${application.datasource.read-your-writes-window:PT5S}")
+    private Duration readYourWritesWindow;
+
+    public ReadRouting(MeterRegistry registry){
+        this.replicaReads = Counter.builder("datasource.reads").tag("target", "replica").register(registry);
+        this.pinnedReads = Counter.builder("datasource.reads").tag("target", "primary").register(registry);
+    }
+
+    public <T> T readOnly(Object key, Supplier<T> read){
+        if(isRecentlyWritten(key)){
+            pinnedReads.increment();
+            return read.get();
+        }
+        replicaReads.increment();
+        return RoutingDataSource.onReplica(read);
+    }
+
+    public void written(Object... keys){
+        long expiresAt = System.nanoTime() + readYourWritesWindow.toNanos();
+        for(Object key : keys){
+            recentWrites.put(normalize(key), expiresAt);
+        }
+    }
+
+    @Override
+    public void onUserChange(UserChange userChange){
+        if(userChange.getEmail() == null) written(userChange.getUserId());
+        else written(userChange.getEmail(), userChange.getUserId());
+    }
+
+    @Scheduled(fixedDelayString = "${application.datasource.read-your-writes-window:PT5S}")
+    public void evictExpired(){
+        long now = System.nanoTime();
+        recentWrites.values().removeIf(expiresAt -> expiresAt - now < 0);
+    }
+
+    private boolean isRecentlyWritten(Object key){
+        Long expiresAt = recentWrites.get(normalize(key));
+        return expiresAt != null && expiresAt - System.nanoTime() > 0;
+    }
+
+    private static Object normalize(Object key){
+        return key instanceof String email ? email.trim().toLowerCase() : key;
+    }
+}
@@ -0,0 +1,29 @@
+package com.vladimirpandurov.invoice_manager3_02.datasource;
+
+import com.vladimirpandurov.invoice_manager3_02.enumeration.DataSourceType;
+import org.springframework.jdbc.datasource.lookup.AbstractRoutingDataSource;
+
+import java.util.function.Supplier;
+
+import static com.vladimirpandurov.invoice_manager3_02.enumeration.DataSourceType.PRIMARY;
+import static com.vladimirpandurov.invoice_manager3_02.enumeration.DataSourceType.REPLICA;
+
+public class RoutingDataSource extends AbstractRoutingDataSource {
+
+    private static final ThreadLocal<DataSourceType> CURRENT = ThreadLocal.withInitial(() -> PRIMARY);
+
+    public static <T> T onReplica(Supplier<T> read){
+        DataSourceType previous = CURRENT.get();
+        CURRENT.set(REPLICA);
+        try{
+            return read.get();
+        }finally {
+            CURRENT.set(previous);
+        }
+    }
+
+    @Override
+    protected Object determineCurrentLookupKey() {
+        return CURRENT.get();
+    }
+}
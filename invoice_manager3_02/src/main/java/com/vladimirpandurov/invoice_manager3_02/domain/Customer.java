@@ -0,0 +1,32 @@
+package com.vladimirpandurov.invoice_manager3_02.domain;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+import jakarta.validation.constraints.Email;
+import jakarta.validation.constraints.NotEmpty;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import lombok.experimental.SuperBuilder;
+
+import java.time.LocalDateTime;
+
+@Data
+@SuperBuilder
+@NoArgsConstructor
+@AllArgsConstructor
+@JsonInclude(JsonInclude.Include.NON_DEFAULT)
+public class Customer {
+
+    private Long id;
+    @NotEmpty(message = "Name cannot be empty")
+    private String name;
+    @NotEmpty(message = "Email cannot be empty")
+    @Email(message = "Invalid email. Please enter a valid email address")
+    private String email;
+    private String type;
+    private String status;
+    private String address;
+    private String phone;
+    private String imageUrl;
+    private LocalDateTime createdAt;
+}
@@ -0,0 +1,22 @@
+package com.vladimirpandurov.invoice_manager3_02.domain;
+
+import lombok.Builder;
+import lombok.Getter;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Map;
+
+@Getter
+@Builder
+public class DashboardStats {
+    private final LocalDateTime refreshedAt;
+    private final long refreshMillis;
+    private final long customerCount;
+    private final Map<String, Long> customersByStatus;
+    private final long invoiceCount;
+    private final Money totalBilled;
+    private final Money outstanding;
+    private final List<InvoiceStatusStats> invoicesByStatus;
+    private final List<MonthlyRevenue> revenueByMonth;
+}
@@ -0,0 +1,29 @@
+package com.vladimirpandurov.invoice_manager3_02.domain;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+import com.vladimirpandurov.invoice_manager3_02.enumeration.ImportJobStatus;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import lombok.experimental.SuperBuilder;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+@Data
+@SuperBuilder
+@NoArgsConstructor
+@AllArgsConstructor
+@JsonInclude(JsonInclude.Include.NON_DEFAULT)
+public class ImportJob {
+    private Long id;
+    private ImportJobStatus status;
+    private long rowsRead;
+    private long invoicesCreated;
+    private long invoicesRejected;
+    private String message;
+    private List<ImportJobError> errors;
+    private LocalDateTime createdAt;
+    private LocalDateTime updatedAt;
+    private LocalDateTime completedAt;
+}
@@ -0,0 +1,16 @@
+package com.vladimirpandurov.invoice_manager3_02.domain;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import lombok.experimental.SuperBuilder;
+
+@Data
+@SuperBuilder
+@NoArgsConstructor
+@AllArgsConstructor
+public class ImportJobError {
+    private long lineNumber;
+    private String reference;
+    private String message;
+}
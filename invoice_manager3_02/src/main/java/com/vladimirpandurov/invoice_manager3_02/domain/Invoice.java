@@ -0,0 +1,41 @@
+package com.vladimirpandurov.invoice_manager3_02.domain;
+
+import com.fasterxml.jackson.annotation.JsonIgnore;
+import com.fasterxml.jackson.annotation.JsonInclude;
+import com.vladimirpandurov.invoice_manager3_02.enumeration.InvoiceStatus;
+import jakarta.validation.Valid;
+import jakarta.validation.constraints.NotEmpty;
+import jakarta.validation.constraints.NotNull;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import lombok.experimental.SuperBuilder;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.List;
+
+@Data
+@SuperBuilder
+@NoArgsConstructor
+@AllArgsConstructor
+@JsonInclude(JsonInclude.Include.NON_DEFAULT)
+public class Invoice {
+
+    private Long id;
+    private String invoiceNumber;
+    @NotNull(message = "Customer cannot be empty")
+    private Long customerId;
+    private InvoiceStatus status;
+    private LocalDate issuedAt;
+    @NotNull(message = "Due date cannot be empty")
+    private LocalDate dueDate;
+    private Money total;
+    private int version;
+    @Valid
+    @NotEmpty(message = "Invoice must have at least one line")
+    private List<InvoiceLine> lines;
+    private LocalDateTime createdAt;
+    @JsonIgnore
+    private String importReference;
+}
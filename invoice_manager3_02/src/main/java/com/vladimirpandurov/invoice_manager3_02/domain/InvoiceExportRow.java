@@ -0,0 +1,23 @@
+package com.vladimirpandurov.invoice_manager3_02.domain;
+
+import lombok.Data;
+
+import java.time.LocalDate;
+
+@Data
+public class InvoiceExportRow {
+    private long invoiceId;
+    private String invoiceNumber;
+    private long customerId;
+    private String customerName;
+    private String customerEmail;
+    private String status;
+    private LocalDate issuedAt;
+    private LocalDate dueDate;
+    private String currency;
+    private long totalMinor;
+    private String description;
+    private int quantity;
+    private long unitPriceMinor;
+    private long amountMinor;
+}
@@ -0,0 +1,28 @@
+package com.vladimirpandurov.invoice_manager3_02.domain;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+import jakarta.validation.constraints.NotEmpty;
+import jakarta.validation.constraints.NotNull;
+import jakarta.validation.constraints.Positive;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import lombok.experimental.SuperBuilder;
+
+@Data
+@SuperBuilder
+@NoArgsConstructor
+@AllArgsConstructor
+@JsonInclude(JsonInclude.Include.NON_DEFAULT)
+public class InvoiceLine {
+
+    private Long id;
+    private Long invoiceId;
+    @NotEmpty(message = "Description cannot be empty")
+    private String description;
+    @Positive(message = "Quantity must be greater than zero")
+    private int quantity;
+    @NotNull(message = "Unit price cannot be empty")
+    private Money unitPrice;
+    private Money amount;
+}
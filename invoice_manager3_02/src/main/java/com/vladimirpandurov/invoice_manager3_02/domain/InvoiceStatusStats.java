@@ -0,0 +1,13 @@
+package com.vladimirpandurov.invoice_manager3_02.domain;
+
+import com.vladimirpandurov.invoice_manager3_02.enumeration.InvoiceStatus;
+import lombok.Builder;
+import lombok.Getter;
+
+@Getter
+@Builder
+public class InvoiceStatusStats {
+    private final InvoiceStatus status;
+    private final long invoiceCount;
+    private final Money total;
+}
@@ -0,0 +1,17 @@
+package com.vladimirpandurov.invoice_manager3_02.domain;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import lombok.experimental.SuperBuilder;
+
+@Data
+@SuperBuilder
+@NoArgsConstructor
+@AllArgsConstructor
+public class InvoiceSummary {
+    private long invoiceCount;
+    private Money totalBilled;
+    private Money outstanding;
+    private long overdueCount;
+}
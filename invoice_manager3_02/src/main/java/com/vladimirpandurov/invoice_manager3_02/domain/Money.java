@@ -0,0 +1,174 @@
+package com.vladimirpandurov.invoice_manager3_02.domain;
+
+import com.fasterxml.jackson.annotation.JsonCreator;
+import com.fasterxml.jackson.annotation.JsonGetter;
+import com.fasterxml.jackson.annotation.JsonIgnore;
+import com.fasterxml.jackson.annotation.JsonProperty;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.util.Currency;
+
+public final class Money implements Comparable<Money> {
+
+    private final long minorUnits;
+    private final Currency currency;
+
+    private Money(long minorUnits, Currency currency){
+        this.minorUnits = minorUnits;
+        this.currency = currency;
+    }
+
+    public static Money ofMinor(long minorUnits, Currency currency){
+        return new Money(minorUnits, currency);
+    }
+
+    public static Money zero(Currency currency){
+        return new Money(0, currency);
+    }
+
+    @JsonCreator
+    public static Money of(@JsonProperty("amount") BigDecimal amount, @JsonProperty("currency") String currencyCode){
+        if(amount == null || currencyCode == null) throw new IllegalArgumentException("Amount and currency are required");
+        Currency currency = Currency.getInstance(currencyCode);
+        if(currency.getDefaultFractionDigits() < 0) throw new IllegalArgumentException("Unsupported currency: " + currencyCode);
+        try{
+            return new Money(amount.movePointRight(currency.getDefaultFractionDigits()).longValueExact(), currency);
+        }catch (ArithmeticException exception){
+            throw new IllegalArgumentException("Amount " + amount.toPlainString() + " has more than " + currency.getDefaultFractionDigits() + " decimal places or is out of range");
+        }
+    }
+
+    @JsonIgnore
+    public long getMinorUnits(){
+        return minorUnits;
+    }
+
+    @JsonIgnore
+    public Currency getCurrency(){
+        return currency;
+    }
+
+    @JsonGetter("amount")
+    public BigDecimal toBigDecimal(){
+        return BigDecimal.valueOf(minorUnits, currency.getDefaultFractionDigits());
+    }
+
+    @JsonGetter("currency")
+    public String getCurrencyCode(){
+        return currency.getCurrencyCode();
+    }
+
+    public Money plus(Money other){
+        return new Money(Math.addExact(minorUnits, minorOf(other)), currency);
+    }
+
+    public Money minus(Money other){
+        return new Money(Math.subtractExact(minorUnits, minorOf(other)), currency);
+    }
+
+    public Money times(long quantity){
+        return new Money(Math.multiplyExact(minorUnits, quantity), currency);
+    }
+
+    public Money times(long numerator, long denominator, RoundingMode roundingMode){
+        return new Money(multiply(minorUnits, numerator, denominator, roundingMode), currency);
+    }
+
+    public Money percentage(long basisPoints, RoundingMode roundingMode){
+        return times(basisPoints, 10_000, roundingMode);
+    }
+
+    public Money negate(){
+        return new Money(Math.negateExact(minorUnits), currency);
+    }
+
+    public int signum(){
+        return Long.signum(minorUnits);
+    }
+
+    @JsonIgnore
+    public boolean isZero(){
+        return minorUnits == 0;
+    }
+
+    public static long multiply(long minorUnits, long numerator, long denominator, RoundingMode roundingMode){
+        if(denominator <= 0) throw new ArithmeticException("Denominator must be positive");
+        long product = Math.multiplyExact(minorUnits, numerator);
+        long quotient = product / denominator;
+        long remainder = product % denominator;
+        if(remainder == 0) return quotient;
+        int sign = Long.signum(product);
+        long twiceRemainder = Math.abs(remainder) * 2;
+        boolean roundAway = switch (roundingMode){
+            case UP -> true;
+            case DOWN -> false;
+            case CEILING -> sign > 0;
+            case FLOOR -> sign < 0;
+            case HALF_UP -> twiceRemainder >= denominator || twiceRemainder < 0;
+            case HALF_DOWN -> twiceRemainder > denominator || twiceRemainder < 0;
+            case HALF_EVEN -> twiceRemainder > denominator || twiceRemainder < 0 || (twiceRemainder == denominator && (quotient & 1) != 0);
+            case UNNECESSARY -> throw new ArithmeticException("Rounding necessary");
+        };
+        return roundAway ? Math.addExact(quotient, sign) : quotient;
+    }
+
+    public static long sum(long[] minorUnits){
+        return sum(minorUnits, 0, minorUnits.length);
+    }
+
+    public static long sum(long[] minorUnits, int from, int to){
+        long total = 0;
+        long overflow = 0;
+        for(int i = from; i < to; i++){
+            long value = minorUnits[i];
+            long result = total + value;
+            overflow |= (total ^ result) & (value ^ result);
+            total = result;
+        }
+        if(overflow < 0) throw new ArithmeticException("long overflow");
+        return total;
+    }
+
+    public static long sumProducts(long[] unitMinorUnits, int[] quantities, long[] amounts){
+        long total = 0;
+        long overflow = 0;
+        for(int i = 0; i < unitMinorUnits.length; i++){
+            long unit = unitMinorUnits[i];
+            long quantity = quantities[i];
+            long amount = unit * quantity;
+            overflow |= Math.multiplyHigh(unit, quantity) ^ (amount >> 63);
+            amounts[i] = amount;
+            long result = total + amount;
+            overflow |= ((total ^ result) & (amount ^ result)) >>> 63;
+            total = result;
+        }
+        if(overflow != 0) throw new ArithmeticException("long overflow");
+        return total;
+    }
+
+    private long minorOf(Money other){
+        if(!currency.equals(other.currency)) throw new IllegalArgumentException("Currency mismatch: " + currency.getCurrencyCode() + " and " + other.currency.getCurrencyCode());
+        return other.minorUnits;
+    }
+
+    @Override
+    public int compareTo(Money other){
+        return Long.compare(minorUnits, minorOf(other));
+    }
+
+    @Override
+    public boolean equals(Object object){
+        return object instanceof Money other && minorUnits == other.minorUnits && currency.equals(other.currency);
+    }
+
+    @Override
+    public int hashCode(){
+        return Long.hashCode(minorUnits) * 31 + currency.hashCode();
+    }
+
+    @Override
+    public String toString(){
+        return toBigDecimal().toPlainString() + " " + currency.getCurrencyCode();
+    }
+}
@@ -0,0 +1,15 @@
+package com.vladimirpandurov.invoice_manager3_02.domain;
+
+import lombok.Builder;
+import lombok.Getter;
+
+import java.time.YearMonth;
+
+@Getter
+@Builder
+public class MonthlyRevenue {
+    private final YearMonth month;
+    private final long invoiceCount;
+    private final Money billed;
+    private final Money paid;
+}
@@ -0,0 +1,32 @@
+package com.vladimirpandurov.invoice_manager3_02.domain;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+import com.vladimirpandurov.invoice_manager3_02.enumeration.PdfBatchStatus;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import lombok.experimental.SuperBuilder;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+
+@Data
+@SuperBuilder
+@NoArgsConstructor
+@AllArgsConstructor
+@JsonInclude(JsonInclude.Include.NON_DEFAULT)
+public class PdfBatch {
+    private Long id;
+    private PdfBatchStatus status;
+    private LocalDate issuedFrom;
+    private LocalDate issuedTo;
+    private LocalDate lastIssuedAt;
+    private Long lastInvoiceId;
+    private long rendered;
+    private long failed;
+    private String owner;
+    private String message;
+    private LocalDateTime createdAt;
+    private LocalDateTime updatedAt;
+    private LocalDateTime completedAt;
+}
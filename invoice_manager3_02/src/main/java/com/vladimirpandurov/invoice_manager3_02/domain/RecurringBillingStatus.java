@@ -0,0 +1,20 @@
+package com.vladimirpandurov.invoice_manager3_02.domain;
+
+import lombok.Builder;
+import lombok.Getter;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+@Getter
+@Builder
+public class RecurringBillingStatus {
+    private final String owner;
+    private final LocalDateTime clock;
+    private final List<Integer> partitions;
+    private final int scheduled;
+    private final int pending;
+    private final int inFlight;
+    private final long generated;
+    private final long failed;
+}
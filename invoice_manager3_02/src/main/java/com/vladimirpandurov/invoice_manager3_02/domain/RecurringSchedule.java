@@ -0,0 +1,42 @@
+package com.vladimirpandurov.invoice_manager3_02.domain;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+import com.vladimirpandurov.invoice_manager3_02.enumeration.RecurringFrequency;
+import jakarta.validation.constraints.NotEmpty;
+import jakarta.validation.constraints.NotNull;
+import jakarta.validation.constraints.Positive;
+import jakarta.validation.constraints.PositiveOrZero;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import lombok.experimental.SuperBuilder;
+
+import java.time.LocalDateTime;
+
+@Data
+@SuperBuilder
+@NoArgsConstructor
+@AllArgsConstructor
+@JsonInclude(JsonInclude.Include.NON_DEFAULT)
+public class RecurringSchedule {
+    private Long id;
+    @NotNull(message = "Customer cannot be empty")
+    private Long customerId;
+    private int partition;
+    @NotNull(message = "Frequency cannot be empty")
+    private RecurringFrequency frequency;
+    private int anchorDay;
+    @NotEmpty(message = "Description cannot be empty")
+    private String description;
+    @Positive(message = "Quantity must be greater than zero")
+    private int quantity;
+    @NotNull(message = "Unit price cannot be empty")
+    private Money unitPrice;
+    @PositiveOrZero(message = "Due days cannot be negative")
+    private int dueDays;
+    @NotNull(message = "First run cannot be empty")
+    private LocalDateTime nextRunAt;
+    private LocalDateTime lastRunAt;
+    private boolean active;
+    private LocalDateTime createdAt;
+}
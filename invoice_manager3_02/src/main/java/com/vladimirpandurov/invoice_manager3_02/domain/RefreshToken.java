@@ -0,0 +1,24 @@
+package com.vladimirpandurov.invoice_manager3_02.domain;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import lombok.experimental.SuperBuilder;
+
+import java.time.LocalDateTime;
+
+@Data
+@SuperBuilder
+@NoArgsConstructor
+@AllArgsConstructor
+@JsonInclude(JsonInclude.Include.NON_DEFAULT)
+public class RefreshToken {
+    private Long id;
+    private Long familyId;
+    private Long userId;
+    private LocalDateTime expiresAt;
+    private LocalDateTime usedAt;
+    private boolean revoked;
+    private LocalDateTime createdAt;
+}
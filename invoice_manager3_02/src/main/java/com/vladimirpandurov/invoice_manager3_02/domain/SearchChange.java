@@ -0,0 +1,22 @@
+package com.vladimirpandurov.invoice_manager3_02.domain;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+import com.vladimirpandurov.invoice_manager3_02.enumeration.SearchEntityType;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import lombok.experimental.SuperBuilder;
+
+import java.time.LocalDateTime;
+
+@Data
+@SuperBuilder
+@NoArgsConstructor
+@AllArgsConstructor
+@JsonInclude(JsonInclude.Include.NON_DEFAULT)
+public class SearchChange {
+    private Long id;
+    private SearchEntityType entityType;
+    private Long entityId;
+    private LocalDateTime createdAt;
+}
@@ -1,14 +1,12 @@
 package com.vladimirpandurov.invoice_manager3_02.domain;
 
 import com.vladimirpandurov.invoice_manager3_02.dto.UserDTO;
+import com.vladimirpandurov.invoice_manager3_02.permission.PermissionSet;
 import lombok.RequiredArgsConstructor;
 import org.springframework.security.core.GrantedAuthority;
-import org.springframework.security.core.authority.SimpleGrantedAuthority;
 import org.springframework.security.core.userdetails.UserDetails;
 
-import java.util.Arrays;
 import java.util.Collection;
-import java.util.stream.Collectors;
 
 import static com.vladimirpandurov.invoice_manager3_02.dtomapper.UserDTOMapper.fromUser;
 
@@ -20,7 +18,11 @@ public class UserPrincipal implements UserDetails {
 
     @Override
     public Collection<? extends GrantedAuthority> getAuthorities() {
-        return Arrays.stream(this.role.getPermission().split(",".trim())).map(SimpleGrantedAuthority::new).collect(Collectors.toList());
+        return getPermissions().getAuthorities();
+    }
+
+    public PermissionSet getPermissions(){
+        return PermissionSet.of(this.role.getPermission());
     }
 
     @Override
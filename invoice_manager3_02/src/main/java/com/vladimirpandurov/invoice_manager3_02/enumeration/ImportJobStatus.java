@@ -0,0 +1,5 @@
+package com.vladimirpandurov.invoice_manager3_02.enumeration;
+
+public enum ImportJobStatus {
+    RUNNING, COMPLETED, FAILED
+}
@@ -0,0 +1,43 @@
+package com.vladimirpandurov.invoice_manager3_02.enumeration;
+
+import java.util.HashMap;
+import java.util.Map;
+
+public enum Permission {
+    READ_USER("READ:USER", 0),
+    CREATE_USER("CREATE:USER", 1),
+    UPDATE_USER("UPDATE:USER", 2),
+    DELETE_USER("DELETE:USER", 3),
+    READ_CUSTOMER("READ:CUSTOMER", 4),
+    CREATE_CUSTOMER("CREATE:CUSTOMER", 5),
+    UPDATE_CUSTOMER("UPDATE:CUSTOMER", 6),
+    DELETE_CUSTOMER("DELETE:CUSTOMER", 7);
+
+    private static final Map<String, Permission> BY_AUTHORITY = new HashMap<>();
+
+    static {
+        for(Permission permission : values()){
+            BY_AUTHORITY.put(permission.authority, permission);
+        }
+    }
+
+    private final String authority;
+    private final long mask;
+
+    Permission(String authority, int bit){
+        this.authority = authority;
+        this.mask = 1L << bit;
+    }
+
+    public String getAuthority(){
+        return this.authority;
+    }
+
+    public long getMask(){
+        return this.mask;
+    }
+
+    public static Permission fromAuthority(String authority){
+        return BY_AUTHORITY.get(authority.trim());
+    }
+}
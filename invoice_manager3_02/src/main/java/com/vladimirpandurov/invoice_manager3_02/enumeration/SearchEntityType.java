@@ -0,0 +1,6 @@
+package com.vladimirpandurov.invoice_manager3_02.enumeration;
+
+public enum SearchEntityType {
+    CUSTOMER,
+    INVOICE
+}
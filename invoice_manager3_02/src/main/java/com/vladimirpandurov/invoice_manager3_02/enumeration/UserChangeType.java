@@ -0,0 +1,8 @@
+package com.vladimirpandurov.invoice_manager3_02.enumeration;
+
+public enum UserChangeType {
+    CREATED,
+    PASSWORD_CHANGED,
+    ENABLED,
+    ROLE_CHANGED
+}
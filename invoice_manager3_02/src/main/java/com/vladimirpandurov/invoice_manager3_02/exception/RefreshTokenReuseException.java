@@ -0,0 +1,7 @@
+package com.vladimirpandurov.invoice_manager3_02.exception;
+
+public class RefreshTokenReuseException extends ApiException{
+    public RefreshTokenReuseException(String message){
+        super(message);
+    }
+}
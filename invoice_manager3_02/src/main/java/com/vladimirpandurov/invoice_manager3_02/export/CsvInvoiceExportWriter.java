@@ -0,0 +1,89 @@
+package com.vladimirpandurov.invoice_manager3_02.export;
+
+import com.vladimirpandurov.invoice_manager3_02.domain.InvoiceExportRow;
+
+import java.io.IOException;
+import java.io.Writer;
+import java.time.LocalDate;
+
+public class CsvInvoiceExportWriter extends InvoiceExportWriter {
+
+    private static final String HEADER = "invoice_id,invoice_number,customer_id,customer_name,customer_email,status,issued_at,due_date,currency,total,description,quantity,unit_price,amount,cursor\r\n";
+    private long lastInvoiceId;
+    private LocalDate lastIssuedAt;
+
+    public CsvInvoiceExportWriter(Writer writer){
+        super(writer);
+    }
+
+    @Override
+    public void writeHeader() throws IOException {
+        writer.write(HEADER);
+    }
+
+    @Override
+    public void write(InvoiceExportRow row) throws IOException {
+        if(lastIssuedAt != null) endRow(row.getInvoiceId() != lastInvoiceId);
+        if(lastIssuedAt == null || row.getInvoiceId() != lastInvoiceId) invoiceStarted();
+        writer.write(Long.toString(row.getInvoiceId()));
+        writer.write(',');
+        writeField(row.getInvoiceNumber());
+        writer.write(',');
+        writer.write(Long.toString(row.getCustomerId()));
+        writer.write(',');
+        writeField(row.getCustomerName());
+        writer.write(',');
+        writeField(row.getCustomerEmail());
+        writer.write(',');
+        writer.write(row.getStatus());
+        writer.write(',');
+        writer.write(row.getIssuedAt().toString());
+        writer.write(',');
+        writer.write(row.getDueDate().toString());
+        writer.write(',');
+        writer.write(row.getCurrency());
+        writer.write(',');
+        writeAmount(row.getTotalMinor(), row.getCurrency());
+        writer.write(',');
+        writeField(row.getDescription());
+        writer.write(',');
+        writer.write(Integer.toString(row.getQuantity()));
+        writer.write(',');
+        writeAmount(row.getUnitPriceMinor(), row.getCurrency());
+        writer.write(',');
+        writeAmount(row.getAmountMinor(), row.getCurrency());
+        lastInvoiceId = row.getInvoiceId();
+        lastIssuedAt = row.getIssuedAt();
+    }
+
+    @Override
+    public void finish() throws IOException {
+        if(lastIssuedAt != null) endRow(true);
+    }
+
+    private void endRow(boolean invoiceComplete) throws IOException {
+        writer.write(',');
+        if(invoiceComplete) writer.write(ExportCursor.encode(lastIssuedAt, lastInvoiceId));
+        writer.write("\r\n");
+    }
+
+    private void writeField(String value) throws IOException {
+        if(value == null) return;
+        boolean quote = false;
+        for(int i = 0; i < value.length() && !quote; i++){
+            char c = value.charAt(i);
+            quote = c == ',' || c == '"' || c == '\r' || c == '\n';
+        }
+        if(!quote){
+            writer.write(value);
+            return;
+        }
+        writer.write('"');
+        for(int i = 0; i < value.length(); i++){
+            char c = value.charAt(i);
+            if(c == '"') writer.write('"');
+            writer.write(c);
+        }
+        writer.write('"');
+    }
+}
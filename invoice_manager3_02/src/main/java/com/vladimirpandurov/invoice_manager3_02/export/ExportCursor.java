@@ -0,0 +1,43 @@
+package com.vladimirpandurov.invoice_manager3_02.export;
+
+import com.vladimirpandurov.invoice_manager3_02.exception.ApiException;
+
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
+import java.time.format.DateTimeParseException;
+import java.util.Base64;
+
+public final class ExportCursor {
+
+    private static final char SEPARATOR = '\n';
+    private final LocalDate issuedAt;
+    private final long invoiceId;
+
+    private ExportCursor(LocalDate issuedAt, long invoiceId){
+        this.issuedAt = issuedAt;
+        this.invoiceId = invoiceId;
+    }
+
+    public LocalDate getIssuedAt(){
+        return this.issuedAt;
+    }
+
+    public long getInvoiceId(){
+        return this.invoiceId;
+    }
+
+    public static String encode(LocalDate issuedAt, long invoiceId){
+        return Base64.getUrlEncoder().withoutPadding().encodeToString((issuedAt.toString() + SEPARATOR + invoiceId).getBytes(StandardCharsets.UTF_8));
+    }
+
+    public static ExportCursor decode(String cursor){
+        try{
+            String decoded = new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8);
+            int separator = decoded.indexOf(SEPARATOR);
+            if(separator < 0) throw new ApiException("Invalid cursor");
+            return new ExportCursor(LocalDate.parse(decoded.substring(0, separator)), Long.parseLong(decoded.substring(separator + 1)));
+        }catch (IllegalArgumentException | DateTimeParseException exception){
+            throw new ApiException("Invalid cursor");
+        }
+    }
+}
@@ -0,0 +1,37 @@
+package com.vladimirpandurov.invoice_manager3_02.export;
+
+import com.vladimirpandurov.invoice_manager3_02.exception.ApiException;
+
+import java.io.Writer;
+
+public enum ExportFormat {
+    CSV("text/csv", "csv"),
+    NDJSON("application/x-ndjson", "ndjson");
+
+    private final String contentType;
+    private final String extension;
+
+    ExportFormat(String contentType, String extension){
+        this.contentType = contentType;
+        this.extension = extension;
+    }
+
+    public String getContentType(){
+        return this.contentType;
+    }
+
+    public String getExtension(){
+        return this.extension;
+    }
+
+    public InvoiceExportWriter writer(Writer writer){
+        return this == CSV ? new CsvInvoiceExportWriter(writer) : new NdjsonInvoiceExportWriter(writer);
+    }
+
+    public static ExportFormat of(String value){
+        for(ExportFormat format : values()){
+            if(format.extension.equalsIgnoreCase(value)) return format;
+        }
+        throw new ApiException("Unsupported export format: " + value);
+    }
+}
@@ -0,0 +1,16 @@
+package com.vladimirpandurov.invoice_manager3_02.export;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.zip.GZIPOutputStream;
+
+public class ExportGzipOutputStream extends GZIPOutputStream {
+
+    public ExportGzipOutputStream(OutputStream output, int size) throws IOException {
+        super(output, size);
+    }
+
+    public void release(){
+        def.end();
+    }
+}
@@ -0,0 +1,53 @@
+package com.vladimirpandurov.invoice_manager3_02.export;
+
+import com.vladimirpandurov.invoice_manager3_02.domain.InvoiceExportRow;
+
+import java.io.IOException;
+import java.io.Writer;
+import java.util.Currency;
+
+public abstract class InvoiceExportWriter {
+
+    private static final long[] POWERS_OF_TEN = {1, 10, 100, 1_000, 10_000};
+    protected final Writer writer;
+    private String currencyCode;
+    private int fractionDigits;
+    private long invoices;
+
+    protected InvoiceExportWriter(Writer writer){
+        this.writer = writer;
+    }
+
+    public abstract void writeHeader() throws IOException;
+
+    public abstract void write(InvoiceExportRow row) throws IOException;
+
+    public abstract void finish() throws IOException;
+
+    public long getInvoices(){
+        return this.invoices;
+    }
+
+    protected void invoiceStarted(){
+        invoices++;
+    }
+
+    protected void writeAmount(long minorUnits, String currency) throws IOException {
+        if(!currency.equals(currencyCode)){
+            currencyCode = currency;
+            fractionDigits = Math.max(0, Currency.getInstance(currency).getDefaultFractionDigits());
+        }
+        if(minorUnits < 0){
+            writer.write('-');
+        }
+        long unit = POWERS_OF_TEN[fractionDigits];
+        long whole = Math.abs(minorUnits / unit);
+        long fraction = Math.abs(minorUnits % unit);
+        writer.write(Long.toString(whole));
+        if(fractionDigits == 0) return;
+        writer.write('.');
+        for(long digit = unit / 10; digit > 0; digit /= 10){
+            writer.write((char) ('0' + fraction / digit % 10));
+        }
+    }
+}
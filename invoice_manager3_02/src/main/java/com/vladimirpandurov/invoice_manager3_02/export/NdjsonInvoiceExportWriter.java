@@ -0,0 +1,99 @@
+package com.vladimirpandurov.invoice_manager3_02.export;
+
+import com.vladimirpandurov.invoice_manager3_02.domain.InvoiceExportRow;
+
+import java.io.IOException;
+import java.io.Writer;
+
+public class NdjsonInvoiceExportWriter extends InvoiceExportWriter {
+
+    private static final char[] HEX = "0123456789abcdef".toCharArray();
+    private boolean open;
+    private long currentInvoiceId;
+
+    public NdjsonInvoiceExportWriter(Writer writer){
+        super(writer);
+    }
+
+    @Override
+    public void writeHeader() {
+    }
+
+    @Override
+    public void write(InvoiceExportRow row) throws IOException {
+        if(open && row.getInvoiceId() == currentInvoiceId){
+            writer.write(',');
+        }else{
+            if(open) writer.write("]}\n");
+            writeInvoice(row);
+            invoiceStarted();
+            open = true;
+            currentInvoiceId = row.getInvoiceId();
+        }
+        writer.write("{\"description\":");
+        writeString(row.getDescription());
+        writer.write(",\"quantity\":");
+        writer.write(Integer.toString(row.getQuantity()));
+        writer.write(",\"unitPrice\":");
+        writeAmount(row.getUnitPriceMinor(), row.getCurrency());
+        writer.write(",\"amount\":");
+        writeAmount(row.getAmountMinor(), row.getCurrency());
+        writer.write('}');
+    }
+
+    @Override
+    public void finish() throws IOException {
+        if(open) writer.write("]}\n");
+        open = false;
+    }
+
+    private void writeInvoice(InvoiceExportRow row) throws IOException {
+        writer.write("{\"cursor\":\"");
+        writer.write(ExportCursor.encode(row.getIssuedAt(), row.getInvoiceId()));
+        writer.write("\",\"id\":");
+        writer.write(Long.toString(row.getInvoiceId()));
+        writer.write(",\"invoiceNumber\":");
+        writeString(row.getInvoiceNumber());
+        writer.write(",\"customer\":{\"id\":");
+        writer.write(Long.toString(row.getCustomerId()));
+        writer.write(",\"name\":");
+        writeString(row.getCustomerName());
+        writer.write(",\"email\":");
+        writeString(row.getCustomerEmail());
+        writer.write("},\"status\":");
+        writeString(row.getStatus());
+        writer.write(",\"issuedAt\":\"");
+        writer.write(row.getIssuedAt().toString());
+        writer.write("\",\"dueDate\":\"");
+        writer.write(row.getDueDate().toString());
+        writer.write("\",\"currency\":");
+        writeString(row.getCurrency());
+        writer.write(",\"total\":");
+        writeAmount(row.getTotalMinor(), row.getCurrency());
+        writer.write(",\"lines\":[");
+    }
+
+    private void writeString(String value) throws IOException {
+        if(value == null){
+            writer.write("null");
+            return;
+        }
+        writer.write('"');
+        for(int i = 0; i < value.length(); i++){
+            char c = value.charAt(i);
+            if(c == '"' || c == '\\'){
+                writer.write('\\');
+                writer.write(c);
+            }else if(c < 0x20 || c == 0x2028 || c == 0x2029){
+                writer.write("\\u");
+                writer.write(HEX[c >> 12 & 0xF]);
+                writer.write(HEX[c >> 8 & 0xF]);
+                writer.write(HEX[c >> 4 & 0xF]);
+                writer.write(HEX[c & 0xF]);
+            }else{
+                writer.write(c);
+            }
+        }
+        writer.write('"');
+    }
+}
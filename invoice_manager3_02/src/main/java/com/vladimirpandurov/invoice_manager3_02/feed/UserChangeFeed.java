@@ -0,0 +1,140 @@
+package com.vladimirpandurov.invoice_manager3_02.feed;
+
+import com.vladimirpandurov.invoice_manager3_02.domain.UserChange;
+import com.vladimirpandurov.invoice_manager3_02.enumeration.UserChangeType;
+import com.vladimirpandurov.invoice_manager3_02.repository.UserChangeRepository;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.TreeMap;
+import java.util.concurrent.locks.ReentrantLock;
+
+@Component
+@Slf4j
+public class UserChangeFeed {
+
+    private static final int MAX_GAPS = 10_000;
+    private final UserChangeRepository<UserChange> userChangeRepository;
+    private final ObjectProvider<UserChangeListener> listenerProvider;
+    private final Counter received;
+    private final ReentrantLock lock = new ReentrantLock();
+    private final TreeMap<Long, Long> gaps = new TreeMap<>();
+    private List<UserChangeListener> listeners = List.of();
+    private long lastId;
+    private volatile boolean started;
+    @Value("${application.user-change-feed.batch-size:500}")
+    private int batchSize;
+    @Value("${application.user-change-feed.gap-timeout:PT30S}")
+    private Duration gapTimeout;
+    @Value("${application.user-change-feed.retention:P1D}")
+    private Duration retention;
+
+    public UserChangeFeed(UserChangeRepository<UserChange> userChangeRepository, ObjectProvider<UserChangeListener> listenerProvider, MeterRegistry registry){
+        this.userChangeRepository = userChangeRepository;
+        this.listenerProvider = listenerProvider;
+        this.received = Counter.builder("user.change.feed.received")
+                .description("User changes read from the change feed")
+                .register(registry);
+        Gauge.builder("user.change.feed.gaps", this, UserChangeFeed::gapCount).register(registry);
+    }
+
+    public void publish(UserChangeType type, Long userId, String email){
+        userChangeRepository.create(UserChange.builder()
+                .userId(userId)
+                .email(email)
+                .type(type)
+                .build());
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void start(){
+        lock.lock();
+        try{
+            listeners = listenerProvider.orderedStream().toList();
+            lastId = userChangeRepository.getLastId();
+            started = true;
+            log.info("Following user change feed from id {} with {} listeners", lastId, listeners.size());
+        }catch (Exception exception){
+            log.error("Unable to start user change feed: {}", exception.getMessage());
+        }finally {
+            lock.unlock();
+        }
+    }
+
+    @Scheduled(fixedDelayString = "${application.user-change-feed.poll-interval:PT0.5S}")
+    public void poll(){
+        if(!started) return;
+        lock.lock();
+        try{
+            recheckGaps();
+            List<UserChange> changes;
+            do{
+                changes = userChangeRepository.listAfter(lastId, batchSize);
+                for(UserChange change : changes){
+                    recordGaps(change.getId());
+                    dispatch(change);
+                    lastId = change.getId();
+                }
+            }while(changes.size() == batchSize);
+        }catch (Exception exception){
+            log.error("Unable to poll user change feed: {}", exception.getMessage());
+        }finally {
+            lock.unlock();
+        }
+    }
+
+    @Scheduled(cron = "${application.user-change-feed.cleanup-cron:0 45 3 * * *}")
+    public void deleteExpired(){
+        int deleted = userChangeRepository.deleteBefore(LocalDateTime.now().minus(retention));
+        log.info("Deleted {} user changes older than {}", deleted, retention);
+    }
+
+    private void recordGaps(long id){
+        long deadline = System.nanoTime() + gapTimeout.toNanos();
+        for(long missing = lastId + 1; missing < id && gaps.size() < MAX_GAPS; missing++){
+            gaps.put(missing, deadline);
+        }
+    }
+
+    private void recheckGaps(){
+        if(gaps.isEmpty()) return;
+        long now = System.nanoTime();
+        gaps.values().removeIf(deadline -> deadline - now < 0);
+        if(gaps.isEmpty()) return;
+        for(UserChange change : userChangeRepository.listByIds(List.copyOf(gaps.keySet()))){
+            gaps.remove(change.getId());
+            dispatch(change);
+        }
+    }
+
+    private void dispatch(UserChange change){
+        received.increment();
+        for(UserChangeListener listener : listeners){
+            try{
+                listener.onUserChange(change);
+            }catch (Exception exception){
+                log.error("User change listener {} failed for change {}: {}", listener.getClass().getSimpleName(), change.getId(), exception.getMessage());
+            }
+        }
+    }
+
+    private int gapCount(){
+        lock.lock();
+        try{
+            return gaps.size();
+        }finally {
+            lock.unlock();
+        }
+    }
+}
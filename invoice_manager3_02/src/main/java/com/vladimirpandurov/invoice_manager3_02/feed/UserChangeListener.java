@@ -0,0 +1,9 @@
+package com.vladimirpandurov.invoice_manager3_02.feed;
+
+import com.vladimirpandurov.invoice_manager3_02.domain.UserChange;
+
+@FunctionalInterface
+public interface UserChangeListener {
+
+    void onUserChange(UserChange userChange);
+}
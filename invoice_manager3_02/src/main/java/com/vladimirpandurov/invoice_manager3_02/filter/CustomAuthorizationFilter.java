@@ -1,5 +1,11 @@
 package com.vladimirpandurov.invoice_manager3_02.filter;
 
+import com.auth0.jwt.interfaces.DecodedJWT;
+import com.vladimirpandurov.invoice_manager3_02.exception.ApiException;
+import com.vladimirpandurov.invoice_manager3_02.index.RevokedTokenIndex;
+import com.vladimirpandurov.invoice_manager3_02.metric.AuthMetrics;
+import com.vladimirpandurov.invoice_manager3_02.metric.AuthMetrics.Stage;
+import com.vladimirpandurov.invoice_manager3_02.permission.PermissionSet;
 import com.vladimirpandurov.invoice_manager3_02.provider.TokenProvider;
 import jakarta.servlet.FilterChain;
 import jakarta.servlet.ServletException;
@@ -9,17 +15,17 @@ import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.apache.commons.lang3.StringUtils;
 import org.springframework.security.core.Authentication;
-import org.springframework.security.core.GrantedAuthority;
 import org.springframework.security.core.context.SecurityContextHolder;
 import org.springframework.stereotype.Component;
 import org.springframework.web.filter.OncePerRequestFilter;
 
 import java.io.IOException;
 import java.util.Arrays;
-import java.util.List;
-import java.util.Map;
 import java.util.Optional;
 
+import static com.vladimirpandurov.invoice_manager3_02.metric.AuthMetrics.Outcome.*;
+import static com.vladimirpandurov.invoice_manager3_02.metric.AuthMetrics.Stage.*;
+import static com.vladimirpandurov.invoice_manager3_02.provider.TokenProvider.DECODED_TOKEN;
 import static com.vladimirpandurov.invoice_manager3_02.utils.ExceptionUtils.processError;
 import static org.springframework.http.HttpHeaders.AUTHORIZATION;
 
@@ -32,30 +38,50 @@ public class CustomAuthorizationFilter extends OncePerRequestFilter {
     private static final String[] PUBLIC_ROUTES = {"/user/login", "/user/verify/code", "/user/register", "/user/refresh/token"};
     private static final String HTTP_OPTIONS_METHOD = "OPTIONS";
     private final TokenProvider tokenProvider;
-    protected static final String TOKEN_KEY = "token";
-    protected static final String EMAIL_KEY = "email";
+    private final AuthMetrics authMetrics;
+    private final RevokedTokenIndex revokedTokenIndex;
 
     @Override
     protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain filterChain) throws ServletException, IOException {
+        Stage stage = HEADER_PARSE;
+        long start = authMetrics.start();
         try{
-            Map<String, String> values = getRequestValues(request);
             String token = getToken(request);
-            if(tokenProvider.isTokenValid(values.get(EMAIL_KEY), token)){
-                List<GrantedAuthority> authorities = tokenProvider.getAuthorities(values.get(TOKEN_KEY));
-                Authentication authentication = tokenProvider.getAuthentication(values.get(EMAIL_KEY), authorities, request);
+            start = authMetrics.record(HEADER_PARSE, VALID, start);
+            stage = JWT_VERIFY;
+            DecodedJWT decodedJWT = tokenProvider.verifyToken(token, request);
+            tokenProvider.requireAccessToken(decodedJWT);
+            String email = decodedJWT.getSubject();
+            if(StringUtils.isNotEmpty(email)){
+                start = authMetrics.record(JWT_VERIFY, VALID, start);
+                stage = REVOCATION_CHECK;
+                if(revokedTokenIndex.isRevoked(tokenProvider.getTokenId(decodedJWT))) throw new ApiException("Token has been revoked");
+                start = authMetrics.record(REVOCATION_CHECK, VALID, start);
+                stage = CLAIMS_EXTRACTION;
+                PermissionSet permissions = tokenProvider.getPermissions(decodedJWT);
+                start = authMetrics.record(CLAIMS_EXTRACTION, VALID, start);
+                stage = PRINCIPAL_LOAD;
+                Authentication authentication = tokenProvider.getAuthentication(email, permissions, request);
+                authMetrics.record(PRINCIPAL_LOAD, VALID, start);
+                SecurityContextHolder.getContext().setAuthentication(authentication);
+                request.setAttribute(DECODED_TOKEN, decodedJWT);
+            }else{
+                authMetrics.record(JWT_VERIFY, INVALID, start);
                 SecurityContextHolder.clearContext();
             }
+            stage = null;
             filterChain.doFilter(request, response);
         }catch (Exception exception){
+            if(stage != null) authMetrics.record(stage, exception, start);
             log.error(exception.getMessage());
+            if(response.isCommitted()){
+                if(exception instanceof IOException ioException) throw ioException;
+                throw new ServletException(exception);
+            }
             processError(request, response, exception);
         }
     }
 
-    private Map<String, String> getRequestValues(HttpServletRequest request) {
-        return Map.of(EMAIL_KEY, tokenProvider.getSubject(getToken(request), request), TOKEN_KEY, getToken(request));
-    }
-
     private String getToken(HttpServletRequest request) {
         return Optional.ofNullable(request.getHeader(AUTHORIZATION))
                 .filter(header -> header.startsWith(TOKEN_PREFIX))
@@ -0,0 +1,14 @@
+package com.vladimirpandurov.invoice_manager3_02.form;
+
+import jakarta.validation.constraints.NotEmpty;
+import lombok.Data;
+
+import java.util.List;
+
+@Data
+public class CustomerStatusForm {
+    @NotEmpty(message = "Customer ids cannot be empty")
+    private List<Long> ids;
+    @NotEmpty(message = "Status cannot be empty")
+    private String status;
+}
@@ -0,0 +1,14 @@
+package com.vladimirpandurov.invoice_manager3_02.form;
+
+import jakarta.validation.constraints.NotNull;
+import lombok.Data;
+
+import java.time.LocalDate;
+
+@Data
+public class PdfBatchForm {
+    @NotNull(message = "Start date cannot be empty")
+    private LocalDate from;
+    @NotNull(message = "End date cannot be empty")
+    private LocalDate to;
+}
@@ -0,0 +1,152 @@
+package com.vladimirpandurov.invoice_manager3_02.index;
+
+import com.vladimirpandurov.invoice_manager3_02.domain.RefreshToken;
+import com.vladimirpandurov.invoice_manager3_02.repository.RefreshTokenRepository;
+import com.vladimirpandurov.invoice_manager3_02.utils.LongLongHashMap;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.function.Consumer;
+
+@Component
+@Slf4j
+public class RefreshTokenIndex {
+
+    private static final int INITIAL_CAPACITY = 1 << 16;
+    private static final long NOT_INDEXED = -1;
+    private final RefreshTokenRepository<RefreshToken> refreshTokenRepository;
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+    private LongLongHashMap activeTokens = new LongLongHashMap(INITIAL_CAPACITY);
+    private List<Consumer<LongLongHashMap>> changesDuringLoad;
+
+    public RefreshTokenIndex(RefreshTokenRepository<RefreshToken> refreshTokenRepository, MeterRegistry registry){
+        this.refreshTokenRepository = refreshTokenRepository;
+        Gauge.builder("refresh_token.index.entries", this, RefreshTokenIndex::size).register(registry);
+        Gauge.builder("refresh_token.index.bytes", this, RefreshTokenIndex::sizeInBytes).register(registry);
+    }
+
+    public boolean isActive(long tokenId){
+        long expiresAt;
+        lock.readLock().lock();
+        try{
+            expiresAt = activeTokens.get(tokenId, NOT_INDEXED);
+        }finally {
+            lock.readLock().unlock();
+        }
+        return expiresAt != NOT_INDEXED && expiresAt > System.currentTimeMillis();
+    }
+
+    public void add(RefreshToken refreshToken){
+        long tokenId = refreshToken.getId();
+        long expiresAt = toEpochMillis(refreshToken.getExpiresAt());
+        afterCommit(tokens -> tokens.put(tokenId, expiresAt));
+    }
+
+    public void remove(long tokenId){
+        afterCommit(tokens -> tokens.remove(tokenId));
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void load(){
+        long start = System.currentTimeMillis();
+        LongLongHashMap loaded = new LongLongHashMap(INITIAL_CAPACITY);
+        lock.writeLock().lock();
+        try{
+            changesDuringLoad = new ArrayList<>();
+        }finally {
+            lock.writeLock().unlock();
+        }
+        try{
+            refreshTokenRepository.loadActive((id, expiresAt) -> loaded.put(id, toEpochMillis(expiresAt)));
+        }catch (Exception exception){
+            log.error("Unable to load refresh token index: {}", exception.getMessage());
+            lock.writeLock().lock();
+            try{
+                changesDuringLoad = null;
+            }finally {
+                lock.writeLock().unlock();
+            }
+            return;
+        }
+        lock.writeLock().lock();
+        try{
+            changesDuringLoad.forEach(change -> change.accept(loaded));
+            changesDuringLoad = null;
+            activeTokens = loaded;
+        }finally {
+            lock.writeLock().unlock();
+        }
+        log.info("Refresh token index loaded {} active tokens ({} KB) in {} ms", size(), sizeInBytes() / 1024, System.currentTimeMillis() - start);
+    }
+
+    @Scheduled(fixedDelayString = "${application.refresh-token.sweep-interval:PT5M}")
+    public void sweep(){
+        long now = System.currentTimeMillis();
+        int removed;
+        lock.writeLock().lock();
+        try{
+            removed = activeTokens.removeIf((id, expiresAt) -> expiresAt <= now);
+        }finally {
+            lock.writeLock().unlock();
+        }
+        if(removed > 0) log.info("Removed {} expired refresh tokens from the index", removed);
+    }
+
+    private void afterCommit(Consumer<LongLongHashMap> change){
+        if(!TransactionSynchronizationManager.isSynchronizationActive()){
+            apply(change);
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                apply(change);
+            }
+        });
+    }
+
+    private void apply(Consumer<LongLongHashMap> change){
+        lock.writeLock().lock();
+        try{
+            change.accept(activeTokens);
+            if(changesDuringLoad != null) changesDuringLoad.add(change);
+        }finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    private int size(){
+        lock.readLock().lock();
+        try{
+            return activeTokens.size();
+        }finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    private long sizeInBytes(){
+        lock.readLock().lock();
+        try{
+            return activeTokens.sizeInBytes();
+        }finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    private static long toEpochMillis(LocalDateTime dateTime){
+        return dateTime.atZone(ZoneId.systemDefault()).toInstant().toEpochMilli();
+    }
+}
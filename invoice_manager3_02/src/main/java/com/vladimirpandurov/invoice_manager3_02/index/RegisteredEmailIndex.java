@@ -0,0 +1,132 @@
+package com.vladimirpandurov.invoice_manager3_02.index;
+
+import com.vladimirpandurov.invoice_manager3_02.domain.UserChange;
+import com.vladimirpandurov.invoice_manager3_02.feed.UserChangeListener;
+import com.vladimirpandurov.invoice_manager3_02.jdbc.InstrumentedJdbcTemplate;
+import com.vladimirpandurov.invoice_manager3_02.metric.QueryMetrics;
+import com.vladimirpandurov.invoice_manager3_02.utils.BloomFilter;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowCallbackHandler;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import static com.vladimirpandurov.invoice_manager3_02.enumeration.UserChangeType.CREATED;
+import static com.vladimirpandurov.invoice_manager3_02.query.UserQuery.COUNT_USERS_QUERY;
+import static com.vladimirpandurov.invoice_manager3_02.query.UserQuery.SELECT_USER_EMAILS_QUERY;
+
+@Component
+@Slf4j
+public class RegisteredEmailIndex implements UserChangeListener {
+
+    private static final long MINIMUM_CAPACITY = 100_000;
+    private static final double TIGHTENING_RATIO = 0.5;
+    private final NamedParameterJdbcTemplate jdbc;
+    private final Counter shortCircuited;
+    @Value("${application.email-index.false-positive-probability:0.01}")
+    private double falsePositiveProbability;
+    private volatile List<BloomFilter> filters = List.of();
+    private volatile boolean ready;
+    private Set<String> addedDuringRebuild;
+
+    public RegisteredEmailIndex(JdbcTemplate jdbcTemplate, QueryMetrics queryMetrics, MeterRegistry registry,
+                                @Value("${application.email-index.fetch-size:-2147483648}") int fetchSize){
+        JdbcTemplate streaming = new JdbcTemplate(jdbcTemplate.getDataSource());
+        streaming.setFetchSize(fetchSize);
+        this.jdbc = new InstrumentedJdbcTemplate(streaming, queryMetrics);
+        this.shortCircuited = Counter.builder("email.index.short_circuited")
+                .description("Email lookups answered as not registered without a database query")
+                .register(registry);
+        Gauge.builder("email.index.entries", this, index -> index.filters.stream().mapToLong(BloomFilter::size).sum()).register(registry);
+        Gauge.builder("email.index.bytes", this, index -> index.filters.stream().mapToLong(BloomFilter::sizeInBytes).sum()).register(registry);
+        Gauge.builder("email.index.false_positive_probability", this, RegisteredEmailIndex::falsePositiveProbability).register(registry);
+    }
+
+    public boolean isDefinitelyNotRegistered(String email){
+        if(!ready) return false;
+        String normalized = normalize(email);
+        for(BloomFilter filter : filters){
+            if(filter.mightContain(normalized)) return false;
+        }
+        shortCircuited.increment();
+        return true;
+    }
+
+    public synchronized void add(String email){
+        String normalized = normalize(email);
+        List<BloomFilter> current = filters;
+        BloomFilter last = current.isEmpty() ? null : current.get(current.size() - 1);
+        if(last == null || last.isFull()){
+            List<BloomFilter> grown = new ArrayList<>(current);
+            last = new BloomFilter(last == null ? MINIMUM_CAPACITY : last.size() * 2, errorRate(grown.size()));
+            grown.add(last);
+            filters = List.copyOf(grown);
+        }
+        last.add(normalized);
+        if(addedDuringRebuild != null) addedDuringRebuild.add(normalized);
+    }
+
+    @Override
+    public void onUserChange(UserChange userChange){
+        if(userChange.getType() == CREATED && userChange.getEmail() != null) add(userChange.getEmail());
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    @Scheduled(initialDelayString = "${application.email-index.rebuild-interval:PT1H}", fixedDelayString = "${application.email-index.rebuild-interval:PT1H}")
+    public void rebuild(){
+        long start = System.nanoTime();
+        synchronized (this){
+            addedDuringRebuild = new HashSet<>();
+        }
+        try{
+            Integer userCount = jdbc.queryForObject(COUNT_USERS_QUERY, Map.of(), Integer.class);
+            BloomFilter filter = new BloomFilter(Math.max(MINIMUM_CAPACITY, 2L * (userCount == null ? 0 : userCount)), errorRate(0));
+            RowCallbackHandler handler = resultSet -> filter.add(normalize(resultSet.getString("email")));
+            jdbc.query(SELECT_USER_EMAILS_QUERY, Map.of(), handler);
+            synchronized (this){
+                addedDuringRebuild.forEach(filter::add);
+                filters = List.of(filter);
+                ready = true;
+            }
+            log.info("Email index rebuilt with {} entries in {} ms: {} KB, {} KB per million users, false positive probability {}",
+                    filter.size(), (System.nanoTime() - start) / 1_000_000, filter.sizeInBytes() / 1024,
+                    filter.sizeInBytes() * 1_000_000 / filter.capacity() / 1024,
+                    String.format("%.4f", filter.expectedFalsePositiveProbability()));
+        }catch (Exception exception){
+            log.error("Unable to rebuild email index: {}", exception.getMessage());
+        }finally {
+            synchronized (this){
+                addedDuringRebuild = null;
+            }
+        }
+    }
+
+    private double errorRate(int filterIndex){
+        return falsePositiveProbability * (1 - TIGHTENING_RATIO) * Math.pow(TIGHTENING_RATIO, filterIndex);
+    }
+
+    private double falsePositiveProbability(){
+        double notFalsePositive = 1;
+        for(BloomFilter filter : filters){
+            notFalsePositive *= 1 - filter.expectedFalsePositiveProbability();
+        }
+        return 1 - notFalsePositive;
+    }
+
+    private static String normalize(String email){
+        return email.trim().toLowerCase();
+    }
+}
@@ -0,0 +1,159 @@
+package com.vladimirpandurov.invoice_manager3_02.index;
+
+import com.vladimirpandurov.invoice_manager3_02.domain.RevokedToken;
+import com.vladimirpandurov.invoice_manager3_02.repository.RevokedTokenRepository;
+import com.vladimirpandurov.invoice_manager3_02.utils.LongLongHashMap;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.List;
+import java.util.TreeMap;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+@Component
+@Slf4j
+public class RevokedTokenIndex {
+
+    private static final long NOT_REVOKED = -1;
+    private static final int MAX_GAPS = 10_000;
+    private final RevokedTokenRepository<RevokedToken> revokedTokenRepository;
+    private final int batchSize;
+    private final Duration gapTimeout;
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+    private final LongLongHashMap revokedTokens = new LongLongHashMap(1024);
+    private final TreeMap<Long, Long> gaps = new TreeMap<>();
+    private volatile long lastId;
+    private volatile boolean loaded;
+
+    public RevokedTokenIndex(RevokedTokenRepository<RevokedToken> revokedTokenRepository, MeterRegistry registry,
+                             @Value("${application.revoked-token.batch-size:1000}") int batchSize,
+                             @Value("${application.revoked-token.gap-timeout:PT30S}") Duration gapTimeout){
+        this.revokedTokenRepository = revokedTokenRepository;
+        this.batchSize = batchSize;
+        this.gapTimeout = gapTimeout;
+        Gauge.builder("revoked_token.index.entries", this, RevokedTokenIndex::size).register(registry);
+        Gauge.builder("revoked_token.index.bytes", this, RevokedTokenIndex::sizeInBytes).register(registry);
+        Gauge.builder("revoked_token.index.gaps", this, RevokedTokenIndex::gapCount).register(registry);
+    }
+
+    public boolean isRevoked(long tokenId){
+        long expiresAt;
+        lock.readLock().lock();
+        try{
+            expiresAt = revokedTokens.get(tokenId, NOT_REVOKED);
+        }finally {
+            lock.readLock().unlock();
+        }
+        return expiresAt != NOT_REVOKED;
+    }
+
+    public void add(long tokenId, LocalDateTime expiresAt){
+        if(!expiresAt.isAfter(LocalDateTime.now())) return;
+        lock.writeLock().lock();
+        try{
+            revokedTokens.put(tokenId, toEpochMillis(expiresAt));
+        }finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void load(){
+        long start = System.currentTimeMillis();
+        try{
+            poll(false);
+            loaded = true;
+            log.info("Revoked token index loaded {} tokens ({} KB) in {} ms", size(), sizeInBytes() / 1024, System.currentTimeMillis() - start);
+        }catch (Exception exception){
+            log.error("Unable to load revoked token index: {}", exception.getMessage());
+        }
+    }
+
+    @Scheduled(fixedDelayString = "${application.revoked-token.poll-interval:PT2S}")
+    public void refresh(){
+        if(!loaded) return;
+        try{
+            poll(true);
+        }catch (Exception exception){
+            log.error("Unable to refresh revoked token index: {}", exception.getMessage());
+        }
+    }
+
+    @Scheduled(fixedDelayString = "${application.revoked-token.sweep-interval:PT1M}")
+    public void sweep(){
+        long now = System.currentTimeMillis();
+        lock.writeLock().lock();
+        try{
+            revokedTokens.removeIf((tokenId, expiresAt) -> expiresAt <= now);
+        }finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    private synchronized void poll(boolean trackGaps){
+        recheckGaps();
+        long previous;
+        do{
+            previous = lastId;
+            revokedTokenRepository.loadAfter(previous, batchSize, (id, tokenId, expiresAt) -> {
+                if(trackGaps) recordGaps(id);
+                lastId = id;
+                add(tokenId, expiresAt);
+            });
+        }while(lastId > previous);
+    }
+
+    private void recordGaps(long id){
+        long deadline = System.nanoTime() + gapTimeout.toNanos();
+        for(long missing = lastId + 1; missing < id && gaps.size() < MAX_GAPS; missing++){
+            gaps.put(missing, deadline);
+        }
+    }
+
+    private void recheckGaps(){
+        if(gaps.isEmpty()) return;
+        long now = System.nanoTime();
+        gaps.values().removeIf(deadline -> deadline - now < 0);
+        if(gaps.isEmpty()) return;
+        revokedTokenRepository.loadByIds(List.copyOf(gaps.keySet()), (id, tokenId, expiresAt) -> {
+            gaps.remove(id);
+            add(tokenId, expiresAt);
+        });
+    }
+
+    private synchronized int gapCount(){
+        return gaps.size();
+    }
+
+    private int size(){
+        lock.readLock().lock();
+        try{
+            return revokedTokens.size();
+        }finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    private long sizeInBytes(){
+        lock.readLock().lock();
+        try{
+            return revokedTokens.sizeInBytes();
+        }finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    private static long toEpochMillis(LocalDateTime dateTime){
+        return dateTime.atZone(ZoneId.systemDefault()).toInstant().toEpochMilli();
+    }
+}
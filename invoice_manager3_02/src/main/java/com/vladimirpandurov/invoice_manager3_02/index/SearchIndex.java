@@ -0,0 +1,365 @@
+package com.vladimirpandurov.invoice_manager3_02.index;
+
+import com.vladimirpandurov.invoice_manager3_02.domain.Customer;
+import com.vladimirpandurov.invoice_manager3_02.domain.Invoice;
+import com.vladimirpandurov.invoice_manager3_02.domain.InvoiceLine;
+import com.vladimirpandurov.invoice_manager3_02.domain.SearchChange;
+import com.vladimirpandurov.invoice_manager3_02.repository.SearchChangeRepository;
+import com.vladimirpandurov.invoice_manager3_02.utils.InvertedIndex;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.BiConsumer;
+
+import static com.vladimirpandurov.invoice_manager3_02.enumeration.SearchEntityType.CUSTOMER;
+import static com.vladimirpandurov.invoice_manager3_02.enumeration.SearchEntityType.INVOICE;
+import static com.vladimirpandurov.invoice_manager3_02.query.SearchQuery.*;
+import static java.util.concurrent.TimeUnit.NANOSECONDS;
+
+@Component
+@Slf4j
+public class SearchIndex {
+
+    private static final int LOAD_PAGE_SIZE = 5000;
+    private static final int MAX_GAPS = 10_000;
+    private final NamedParameterJdbcTemplate jdbc;
+    private final SearchChangeRepository<SearchChange> searchChangeRepository;
+    private final Timer customerSearches;
+    private final Timer invoiceSearches;
+    private final ReentrantLock lock = new ReentrantLock();
+    private final ReentrantLock feedLock = new ReentrantLock();
+    private final TreeMap<Long, Long> gaps = new TreeMap<>();
+    private volatile InvertedIndex customers = new InvertedIndex();
+    private volatile InvertedIndex invoices = new InvertedIndex();
+    private volatile boolean ready;
+    private volatile boolean following;
+    private long lastChangeId;
+    private List<BiConsumer<InvertedIndex, InvertedIndex>> changesDuringRebuild;
+    @Value("${application.search.change-batch-size:500}")
+    private int changeBatchSize;
+    @Value("${application.search.gap-timeout:PT30S}")
+    private Duration gapTimeout;
+    @Value("${application.search.change-retention:P1D}")
+    private Duration changeRetention;
+
+    public SearchIndex(NamedParameterJdbcTemplate jdbc, SearchChangeRepository<SearchChange> searchChangeRepository, MeterRegistry registry){
+        this.jdbc = jdbc;
+        this.searchChangeRepository = searchChangeRepository;
+        this.customerSearches = searchTimer("customer", registry);
+        this.invoiceSearches = searchTimer("invoice", registry);
+        Gauge.builder("search.index.documents", this, index -> index.customers.size()).tag("type", "customer").register(registry);
+        Gauge.builder("search.index.documents", this, index -> index.invoices.size()).tag("type", "invoice").register(registry);
+        Gauge.builder("search.index.terms", this, index -> index.customers.termCount()).tag("type", "customer").register(registry);
+        Gauge.builder("search.index.terms", this, index -> index.invoices.termCount()).tag("type", "invoice").register(registry);
+        Gauge.builder("search.index.bytes", this, index -> index.customers.sizeInBytes()).tag("type", "customer").register(registry);
+        Gauge.builder("search.index.bytes", this, index -> index.invoices.sizeInBytes()).tag("type", "invoice").register(registry);
+        Gauge.builder("search.index.change.gaps", this, SearchIndex::gapCount).register(registry);
+    }
+
+    public boolean isReady(){
+        return ready;
+    }
+
+    public int[] searchCustomers(String query, int beforeId, int limit){
+        long start = System.nanoTime();
+        int[] ids = customers.search(query, beforeId, limit);
+        customerSearches.record(System.nanoTime() - start, NANOSECONDS);
+        return ids;
+    }
+
+    public int[] searchInvoices(String query, int beforeId, int limit){
+        long start = System.nanoTime();
+        int[] ids = invoices.search(query, beforeId, limit);
+        invoiceSearches.record(System.nanoTime() - start, NANOSECONDS);
+        return ids;
+    }
+
+    public void indexCustomer(Customer customer){
+        indexCustomers(List.of(customer));
+    }
+
+    public void indexCustomers(List<Customer> customers){
+        Map<Long, String[]> documents = new LinkedHashMap<>(customers.size() * 2);
+        for(Customer customer : customers){
+            documents.put(customer.getId(), new String[]{customer.getName(), customer.getEmail()});
+        }
+        searchChangeRepository.create(CUSTOMER, documents.keySet());
+        afterCommit((customerIndex, invoiceIndex) -> documents.forEach((id, fields) -> customerIndex.put(Math.toIntExact(id), fields)));
+    }
+
+    public void removeCustomer(Long id){
+        searchChangeRepository.create(CUSTOMER, List.of(id));
+        afterCommit((customerIndex, invoiceIndex) -> customerIndex.remove(Math.toIntExact(id)));
+    }
+
+    public void indexInvoices(List<Invoice> invoices){
+        Map<Long, String[]> documents = new LinkedHashMap<>(invoices.size() * 2);
+        for(Invoice invoice : invoices){
+            List<InvoiceLine> lines = invoice.getLines() == null ? List.of() : invoice.getLines();
+            String[] fields = new String[lines.size() + 1];
+            fields[0] = invoice.getInvoiceNumber();
+            for(int i = 0; i < lines.size(); i++){
+                fields[i + 1] = lines.get(i).getDescription();
+            }
+            documents.put(invoice.getId(), fields);
+        }
+        searchChangeRepository.create(INVOICE, documents.keySet());
+        afterCommit((customerIndex, invoiceIndex) -> documents.forEach((id, fields) -> invoiceIndex.put(Math.toIntExact(id), fields)));
+    }
+
+    public void removeInvoice(Long id){
+        searchChangeRepository.create(INVOICE, List.of(id));
+        afterCommit((customerIndex, invoiceIndex) -> invoiceIndex.remove(Math.toIntExact(id)));
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    @Scheduled(initialDelayString = "${application.search.rebuild-interval:PT6H}", fixedDelayString = "${application.search.rebuild-interval:PT6H}")
+    public void rebuild(){
+        long start = System.nanoTime();
+        lock.lock();
+        try{
+            changesDuringRebuild = new ArrayList<>();
+        }finally {
+            lock.unlock();
+        }
+        try{
+            follow();
+            InvertedIndex loadedCustomers = loadCustomers();
+            InvertedIndex loadedInvoices = loadInvoices();
+            lock.lock();
+            try{
+                changesDuringRebuild.forEach(change -> change.accept(loadedCustomers, loadedInvoices));
+                customers = loadedCustomers;
+                invoices = loadedInvoices;
+                ready = true;
+            }finally {
+                lock.unlock();
+            }
+            log.info("Search index rebuilt in {} ms: {} customers ({} KB, {} KB per million), {} invoices ({} KB, {} KB per million)",
+                    (System.nanoTime() - start) / 1_000_000,
+                    loadedCustomers.size(), loadedCustomers.sizeInBytes() / 1024, perMillion(loadedCustomers) / 1024,
+                    loadedInvoices.size(), loadedInvoices.sizeInBytes() / 1024, perMillion(loadedInvoices) / 1024);
+        }catch (Exception exception){
+            log.error("Unable to rebuild search index: {}", exception.getMessage());
+        }finally {
+            lock.lock();
+            try{
+                changesDuringRebuild = null;
+            }finally {
+                lock.unlock();
+            }
+        }
+    }
+
+    @Scheduled(fixedDelayString = "${application.search.poll-interval:PT1S}")
+    public void poll(){
+        if(!following) return;
+        feedLock.lock();
+        try{
+            recheckGaps();
+            List<SearchChange> changes;
+            do{
+                changes = searchChangeRepository.listAfter(lastChangeId, changeBatchSize);
+                for(SearchChange change : changes){
+                    recordGaps(change.getId());
+                    lastChangeId = change.getId();
+                }
+                refresh(changes);
+            }while(changes.size() == changeBatchSize);
+        }catch (Exception exception){
+            log.error("Unable to poll search changes: {}", exception.getMessage());
+        }finally {
+            feedLock.unlock();
+        }
+    }
+
+    @Scheduled(cron = "${application.search.change-cleanup-cron:0 50 3 * * *}")
+    public void deleteExpiredChanges(){
+        int deleted = searchChangeRepository.deleteBefore(LocalDateTime.now().minus(changeRetention));
+        log.info("Deleted {} search changes older than {}", deleted, changeRetention);
+    }
+
+    private void follow(){
+        if(following) return;
+        feedLock.lock();
+        try{
+            if(following) return;
+            lastChangeId = searchChangeRepository.getLastId();
+            following = true;
+            log.info("Following search changes from id {}", lastChangeId);
+        }finally {
+            feedLock.unlock();
+        }
+    }
+
+    private void recordGaps(long id){
+        long deadline = System.nanoTime() + gapTimeout.toNanos();
+        for(long missing = lastChangeId + 1; missing < id && gaps.size() < MAX_GAPS; missing++){
+            gaps.put(missing, deadline);
+        }
+    }
+
+    private void recheckGaps(){
+        if(gaps.isEmpty()) return;
+        long now = System.nanoTime();
+        gaps.values().removeIf(deadline -> deadline - now < 0);
+        if(gaps.isEmpty()) return;
+        List<SearchChange> changes = searchChangeRepository.listByIds(List.copyOf(gaps.keySet()));
+        changes.forEach(change -> gaps.remove(change.getId()));
+        refresh(changes);
+    }
+
+    private void refresh(List<SearchChange> changes){
+        if(changes.isEmpty()) return;
+        Set<Long> customerIds = new LinkedHashSet<>();
+        Set<Long> invoiceIds = new LinkedHashSet<>();
+        for(SearchChange change : changes){
+            (change.getEntityType() == CUSTOMER ? customerIds : invoiceIds).add(change.getEntityId());
+        }
+        Map<Long, String[]> customerDocuments = customerIds.isEmpty() ? Map.of() : loadCustomers(customerIds);
+        Map<Long, String[]> invoiceDocuments = invoiceIds.isEmpty() ? Map.of() : loadInvoices(invoiceIds);
+        apply((customerIndex, invoiceIndex) -> {
+            for(Long id : customerIds){
+                String[] fields = customerDocuments.get(id);
+                if(fields == null) customerIndex.remove(Math.toIntExact(id));
+                else customerIndex.put(Math.toIntExact(id), fields);
+            }
+            for(Long id : invoiceIds){
+                String[] fields = invoiceDocuments.get(id);
+                if(fields == null) invoiceIndex.remove(Math.toIntExact(id));
+                else invoiceIndex.put(Math.toIntExact(id), fields);
+            }
+        });
+    }
+
+    private Map<Long, String[]> loadCustomers(Collection<Long> ids){
+        Map<Long, String[]> documents = new HashMap<>(ids.size() * 2);
+        jdbc.query(SELECT_CUSTOMER_SEARCH_DOCUMENTS_BY_IDS_QUERY, Map.of("ids", ids), resultSet -> {
+            documents.put(resultSet.getLong("id"), new String[]{resultSet.getString("name"), resultSet.getString("email")});
+        });
+        return documents;
+    }
+
+    private Map<Long, String[]> loadInvoices(Collection<Long> ids){
+        Map<Long, List<String>> fields = new HashMap<>(ids.size() * 2);
+        jdbc.query(SELECT_INVOICE_SEARCH_DOCUMENTS_BY_IDS_QUERY, Map.of("ids", ids), resultSet -> {
+            List<String> invoiceFields = new ArrayList<>(4);
+            invoiceFields.add(resultSet.getString("invoice_number"));
+            fields.put(resultSet.getLong("id"), invoiceFields);
+        });
+        if(fields.isEmpty()) return Map.of();
+        jdbc.query(SELECT_INVOICE_LINE_SEARCH_DOCUMENTS_BY_IDS_QUERY, Map.of("ids", fields.keySet()), resultSet -> {
+            List<String> invoiceFields = fields.get(resultSet.getLong("invoice_id"));
+            if(invoiceFields != null) invoiceFields.add(resultSet.getString("description"));
+        });
+        Map<Long, String[]> documents = new HashMap<>(fields.size() * 2);
+        fields.forEach((id, invoiceFields) -> documents.put(id, invoiceFields.toArray(new String[0])));
+        return documents;
+    }
+
+    private int gapCount(){
+        feedLock.lock();
+        try{
+            return gaps.size();
+        }finally {
+            feedLock.unlock();
+        }
+    }
+
+    private InvertedIndex loadCustomers(){
+        InvertedIndex index = new InvertedIndex();
+        long[] lastId = {0};
+        int[] rows = new int[1];
+        do{
+            rows[0] = 0;
+            jdbc.query(SELECT_CUSTOMER_SEARCH_DOCUMENTS_QUERY, Map.of("afterId", lastId[0], "size", LOAD_PAGE_SIZE), resultSet -> {
+                lastId[0] = resultSet.getLong("id");
+                index.put(Math.toIntExact(lastId[0]), resultSet.getString("name"), resultSet.getString("email"));
+                rows[0]++;
+            });
+        }while(rows[0] == LOAD_PAGE_SIZE);
+        return index;
+    }
+
+    private InvertedIndex loadInvoices(){
+        InvertedIndex index = new InvertedIndex();
+        long afterId = 0;
+        long[] lastId = {0};
+        Map<Long, List<String>> page = new LinkedHashMap<>(LOAD_PAGE_SIZE * 2);
+        do{
+            page.clear();
+            jdbc.query(SELECT_INVOICE_SEARCH_DOCUMENTS_QUERY, Map.of("afterId", afterId, "size", LOAD_PAGE_SIZE), resultSet -> {
+                lastId[0] = resultSet.getLong("id");
+                List<String> fields = new ArrayList<>(4);
+                fields.add(resultSet.getString("invoice_number"));
+                page.put(lastId[0], fields);
+            });
+            if(page.isEmpty()) break;
+            jdbc.query(SELECT_INVOICE_LINE_SEARCH_DOCUMENTS_QUERY, Map.of("afterId", afterId, "lastId", lastId[0]), resultSet -> {
+                page.get(resultSet.getLong("invoice_id")).add(resultSet.getString("description"));
+            });
+            page.forEach((id, fields) -> index.put(Math.toIntExact(id), fields.toArray(new String[0])));
+            afterId = lastId[0];
+        }while(page.size() == LOAD_PAGE_SIZE);
+        return index;
+    }
+
+    private void afterCommit(BiConsumer<InvertedIndex, InvertedIndex> change){
+        if(!TransactionSynchronizationManager.isSynchronizationActive()){
+            apply(change);
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                apply(change);
+            }
+        });
+    }
+
+    private void apply(BiConsumer<InvertedIndex, InvertedIndex> change){
+        lock.lock();
+        try{
+            change.accept(customers, invoices);
+            if(changesDuringRebuild != null) changesDuringRebuild.add(change);
+        }catch (RuntimeException exception){
+            log.warn("Unable to update search index: {}", exception.getMessage());
+        }finally {
+            lock.unlock();
+        }
+    }
+
+    private static long perMillion(InvertedIndex index){
+        return index.size() == 0 ? 0 : index.sizeInBytes() * 1_000_000 / index.size();
+    }
+
+    private static Timer searchTimer(String type, MeterRegistry registry){
+        return Timer.builder("search.query")
+                .description("Time to answer one search query from the in-memory index")
+                .tag("type", type)
+                .publishPercentiles(0.5, 0.95, 0.99)
+                .register(registry);
+    }
+}
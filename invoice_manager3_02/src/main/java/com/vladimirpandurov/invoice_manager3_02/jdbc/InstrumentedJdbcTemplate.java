@@ -0,0 +1,100 @@
+package com.vladimirpandurov.invoice_manager3_02.jdbc;
+
+import com.vladimirpandurov.invoice_manager3_02.jfr.RepositoryEvent;
+import com.vladimirpandurov.invoice_manager3_02.metric.QueryMetrics;
+import com.vladimirpandurov.invoice_manager3_02.warmup.WarmUp;
+import org.springframework.dao.DataAccessException;
+import org.springframework.jdbc.core.JdbcOperations;
+import org.springframework.jdbc.core.ResultSetExtractor;
+import org.springframework.jdbc.core.RowCallbackHandler;
+import org.springframework.jdbc.core.RowMapper;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.jdbc.core.namedparam.SqlParameterSource;
+import org.springframework.jdbc.support.KeyHolder;
+
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.List;
+import java.util.function.Supplier;
+
+import static com.vladimirpandurov.invoice_manager3_02.query.QueryNames.nameOf;
+
+public class InstrumentedJdbcTemplate extends NamedParameterJdbcTemplate {
+
+    private final QueryMetrics queryMetrics;
+
+    public InstrumentedJdbcTemplate(JdbcOperations jdbcOperations, QueryMetrics queryMetrics){
+        super(jdbcOperations);
+        this.queryMetrics = queryMetrics;
+    }
+
+    @Override
+    public <T> T query(String sql, SqlParameterSource paramSource, ResultSetExtractor<T> rse) throws DataAccessException {
+        return timed(sql, () -> super.query(sql, paramSource, rse));
+    }
+
+    @Override
+    public void query(String sql, SqlParameterSource paramSource, RowCallbackHandler rch) throws DataAccessException {
+        timed(sql, () -> {
+            super.query(sql, paramSource, rch);
+            return null;
+        });
+    }
+
+    @Override
+    public <T> List<T> query(String sql, SqlParameterSource paramSource, RowMapper<T> rowMapper) throws DataAccessException {
+        return timed(sql, () -> super.query(sql, paramSource, rowMapper));
+    }
+
+    @Override
+    public <T> T queryForObject(String sql, SqlParameterSource paramSource, RowMapper<T> rowMapper) throws DataAccessException {
+        return timed(sql, () -> super.queryForObject(sql, paramSource, rowMapper));
+    }
+
+    @Override
+    public int update(String sql, SqlParameterSource paramSource) throws DataAccessException {
+        return timed(sql, () -> super.update(sql, paramSource));
+    }
+
+    @Override
+    public int update(String sql, SqlParameterSource paramSource, KeyHolder generatedKeyHolder, String[] keyColumnNames) throws DataAccessException {
+        return timed(sql, () -> super.update(sql, paramSource, generatedKeyHolder, keyColumnNames));
+    }
+
+    @Override
+    public int[] batchUpdate(String sql, SqlParameterSource[] batchArgs) {
+        return timed(sql, () -> super.batchUpdate(sql, batchArgs));
+    }
+
+    private <T> T timed(String sql, Supplier<T> statement){
+        String queryName = nameOf(sql);
+        QueryCounter.increment();
+        RepositoryEvent event = new RepositoryEvent();
+        event.begin();
+        long start = System.nanoTime();
+        boolean success = false;
+        T result = null;
+        try{
+            result = statement.get();
+            success = true;
+            return result;
+        }finally {
+            queryMetrics.record(queryName, success, start);
+            event.end();
+            if(event.shouldCommit() && !WarmUp.isActive()){
+                event.queryName = queryName;
+                event.rowCount = rowCount(result);
+                event.success = success;
+                event.commit();
+            }
+        }
+    }
+
+    private static int rowCount(Object result){
+        if(result == null) return 0;
+        if(result instanceof Collection<?> rows) return rows.size();
+        if(result instanceof Integer updated) return updated;
+        if(result instanceof int[] batch) return Arrays.stream(batch).sum();
+        return 1;
+    }
+}
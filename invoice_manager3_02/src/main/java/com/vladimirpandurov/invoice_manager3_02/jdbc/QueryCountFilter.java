@@ -0,0 +1,46 @@
+package com.vladimirpandurov.invoice_manager3_02.jdbc;
+
+import com.vladimirpandurov.invoice_manager3_02.metric.QueryMetrics;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.stereotype.Component;
+import org.springframework.web.filter.OncePerRequestFilter;
+import org.springframework.web.servlet.HandlerMapping;
+
+import java.io.IOException;
+import java.util.Objects;
+
+@Component
+@Order(Ordered.HIGHEST_PRECEDENCE)
+@RequiredArgsConstructor
+@Slf4j
+public class QueryCountFilter extends OncePerRequestFilter {
+
+    private static final String UNKNOWN_ROUTE = "UNKNOWN";
+    private final QueryMetrics queryMetrics;
+    @Value("${application.jdbc.round-trip-threshold:10}")
+    private int roundTripThreshold;
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain filterChain) throws ServletException, IOException {
+        QueryCounter.reset();
+        try{
+            filterChain.doFilter(request, response);
+        }finally {
+            int roundTrips = QueryCounter.current();
+            if(roundTrips > roundTripThreshold){
+                String route = Objects.toString(request.getAttribute(HandlerMapping.BEST_MATCHING_PATTERN_ATTRIBUTE), UNKNOWN_ROUTE);
+                log.warn("{} {} issued {} statements (threshold {})", request.getMethod(), route, roundTrips, roundTripThreshold);
+                queryMetrics.roundTripsExceeded(route);
+            }
+            QueryCounter.clear();
+        }
+    }
+}
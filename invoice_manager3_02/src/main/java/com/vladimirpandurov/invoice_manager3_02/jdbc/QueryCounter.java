@@ -0,0 +1,22 @@
+package com.vladimirpandurov.invoice_manager3_02.jdbc;
+
+public class QueryCounter {
+
+    private static final ThreadLocal<int[]> COUNT = ThreadLocal.withInitial(() -> new int[1]);
+
+    public static void reset(){
+        COUNT.get()[0] = 0;
+    }
+
+    public static void increment(){
+        COUNT.get()[0]++;
+    }
+
+    public static int current(){
+        return COUNT.get()[0];
+    }
+
+    public static void clear(){
+        COUNT.remove();
+    }
+}
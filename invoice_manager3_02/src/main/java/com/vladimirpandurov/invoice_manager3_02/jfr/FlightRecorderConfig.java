@@ -0,0 +1,45 @@
+package com.vladimirpandurov.invoice_manager3_02.jfr;
+
+import jdk.jfr.Configuration;
+import jdk.jfr.Recording;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Bean;
+import org.springframework.core.io.ClassPathResource;
+
+import java.io.InputStreamReader;
+import java.io.Reader;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.HashMap;
+import java.util.Map;
+
+@org.springframework.context.annotation.Configuration
+@ConditionalOnProperty(name = "application.jfr.enabled", havingValue = "true")
+@Slf4j
+public class FlightRecorderConfig {
+
+    private static final String SETTINGS_PROFILE = "jfr/invoice-manager.jfc";
+    private static final String BASE_CONFIGURATION = "default";
+
+    @Bean(destroyMethod = "stop")
+    public Recording applicationRecording(@Value("${application.jfr.destination:invoice-manager.jfr}") String destination,
+                                          @Value("${application.jfr.max-age:PT6H}") Duration maxAge) throws Exception {
+        Map<String, String> settings = new HashMap<>(Configuration.getConfiguration(BASE_CONFIGURATION).getSettings());
+        try(Reader reader = new InputStreamReader(new ClassPathResource(SETTINGS_PROFILE).getInputStream(), StandardCharsets.UTF_8)){
+            settings.putAll(Configuration.create(reader).getSettings());
+        }
+        Recording recording = new Recording(settings);
+        recording.setName("invoice-manager");
+        recording.setToDisk(true);
+        recording.setMaxAge(maxAge);
+        recording.setDumpOnExit(true);
+        recording.setDestination(Path.of(destination));
+        recording.start();
+        log.info("Flight recording started, dumping to {} on exit", destination);
+        return recording;
+    }
+
+}
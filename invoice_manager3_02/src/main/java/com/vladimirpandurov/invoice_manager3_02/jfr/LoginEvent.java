@@ -0,0 +1,24 @@
+package com.vladimirpandurov.invoice_manager3_02.jfr;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+@Name(LoginEvent.NAME)
+@Label("Login")
+@Description("A call to /user/login")
+@Category({"Invoice Manager", "Authentication"})
+@StackTrace(false)
+public class LoginEvent extends Event {
+
+    public static final String NAME = "invoice_manager.Login";
+
+    @Label("Using MFA")
+    public boolean usingMfa;
+
+    @Label("Success")
+    public boolean success;
+}
@@ -0,0 +1,23 @@
+package com.vladimirpandurov.invoice_manager3_02.jfr;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+@Name(PasswordHashEvent.NAME)
+@Label("Password Hash")
+@Description("A BCrypt encode or match")
+@Category({"Invoice Manager", "Authentication"})
+@StackTrace(false)
+public class PasswordHashEvent extends Event {
+
+    public static final String NAME = "invoice_manager.PasswordHash";
+    public static final String ENCODE = "encode";
+    public static final String MATCHES = "matches";
+
+    @Label("Operation")
+    public String operation;
+}
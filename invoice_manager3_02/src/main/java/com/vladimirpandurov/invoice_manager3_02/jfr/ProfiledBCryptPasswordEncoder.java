@@ -0,0 +1,44 @@
+package com.vladimirpandurov.invoice_manager3_02.jfr;
+
+import com.vladimirpandurov.invoice_manager3_02.warmup.WarmUp;
+import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+
+import static com.vladimirpandurov.invoice_manager3_02.jfr.PasswordHashEvent.ENCODE;
+import static com.vladimirpandurov.invoice_manager3_02.jfr.PasswordHashEvent.MATCHES;
+
+public class ProfiledBCryptPasswordEncoder extends BCryptPasswordEncoder {
+
+    public ProfiledBCryptPasswordEncoder(int strength){
+        super(strength);
+    }
+
+    @Override
+    public String encode(CharSequence rawPassword) {
+        PasswordHashEvent event = new PasswordHashEvent();
+        event.begin();
+        try{
+            return super.encode(rawPassword);
+        }finally {
+            commit(event, ENCODE);
+        }
+    }
+
+    @Override
+    public boolean matches(CharSequence rawPassword, String encodedPassword) {
+        PasswordHashEvent event = new PasswordHashEvent();
+        event.begin();
+        try{
+            return super.matches(rawPassword, encodedPassword);
+        }finally {
+            commit(event, MATCHES);
+        }
+    }
+
+    private void commit(PasswordHashEvent event, String operation){
+        event.end();
+        if(event.shouldCommit() && !WarmUp.isActive()){
+            event.operation = operation;
+            event.commit();
+        }
+    }
+}
@@ -0,0 +1,106 @@
+package com.vladimirpandurov.invoice_manager3_02.jfr;
+
+import jdk.jfr.consumer.RecordedEvent;
+import jdk.jfr.consumer.RecordingFile;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+
+public class RecordingSummary {
+
+    private static final String[] CATEGORIES = {"repository", "token", "password_hash", "other"};
+
+    public static void main(String[] args) throws IOException {
+        if(args.length != 1){
+            System.err.println("Usage: java " + RecordingSummary.class.getName() + " <recording.jfr>");
+            System.exit(1);
+        }
+        Map<Long, List<RecordedEvent>> requestsByThread = new HashMap<>();
+        Map<Long, List<RecordedEvent>> childrenByThread = new HashMap<>();
+        for(RecordedEvent event : RecordingFile.readAllEvents(Path.of(args[0]))){
+            String name = event.getEventType().getName();
+            if(RequestEvent.NAME.equals(name)){
+                requestsByThread.computeIfAbsent(threadId(event), id -> new ArrayList<>()).add(event);
+            }else if(RepositoryEvent.NAME.equals(name) || TokenEvent.NAME.equals(name) || PasswordHashEvent.NAME.equals(name)){
+                childrenByThread.computeIfAbsent(threadId(event), id -> new ArrayList<>()).add(event);
+            }
+        }
+        childrenByThread.values().forEach(events -> events.sort(Comparator.comparing(RecordedEvent::getStartTime)));
+        Map<String, Breakdown> breakdowns = new TreeMap<>();
+        requestsByThread.forEach((thread, requests) -> {
+            List<RecordedEvent> children = childrenByThread.getOrDefault(thread, List.of());
+            requests.sort(Comparator.comparing(RecordedEvent::getStartTime));
+            int cursor = 0;
+            for(RecordedEvent request : requests){
+                while(cursor < children.size() && children.get(cursor).getStartTime().isBefore(request.getStartTime())) cursor++;
+                long[] categoryNanos = new long[CATEGORIES.length];
+                long childNanos = 0;
+                for(; cursor < children.size() && !children.get(cursor).getStartTime().isAfter(request.getEndTime()); cursor++){
+                    RecordedEvent child = children.get(cursor);
+                    if(child.getEndTime().isAfter(request.getEndTime())) continue;
+                    long nanos = child.getDuration().toNanos();
+                    categoryNanos[category(child)] += nanos;
+                    childNanos += nanos;
+                }
+                long totalNanos = request.getDuration().toNanos();
+                categoryNanos[CATEGORIES.length - 1] = Math.max(0, totalNanos - childNanos);
+                String endpoint = request.getString("method") + " " + request.getString("route");
+                breakdowns.computeIfAbsent(endpoint, key -> new Breakdown()).add(totalNanos, categoryNanos);
+            }
+        });
+        System.out.printf("%-50s %8s %10s %10s %10s %12s %10s %14s %10s%n",
+                "endpoint", "count", "p50 ms", "p95 ms", "p99 ms", "repository", "token", "password_hash", "other");
+        breakdowns.forEach((endpoint, breakdown) -> breakdown.print(endpoint));
+    }
+
+    private static long threadId(RecordedEvent event){
+        return event.getThread() == null ? -1 : event.getThread().getJavaThreadId();
+    }
+
+    private static int category(RecordedEvent event){
+        return switch (event.getEventType().getName()){
+            case RepositoryEvent.NAME -> 0;
+            case TokenEvent.NAME -> 1;
+            case PasswordHashEvent.NAME -> 2;
+            default -> CATEGORIES.length - 1;
+        };
+    }
+
+    private static class Breakdown {
+
+        private final List<Long> totals = new ArrayList<>();
+        private final long[] categoryNanos = new long[CATEGORIES.length];
+
+        void add(long totalNanos, long[] nanos){
+            totals.add(totalNanos);
+            for(int i = 0; i < nanos.length; i++){
+                categoryNanos[i] += nanos[i];
+            }
+        }
+
+        void print(String endpoint){
+            totals.sort(Long::compare);
+            int count = totals.size();
+            System.out.printf("%-50s %8d %10.2f %10.2f %10.2f %11.2f%% %9.2f%% %13.2f%% %9.2f%%%n",
+                    endpoint, count, percentile(0.50), percentile(0.95), percentile(0.99),
+                    share(0), share(1), share(2), share(3));
+        }
+
+        private double percentile(double quantile){
+            int index = (int) Math.ceil(quantile * totals.size()) - 1;
+            return totals.get(Math.max(0, index)) / 1_000_000.0;
+        }
+
+        private double share(int category){
+            long total = 0;
+            for(long nanos : categoryNanos) total += nanos;
+            return total == 0 ? 0 : 100.0 * categoryNanos[category] / total;
+        }
+    }
+}
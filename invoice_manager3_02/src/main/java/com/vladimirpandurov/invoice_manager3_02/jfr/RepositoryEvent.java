@@ -0,0 +1,27 @@
+package com.vladimirpandurov.invoice_manager3_02.jfr;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+@Name(RepositoryEvent.NAME)
+@Label("Repository Statement")
+@Description("A JDBC statement issued by a repository")
+@Category({"Invoice Manager", "Repository"})
+@StackTrace(false)
+public class RepositoryEvent extends Event {
+
+    public static final String NAME = "invoice_manager.Repository";
+
+    @Label("Query Name")
+    public String queryName;
+
+    @Label("Row Count")
+    public int rowCount;
+
+    @Label("Success")
+    public boolean success;
+}
@@ -0,0 +1,27 @@
+package com.vladimirpandurov.invoice_manager3_02.jfr;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+@Name(RequestEvent.NAME)
+@Label("HTTP Request")
+@Description("An HTTP request handled by the application")
+@Category({"Invoice Manager", "Web"})
+@StackTrace(false)
+public class RequestEvent extends Event {
+
+    public static final String NAME = "invoice_manager.Request";
+
+    @Label("Method")
+    public String method;
+
+    @Label("Route")
+    public String route;
+
+    @Label("Status")
+    public int status;
+}
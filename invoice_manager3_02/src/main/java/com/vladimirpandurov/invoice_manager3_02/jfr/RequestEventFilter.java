@@ -0,0 +1,38 @@
+package com.vladimirpandurov.invoice_manager3_02.jfr;
+
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.stereotype.Component;
+import org.springframework.web.filter.OncePerRequestFilter;
+import org.springframework.web.servlet.HandlerMapping;
+
+import java.io.IOException;
+import java.util.Objects;
+
+@Component
+@Order(Ordered.HIGHEST_PRECEDENCE + 1)
+public class RequestEventFilter extends OncePerRequestFilter {
+
+    private static final String UNKNOWN_ROUTE = "UNKNOWN";
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain filterChain) throws ServletException, IOException {
+        RequestEvent event = new RequestEvent();
+        event.begin();
+        try{
+            filterChain.doFilter(request, response);
+        }finally {
+            event.end();
+            if(event.shouldCommit()){
+                event.method = request.getMethod();
+                event.route = Objects.toString(request.getAttribute(HandlerMapping.BEST_MATCHING_PATTERN_ATTRIBUTE), UNKNOWN_ROUTE);
+                event.status = response.getStatus();
+                event.commit();
+            }
+        }
+    }
+}
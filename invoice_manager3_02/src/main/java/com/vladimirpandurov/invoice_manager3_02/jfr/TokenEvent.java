@@ -0,0 +1,27 @@
+package com.vladimirpandurov.invoice_manager3_02.jfr;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+@Name(TokenEvent.NAME)
+@Label("Token")
+@Description("JWT creation or verification in TokenProvider")
+@Category({"Invoice Manager", "Authentication"})
+@StackTrace(false)
+public class TokenEvent extends Event {
+
+    public static final String NAME = "invoice_manager.Token";
+    public static final String CREATE_ACCESS = "create_access";
+    public static final String CREATE_REFRESH = "create_refresh";
+    public static final String VERIFY = "verify";
+
+    @Label("Operation")
+    public String operation;
+
+    @Label("Success")
+    public boolean success;
+}
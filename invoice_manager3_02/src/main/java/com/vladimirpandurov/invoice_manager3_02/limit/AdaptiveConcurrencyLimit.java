@@ -0,0 +1,84 @@
+package com.vladimirpandurov.invoice_manager3_02.limit;
+
+import java.util.concurrent.atomic.AtomicInteger;
+
+public class AdaptiveConcurrencyLimit {
+
+    private static final double TOLERANCE = 1.5;
+    private static final double SMOOTHING = 0.2;
+    private static final int LONG_WINDOW = 600;
+    private static final int WARMUP_WINDOWS = 10;
+    private final AtomicInteger inflight = new AtomicInteger();
+    private final int minLimit;
+    private final int maxLimit;
+    private final int sampleWindow;
+    private volatile int limit;
+    private double estimatedLimit;
+    private double longRtt;
+    private int windows;
+    private long windowSum;
+    private int windowCount;
+    private int windowMaxInflight;
+
+    public AdaptiveConcurrencyLimit(int initialLimit, int minLimit, int maxLimit, int sampleWindow){
+        this.minLimit = minLimit;
+        this.maxLimit = maxLimit;
+        this.sampleWindow = sampleWindow;
+        this.estimatedLimit = initialLimit;
+        this.limit = initialLimit;
+    }
+
+    public boolean tryAcquire(){
+        if(inflight.incrementAndGet() > limit){
+            inflight.decrementAndGet();
+            return false;
+        }
+        return true;
+    }
+
+    public void release(long rttNanos){
+        sample(rttNanos, inflight.getAndDecrement());
+    }
+
+    public int getLimit(){
+        return limit;
+    }
+
+    public int getInflight(){
+        return inflight.get();
+    }
+
+    private synchronized void sample(long rttNanos, int currentInflight){
+        windowSum += rttNanos;
+        windowCount++;
+        windowMaxInflight = Math.max(windowMaxInflight, currentInflight);
+        if(windowCount < sampleWindow) return;
+        double shortRtt = (double) windowSum / windowCount;
+        int maxInflight = windowMaxInflight;
+        windowSum = 0;
+        windowCount = 0;
+        windowMaxInflight = 0;
+        update(shortRtt, maxInflight);
+    }
+
+    private void update(double shortRtt, int maxInflight){
+        if(windows < WARMUP_WINDOWS){
+            windows++;
+            longRtt = longRtt == 0 ? shortRtt : longRtt + (shortRtt - longRtt) / windows;
+        }else{
+            longRtt += (shortRtt - longRtt) / LONG_WINDOW;
+        }
+        if(longRtt / shortRtt > 2){
+            longRtt *= 0.95;
+        }
+        if(maxInflight < estimatedLimit / 2){
+            return;
+        }
+        double gradient = Math.max(0.5, Math.min(1.0, TOLERANCE * longRtt / shortRtt));
+        double queueSize = Math.sqrt(estimatedLimit);
+        double newLimit = estimatedLimit * gradient + queueSize;
+        newLimit = estimatedLimit * (1 - SMOOTHING) + newLimit * SMOOTHING;
+        estimatedLimit = Math.max(minLimit, Math.min(maxLimit, newLimit));
+        limit = (int) estimatedLimit;
+    }
+}
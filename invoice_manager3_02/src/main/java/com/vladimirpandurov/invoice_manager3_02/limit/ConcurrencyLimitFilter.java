@@ -0,0 +1,96 @@
+package com.vladimirpandurov.invoice_manager3_02.limit;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.util.AntPathMatcher;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import java.io.IOException;
+import java.util.List;
+
+import static com.vladimirpandurov.invoice_manager3_02.utils.ExceptionUtils.processError;
+import static org.springframework.http.HttpHeaders.RETRY_AFTER;
+import static org.springframework.http.HttpStatus.SERVICE_UNAVAILABLE;
+
+@Component
+@Slf4j
+public class ConcurrencyLimitFilter extends OncePerRequestFilter {
+
+    private static final String[] PUBLIC_ROUTES = {"/user/login/**", "/user/register/**", "/user/verify/**",
+            "/user/resetpassword/**", "/user/refresh/token/**"};
+    private static final String[] EXEMPT_ROUTES = {"/actuator/**", "/invoice/import", "/invoice/export"};
+    private final AntPathMatcher matcher = new AntPathMatcher();
+    private final AdaptiveConcurrencyLimit publicLimit;
+    private final AdaptiveConcurrencyLimit apiLimit;
+    private final Counter publicRejected;
+    private final Counter apiRejected;
+    private final String retryAfterSeconds;
+
+    public ConcurrencyLimitFilter(MeterRegistry registry,
+                                  @Value("${application.concurrency-limit.public.initial:20}") int publicInitial,
+                                  @Value("${application.concurrency-limit.public.max:100}") int publicMax,
+                                  @Value("${application.concurrency-limit.api.initial:50}") int apiInitial,
+                                  @Value("${application.concurrency-limit.api.max:400}") int apiMax,
+                                  @Value("${application.concurrency-limit.min:4}") int minLimit,
+                                  @Value("${application.concurrency-limit.sample-window:100}") int sampleWindow,
+                                  @Value("${application.concurrency-limit.retry-after-seconds:1}") int retryAfterSeconds){
+        this.publicLimit = new AdaptiveConcurrencyLimit(publicInitial, minLimit, publicMax, sampleWindow);
+        this.apiLimit = new AdaptiveConcurrencyLimit(apiInitial, minLimit, apiMax, sampleWindow);
+        this.publicRejected = register(registry, "public", publicLimit);
+        this.apiRejected = register(registry, "api", apiLimit);
+        this.retryAfterSeconds = Integer.toString(retryAfterSeconds);
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain filterChain) throws ServletException, IOException {
+        boolean isPublic = matches(request, PUBLIC_ROUTES);
+        AdaptiveConcurrencyLimit limit = isPublic ? publicLimit : apiLimit;
+        if(!limit.tryAcquire()){
+            (isPublic ? publicRejected : apiRejected).increment();
+            response.setHeader(RETRY_AFTER, retryAfterSeconds);
+            processError(response, "Server is busy. Please try again later", SERVICE_UNAVAILABLE);
+            return;
+        }
+        long start = System.nanoTime();
+        try{
+            filterChain.doFilter(request, response);
+        }finally {
+            limit.release(System.nanoTime() - start);
+        }
+    }
+
+    @Override
+    protected boolean shouldNotFilter(HttpServletRequest request) {
+        return matches(request, EXEMPT_ROUTES);
+    }
+
+    private boolean matches(HttpServletRequest request, String[] patterns){
+        String path = request.getRequestURI().substring(request.getContextPath().length());
+        for(String pattern : patterns){
+            if(matcher.match(pattern, path)) return true;
+        }
+        return false;
+    }
+
+    private static Counter register(MeterRegistry registry, String group, AdaptiveConcurrencyLimit limit){
+        Gauge.builder("concurrency.limit", limit, AdaptiveConcurrencyLimit::getLimit)
+                .description("Current adaptive concurrency limit")
+                .tag("group", group)
+                .register(registry);
+        Gauge.builder("concurrency.inflight", limit, AdaptiveConcurrencyLimit::getInflight)
+                .tag("group", group)
+                .register(registry);
+        return Counter.builder("concurrency.rejected")
+                .description("Requests rejected with 503 because the concurrency limit was reached")
+                .tag("group", group)
+                .register(registry);
+    }
+}
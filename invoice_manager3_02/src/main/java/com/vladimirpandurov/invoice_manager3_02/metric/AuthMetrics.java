@@ -0,0 +1,88 @@
+package com.vladimirpandurov.invoice_manager3_02.metric;
+
+import com.auth0.jwt.exceptions.InvalidClaimException;
+import com.auth0.jwt.exceptions.TokenExpiredException;
+import com.vladimirpandurov.invoice_manager3_02.warmup.WarmUp;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.springframework.stereotype.Component;
+
+import static java.util.concurrent.TimeUnit.NANOSECONDS;
+
+@Component
+public class AuthMetrics {
+
+    private static final String TIMER_NAME = "auth.stage";
+    private final Timer[][] timers = new Timer[Stage.values().length][Outcome.values().length];
+
+    public AuthMetrics(MeterRegistry registry){
+        for(Stage stage : Stage.values()){
+            for(Outcome outcome : Outcome.values()){
+                timers[stage.ordinal()][outcome.ordinal()] = Timer.builder(TIMER_NAME)
+                        .description("Time spent in each stage of the authentication pipeline")
+                        .tag("stage", stage.getTag())
+                        .tag("outcome", outcome.getTag())
+                        .publishPercentileHistogram()
+                        .register(registry);
+            }
+        }
+    }
+
+    public long start(){
+        return System.nanoTime();
+    }
+
+    public long record(Stage stage, Outcome outcome, long startNanos){
+        long now = System.nanoTime();
+        if(WarmUp.isActive()) return now;
+        timers[stage.ordinal()][outcome.ordinal()].record(now - startNanos, NANOSECONDS);
+        return now;
+    }
+
+    public long record(Stage stage, Exception exception, long startNanos){
+        return record(stage, Outcome.of(exception), startNanos);
+    }
+
+    public enum Stage {
+        HEADER_PARSE("header_parse"),
+        JWT_VERIFY("jwt_verify"),
+        REVOCATION_CHECK("revocation_check"),
+        CLAIMS_EXTRACTION("claims_extraction"),
+        PRINCIPAL_LOAD("principal_load"),
+        AUTHENTICATE("authenticate"),
+        TOKEN_SIGN("token_sign");
+
+        private final String tag;
+
+        Stage(String tag){
+            this.tag = tag;
+        }
+
+        public String getTag(){
+            return this.tag;
+        }
+    }
+
+    public enum Outcome {
+        VALID("valid"),
+        EXPIRED("expired"),
+        INVALID_CLAIM("invalid_claim"),
+        INVALID("invalid");
+
+        private final String tag;
+
+        Outcome(String tag){
+            this.tag = tag;
+        }
+
+        public String getTag(){
+            return this.tag;
+        }
+
+        public static Outcome of(Exception exception){
+            if(exception instanceof TokenExpiredException) return EXPIRED;
+            if(exception instanceof InvalidClaimException) return INVALID_CLAIM;
+            return INVALID;
+        }
+    }
+}
@@ -0,0 +1,43 @@
+package com.vladimirpandurov.invoice_manager3_02.metric;
+
+import com.vladimirpandurov.invoice_manager3_02.warmup.WarmUp;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Component;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+import static java.util.concurrent.TimeUnit.NANOSECONDS;
+
+@Component
+@RequiredArgsConstructor
+public class QueryMetrics {
+
+    private static final String TIMER_NAME = "jdbc.query";
+    private static final String ROUND_TRIP_COUNTER_NAME = "jdbc.request.round_trips.exceeded";
+    private final MeterRegistry registry;
+    private final Map<String, Timer> timers = new ConcurrentHashMap<>();
+    private final Map<String, Counter> exceeded = new ConcurrentHashMap<>();
+
+    public void record(String queryName, boolean success, long startNanos){
+        if(WarmUp.isActive()) return;
+        timers.computeIfAbsent(success ? queryName : queryName + ":error", key -> Timer.builder(TIMER_NAME)
+                .description("Time spent executing a named JDBC statement")
+                .tag("query", queryName)
+                .tag("outcome", success ? "success" : "error")
+                .publishPercentileHistogram()
+                .register(registry))
+                .record(System.nanoTime() - startNanos, NANOSECONDS);
+    }
+
+    public void roundTripsExceeded(String uri){
+        exceeded.computeIfAbsent(uri, key -> Counter.builder(ROUND_TRIP_COUNTER_NAME)
+                .description("Requests that issued more statements than the configured threshold")
+                .tag("uri", uri)
+                .register(registry))
+                .increment();
+    }
+}
@@ -0,0 +1,141 @@
+package com.vladimirpandurov.invoice_manager3_02.pdf;
+
+import com.vladimirpandurov.invoice_manager3_02.domain.Customer;
+import com.vladimirpandurov.invoice_manager3_02.domain.Invoice;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static java.nio.file.StandardCopyOption.ATOMIC_MOVE;
+import static java.nio.file.StandardCopyOption.REPLACE_EXISTING;
+import static java.nio.file.StandardOpenOption.TRUNCATE_EXISTING;
+import static java.nio.file.StandardOpenOption.WRITE;
+import static java.util.concurrent.TimeUnit.NANOSECONDS;
+
+@Component
+@Slf4j
+public class InvoicePdfRenderer {
+
+    private static final int FILES_PER_DIRECTORY = 1000;
+    private final PdfTemplateCache templateCache;
+    private final Path directory;
+    private final String templateName;
+    private final ThreadPoolExecutor workers;
+    private final ThreadLocal<PdfDocument> documents = ThreadLocal.withInitial(PdfDocument::new);
+    private final Timer renderTimer;
+
+    public InvoicePdfRenderer(PdfTemplateCache templateCache, MeterRegistry registry,
+                              @Value("${application.invoice.pdf.directory:invoice-pdfs}") Path directory,
+                              @Value("${application.invoice.pdf.template:invoice}") String templateName,
+                              @Value("${application.invoice.pdf.queue-capacity:10000}") int queueCapacity){
+        this.templateCache = templateCache;
+        this.directory = directory.toAbsolutePath();
+        this.templateName = templateName;
+        int threads = Runtime.getRuntime().availableProcessors();
+        AtomicInteger count = new AtomicInteger();
+        this.workers = new ThreadPoolExecutor(threads, threads, 0, TimeUnit.MILLISECONDS, new ArrayBlockingQueue<>(queueCapacity), runnable -> {
+            Thread thread = new Thread(runnable, "invoice-pdf-" + count.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
+        this.renderTimer = Timer.builder("invoice.pdf.render")
+                .description("Time to render one invoice PDF and write it to disk")
+                .publishPercentiles(0.5, 0.99)
+                .register(registry);
+        Gauge.builder("invoice.pdf.queue", workers, executor -> executor.getQueue().size())
+                .description("Invoice PDFs waiting for a render thread")
+                .register(registry);
+    }
+
+    public CompletableFuture<Path> submit(Invoice invoice, Customer customer){
+        return CompletableFuture.supplyAsync(() -> render(invoice, customer), workers);
+    }
+
+    public Path path(Invoice invoice){
+        return path(invoice.getId(), invoice.getVersion());
+    }
+
+    public boolean exists(Invoice invoice){
+        return Files.exists(path(invoice));
+    }
+
+    public void evict(Long invoiceId){
+        Path parent = path(invoiceId, 0).getParent();
+        if(!Files.isDirectory(parent)) return;
+        try(DirectoryStream<Path> files = Files.newDirectoryStream(parent, invoiceId + "-v*.pdf")){
+            for(Path file : files){
+                Files.deleteIfExists(file);
+            }
+        }catch (IOException exception){
+            log.warn("Unable to delete the PDF of invoice {}: {}", invoiceId, exception.getMessage());
+        }
+    }
+
+    @PreDestroy
+    public void shutdown(){
+        workers.shutdownNow();
+    }
+
+    private Path render(Invoice invoice, Customer customer){
+        long start = System.nanoTime();
+        PdfDocument document = documents.get();
+        document.begin();
+        templateCache.get(templateName).render(invoice, customer, document);
+        int length = document.finish();
+        Path target = path(invoice);
+        write(target, document.buffer(), length);
+        for(int version = invoice.getVersion() - 1; version >= 0; version--){
+            deleteQuietly(path(invoice.getId(), version));
+        }
+        renderTimer.record(System.nanoTime() - start, NANOSECONDS);
+        return target;
+    }
+
+    private Path path(Long invoiceId, int version){
+        return directory.resolve(Long.toString(invoiceId / FILES_PER_DIRECTORY)).resolve(invoiceId + "-v" + version + ".pdf");
+    }
+
+    private static void write(Path target, byte[] bytes, int length){
+        Path temporary = null;
+        try{
+            Files.createDirectories(target.getParent());
+            temporary = Files.createTempFile(target.getParent(), target.getFileName().toString(), ".tmp");
+            try(FileChannel channel = FileChannel.open(temporary, WRITE, TRUNCATE_EXISTING)){
+                ByteBuffer buffer = ByteBuffer.wrap(bytes, 0, length);
+                while(buffer.hasRemaining()){
+                    channel.write(buffer);
+                }
+            }
+            Files.move(temporary, target, ATOMIC_MOVE, REPLACE_EXISTING);
+        }catch (IOException exception){
+            deleteQuietly(temporary);
+            throw new UncheckedIOException(exception);
+        }
+    }
+
+    private static void deleteQuietly(Path path){
+        if(path == null) return;
+        try{
+            Files.deleteIfExists(path);
+        }catch (IOException exception){
+            log.warn("Unable to delete {}: {}", path, exception.getMessage());
+        }
+    }
+}
@@ -0,0 +1,203 @@
+package com.vladimirpandurov.invoice_manager3_02.pdf;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+
+public class PdfDocument {
+
+    public static final float PAGE_WIDTH = 595;
+    public static final float PAGE_HEIGHT = 842;
+    public static final float MARGIN = 50;
+    private static final int CATALOG = 1;
+    private static final int PAGES = 2;
+    private static final int REGULAR_FONT = 3;
+    private static final int BOLD_FONT = 4;
+    private static final int FIRST_PAGE_OBJECT = 5;
+    private static final byte[] HEADER = "%PDF-1.4\n%\u00e2\u00e3\u00cf\u00d3\n".getBytes(StandardCharsets.ISO_8859_1);
+    private static final short[] HELVETICA_WIDTHS = {
+            278, 278, 355, 556, 556, 889, 667, 191, 333, 333, 389, 584, 278, 333, 278, 278,
+            556, 556, 556, 556, 556, 556, 556, 556, 556, 556, 278, 278, 584, 584, 584, 556,
+            1015, 667, 667, 722, 722, 667, 611, 778, 722, 278, 500, 667, 556, 833, 722, 778,
+            667, 778, 722, 667, 611, 722, 667, 944, 667, 667, 611, 278, 278, 278, 469, 556,
+            333, 556, 556, 500, 556, 556, 278, 556, 556, 222, 222, 500, 222, 833, 556, 556,
+            556, 556, 333, 500, 278, 556, 500, 722, 500, 500, 500, 334, 260, 334, 584};
+    private final ByteSink out = new ByteSink(16 * 1024);
+    private final ByteSink content = new ByteSink(8 * 1024);
+    private int[] offsets = new int[64];
+    private int[] pageObjects = new int[8];
+    private int pageCount;
+    private int nextObject;
+    private float y;
+
+    public void begin(){
+        out.reset();
+        content.reset();
+        pageCount = 0;
+        nextObject = FIRST_PAGE_OBJECT;
+        out.write(HEADER);
+        y = -1;
+    }
+
+    public void text(float x, float size, boolean bold, boolean alignRight, CharSequence text){
+        if(y < 0) newLine(size);
+        float startX = alignRight ? x - width(text, size) : x;
+        content.write("BT /").write(bold ? "F2 " : "F1 ").write(size).write(" Tf ").write(startX).write(' ').write(y).write(" Td (");
+        for(int i = 0; i < text.length(); i++){
+            char c = text.charAt(i);
+            if(c == '(' || c == ')' || c == '\\') content.write('\\');
+            content.write(c > 0xFF || c < 0x20 ? '?' : c);
+        }
+        content.write(") Tj ET\n");
+    }
+
+    public void newLine(float leading){
+        if(y < 0){
+            y = PAGE_HEIGHT - MARGIN;
+            return;
+        }
+        y -= leading;
+        if(y < MARGIN){
+            endPage();
+            y = PAGE_HEIGHT - MARGIN;
+        }
+    }
+
+    public int finish(){
+        endPage();
+        for(int i = 0; i < pageCount; i++){
+            int pageObject = pageObjects[i];
+            startObject(pageObject);
+            out.write("<< /Type /Page /Parent 2 0 R /MediaBox [0 0 ").write(PAGE_WIDTH).write(' ').write(PAGE_HEIGHT)
+                    .write("] /Resources << /Font << /F1 3 0 R /F2 4 0 R >> >> /Contents ").write(pageObject + 1).write(" 0 R >>\nendobj\n");
+        }
+        startObject(CATALOG);
+        out.write("<< /Type /Catalog /Pages 2 0 R >>\nendobj\n");
+        startObject(PAGES);
+        out.write("<< /Type /Pages /Count ").write(pageCount).write(" /Kids [");
+        for(int i = 0; i < pageCount; i++){
+            out.write(pageObjects[i]).write(" 0 R ");
+        }
+        out.write("] >>\nendobj\n");
+        startObject(REGULAR_FONT);
+        out.write("<< /Type /Font /Subtype /Type1 /BaseFont /Helvetica /Encoding /WinAnsiEncoding >>\nendobj\n");
+        startObject(BOLD_FONT);
+        out.write("<< /Type /Font /Subtype /Type1 /BaseFont /Helvetica-Bold /Encoding /WinAnsiEncoding >>\nendobj\n");
+        int xref = out.size();
+        out.write("xref\n0 ").write(nextObject).write("\n0000000000 65535 f \n");
+        for(int i = 1; i < nextObject; i++){
+            out.writePadded(offsets[i], 10).write(" 00000 n \n");
+        }
+        out.write("trailer\n<< /Size ").write(nextObject).write(" /Root 1 0 R >>\nstartxref\n").write(xref).write("\n%%EOF\n");
+        return out.size();
+    }
+
+    public byte[] buffer(){
+        return out.bytes();
+    }
+
+    public static float width(CharSequence text, float size){
+        int units = 0;
+        for(int i = 0; i < text.length(); i++){
+            char c = text.charAt(i);
+            units += c >= 32 && c <= 126 ? HELVETICA_WIDTHS[c - 32] : 556;
+        }
+        return units * size / 1000;
+    }
+
+    private void endPage(){
+        if(content.size() == 0 && pageCount > 0) return;
+        int pageObject = nextObject;
+        nextObject += 2;
+        if(pageCount == pageObjects.length) pageObjects = Arrays.copyOf(pageObjects, pageCount * 2);
+        pageObjects[pageCount++] = pageObject;
+        startObject(pageObject + 1);
+        out.write("<< /Length ").write(content.size()).write(" >>\nstream\n");
+        out.write(content.bytes(), content.size());
+        out.write("\nendstream\nendobj\n");
+        content.reset();
+    }
+
+    private void startObject(int number){
+        if(number >= offsets.length) offsets = Arrays.copyOf(offsets, Math.max(number + 1, offsets.length * 2));
+        offsets[number] = out.size();
+        out.write(number).write(" 0 obj\n");
+    }
+
+    private static class ByteSink {
+        private byte[] bytes;
+        private int size;
+
+        private ByteSink(int capacity){
+            this.bytes = new byte[capacity];
+        }
+
+        private void reset(){
+            size = 0;
+        }
+
+        private int size(){
+            return size;
+        }
+
+        private byte[] bytes(){
+            return bytes;
+        }
+
+        private ByteSink write(char c){
+            ensure(1);
+            bytes[size++] = (byte) c;
+            return this;
+        }
+
+        private ByteSink write(String value){
+            ensure(value.length());
+            for(int i = 0; i < value.length(); i++){
+                bytes[size++] = (byte) value.charAt(i);
+            }
+            return this;
+        }
+
+        private ByteSink write(byte[] value){
+            return write(value, value.length);
+        }
+
+        private ByteSink write(byte[] value, int length){
+            ensure(length);
+            System.arraycopy(value, 0, bytes, size, length);
+            size += length;
+            return this;
+        }
+
+        private ByteSink write(int value){
+            return write(Integer.toString(value));
+        }
+
+        private ByteSink write(float value){
+            int hundredths = Math.round(value * 100);
+            if(hundredths < 0){
+                write('-');
+                hundredths = -hundredths;
+            }
+            write(hundredths / 100);
+            int fraction = hundredths % 100;
+            if(fraction != 0){
+                write('.');
+                write((char) ('0' + fraction / 10));
+                if(fraction % 10 != 0) write((char) ('0' + fraction % 10));
+            }
+            return this;
+        }
+
+        private ByteSink writePadded(int value, int width){
+            String digits = Integer.toString(value);
+            for(int i = digits.length(); i < width; i++){
+                write('0');
+            }
+            return write(digits);
+        }
+
+        private void ensure(int length){
+            if(size + length > bytes.length) bytes = Arrays.copyOf(bytes, Math.max(bytes.length * 2, size + length));
+        }
+    }
+}
@@ -0,0 +1,225 @@
+package com.vladimirpandurov.invoice_manager3_02.pdf;
+
+import com.vladimirpandurov.invoice_manager3_02.domain.Customer;
+import com.vladimirpandurov.invoice_manager3_02.domain.Invoice;
+import com.vladimirpandurov.invoice_manager3_02.domain.InvoiceLine;
+import com.vladimirpandurov.invoice_manager3_02.domain.Money;
+
+import java.util.ArrayList;
+import java.util.List;
+
+public class PdfTemplate {
+
+    private static final String COLUMNS_DIRECTIVE = "@columns";
+    private static final String HEADING_PREFIX = "## ";
+    private static final String LINES_START = "{{#lines}}";
+    private static final String LINES_END = "{{/lines}}";
+    private static final float TEXT_SIZE = 10;
+    private static final float HEADING_SIZE = 13;
+    private static final float TEXT_LEADING = 14;
+    private static final float HEADING_LEADING = 20;
+    private final List<Line> lines;
+    private final List<Line> itemLines;
+    private final int itemsAt;
+
+    private PdfTemplate(List<Line> lines, List<Line> itemLines, int itemsAt){
+        this.lines = lines;
+        this.itemLines = itemLines;
+        this.itemsAt = itemsAt;
+    }
+
+    public static PdfTemplate compile(String source){
+        List<Line> lines = new ArrayList<>();
+        List<Line> itemLines = new ArrayList<>();
+        int itemsAt = -1;
+        boolean inItems = false;
+        Column[] columns = {new Column(PdfDocument.MARGIN, false)};
+        String[] sourceLines = source.split("\r?\n", -1);
+        for(int number = 1; number <= sourceLines.length; number++){
+            String sourceLine = sourceLines[number - 1];
+            String trimmed = sourceLine.trim();
+            if(trimmed.startsWith(COLUMNS_DIRECTIVE)){
+                columns = parseColumns(trimmed.substring(COLUMNS_DIRECTIVE.length()).trim(), number);
+            }else if(trimmed.equals(LINES_START)){
+                if(itemsAt >= 0) throw new IllegalStateException("Template line " + number + ": only one " + LINES_START + " block is allowed");
+                itemsAt = lines.size();
+                inItems = true;
+            }else if(trimmed.equals(LINES_END)){
+                if(!inItems) throw new IllegalStateException("Template line " + number + ": " + LINES_END + " without " + LINES_START);
+                inItems = false;
+            }else{
+                Line line = parseLine(sourceLine, columns, inItems, number);
+                (inItems ? itemLines : lines).add(line);
+            }
+        }
+        if(inItems) throw new IllegalStateException("Template is missing " + LINES_END);
+        return new PdfTemplate(List.copyOf(lines), List.copyOf(itemLines), itemsAt);
+    }
+
+    public void render(Invoice invoice, Customer customer, PdfDocument document){
+        StringBuilder text = new StringBuilder(128);
+        for(int i = 0; i <= lines.size(); i++){
+            if(i == itemsAt){
+                for(InvoiceLine item : invoice.getLines()){
+                    for(Line line : itemLines){
+                        line.render(invoice, customer, item, document, text);
+                    }
+                }
+            }
+            if(i < lines.size()) lines.get(i).render(invoice, customer, null, document, text);
+        }
+    }
+
+    private static Column[] parseColumns(String value, int number){
+        String[] positions = value.split("\\s+");
+        Column[] columns = new Column[positions.length];
+        for(int i = 0; i < positions.length; i++){
+            String position = positions[i];
+            boolean right = position.endsWith(">");
+            try{
+                columns[i] = new Column(Float.parseFloat(right ? position.substring(0, position.length() - 1) : position), right);
+            }catch (NumberFormatException exception){
+                throw new IllegalStateException("Template line " + number + ": invalid column position " + position);
+            }
+        }
+        return columns;
+    }
+
+    private static Line parseLine(String sourceLine, Column[] columns, boolean inItems, int number){
+        boolean heading = sourceLine.startsWith(HEADING_PREFIX);
+        String body = heading ? sourceLine.substring(HEADING_PREFIX.length()) : sourceLine;
+        if(body.isBlank()) return new Line(heading, new Cell[0]);
+        String[] cellSources = body.split("\\|", -1);
+        if(cellSources.length > columns.length) throw new IllegalStateException("Template line " + number + " has more cells than columns");
+        Cell[] cells = new Cell[cellSources.length];
+        for(int i = 0; i < cellSources.length; i++){
+            cells[i] = new Cell(columns[i], parseSegments(cellSources[i].strip(), inItems, number));
+        }
+        return new Line(heading, cells);
+    }
+
+    private static Object[] parseSegments(String source, boolean inItems, int number){
+        List<Object> segments = new ArrayList<>();
+        int position = 0;
+        while(position < source.length()){
+            int open = source.indexOf("{{", position);
+            if(open < 0){
+                segments.add(source.substring(position));
+                break;
+            }
+            int close = source.indexOf("}}", open);
+            if(close < 0) throw new IllegalStateException("Template line " + number + ": unclosed placeholder");
+            if(open > position) segments.add(source.substring(position, open));
+            Field field = Field.of(source.substring(open + 2, close).trim(), number);
+            if(field.item && !inItems) throw new IllegalStateException("Template line " + number + ": {{" + field.name + "}} is only available inside " + LINES_START);
+            segments.add(field);
+            position = close + 2;
+        }
+        return segments.toArray();
+    }
+
+    private static class Column {
+        private final float x;
+        private final boolean right;
+
+        private Column(float x, boolean right){
+            this.x = x;
+            this.right = right;
+        }
+    }
+
+    private static class Cell {
+        private final Column column;
+        private final Object[] segments;
+
+        private Cell(Column column, Object[] segments){
+            this.column = column;
+            this.segments = segments;
+        }
+    }
+
+    private static class Line {
+        private final boolean heading;
+        private final Cell[] cells;
+
+        private Line(boolean heading, Cell[] cells){
+            this.heading = heading;
+            this.cells = cells;
+        }
+
+        private void render(Invoice invoice, Customer customer, InvoiceLine item, PdfDocument document, StringBuilder text){
+            float size = heading ? HEADING_SIZE : TEXT_SIZE;
+            document.newLine(heading ? HEADING_LEADING : TEXT_LEADING);
+            for(Cell cell : cells){
+                text.setLength(0);
+                for(Object segment : cell.segments){
+                    if(segment instanceof Field field){
+                        field.append(invoice, customer, item, text);
+                    }else{
+                        text.append((String) segment);
+                    }
+                }
+                if(!text.isEmpty()) document.text(cell.column.x, size, heading, cell.column.right, text);
+            }
+        }
+    }
+
+    private enum Field {
+        INVOICE_NUMBER("invoiceNumber", false),
+        ISSUED_AT("issuedAt", false),
+        DUE_DATE("dueDate", false),
+        STATUS("status", false),
+        TOTAL("total", false),
+        CURRENCY("currency", false),
+        CUSTOMER_NAME("customerName", false),
+        CUSTOMER_EMAIL("customerEmail", false),
+        CUSTOMER_ADDRESS("customerAddress", false),
+        CUSTOMER_PHONE("customerPhone", false),
+        DESCRIPTION("description", true),
+        QUANTITY("quantity", true),
+        UNIT_PRICE("unitPrice", true),
+        AMOUNT("amount", true);
+
+        private final String name;
+        private final boolean item;
+
+        Field(String name, boolean item){
+            this.name = name;
+            this.item = item;
+        }
+
+        private static Field of(String name, int number){
+            for(Field field : values()){
+                if(field.name.equals(name)) return field;
+            }
+            throw new IllegalStateException("Template line " + number + ": unknown placeholder {{" + name + "}}");
+        }
+
+        private void append(Invoice invoice, Customer customer, InvoiceLine item, StringBuilder text){
+            switch(this){
+                case INVOICE_NUMBER -> text.append(invoice.getInvoiceNumber());
+                case ISSUED_AT -> text.append(invoice.getIssuedAt());
+                case DUE_DATE -> text.append(invoice.getDueDate());
+                case STATUS -> text.append(invoice.getStatus());
+                case TOTAL -> appendMoney(invoice.getTotal(), text);
+                case CURRENCY -> text.append(invoice.getTotal().getCurrencyCode());
+                case CUSTOMER_NAME -> appendNullable(customer.getName(), text);
+                case CUSTOMER_EMAIL -> appendNullable(customer.getEmail(), text);
+                case CUSTOMER_ADDRESS -> appendNullable(customer.getAddress(), text);
+                case CUSTOMER_PHONE -> appendNullable(customer.getPhone(), text);
+                case DESCRIPTION -> text.append(item.getDescription());
+                case QUANTITY -> text.append(item.getQuantity());
+                case UNIT_PRICE -> appendMoney(item.getUnitPrice(), text);
+                case AMOUNT -> appendMoney(item.getAmount(), text);
+            }
+        }
+
+        private static void appendMoney(Money money, StringBuilder text){
+            text.append(money.toBigDecimal().toPlainString());
+        }
+
+        private static void appendNullable(String value, StringBuilder text){
+            if(value != null) text.append(value);
+        }
+    }
+}
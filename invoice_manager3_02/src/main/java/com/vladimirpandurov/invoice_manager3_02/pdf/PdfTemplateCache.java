@@ -0,0 +1,35 @@
+package com.vladimirpandurov.invoice_manager3_02.pdf;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.core.io.ClassPathResource;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+@Component
+@Slf4j
+public class PdfTemplateCache {
+
+    private static final String LOCATION = "templates/";
+    private static final String EXTENSION = ".tpl";
+    private final Map<String, PdfTemplate> templates = new ConcurrentHashMap<>();
+
+    public PdfTemplate get(String name){
+        return templates.computeIfAbsent(name, PdfTemplateCache::load);
+    }
+
+    private static PdfTemplate load(String name){
+        try{
+            String source = new ClassPathResource(LOCATION + name + EXTENSION).getContentAsString(StandardCharsets.UTF_8);
+            PdfTemplate template = PdfTemplate.compile(source);
+            log.info("Compiled PDF template {}", name);
+            return template;
+        }catch (IOException exception){
+            throw new UncheckedIOException("Unable to load PDF template " + name, exception);
+        }
+    }
+}
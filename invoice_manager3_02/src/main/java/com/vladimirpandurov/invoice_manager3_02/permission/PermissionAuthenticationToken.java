@@ -0,0 +1,27 @@
+package com.vladimirpandurov.invoice_manager3_02.permission;
+
+import com.vladimirpandurov.invoice_manager3_02.dto.UserDTO;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+
+import java.io.Serial;
+
+public class PermissionAuthenticationToken extends UsernamePasswordAuthenticationToken {
+
+    @Serial
+    private static final long serialVersionUID = 1L;
+    private final PermissionSet permissions;
+
+    public PermissionAuthenticationToken(Object principal, PermissionSet permissions){
+        super(principal, null, permissions.getAuthorities());
+        this.permissions = permissions;
+    }
+
+    public PermissionSet getPermissions(){
+        return this.permissions;
+    }
+
+    @Override
+    public String getName() {
+        return getPrincipal() instanceof UserDTO user ? user.getEmail() : super.getName();
+    }
+}
@@ -0,0 +1,36 @@
+package com.vladimirpandurov.invoice_manager3_02.permission;
+
+import com.vladimirpandurov.invoice_manager3_02.enumeration.Permission;
+import org.springframework.security.authorization.AuthorizationDecision;
+import org.springframework.security.authorization.AuthorizationManager;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.GrantedAuthority;
+import org.springframework.security.web.access.intercept.RequestAuthorizationContext;
+
+import java.util.function.Supplier;
+
+public class PermissionAuthorizationManager implements AuthorizationManager<RequestAuthorizationContext> {
+
+    private static final AuthorizationDecision GRANTED = new AuthorizationDecision(true);
+    private static final AuthorizationDecision DENIED = new AuthorizationDecision(false);
+    private final Permission permission;
+
+    private PermissionAuthorizationManager(Permission permission){
+        this.permission = permission;
+    }
+
+    public static PermissionAuthorizationManager hasPermission(Permission permission){
+        return new PermissionAuthorizationManager(permission);
+    }
+
+    @Override
+    public AuthorizationDecision check(Supplier<Authentication> authentication, RequestAuthorizationContext context) {
+        Authentication current = authentication.get();
+        if(current == null || !current.isAuthenticated()) return DENIED;
+        if(current instanceof PermissionAuthenticationToken token) return token.getPermissions().has(permission) ? GRANTED : DENIED;
+        for(GrantedAuthority authority : current.getAuthorities()){
+            if(permission.getAuthority().equals(authority.getAuthority())) return GRANTED;
+        }
+        return DENIED;
+    }
+}
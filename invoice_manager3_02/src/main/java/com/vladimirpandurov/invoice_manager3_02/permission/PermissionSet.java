@@ -0,0 +1,74 @@
+package com.vladimirpandurov.invoice_manager3_02.permission;
+
+import com.vladimirpandurov.invoice_manager3_02.enumeration.Permission;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.security.core.GrantedAuthority;
+import org.springframework.security.core.authority.SimpleGrantedAuthority;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+@Slf4j
+public final class PermissionSet {
+
+    private static final Map<String, PermissionSet> BY_PERMISSION_STRING = new ConcurrentHashMap<>();
+    private static final Map<Long, PermissionSet> BY_MASK = new ConcurrentHashMap<>();
+    private final long mask;
+    private final List<GrantedAuthority> authorities;
+
+    private PermissionSet(long mask){
+        this.mask = mask;
+        List<GrantedAuthority> granted = new ArrayList<>();
+        for(Permission permission : Permission.values()){
+            if((mask & permission.getMask()) != 0) granted.add(new SimpleGrantedAuthority(permission.getAuthority()));
+        }
+        this.authorities = List.copyOf(granted);
+    }
+
+    public static PermissionSet of(long mask){
+        return BY_MASK.computeIfAbsent(mask, PermissionSet::new);
+    }
+
+    public static PermissionSet of(String permissions){
+        return BY_PERMISSION_STRING.computeIfAbsent(permissions, key -> of(parse(key)));
+    }
+
+    public static PermissionSet of(String[] authorities){
+        long mask = 0;
+        for(String authority : authorities){
+            mask |= maskOf(authority);
+        }
+        return of(mask);
+    }
+
+    public boolean has(Permission permission){
+        return (mask & permission.getMask()) != 0;
+    }
+
+    public long getMask(){
+        return mask;
+    }
+
+    public List<GrantedAuthority> getAuthorities(){
+        return authorities;
+    }
+
+    private static long parse(String permissions){
+        long mask = 0;
+        for(String authority : permissions.split(",")){
+            if(!authority.isBlank()) mask |= maskOf(authority);
+        }
+        return mask;
+    }
+
+    private static long maskOf(String authority){
+        Permission permission = Permission.fromAuthority(authority);
+        if(permission == null){
+            log.warn("Ignoring unknown permission {}", authority);
+            return 0;
+        }
+        return permission.getMask();
+    }
+}
@@ -7,73 +7,125 @@ import com.auth0.jwt.algorithms.Algorithm;
 import com.auth0.jwt.exceptions.InvalidClaimException;
 import com.auth0.jwt.exceptions.JWTVerificationException;
 import com.auth0.jwt.exceptions.TokenExpiredException;
+import com.auth0.jwt.interfaces.DecodedJWT;
+import com.vladimirpandurov.invoice_manager3_02.domain.RefreshToken;
 import com.vladimirpandurov.invoice_manager3_02.domain.UserPrincipal;
+import com.vladimirpandurov.invoice_manager3_02.jfr.TokenEvent;
+import com.vladimirpandurov.invoice_manager3_02.metric.AuthMetrics;
+import com.vladimirpandurov.invoice_manager3_02.permission.PermissionAuthenticationToken;
+import com.vladimirpandurov.invoice_manager3_02.permission.PermissionSet;
 import com.vladimirpandurov.invoice_manager3_02.service.UserService;
+import com.vladimirpandurov.invoice_manager3_02.utils.TokenIds;
+import com.vladimirpandurov.invoice_manager3_02.warmup.WarmUp;
 import jakarta.servlet.http.HttpServletRequest;
 import lombok.RequiredArgsConstructor;
 import org.apache.commons.lang3.StringUtils;
 import org.springframework.beans.factory.annotation.Value;
-import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
 import org.springframework.security.core.Authentication;
-import org.springframework.security.core.GrantedAuthority;
-import org.springframework.security.core.authority.SimpleGrantedAuthority;
-import org.springframework.security.web.authentication.UsernamePasswordAuthenticationFilter;
 import org.springframework.security.web.authentication.WebAuthenticationDetailsSource;
 import org.springframework.stereotype.Component;
 
+import java.time.ZoneId;
 import java.util.Date;
-import java.util.List;
-import java.util.stream.Collectors;
 
+import static com.vladimirpandurov.invoice_manager3_02.jfr.TokenEvent.*;
+import static com.vladimirpandurov.invoice_manager3_02.metric.AuthMetrics.Outcome.VALID;
+import static com.vladimirpandurov.invoice_manager3_02.metric.AuthMetrics.Stage.TOKEN_SIGN;
 import static java.lang.System.currentTimeMillis;
-import static java.util.Arrays.stream;
 
 @Component
 @RequiredArgsConstructor
 public class TokenProvider {
 
     private final UserService userService;
+    private final AuthMetrics authMetrics;
     public static final String AUTHORITIES = "authorities";
+    public static final String PERMISSIONS = "permissions";
+    public static final String TOKEN_FAMILY = "fid";
+    public static final String TOKEN_TYPE = "typ";
+    public static final String ACCESS_TOKEN = "access";
+    public static final String REFRESH_TOKEN = "refresh";
+    public static final String DECODED_TOKEN = "decodedToken";
     private static final String GET_ARRAYS_LLC = "GET_ARRAYS_LLC";
     private static final String CUSTOMER_MANAGEMENT_SERVICE = "CUSTOMER_MANAGEMENT_SERVICE";
     private static final long ACCESS_TOKEN_EXPIRATION_TIME = 1_800_000;
-    private static final long REFRESH_TOKEN_EXPIRATION_TIME = 432_000_000;
+    public static final long REFRESH_TOKEN_EXPIRATION_TIME = 432_000_000;
     @Value("${jwt.secret}")
     private String secret;
 
     public String createAccessToken(UserPrincipal userPrincipal){
-        return JWT.create().withIssuer(GET_ARRAYS_LLC)
+        return createAccessToken(userPrincipal, null);
+    }
+
+    public String createAccessToken(UserPrincipal userPrincipal, Long familyId){
+        TokenEvent event = new TokenEvent();
+        event.begin();
+        long start = authMetrics.start();
+        String token = JWT.create().withIssuer(GET_ARRAYS_LLC)
                 .withAudience(CUSTOMER_MANAGEMENT_SERVICE)
                 .withIssuedAt(new Date())
                 .withSubject(userPrincipal.getUsername())
-                .withArrayClaim(AUTHORITIES, getClaimsFromUser(userPrincipal))
+                .withJWTId(Long.toString(TokenIds.next()))
+                .withClaim(TOKEN_TYPE, ACCESS_TOKEN)
+                .withClaim(PERMISSIONS, userPrincipal.getPermissions().getMask())
+                .withClaim(TOKEN_FAMILY, familyId)
                 .withExpiresAt(new Date(currentTimeMillis() + ACCESS_TOKEN_EXPIRATION_TIME))
                 .sign(Algorithm.HMAC512(secret.getBytes()));
+        authMetrics.record(TOKEN_SIGN, VALID, start);
+        commit(event, CREATE_ACCESS, true);
+        return token;
     }
 
-    public String createRefreshToken(UserPrincipal userPrincipal){
-        return JWT.create().withIssuer(GET_ARRAYS_LLC)
+    public String createRefreshToken(UserPrincipal userPrincipal, RefreshToken refreshToken){
+        TokenEvent event = new TokenEvent();
+        event.begin();
+        long start = authMetrics.start();
+        String token = JWT.create().withIssuer(GET_ARRAYS_LLC)
                 .withAudience(CUSTOMER_MANAGEMENT_SERVICE)
                 .withIssuedAt(new Date())
                 .withSubject(userPrincipal.getUsername())
-                .withExpiresAt(new Date(currentTimeMillis() + REFRESH_TOKEN_EXPIRATION_TIME))
+                .withJWTId(Long.toString(refreshToken.getId()))
+                .withClaim(TOKEN_TYPE, REFRESH_TOKEN)
+                .withClaim(TOKEN_FAMILY, refreshToken.getFamilyId())
+                .withExpiresAt(Date.from(refreshToken.getExpiresAt().atZone(ZoneId.systemDefault()).toInstant()))
                 .sign(Algorithm.HMAC512(secret.getBytes()));
+        authMetrics.record(TOKEN_SIGN, VALID, start);
+        commit(event, CREATE_REFRESH, true);
+        return token;
     }
 
-    public List<GrantedAuthority> getAuthorities(String token){
-        String[] claims = getClaimsFromToken(token);
-        return stream(claims).map(SimpleGrantedAuthority::new).collect(Collectors.toList());
+    public PermissionSet getPermissions(String token){
+        return getPermissions(verify(token));
     }
 
-    public Authentication getAuthentication(String email, List<GrantedAuthority> authorities, HttpServletRequest request){
-        UsernamePasswordAuthenticationToken usernamePasswordAuthenticationToken = new UsernamePasswordAuthenticationToken(userService.getUserByEmail(email), null, authorities);
-        usernamePasswordAuthenticationToken.setDetails(new WebAuthenticationDetailsSource().buildDetails(request));
-        return usernamePasswordAuthenticationToken;
+    public PermissionSet getPermissions(DecodedJWT decodedJWT){
+        Long mask = decodedJWT.getClaim(PERMISSIONS).asLong();
+        if(mask != null) return PermissionSet.of(mask);
+        String[] authorities = decodedJWT.getClaim(AUTHORITIES).asArray(String.class);
+        if(authorities == null) throw new JWTVerificationException("Token has no permissions");
+        return PermissionSet.of(authorities);
+    }
+
+    public void requireAccessToken(DecodedJWT decodedJWT){
+        String type = decodedJWT.getClaim(TOKEN_TYPE).asString();
+        if(type == null ? decodedJWT.getClaim(PERMISSIONS).isMissing() && decodedJWT.getClaim(AUTHORITIES).isMissing() : !ACCESS_TOKEN.equals(type)){
+            throw new JWTVerificationException("Token is not an access token");
+        }
+    }
+
+    public Authentication getAuthentication(String email, PermissionSet permissions, HttpServletRequest request){
+        PermissionAuthenticationToken authenticationToken = new PermissionAuthenticationToken(userService.getUserByEmail(email), permissions);
+        authenticationToken.setDetails(new WebAuthenticationDetailsSource().buildDetails(request));
+        return authenticationToken;
     }
 
     public String getSubject(String token, HttpServletRequest request){
+        return verifyToken(token, request).getSubject();
+    }
+
+    public DecodedJWT verifyToken(String token, HttpServletRequest request){
         try{
-            return getJWTVerifier().verify(token).getSubject();
+            return verify(token);
         }catch (TokenExpiredException exception){
             request.setAttribute("expiredMessage", exception.getMessage());
             throw exception;
@@ -86,18 +138,38 @@ public class TokenProvider {
     }
 
     public boolean isTokenValid(String email, String token){
-        JWTVerifier verifier = getJWTVerifier();
-        return StringUtils.isNotEmpty(email) && !isTokenExpired(verifier, token);
+        return StringUtils.isNotEmpty(email) && !isTokenExpired(token);
     }
 
-    private boolean isTokenExpired(JWTVerifier verifier, String token){
-        Date expiration = verifier.verify(token).getExpiresAt();
+    public long getTokenId(DecodedJWT decodedJWT){
+        return decodedJWT.getId() == null ? 0 : Long.parseLong(decodedJWT.getId());
+    }
+
+    private boolean isTokenExpired(String token){
+        Date expiration = verify(token).getExpiresAt();
         return expiration.before(new Date());
     }
 
-    private String[] getClaimsFromToken(String token){
-        JWTVerifier verifier = getJWTVerifier();
-        return verifier.verify(token).getClaim(AUTHORITIES).asArray(String.class);
+    private DecodedJWT verify(String token){
+        TokenEvent event = new TokenEvent();
+        event.begin();
+        boolean success = false;
+        try{
+            DecodedJWT decodedJWT = getJWTVerifier().verify(token);
+            success = true;
+            return decodedJWT;
+        }finally {
+            commit(event, VERIFY, success);
+        }
+    }
+
+    private void commit(TokenEvent event, String operation, boolean success){
+        event.end();
+        if(event.shouldCommit() && !WarmUp.isActive()){
+            event.operation = operation;
+            event.success = success;
+            event.commit();
+        }
     }
 
     private JWTVerifier getJWTVerifier(){
@@ -111,8 +183,4 @@ public class TokenProvider {
         return verifier;
     }
 
-    private String[] getClaimsFromUser(UserPrincipal userPrincipal) {
-        return userPrincipal.getAuthorities().stream().map(GrantedAuthority::getAuthority).toArray(String[]::new);
-    }
-
 }
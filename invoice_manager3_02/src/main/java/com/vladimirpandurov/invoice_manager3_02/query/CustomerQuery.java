@@ -0,0 +1,20 @@
+package com.vladimirpandurov.invoice_manager3_02.query;
+
+public class CustomerQuery {
+
+    public static final String INSERT_CUSTOMER_QUERY = "INSERT INTO Customers (name, email, type, status, address, phone, image_url) VALUES (:name, :email, :type, :status, :address, :phone, :imageUrl)";
+    public static final String SELECT_CUSTOMER_BY_ID_QUERY = "SELECT id, name, email, type, status, address, phone, image_url, created_at FROM Customers WHERE id = :id";
+    public static final String SELECT_CUSTOMERS_FIRST_PAGE_QUERY = "SELECT id, name, email, type, status FROM Customers ORDER BY id DESC LIMIT :size";
+    public static final String SELECT_CUSTOMERS_PAGE_QUERY = "SELECT id, name, email, type, status FROM Customers WHERE id < :afterId ORDER BY id DESC LIMIT :size";
+    public static final String SEARCH_CUSTOMERS_FIRST_PAGE_QUERY = "SELECT id, name, email, type, status FROM Customers WHERE name LIKE :prefix ORDER BY name, id LIMIT :size";
+    public static final String SEARCH_CUSTOMERS_PAGE_QUERY = "SELECT id, name, email, type, status FROM Customers WHERE name LIKE :prefix AND (name > :afterName OR (name = :afterName AND id > :afterId)) ORDER BY name, id LIMIT :size";
+    public static final String SELECT_CUSTOMERS_BY_IDS_QUERY = "SELECT id, name, email, type, status, address, phone, image_url, created_at FROM Customers WHERE id IN (:ids)";
+    public static final String SELECT_CUSTOMER_IDS_BY_EMAIL_QUERY = "SELECT id, email FROM Customers WHERE email IN (:emails) ORDER BY id";
+    public static final String UPDATE_CUSTOMER_QUERY = "UPDATE Customers SET name = :name, email = :email, type = :type, status = :status, address = :address, phone = :phone, image_url = :imageUrl WHERE id = :id";
+    public static final String UPDATE_CUSTOMER_STATUS_QUERY = "UPDATE Customers SET status = :status WHERE id IN (:ids)";
+    public static final String SELECT_CUSTOMER_STATUS_FOR_UPDATE_QUERY = "SELECT status FROM Customers WHERE id = :id FOR UPDATE";
+    public static final String SELECT_CUSTOMER_STATUSES_FOR_UPDATE_QUERY = "SELECT status FROM Customers WHERE id IN (:ids) FOR UPDATE";
+    public static final String UPSERT_CUSTOMER_STATUS_SUMMARY_QUERY = "INSERT INTO CustomerStatusSummaries (slot, status, customer_count) VALUES (:slot, :status, :customerCount) " +
+            "ON DUPLICATE KEY UPDATE customer_count = customer_count + VALUES(customer_count)";
+    public static final String DELETE_CUSTOMER_QUERY = "DELETE FROM Customers WHERE id = :id";
+}
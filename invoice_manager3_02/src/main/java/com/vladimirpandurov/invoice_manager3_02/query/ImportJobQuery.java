@@ -0,0 +1,14 @@
+package com.vladimirpandurov.invoice_manager3_02.query;
+
+public class ImportJobQuery {
+
+    public static final String INSERT_IMPORT_JOB_QUERY = "INSERT INTO ImportJobs (status) VALUES (:status)";
+    public static final String UPDATE_IMPORT_JOB_PROGRESS_QUERY = "UPDATE ImportJobs SET rows_read = rows_read + :rowsRead, invoices_created = invoices_created + :invoicesCreated, invoices_rejected = invoices_rejected + :invoicesRejected, updated_at = CURRENT_TIMESTAMP WHERE id = :id";
+    public static final String COMPLETE_IMPORT_JOB_QUERY = "UPDATE ImportJobs SET status = :status, message = :message, updated_at = CURRENT_TIMESTAMP, completed_at = CURRENT_TIMESTAMP WHERE id = :id";
+    public static final String TOUCH_IMPORT_JOBS_QUERY = "UPDATE ImportJobs SET updated_at = CURRENT_TIMESTAMP WHERE id IN (:ids) AND status = 'RUNNING'";
+    public static final String FAIL_STALE_IMPORT_JOBS_QUERY = "UPDATE ImportJobs SET status = 'FAILED', message = :message, completed_at = CURRENT_TIMESTAMP WHERE status = 'RUNNING' AND updated_at < TIMESTAMPADD(SECOND, -:staleSeconds, CURRENT_TIMESTAMP)";
+    public static final String INSERT_IMPORT_JOB_ERROR_QUERY = "INSERT INTO ImportJobErrors (job_id, line_number, reference, message) VALUES (:jobId, :lineNumber, :reference, :message)";
+    public static final String SELECT_IMPORT_JOB_BY_ID_QUERY = "SELECT id, status, rows_read, invoices_created, invoices_rejected, message, created_at, updated_at, completed_at FROM ImportJobs WHERE id = :id";
+    public static final String SELECT_IMPORT_JOB_ERRORS_QUERY = "SELECT line_number, reference, message FROM ImportJobErrors WHERE job_id = :jobId ORDER BY line_number LIMIT :limit";
+    public static final String SELECT_RECENT_IMPORT_JOBS_QUERY = "SELECT id, status, rows_read, invoices_created, invoices_rejected, message, created_at, updated_at, completed_at FROM ImportJobs ORDER BY id DESC LIMIT :limit";
+}
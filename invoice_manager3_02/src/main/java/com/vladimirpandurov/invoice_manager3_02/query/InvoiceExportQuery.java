@@ -0,0 +1,9 @@
+package com.vladimirpandurov.invoice_manager3_02.query;
+
+public class InvoiceExportQuery {
+
+    public static final String EXPORT_INVOICES_QUERY = "SELECT i.id, i.invoice_number, i.customer_id, c.name AS customer_name, c.email AS customer_email, i.status, i.issued_at, i.due_date, i.currency, i.total_minor, l.description, l.quantity, l.unit_price_minor, l.amount_minor " +
+            "FROM Invoices i JOIN Customers c ON c.id = i.customer_id JOIN InvoiceLines l ON l.invoice_id = i.id WHERE i.issued_at BETWEEN :from AND :to ORDER BY i.issued_at, i.id";
+    public static final String EXPORT_INVOICES_AFTER_QUERY = "SELECT i.id, i.invoice_number, i.customer_id, c.name AS customer_name, c.email AS customer_email, i.status, i.issued_at, i.due_date, i.currency, i.total_minor, l.description, l.quantity, l.unit_price_minor, l.amount_minor " +
+            "FROM Invoices i JOIN Customers c ON c.id = i.customer_id JOIN InvoiceLines l ON l.invoice_id = i.id WHERE i.issued_at BETWEEN :from AND :to AND (i.issued_at > :afterIssuedAt OR (i.issued_at = :afterIssuedAt AND i.id > :afterId)) ORDER BY i.issued_at, i.id";
+}
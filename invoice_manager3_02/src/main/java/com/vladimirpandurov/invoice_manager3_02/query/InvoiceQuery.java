@@ -0,0 +1,34 @@
+package com.vladimirpandurov.invoice_manager3_02.query;
+
+public class InvoiceQuery {
+
+    public static final String INSERT_INVOICE_QUERY = "INSERT INTO Invoices (invoice_number, customer_id, status, issued_at, due_date, currency, total_minor, import_reference) VALUES (:invoiceNumber, :customerId, :status, :issuedAt, :dueDate, :currency, :total, :importReference)";
+    public static final String INSERT_INVOICE_LINE_QUERY = "INSERT INTO InvoiceLines (invoice_id, description, quantity, unit_price_minor, amount_minor) VALUES (:invoiceId, :description, :quantity, :unitPrice, :amount)";
+    public static final String SELECT_INVOICE_BY_ID_QUERY = "SELECT id, invoice_number, customer_id, status, issued_at, due_date, currency, total_minor, version, created_at FROM Invoices WHERE id = :id";
+    public static final String SELECT_INVOICE_FOR_UPDATE_QUERY = "SELECT id, invoice_number, customer_id, status, issued_at, due_date, currency, total_minor, version, created_at FROM Invoices WHERE id = :id FOR UPDATE";
+    public static final String SELECT_INVOICES_BY_IDS_QUERY = "SELECT id, invoice_number, customer_id, status, issued_at, due_date, currency, total_minor, version, created_at FROM Invoices WHERE id IN (:ids)";
+    public static final String SELECT_INVOICE_IDS_BY_NUMBER_QUERY = "SELECT id, invoice_number FROM Invoices WHERE invoice_number IN (:invoiceNumbers)";
+    public static final String SELECT_IMPORTED_REFERENCES_QUERY = "SELECT import_reference FROM Invoices WHERE import_reference IN (:references)";
+    public static final String SELECT_INVOICE_LINES_QUERY = "SELECT id, invoice_id, description, quantity, unit_price_minor, amount_minor FROM InvoiceLines WHERE invoice_id = :invoiceId ORDER BY id";
+    public static final String SELECT_INVOICES_FIRST_PAGE_QUERY = "SELECT id, invoice_number, customer_id, status, issued_at, due_date, currency, total_minor, version, created_at FROM Invoices ORDER BY id DESC LIMIT :size";
+    public static final String SELECT_INVOICES_PAGE_QUERY = "SELECT id, invoice_number, customer_id, status, issued_at, due_date, currency, total_minor, version, created_at FROM Invoices WHERE id < :afterId ORDER BY id DESC LIMIT :size";
+    public static final String SELECT_CUSTOMER_INVOICES_FIRST_PAGE_QUERY = "SELECT id, invoice_number, customer_id, status, issued_at, due_date, currency, total_minor, version, created_at FROM Invoices WHERE customer_id = :customerId ORDER BY id DESC LIMIT :size";
+    public static final String SELECT_CUSTOMER_INVOICES_PAGE_QUERY = "SELECT id, invoice_number, customer_id, status, issued_at, due_date, currency, total_minor, version, created_at FROM Invoices WHERE customer_id = :customerId AND id < :afterId ORDER BY id DESC LIMIT :size";
+    public static final String SELECT_ISSUED_INVOICES_FIRST_PAGE_QUERY = "SELECT id, invoice_number, customer_id, status, issued_at, due_date, currency, total_minor, version, created_at FROM Invoices WHERE issued_at BETWEEN :from AND :to ORDER BY issued_at, id LIMIT :size";
+    public static final String SELECT_ISSUED_INVOICES_PAGE_QUERY = "SELECT id, invoice_number, customer_id, status, issued_at, due_date, currency, total_minor, version, created_at FROM Invoices WHERE issued_at BETWEEN :from AND :to AND (issued_at > :afterIssuedAt OR (issued_at = :afterIssuedAt AND id > :afterId)) ORDER BY issued_at, id LIMIT :size";
+    public static final String SELECT_INVOICE_LINES_BY_INVOICE_IDS_QUERY = "SELECT id, invoice_id, description, quantity, unit_price_minor, amount_minor FROM InvoiceLines WHERE invoice_id IN (:invoiceIds) ORDER BY invoice_id, id";
+    public static final String SELECT_OVERDUE_INVOICE_IDS_QUERY = "SELECT id FROM Invoices WHERE status = 'PENDING' AND due_date < :today ORDER BY due_date LIMIT :size";
+    public static final String UPDATE_INVOICE_QUERY = "UPDATE Invoices SET due_date = :dueDate, total_minor = :total, version = version + 1 WHERE id = :id";
+    public static final String UPDATE_INVOICE_STATUS_QUERY = "UPDATE Invoices SET status = :status, version = version + 1 WHERE id = :id AND status = :previousStatus";
+    public static final String DELETE_INVOICE_LINES_QUERY = "DELETE FROM InvoiceLines WHERE invoice_id = :invoiceId";
+    public static final String DELETE_INVOICE_QUERY = "DELETE FROM Invoices WHERE id = :id";
+    public static final String UPSERT_CUSTOMER_INVOICE_SUMMARY_QUERY = "INSERT INTO CustomerInvoiceSummaries (customer_id, invoice_count, total_billed_minor, outstanding_minor, overdue_count) VALUES (:customerId, :invoiceCount, :totalBilled, :outstanding, :overdueCount) " +
+            "ON DUPLICATE KEY UPDATE invoice_count = invoice_count + VALUES(invoice_count), total_billed_minor = total_billed_minor + VALUES(total_billed_minor), outstanding_minor = outstanding_minor + VALUES(outstanding_minor), overdue_count = overdue_count + VALUES(overdue_count)";
+    public static final String UPDATE_ACCOUNT_INVOICE_SUMMARY_QUERY = "UPDATE AccountInvoiceSummaries SET invoice_count = invoice_count + :invoiceCount, total_billed_minor = total_billed_minor + :totalBilled, outstanding_minor = outstanding_minor + :outstanding, overdue_count = overdue_count + :overdueCount WHERE slot = :slot";
+    public static final String UPSERT_INVOICE_STATUS_SUMMARY_QUERY = "INSERT INTO InvoiceStatusSummaries (slot, status, invoice_count, total_minor) VALUES (:slot, :status, :invoiceCount, :total) " +
+            "ON DUPLICATE KEY UPDATE invoice_count = invoice_count + VALUES(invoice_count), total_minor = total_minor + VALUES(total_minor)";
+    public static final String UPSERT_MONTHLY_REVENUE_SUMMARY_QUERY = "INSERT INTO MonthlyRevenueSummaries (issued_year, issued_month, slot, invoice_count, billed_minor, paid_minor) VALUES (:issuedYear, :issuedMonth, :slot, :invoiceCount, :billed, :paid) " +
+            "ON DUPLICATE KEY UPDATE invoice_count = invoice_count + VALUES(invoice_count), billed_minor = billed_minor + VALUES(billed_minor), paid_minor = paid_minor + VALUES(paid_minor)";
+    public static final String SELECT_CUSTOMER_INVOICE_SUMMARY_QUERY = "SELECT invoice_count, total_billed_minor, outstanding_minor, overdue_count FROM CustomerInvoiceSummaries WHERE customer_id = :customerId";
+    public static final String SELECT_ACCOUNT_INVOICE_SUMMARY_QUERY = "SELECT COALESCE(SUM(invoice_count), 0) AS invoice_count, COALESCE(SUM(total_billed_minor), 0) AS total_billed_minor, COALESCE(SUM(outstanding_minor), 0) AS outstanding_minor, COALESCE(SUM(overdue_count), 0) AS overdue_count FROM AccountInvoiceSummaries";
+}
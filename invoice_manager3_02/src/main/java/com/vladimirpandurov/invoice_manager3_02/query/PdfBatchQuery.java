@@ -0,0 +1,13 @@
+package com.vladimirpandurov.invoice_manager3_02.query;
+
+public class PdfBatchQuery {
+
+    public static final String INSERT_PDF_BATCH_QUERY = "INSERT INTO PdfBatches (status, issued_from, issued_to, owner) VALUES (:status, :issuedFrom, :issuedTo, :owner)";
+    public static final String SELECT_PDF_BATCH_BY_ID_QUERY = "SELECT id, status, issued_from, issued_to, last_issued_at, last_invoice_id, rendered, failed, owner, message, created_at, updated_at, completed_at FROM PdfBatches WHERE id = :id";
+    public static final String SELECT_RECENT_PDF_BATCHES_QUERY = "SELECT id, status, issued_from, issued_to, last_issued_at, last_invoice_id, rendered, failed, owner, message, created_at, updated_at, completed_at FROM PdfBatches ORDER BY id DESC LIMIT :limit";
+    public static final String SELECT_STALE_PDF_BATCH_IDS_QUERY = "SELECT id FROM PdfBatches WHERE status = 'RUNNING' AND updated_at < :staleBefore ORDER BY id";
+    public static final String CLAIM_STALE_PDF_BATCH_QUERY = "UPDATE PdfBatches SET owner = :owner, updated_at = CURRENT_TIMESTAMP WHERE id = :id AND status = 'RUNNING' AND updated_at < :staleBefore";
+    public static final String REOPEN_PDF_BATCH_QUERY = "UPDATE PdfBatches SET status = 'RUNNING', owner = :owner, message = NULL, completed_at = NULL, updated_at = CURRENT_TIMESTAMP WHERE id = :id AND status = 'FAILED'";
+    public static final String CHECKPOINT_PDF_BATCH_QUERY = "UPDATE PdfBatches SET last_issued_at = :lastIssuedAt, last_invoice_id = :lastInvoiceId, rendered = rendered + :rendered, failed = failed + :failed, updated_at = CURRENT_TIMESTAMP WHERE id = :id AND owner = :owner";
+    public static final String COMPLETE_PDF_BATCH_QUERY = "UPDATE PdfBatches SET status = :status, message = :message, updated_at = CURRENT_TIMESTAMP, completed_at = CURRENT_TIMESTAMP WHERE id = :id AND owner = :owner";
+}
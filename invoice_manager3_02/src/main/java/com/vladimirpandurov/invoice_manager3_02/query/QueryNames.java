@@ -0,0 +1,47 @@
+package com.vladimirpandurov.invoice_manager3_02.query;
+
+import java.lang.reflect.Field;
+import java.lang.reflect.Modifier;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+public class QueryNames {
+
+    public static final String UNNAMED_QUERY = "UNNAMED_QUERY";
+    private static final Map<String, String> NAMES = new ConcurrentHashMap<>();
+
+    static {
+        register(UserQuery.class);
+        register(RoleQuery.class);
+        register(RefreshTokenQuery.class);
+        register(RevokedTokenQuery.class);
+        register(UserChangeQuery.class);
+        register(CustomerQuery.class);
+        register(InvoiceQuery.class);
+        register(SequenceQuery.class);
+        register(ImportJobQuery.class);
+        register(InvoiceExportQuery.class);
+        register(PdfBatchQuery.class);
+        register(SearchQuery.class);
+        register(SearchChangeQuery.class);
+        register(StatisticsQuery.class);
+        register(RecurringScheduleQuery.class);
+    }
+
+    public static String nameOf(String sql){
+        return NAMES.getOrDefault(sql, UNNAMED_QUERY);
+    }
+
+    private static void register(Class<?> queryClass){
+        for(Field field : queryClass.getDeclaredFields()){
+            int modifiers = field.getModifiers();
+            if(Modifier.isStatic(modifiers) && Modifier.isFinal(modifiers) && field.getType() == String.class){
+                try{
+                    NAMES.putIfAbsent((String) field.get(null), field.getName());
+                }catch (IllegalAccessException exception){
+                    throw new IllegalStateException("Unable to read query " + field.getName(), exception);
+                }
+            }
+        }
+    }
+}
@@ -0,0 +1,23 @@
+package com.vladimirpandurov.invoice_manager3_02.query;
+
+public class RecurringScheduleQuery {
+
+    public static final String INSERT_RECURRING_SCHEDULE_QUERY = "INSERT INTO RecurringSchedules (customer_id, partition_no, frequency, anchor_day, description, quantity, currency, unit_price_minor, due_days, next_run_at) VALUES (:customerId, :partition, :frequency, :anchorDay, :description, :quantity, :currency, :unitPrice, :dueDays, :nextRunAt)";
+    public static final String SELECT_RECURRING_SCHEDULE_BY_ID_QUERY = "SELECT id, customer_id, partition_no, frequency, anchor_day, description, quantity, currency, unit_price_minor, due_days, next_run_at, last_run_at, active, created_at FROM RecurringSchedules WHERE id = :id";
+    public static final String SELECT_RECURRING_SCHEDULES_FIRST_PAGE_QUERY = "SELECT id, customer_id, partition_no, frequency, anchor_day, description, quantity, currency, unit_price_minor, due_days, next_run_at, last_run_at, active, created_at FROM RecurringSchedules ORDER BY id DESC LIMIT :size";
+    public static final String SELECT_RECURRING_SCHEDULES_PAGE_QUERY = "SELECT id, customer_id, partition_no, frequency, anchor_day, description, quantity, currency, unit_price_minor, due_days, next_run_at, last_run_at, active, created_at FROM RecurringSchedules WHERE id < :afterId ORDER BY id DESC LIMIT :size";
+    public static final String SELECT_DUE_RECURRING_SCHEDULES_FIRST_PAGE_QUERY = "SELECT id, next_run_at FROM RecurringSchedules WHERE partition_no = :partition AND next_run_at < :until AND active = TRUE ORDER BY next_run_at, id LIMIT :size";
+    public static final String SELECT_DUE_RECURRING_SCHEDULES_PAGE_QUERY = "SELECT id, next_run_at FROM RecurringSchedules WHERE partition_no = :partition AND next_run_at < :until AND (next_run_at > :afterRunAt OR (next_run_at = :afterRunAt AND id > :afterId)) AND active = TRUE ORDER BY next_run_at, id LIMIT :size";
+    public static final String LOCK_DUE_RECURRING_SCHEDULES_QUERY = "SELECT id, customer_id, partition_no, frequency, anchor_day, description, quantity, currency, unit_price_minor, due_days, next_run_at, last_run_at, active, created_at FROM RecurringSchedules WHERE id IN (:ids) AND next_run_at <= :now AND active = TRUE ORDER BY id FOR UPDATE";
+    public static final String ADVANCE_RECURRING_SCHEDULE_QUERY = "UPDATE RecurringSchedules SET next_run_at = :nextRunAt, last_run_at = :lastRunAt WHERE id = :id";
+    public static final String CANCEL_RECURRING_SCHEDULE_QUERY = "UPDATE RecurringSchedules SET active = FALSE WHERE id = :id AND active = TRUE";
+
+    public static final String RENEW_SCHEDULE_LEASES_QUERY = "UPDATE ScheduleLeases SET expires_at = TIMESTAMPADD(SECOND, :leaseSeconds, CURRENT_TIMESTAMP) WHERE owner = :owner AND expires_at > CURRENT_TIMESTAMP";
+    public static final String SELECT_OWNED_SCHEDULE_LEASES_QUERY = "SELECT partition_no FROM ScheduleLeases WHERE owner = :owner AND expires_at > CURRENT_TIMESTAMP ORDER BY partition_no";
+    public static final String ACQUIRE_SCHEDULE_LEASE_QUERY = "UPDATE ScheduleLeases SET owner = :owner, expires_at = TIMESTAMPADD(SECOND, :leaseSeconds, CURRENT_TIMESTAMP), acquired_at = CURRENT_TIMESTAMP WHERE partition_no = :partition AND (owner IS NULL OR expires_at <= CURRENT_TIMESTAMP)";
+    public static final String RELEASE_SCHEDULE_LEASE_QUERY = "UPDATE ScheduleLeases SET owner = NULL, expires_at = NULL WHERE partition_no = :partition AND owner = :owner";
+    public static final String UPSERT_SCHEDULER_NODE_QUERY = "INSERT INTO SchedulerNodes (owner, heartbeat_at) VALUES (:owner, CURRENT_TIMESTAMP) ON DUPLICATE KEY UPDATE heartbeat_at = VALUES(heartbeat_at)";
+    public static final String COUNT_LIVE_SCHEDULER_NODES_QUERY = "SELECT COUNT(*) FROM SchedulerNodes WHERE heartbeat_at > TIMESTAMPADD(SECOND, -:aliveSeconds, CURRENT_TIMESTAMP)";
+    public static final String DELETE_STALE_SCHEDULER_NODES_QUERY = "DELETE FROM SchedulerNodes WHERE heartbeat_at < TIMESTAMPADD(SECOND, -:aliveSeconds, CURRENT_TIMESTAMP)";
+    public static final String DELETE_SCHEDULER_NODE_QUERY = "DELETE FROM SchedulerNodes WHERE owner = :owner";
+}
@@ -0,0 +1,11 @@
+package com.vladimirpandurov.invoice_manager3_02.query;
+
+public class RefreshTokenQuery {
+
+    public static final String INSERT_REFRESH_TOKEN_QUERY = "INSERT INTO RefreshTokens (id, family_id, user_id, expires_at) VALUES (:id, :familyId, :userId, :expiresAt)";
+    public static final String SELECT_REFRESH_TOKEN_BY_ID_QUERY = "SELECT * FROM RefreshTokens WHERE id = :id";
+    public static final String MARK_REFRESH_TOKEN_USED_QUERY = "UPDATE RefreshTokens SET used_at = NOW() WHERE id = :id AND used_at IS NULL AND revoked = FALSE AND expires_at > NOW()";
+    public static final String REVOKE_REFRESH_TOKEN_FAMILY_QUERY = "UPDATE RefreshTokens SET revoked = TRUE WHERE family_id = :familyId";
+    public static final String SELECT_ACTIVE_REFRESH_TOKENS_QUERY = "SELECT id, expires_at FROM RefreshTokens WHERE used_at IS NULL AND revoked = FALSE AND expires_at > NOW()";
+    public static final String DELETE_EXPIRED_REFRESH_TOKENS_QUERY = "DELETE FROM RefreshTokens WHERE expires_at < :before";
+}
@@ -0,0 +1,9 @@
+package com.vladimirpandurov.invoice_manager3_02.query;
+
+public class RevokedTokenQuery {
+
+    public static final String INSERT_REVOKED_TOKEN_QUERY = "INSERT INTO RevokedTokens (token_id, user_id, expires_at) VALUES (:tokenId, :userId, :expiresAt)";
+    public static final String SELECT_REVOKED_TOKENS_AFTER_ID_QUERY = "SELECT id, token_id, expires_at FROM RevokedTokens WHERE id > :lastId ORDER BY id LIMIT :limit";
+    public static final String SELECT_REVOKED_TOKENS_BY_IDS_QUERY = "SELECT id, token_id, expires_at FROM RevokedTokens WHERE id IN (:ids) ORDER BY id";
+    public static final String DELETE_EXPIRED_REVOKED_TOKENS_QUERY = "DELETE FROM RevokedTokens WHERE expires_at < :before";
+}
@@ -0,0 +1,10 @@
+package com.vladimirpandurov.invoice_manager3_02.query;
+
+public class SearchChangeQuery {
+
+    public static final String INSERT_SEARCH_CHANGE_QUERY = "INSERT INTO SearchChanges (entity_type, entity_id) VALUES (:entityType, :entityId)";
+    public static final String SELECT_SEARCH_CHANGES_AFTER_ID_QUERY = "SELECT id, entity_type, entity_id, created_at FROM SearchChanges WHERE id > :lastId ORDER BY id LIMIT :limit";
+    public static final String SELECT_SEARCH_CHANGES_BY_IDS_QUERY = "SELECT id, entity_type, entity_id, created_at FROM SearchChanges WHERE id IN (:ids) ORDER BY id";
+    public static final String SELECT_LAST_SEARCH_CHANGE_ID_QUERY = "SELECT COALESCE(MAX(id), 0) FROM SearchChanges";
+    public static final String DELETE_SEARCH_CHANGES_BEFORE_QUERY = "DELETE FROM SearchChanges WHERE created_at < :before";
+}
@@ -0,0 +1,11 @@
+package com.vladimirpandurov.invoice_manager3_02.query;
+
+public class SearchQuery {
+
+    public static final String SELECT_CUSTOMER_SEARCH_DOCUMENTS_QUERY = "SELECT id, name, email FROM Customers WHERE id > :afterId ORDER BY id LIMIT :size";
+    public static final String SELECT_INVOICE_SEARCH_DOCUMENTS_QUERY = "SELECT id, invoice_number FROM Invoices WHERE id > :afterId ORDER BY id LIMIT :size";
+    public static final String SELECT_INVOICE_LINE_SEARCH_DOCUMENTS_QUERY = "SELECT invoice_id, description FROM InvoiceLines WHERE invoice_id > :afterId AND invoice_id <= :lastId ORDER BY invoice_id, id";
+    public static final String SELECT_CUSTOMER_SEARCH_DOCUMENTS_BY_IDS_QUERY = "SELECT id, name, email FROM Customers WHERE id IN (:ids)";
+    public static final String SELECT_INVOICE_SEARCH_DOCUMENTS_BY_IDS_QUERY = "SELECT id, invoice_number FROM Invoices WHERE id IN (:ids)";
+    public static final String SELECT_INVOICE_LINE_SEARCH_DOCUMENTS_BY_IDS_QUERY = "SELECT invoice_id, description FROM InvoiceLines WHERE invoice_id IN (:ids) ORDER BY invoice_id, id";
+}
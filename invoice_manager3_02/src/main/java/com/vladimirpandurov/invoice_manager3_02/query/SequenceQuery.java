@@ -0,0 +1,7 @@
+package com.vladimirpandurov.invoice_manager3_02.query;
+
+public class SequenceQuery {
+
+    public static final String SELECT_SEQUENCE_FOR_UPDATE_QUERY = "SELECT next_value FROM InvoiceSequences WHERE name = :name FOR UPDATE";
+    public static final String ADVANCE_SEQUENCE_QUERY = "UPDATE InvoiceSequences SET next_value = next_value + :blockSize WHERE name = :name";
+}
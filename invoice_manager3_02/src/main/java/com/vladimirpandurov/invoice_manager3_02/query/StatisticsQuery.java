@@ -0,0 +1,10 @@
+package com.vladimirpandurov.invoice_manager3_02.query;
+
+public class StatisticsQuery {
+
+    public static final String COUNT_CUSTOMERS_BY_STATUS_QUERY = "SELECT status, SUM(customer_count) AS customer_count FROM CustomerStatusSummaries GROUP BY status HAVING SUM(customer_count) > 0";
+    public static final String SUM_INVOICES_BY_STATUS_QUERY = "SELECT status, SUM(invoice_count) AS invoice_count, SUM(total_minor) AS total_minor FROM InvoiceStatusSummaries GROUP BY status HAVING SUM(invoice_count) > 0";
+    public static final String SUM_REVENUE_BY_MONTH_QUERY = "SELECT issued_year, issued_month, SUM(invoice_count) AS invoice_count, SUM(billed_minor) AS billed_minor, SUM(paid_minor) AS paid_minor " +
+            "FROM MonthlyRevenueSummaries WHERE issued_year > :sinceYear OR (issued_year = :sinceYear AND issued_month >= :sinceMonth) " +
+            "GROUP BY issued_year, issued_month HAVING SUM(invoice_count) > 0";
+}
@@ -0,0 +1,10 @@
+package com.vladimirpandurov.invoice_manager3_02.query;
+
+public class UserChangeQuery {
+
+    public static final String INSERT_USER_CHANGE_QUERY = "INSERT INTO UserChanges (user_id, email, type) VALUES (:userId, :email, :type)";
+    public static final String SELECT_USER_CHANGES_AFTER_ID_QUERY = "SELECT id, user_id, email, type, created_at FROM UserChanges WHERE id > :lastId ORDER BY id LIMIT :limit";
+    public static final String SELECT_USER_CHANGES_BY_IDS_QUERY = "SELECT id, user_id, email, type, created_at FROM UserChanges WHERE id IN (:ids) ORDER BY id";
+    public static final String SELECT_LAST_USER_CHANGE_ID_QUERY = "SELECT COALESCE(MAX(id), 0) FROM UserChanges";
+    public static final String DELETE_USER_CHANGES_BEFORE_QUERY = "DELETE FROM UserChanges WHERE created_at < :before";
+}
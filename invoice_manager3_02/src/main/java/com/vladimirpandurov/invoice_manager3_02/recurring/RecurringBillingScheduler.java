@@ -0,0 +1,354 @@
+package com.vladimirpandurov.invoice_manager3_02.recurring;
+
+import com.vladimirpandurov.invoice_manager3_02.domain.RecurringBillingStatus;
+import com.vladimirpandurov.invoice_manager3_02.domain.RecurringSchedule;
+import com.vladimirpandurov.invoice_manager3_02.repository.RecurringScheduleRepository;
+import com.vladimirpandurov.invoice_manager3_02.utils.LongLongHashMap;
+import com.vladimirpandurov.invoice_manager3_02.utils.NodeIds;
+import com.vladimirpandurov.invoice_manager3_02.utils.TimingWheel;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Queue;
+import java.util.Set;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static java.util.concurrent.TimeUnit.MILLISECONDS;
+import static java.util.concurrent.TimeUnit.NANOSECONDS;
+import static java.util.concurrent.TimeUnit.SECONDS;
+
+@Component
+@Slf4j
+public class RecurringBillingScheduler {
+
+    public static final int PARTITIONS = 64;
+    private static final int LOAD_PAGE_SIZE = 5000;
+    private static final long MISSING = Long.MIN_VALUE;
+    private static final long QUEUED = Long.MIN_VALUE + 1;
+    private static final long DONE = Long.MIN_VALUE + 2;
+    private static final long NEW = -1L;
+    private final RecurringScheduleRepository<RecurringSchedule> scheduleRepository;
+    private final RecurringInvoiceGenerator generator;
+    private final Clock clock;
+    private final boolean enabled;
+    private final long tickMillis;
+    private final Duration leaseDuration;
+    private final long leaseRenewMillis;
+    private final long horizonMillis;
+    private final long reloadMillis;
+    private final long retryDelayMillis;
+    private final int batchSize;
+    private final int maxInFlight;
+    private final String owner;
+    private final ScheduledExecutorService scheduler;
+    private final ExecutorService workers;
+    private final TimingWheel wheel;
+    private final ArrayDeque<Long> pending = new ArrayDeque<>();
+    private final Queue<long[]> arrivals = new ConcurrentLinkedQueue<>();
+    private final AtomicInteger inFlight = new AtomicInteger();
+    private final BitSet owned = new BitSet(PARTITIONS);
+    private final Counter generated;
+    private final Counter failed;
+    private final Timer batchTimer;
+    private final DistributionSummary delay;
+    private LongLongHashMap scheduled = new LongLongHashMap(1024);
+    private long epoch;
+    private long nextLeaseCheck;
+    private long nextReload;
+    private long loadedUntil;
+    private boolean reloadNeeded;
+    private volatile List<Integer> ownedPartitions = List.of();
+    private volatile int scheduledCount;
+    private volatile int pendingCount;
+
+    public RecurringBillingScheduler(RecurringScheduleRepository<RecurringSchedule> scheduleRepository, RecurringInvoiceGenerator generator, Clock clock, MeterRegistry registry,
+                                     @Value("${application.recurring.enabled:true}") boolean enabled,
+                                     @Value("${application.recurring.tick:PT1S}") Duration tick,
+                                     @Value("${application.recurring.lease-duration:PT30S}") Duration leaseDuration,
+                                     @Value("${application.recurring.lease-renew-interval:PT10S}") Duration leaseRenewInterval,
+                                     @Value("${application.recurring.horizon:PT1H}") Duration horizon,
+                                     @Value("${application.recurring.reload-interval:PT10M}") Duration reloadInterval,
+                                     @Value("${application.recurring.retry-delay:PT1M}") Duration retryDelay,
+                                     @Value("${application.recurring.batch-size:500}") int batchSize,
+                                     @Value("${application.recurring.parallelism:4}") int parallelism){
+        this.scheduleRepository = scheduleRepository;
+        this.generator = generator;
+        this.clock = clock;
+        this.enabled = enabled;
+        this.tickMillis = tick.toMillis();
+        this.leaseDuration = leaseDuration;
+        this.leaseRenewMillis = Math.min(leaseRenewInterval.toMillis(), leaseDuration.toMillis() / 2);
+        this.horizonMillis = horizon.toMillis();
+        this.reloadMillis = Math.min(reloadInterval.toMillis(), horizonMillis / 2);
+        this.retryDelayMillis = retryDelay.toMillis();
+        this.batchSize = Math.max(1, batchSize);
+        this.maxInFlight = Math.max(1, parallelism) * 2;
+        this.owner = NodeIds.next();
+        this.scheduler = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "recurring-scheduler");
+            thread.setDaemon(true);
+            return thread;
+        });
+        AtomicInteger threads = new AtomicInteger();
+        this.workers = Executors.newFixedThreadPool(Math.max(1, parallelism), runnable -> {
+            Thread thread = new Thread(runnable, "recurring-billing-" + threads.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
+        this.wheel = new TimingWheel(tickMillis, clock.millis());
+        this.generated = Counter.builder("recurring.invoices").tag("result", "generated").register(registry);
+        this.failed = Counter.builder("recurring.invoices").tag("result", "failed").register(registry);
+        this.batchTimer = Timer.builder("recurring.batch")
+                .description("Time to generate one batch of recurring invoices")
+                .publishPercentiles(0.5, 0.99)
+                .register(registry);
+        this.delay = DistributionSummary.builder("recurring.invoice.delay")
+                .description("Time between a scheduled run and the commit of its invoice")
+                .baseUnit("milliseconds")
+                .publishPercentiles(0.5, 0.99)
+                .register(registry);
+        Gauge.builder("recurring.partitions.owned", this, billing -> billing.ownedPartitions.size()).register(registry);
+        Gauge.builder("recurring.scheduled", this, billing -> billing.scheduledCount).register(registry);
+        Gauge.builder("recurring.pending", this, billing -> billing.pendingCount).register(registry);
+        Gauge.builder("recurring.in_flight", inFlight, AtomicInteger::get).register(registry);
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void start(){
+        if(!enabled) return;
+        log.info("Starting recurring billing as {}", owner);
+        scheduler.scheduleWithFixedDelay(this::tick, 0, tickMillis, MILLISECONDS);
+    }
+
+    public void register(RecurringSchedule schedule){
+        if(ownedPartitions.contains(schedule.getPartition())) arrivals.add(new long[]{schedule.getId(), toMillis(schedule.getNextRunAt()), NEW});
+    }
+
+    public RecurringBillingStatus status(){
+        return RecurringBillingStatus.builder()
+                .owner(owner)
+                .clock(LocalDateTime.now(clock))
+                .partitions(ownedPartitions)
+                .scheduled(scheduledCount)
+                .pending(pendingCount)
+                .inFlight(inFlight.get())
+                .generated((long) generated.count())
+                .failed((long) failed.count())
+                .build();
+    }
+
+    @PreDestroy
+    public void shutdown(){
+        scheduler.shutdownNow();
+        workers.shutdown();
+        try{
+            if(!workers.awaitTermination(10, SECONDS)) workers.shutdownNow();
+            for(Integer partition : ownedPartitions){
+                scheduleRepository.releaseLease(partition, owner);
+            }
+            scheduleRepository.leave(owner);
+        }catch (InterruptedException exception){
+            Thread.currentThread().interrupt();
+        }catch (Exception exception){
+            log.warn("Unable to release recurring billing leases: {}", exception.getMessage());
+        }
+    }
+
+    private void tick(){
+        try{
+            long now = clock.millis();
+            if(now >= nextLeaseCheck){
+                maintainLeases();
+                nextLeaseCheck = now + leaseRenewMillis;
+            }
+            if(reloadNeeded || now >= nextReload) reload(now);
+            drainArrivals();
+            wheel.advance(now, this::expire);
+            dispatch();
+        }catch (Exception exception){
+            log.error("Recurring billing tick failed: {}", exception.getMessage());
+        }finally {
+            scheduledCount = wheel.size();
+            pendingCount = pending.size();
+        }
+    }
+
+    private void maintainLeases(){
+        int nodes = Math.max(1, scheduleRepository.heartbeat(owner, leaseDuration));
+        int target = (PARTITIONS + nodes - 1) / nodes;
+        BitSet held = new BitSet(PARTITIONS);
+        scheduleRepository.renewLeases(owner, leaseDuration).forEach(held::set);
+        for(int partition = held.previousSetBit(PARTITIONS - 1); partition >= 0 && held.cardinality() > target; partition = held.previousSetBit(partition - 1)){
+            scheduleRepository.releaseLease(partition, owner);
+            held.clear(partition);
+        }
+        int start = Math.floorMod(owner.hashCode(), PARTITIONS);
+        for(int i = 0; i < PARTITIONS && held.cardinality() < target; i++){
+            int partition = (start + i) % PARTITIONS;
+            if(!held.get(partition) && scheduleRepository.acquireLease(partition, owner, leaseDuration)) held.set(partition);
+        }
+        if(held.equals(owned)) return;
+        BitSet lost = (BitSet) owned.clone();
+        lost.andNot(held);
+        if(!lost.isEmpty()) reset();
+        owned.clear();
+        owned.or(held);
+        ownedPartitions = owned.stream().boxed().toList();
+        reloadNeeded = true;
+        log.info("Recurring billing partitions of {} changed to {} of {} nodes", owner, ownedPartitions, nodes);
+    }
+
+    private void reset(){
+        wheel.clear();
+        scheduled = new LongLongHashMap(1024);
+        pending.clear();
+        epoch++;
+    }
+
+    private void reload(long now){
+        long until = now + horizonMillis;
+        LocalDateTime untilAt = toDateTime(until);
+        int loaded = 0;
+        for(int partition = owned.nextSetBit(0); partition >= 0; partition = owned.nextSetBit(partition + 1)){
+            LocalDateTime afterRunAt = null;
+            Long afterId = null;
+            List<RecurringSchedule> page;
+            do{
+                page = scheduleRepository.listDue(partition, untilAt, afterRunAt, afterId, LOAD_PAGE_SIZE);
+                for(RecurringSchedule schedule : page){
+                    if(schedule(schedule.getId(), toMillis(schedule.getNextRunAt()))) loaded++;
+                }
+                if(!page.isEmpty()){
+                    afterRunAt = page.get(page.size() - 1).getNextRunAt();
+                    afterId = page.get(page.size() - 1).getId();
+                }
+            }while(page.size() == LOAD_PAGE_SIZE);
+        }
+        loadedUntil = until;
+        nextReload = now + reloadMillis;
+        reloadNeeded = false;
+        if(loaded > 0) log.info("Loaded {} recurring schedules due before {}", loaded, untilAt);
+    }
+
+    private boolean schedule(long id, long deadline){
+        long current = scheduled.get(id, MISSING);
+        if(current == deadline || current == QUEUED) return false;
+        scheduled.put(id, deadline);
+        wheel.schedule(id, deadline);
+        return true;
+    }
+
+    private void expire(long id, long deadline){
+        if(scheduled.get(id, MISSING) != deadline) return;
+        scheduled.put(id, QUEUED);
+        pending.add(id);
+    }
+
+    private void drainArrivals(){
+        long[] arrival;
+        while((arrival = arrivals.poll()) != null){
+            long id = arrival[0];
+            long deadline = arrival[1];
+            if(arrival[2] != NEW){
+                if(arrival[2] != epoch) continue;
+                scheduled.remove(id);
+            }
+            if(deadline != DONE && deadline < loadedUntil) schedule(id, deadline);
+        }
+    }
+
+    private void dispatch(){
+        while(!pending.isEmpty() && inFlight.get() < maxInFlight){
+            List<Long> batch = new ArrayList<>(Math.min(batchSize, pending.size()));
+            while(batch.size() < batchSize && !pending.isEmpty()){
+                batch.add(pending.poll());
+            }
+            long batchEpoch = epoch;
+            inFlight.incrementAndGet();
+            try{
+                workers.execute(() -> {
+                    try{
+                        generate(batch, batchEpoch);
+                    }finally {
+                        inFlight.decrementAndGet();
+                        wakeUp();
+                    }
+                });
+            }catch (RejectedExecutionException exception){
+                inFlight.decrementAndGet();
+                return;
+            }
+        }
+    }
+
+    private void wakeUp(){
+        try{
+            scheduler.execute(() -> {
+                drainArrivals();
+                dispatch();
+                pendingCount = pending.size();
+            });
+        }catch (RejectedExecutionException ignored){
+        }
+    }
+
+    private void generate(List<Long> ids, long batchEpoch){
+        long start = System.nanoTime();
+        try{
+            List<RecurringSchedule> due = generator.generate(ids);
+            long now = clock.millis();
+            Set<Long> advanced = new HashSet<>(due.size() * 2);
+            for(RecurringSchedule schedule : due){
+                advanced.add(schedule.getId());
+                delay.record(Math.max(0, now - toMillis(schedule.getLastRunAt())));
+                arrivals.add(new long[]{schedule.getId(), toMillis(schedule.getNextRunAt()), batchEpoch});
+            }
+            for(Long id : ids){
+                if(!advanced.contains(id)) arrivals.add(new long[]{id, DONE, batchEpoch});
+            }
+            generated.increment(due.size());
+            batchTimer.record(System.nanoTime() - start, NANOSECONDS);
+        }catch (Exception exception){
+            if(ids.size() > 1){
+                int half = ids.size() / 2;
+                generate(ids.subList(0, half), batchEpoch);
+                generate(ids.subList(half, ids.size()), batchEpoch);
+                return;
+            }
+            failed.increment();
+            log.error("Unable to generate the recurring invoice of schedule {}: {}", ids.get(0), exception.getMessage());
+            arrivals.add(new long[]{ids.get(0), clock.millis() + retryDelayMillis, batchEpoch});
+        }
+    }
+
+    private long toMillis(LocalDateTime dateTime){
+        return dateTime.atZone(clock.getZone()).toInstant().toEpochMilli();
+    }
+
+    private LocalDateTime toDateTime(long millis){
+        return LocalDateTime.ofInstant(Instant.ofEpochMilli(millis), clock.getZone());
+    }
+}
@@ -0,0 +1,59 @@
+package com.vladimirpandurov.invoice_manager3_02.recurring;
+
+import com.vladimirpandurov.invoice_manager3_02.domain.Invoice;
+import com.vladimirpandurov.invoice_manager3_02.domain.InvoiceLine;
+import com.vladimirpandurov.invoice_manager3_02.domain.RecurringSchedule;
+import com.vladimirpandurov.invoice_manager3_02.enumeration.RecurringFrequency;
+import com.vladimirpandurov.invoice_manager3_02.repository.InvoiceRepository;
+import com.vladimirpandurov.invoice_manager3_02.repository.RecurringScheduleRepository;
+import com.vladimirpandurov.invoice_manager3_02.sequence.InvoiceNumberAllocator;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.Clock;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+
+@Component
+@RequiredArgsConstructor
+public class RecurringInvoiceGenerator {
+
+    private final RecurringScheduleRepository<RecurringSchedule> scheduleRepository;
+    private final InvoiceRepository<Invoice> invoiceRepository;
+    private final InvoiceNumberAllocator invoiceNumberAllocator;
+    private final Clock clock;
+
+    @Transactional
+    public List<RecurringSchedule> generate(Collection<Long> ids){
+        List<RecurringSchedule> due = scheduleRepository.lockDue(ids, LocalDateTime.now(clock));
+        if(due.isEmpty()) return due;
+        List<Invoice> invoices = new ArrayList<>(due.size());
+        for(RecurringSchedule schedule : due){
+            LocalDateTime runAt = schedule.getNextRunAt();
+            invoices.add(Invoice.builder()
+                    .invoiceNumber(invoiceNumberAllocator.next())
+                    .customerId(schedule.getCustomerId())
+                    .dueDate(runAt.toLocalDate().plusDays(schedule.getDueDays()))
+                    .lines(List.of(InvoiceLine.builder()
+                            .description(schedule.getDescription())
+                            .quantity(schedule.getQuantity())
+                            .unitPrice(schedule.getUnitPrice())
+                            .build()))
+                    .build());
+            schedule.setLastRunAt(runAt);
+            schedule.setNextRunAt(nextRun(schedule.getFrequency(), schedule.getAnchorDay(), runAt));
+        }
+        invoiceRepository.createAll(invoices);
+        scheduleRepository.advance(due);
+        return due;
+    }
+
+    public static LocalDateTime nextRun(RecurringFrequency frequency, int anchorDay, LocalDateTime previous){
+        if(frequency == RecurringFrequency.WEEKLY) return previous.plusWeeks(1);
+        LocalDateTime next = previous.plusMonths(1);
+        return next.withDayOfMonth(Math.min(anchorDay, next.toLocalDate().lengthOfMonth()));
+    }
+}
@@ -0,0 +1,26 @@
+package com.vladimirpandurov.invoice_manager3_02.repository;
+
+import com.vladimirpandurov.invoice_manager3_02.domain.Customer;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+
+public interface CustomerRepository<T extends Customer> {
+
+    T create(T data);
+    List<T> list(Long afterId, int pageSize);
+    T get(Long id);
+    T update(T data);
+    Boolean delete(Long id);
+
+    List<T> search(String name, String afterName, Long afterId, int pageSize);
+
+    List<Long> createAll(List<T> customers);
+
+    int updateStatus(Collection<Long> ids, String status);
+
+    Map<String, Long> getIdsByEmail(Collection<String> emails);
+
+    Map<Long, T> getAll(Collection<Long> ids);
+}
@@ -0,0 +1,23 @@
+package com.vladimirpandurov.invoice_manager3_02.repository;
+
+import com.vladimirpandurov.invoice_manager3_02.domain.ImportJob;
+import com.vladimirpandurov.invoice_manager3_02.domain.ImportJobError;
+import com.vladimirpandurov.invoice_manager3_02.enumeration.ImportJobStatus;
+
+import java.time.Duration;
+import java.util.Collection;
+import java.util.List;
+
+public interface ImportJobRepository<T extends ImportJob> {
+
+    T create();
+    T get(Long id);
+    List<T> list(int limit);
+
+    void addProgress(Long id, long rowsRead, long invoicesCreated, long invoicesRejected);
+    void addErrors(Long id, List<ImportJobError> errors);
+    void complete(Long id, ImportJobStatus status, String message);
+
+    void touch(Collection<Long> ids);
+    int failStale(Duration staleTimeout, String message);
+}
@@ -0,0 +1,16 @@
+package com.vladimirpandurov.invoice_manager3_02.repository;
+
+import com.vladimirpandurov.invoice_manager3_02.domain.InvoiceExportRow;
+
+import java.io.IOException;
+import java.time.LocalDate;
+
+public interface InvoiceExportRepository {
+
+    void export(LocalDate from, LocalDate to, LocalDate afterIssuedAt, Long afterId, InvoiceExportRowConsumer consumer) throws IOException;
+
+    @FunctionalInterface
+    interface InvoiceExportRowConsumer {
+        void accept(InvoiceExportRow row) throws IOException;
+    }
+}
@@ -0,0 +1,37 @@
+package com.vladimirpandurov.invoice_manager3_02.repository;
+
+import com.vladimirpandurov.invoice_manager3_02.domain.Invoice;
+import com.vladimirpandurov.invoice_manager3_02.domain.InvoiceSummary;
+import com.vladimirpandurov.invoice_manager3_02.enumeration.InvoiceStatus;
+
+import java.time.LocalDate;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+public interface InvoiceRepository<T extends Invoice> {
+
+    T create(T data);
+    int createAll(List<T> invoices);
+    List<T> list(Long afterId, int pageSize);
+    T get(Long id);
+    T update(T data);
+    Boolean delete(Long id);
+
+    List<T> listByCustomer(Long customerId, Long afterId, int pageSize);
+
+    Map<Long, T> getAll(Collection<Long> ids);
+
+    Set<String> getImportedReferences(Collection<String> references);
+
+    List<T> listIssued(LocalDate from, LocalDate to, LocalDate afterIssuedAt, Long afterId, int pageSize);
+
+    T updateStatus(Long id, InvoiceStatus status);
+
+    List<Long> getOverdueIds(LocalDate today, int limit);
+
+    InvoiceSummary getCustomerSummary(Long customerId);
+
+    InvoiceSummary getAccountSummary();
+}
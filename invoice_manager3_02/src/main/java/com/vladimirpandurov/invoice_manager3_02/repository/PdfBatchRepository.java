@@ -0,0 +1,20 @@
+package com.vladimirpandurov.invoice_manager3_02.repository;
+
+import com.vladimirpandurov.invoice_manager3_02.domain.PdfBatch;
+import com.vladimirpandurov.invoice_manager3_02.enumeration.PdfBatchStatus;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.List;
+
+public interface PdfBatchRepository<T extends PdfBatch> {
+
+    T create(LocalDate issuedFrom, LocalDate issuedTo, String owner);
+    T get(Long id);
+    List<T> list(int limit);
+
+    boolean reopen(Long id, String owner);
+    List<Long> claimStale(LocalDateTime staleBefore, String owner);
+    boolean checkpoint(Long id, String owner, LocalDate lastIssuedAt, Long lastInvoiceId, long rendered, long failed);
+    boolean complete(Long id, String owner, PdfBatchStatus status, String message);
+}
@@ -0,0 +1,26 @@
+package com.vladimirpandurov.invoice_manager3_02.repository;
+
+import com.vladimirpandurov.invoice_manager3_02.domain.RecurringSchedule;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
+
+public interface RecurringScheduleRepository<T extends RecurringSchedule> {
+
+    T create(T schedule);
+    T get(Long id);
+    List<T> list(Long afterId, int pageSize);
+    boolean cancel(Long id);
+
+    List<T> listDue(int partition, LocalDateTime until, LocalDateTime afterRunAt, Long afterId, int pageSize);
+    List<T> lockDue(Collection<Long> ids, LocalDateTime now);
+    void advance(List<T> schedules);
+
+    List<Integer> renewLeases(String owner, Duration leaseDuration);
+    boolean acquireLease(int partition, String owner, Duration leaseDuration);
+    void releaseLease(int partition, String owner);
+    int heartbeat(String owner, Duration aliveFor);
+    void leave(String owner);
+}
@@ -0,0 +1,21 @@
+package com.vladimirpandurov.invoice_manager3_02.repository;
+
+import com.vladimirpandurov.invoice_manager3_02.domain.RefreshToken;
+
+import java.time.LocalDateTime;
+
+public interface RefreshTokenRepository<T extends RefreshToken> {
+
+    T create(T data);
+    T get(Long id);
+
+    boolean markUsed(Long id);
+    void revokeFamily(Long familyId);
+    void loadActive(ActiveTokenConsumer consumer);
+    int deleteExpired(LocalDateTime before);
+
+    @FunctionalInterface
+    interface ActiveTokenConsumer {
+        void accept(long id, LocalDateTime expiresAt);
+    }
+}
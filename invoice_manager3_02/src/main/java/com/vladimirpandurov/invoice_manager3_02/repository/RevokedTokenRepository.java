@@ -0,0 +1,20 @@
+package com.vladimirpandurov.invoice_manager3_02.repository;
+
+import com.vladimirpandurov.invoice_manager3_02.domain.RevokedToken;
+
+import java.time.LocalDateTime;
+import java.util.Collection;
+
+public interface RevokedTokenRepository<T extends RevokedToken> {
+
+    T create(T data);
+
+    long loadAfter(long lastId, int limit, RevokedTokenConsumer consumer);
+    void loadByIds(Collection<Long> ids, RevokedTokenConsumer consumer);
+    int deleteExpired(LocalDateTime before);
+
+    @FunctionalInterface
+    interface RevokedTokenConsumer {
+        void accept(long id, long tokenId, LocalDateTime expiresAt);
+    }
+}
@@ -0,0 +1,17 @@
+package com.vladimirpandurov.invoice_manager3_02.repository;
+
+import com.vladimirpandurov.invoice_manager3_02.domain.SearchChange;
+import com.vladimirpandurov.invoice_manager3_02.enumeration.SearchEntityType;
+
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
+
+public interface SearchChangeRepository<T extends SearchChange> {
+
+    void create(SearchEntityType entityType, Collection<Long> entityIds);
+    List<T> listAfter(long lastId, int limit);
+    List<T> listByIds(Collection<Long> ids);
+    long getLastId();
+    int deleteBefore(LocalDateTime before);
+}
@@ -0,0 +1,6 @@
+package com.vladimirpandurov.invoice_manager3_02.repository;
+
+public interface SequenceRepository {
+
+    long reserve(String name, int blockSize);
+}
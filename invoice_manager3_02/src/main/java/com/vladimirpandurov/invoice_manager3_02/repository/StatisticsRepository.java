@@ -0,0 +1,17 @@
+package com.vladimirpandurov.invoice_manager3_02.repository;
+
+import com.vladimirpandurov.invoice_manager3_02.domain.InvoiceStatusStats;
+import com.vladimirpandurov.invoice_manager3_02.domain.MonthlyRevenue;
+
+import java.time.LocalDate;
+import java.util.List;
+import java.util.Map;
+
+public interface StatisticsRepository {
+
+    Map<String, Long> countCustomersByStatus();
+
+    List<InvoiceStatusStats> sumInvoicesByStatus();
+
+    List<MonthlyRevenue> sumRevenueByMonth(LocalDate since);
+}
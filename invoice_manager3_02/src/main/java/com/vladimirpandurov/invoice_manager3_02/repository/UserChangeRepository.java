@@ -0,0 +1,17 @@
+package com.vladimirpandurov.invoice_manager3_02.repository;
+
+import com.vladimirpandurov.invoice_manager3_02.domain.UserChange;
+
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
+
+public interface UserChangeRepository<T extends UserChange> {
+
+    void create(T data);
+
+    List<T> listAfter(long lastId, int limit);
+    List<T> listByIds(Collection<Long> ids);
+    long getLastId();
+    int deleteBefore(LocalDateTime before);
+}
@@ -0,0 +1,256 @@
+package com.vladimirpandurov.invoice_manager3_02.repository.jdbc_implementation;
+
+import com.vladimirpandurov.invoice_manager3_02.datasource.ReadRouting;
+import com.vladimirpandurov.invoice_manager3_02.domain.Customer;
+import com.vladimirpandurov.invoice_manager3_02.exception.ApiException;
+import com.vladimirpandurov.invoice_manager3_02.index.SearchIndex;
+import com.vladimirpandurov.invoice_manager3_02.repository.CustomerRepository;
+import com.vladimirpandurov.invoice_manager3_02.rowmapper.CustomerRowMapper;
+import com.vladimirpandurov.invoice_manager3_02.rowmapper.CustomerSummaryRowMapper;
+import com.vladimirpandurov.invoice_manager3_02.statistics.DashboardStatistics;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.dao.EmptyResultDataAccessException;
+import org.springframework.jdbc.core.namedparam.MapSqlParameterSource;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.jdbc.core.namedparam.SqlParameterSource;
+import org.springframework.jdbc.support.GeneratedKeyHolder;
+import org.springframework.jdbc.support.KeyHolder;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.ThreadLocalRandom;
+
+import static com.vladimirpandurov.invoice_manager3_02.query.CustomerQuery.*;
+
+@Repository
+@RequiredArgsConstructor
+@Slf4j
+public class CustomerRepositoryImpl implements CustomerRepository<Customer> {
+
+    private static final String CUSTOMERS = "customers";
+    private static final int BATCH_SIZE = 1000;
+    private static final int STATUS_SUMMARY_SLOTS = 16;
+    private final NamedParameterJdbcTemplate jdbc;
+    private final ReadRouting readRouting;
+    private final SearchIndex searchIndex;
+    private final DashboardStatistics dashboardStatistics;
+
+    @Override
+    @Transactional
+    public Customer create(Customer customer) {
+        try{
+            KeyHolder holder = new GeneratedKeyHolder();
+            jdbc.update(INSERT_CUSTOMER_QUERY, getSqlParameterSource(customer), holder, new String[]{"id"});
+            customer.setId(Objects.requireNonNull(holder.getKey()).longValue());
+            applyStatusDelta(customer.getStatus(), 1);
+            readRouting.written(CUSTOMERS);
+            searchIndex.indexCustomer(customer);
+            dashboardStatistics.recordWrites(1);
+            return customer;
+        }catch (Exception exception){
+            log.error(exception.getMessage());
+            throw new ApiException("An error occurred. Please try again.");
+        }
+    }
+
+    @Override
+    public List<Customer> list(Long afterId, int pageSize) {
+        try{
+            return readRouting.readOnly(CUSTOMERS, () -> afterId == null
+                    ? jdbc.query(SELECT_CUSTOMERS_FIRST_PAGE_QUERY, Map.of("size", pageSize), new CustomerSummaryRowMapper())
+                    : jdbc.query(SELECT_CUSTOMERS_PAGE_QUERY, Map.of("afterId", afterId, "size", pageSize), new CustomerSummaryRowMapper()));
+        }catch (Exception exception){
+            log.error(exception.getMessage());
+            throw new ApiException("An error occurred. Please try again.");
+        }
+    }
+
+    @Override
+    public Customer get(Long id) {
+        try{
+            return readRouting.readOnly(CUSTOMERS, () -> jdbc.queryForObject(SELECT_CUSTOMER_BY_ID_QUERY, Map.of("id", id), new CustomerRowMapper()));
+        }catch (EmptyResultDataAccessException exception){
+            throw new ApiException("No customer found by id: " + id);
+        }catch (Exception exception){
+            log.error(exception.getMessage());
+            throw new ApiException("An error occurred. Please try again.");
+        }
+    }
+
+    @Override
+    @Transactional
+    public Customer update(Customer customer) {
+        try{
+            List<String> current = jdbc.queryForList(SELECT_CUSTOMER_STATUS_FOR_UPDATE_QUERY, Map.of("id", customer.getId()), String.class);
+            if(current.isEmpty()) throw new ApiException("No customer found by id: " + customer.getId());
+            jdbc.update(UPDATE_CUSTOMER_QUERY, getSqlParameterSource(customer).addValue("id", customer.getId()));
+            if(!Objects.equals(current.get(0), customer.getStatus())){
+                applyStatusDelta(current.get(0), -1);
+                applyStatusDelta(customer.getStatus(), 1);
+            }
+            readRouting.written(CUSTOMERS);
+            searchIndex.indexCustomer(customer);
+            dashboardStatistics.recordWrites(1);
+            return customer;
+        }catch (ApiException exception){
+            throw exception;
+        }catch (Exception exception){
+            log.error(exception.getMessage());
+            throw new ApiException("An error occurred. Please try again.");
+        }
+    }
+
+    @Override
+    @Transactional
+    public Boolean delete(Long id) {
+        try{
+            List<String> current = jdbc.queryForList(SELECT_CUSTOMER_STATUS_FOR_UPDATE_QUERY, Map.of("id", id), String.class);
+            boolean deleted = !current.isEmpty() && jdbc.update(DELETE_CUSTOMER_QUERY, Map.of("id", id)) > 0;
+            readRouting.written(CUSTOMERS);
+            if(deleted){
+                applyStatusDelta(current.get(0), -1);
+                searchIndex.removeCustomer(id);
+                dashboardStatistics.recordWrites(1);
+            }
+            return deleted;
+        }catch (DataIntegrityViolationException exception){
+            throw new ApiException("Customer has invoices and cannot be deleted");
+        }catch (Exception exception){
+            log.error(exception.getMessage());
+            throw new ApiException("An error occurred. Please try again.");
+        }
+    }
+
+    @Override
+    public List<Customer> search(String name, String afterName, Long afterId, int pageSize) {
+        String prefix = escapeLike(name) + "%";
+        try{
+            return readRouting.readOnly(CUSTOMERS, () -> afterId == null
+                    ? jdbc.query(SEARCH_CUSTOMERS_FIRST_PAGE_QUERY, Map.of("prefix", prefix, "size", pageSize), new CustomerSummaryRowMapper())
+                    : jdbc.query(SEARCH_CUSTOMERS_PAGE_QUERY, Map.of("prefix", prefix, "afterName", afterName, "afterId", afterId, "size", pageSize), new CustomerSummaryRowMapper()));
+        }catch (Exception exception){
+            log.error(exception.getMessage());
+            throw new ApiException("An error occurred. Please try again.");
+        }
+    }
+
+    @Override
+    @Transactional
+    public List<Long> createAll(List<Customer> customers) {
+        try{
+            List<Long> ids = new ArrayList<>(customers.size());
+            Map<String, Integer> created = new HashMap<>();
+            for(int from = 0; from < customers.size(); from += BATCH_SIZE){
+                List<Customer> batch = customers.subList(from, Math.min(from + BATCH_SIZE, customers.size()));
+                KeyHolder holder = new GeneratedKeyHolder();
+                jdbc.batchUpdate(INSERT_CUSTOMER_QUERY, batch.stream().map(this::getSqlParameterSource).toArray(SqlParameterSource[]::new), holder, new String[]{"id"});
+                List<Map<String, Object>> keys = holder.getKeyList();
+                for(int i = 0; i < batch.size(); i++){
+                    Long id = ((Number) keys.get(i).values().iterator().next()).longValue();
+                    batch.get(i).setId(id);
+                    ids.add(id);
+                    created.merge(summaryStatus(batch.get(i).getStatus()), 1, Integer::sum);
+                }
+            }
+            created.forEach(this::applyStatusDelta);
+            readRouting.written(CUSTOMERS);
+            searchIndex.indexCustomers(customers);
+            dashboardStatistics.recordWrites(ids.size());
+            return ids;
+        }catch (Exception exception){
+            log.error(exception.getMessage());
+            throw new ApiException("An error occurred. Please try again.");
+        }
+    }
+
+    @Override
+    @Transactional
+    public int updateStatus(Collection<Long> ids, String status) {
+        if(ids.isEmpty()) return 0;
+        try{
+            Map<String, Integer> previous = new HashMap<>();
+            jdbc.queryForList(SELECT_CUSTOMER_STATUSES_FOR_UPDATE_QUERY, Map.of("ids", ids), String.class)
+                    .forEach(current -> previous.merge(summaryStatus(current), 1, Integer::sum));
+            int updated = jdbc.update(UPDATE_CUSTOMER_STATUS_QUERY, Map.of("ids", ids, "status", status));
+            previous.forEach((current, count) -> {
+                if(current.equals(summaryStatus(status))) return;
+                applyStatusDelta(current, -count);
+                applyStatusDelta(status, count);
+            });
+            readRouting.written(CUSTOMERS);
+            dashboardStatistics.recordWrites(updated);
+            return updated;
+        }catch (Exception exception){
+            log.error(exception.getMessage());
+            throw new ApiException("An error occurred. Please try again.");
+        }
+    }
+
+    @Override
+    public Map<String, Long> getIdsByEmail(Collection<String> emails) {
+        if(emails.isEmpty()) return Map.of();
+        try{
+            Map<String, Long> ids = new HashMap<>();
+            jdbc.query(SELECT_CUSTOMER_IDS_BY_EMAIL_QUERY, Map.of("emails", emails), rs -> {
+                ids.putIfAbsent(rs.getString("email").toLowerCase(), rs.getLong("id"));
+            });
+            return ids;
+        }catch (Exception exception){
+            log.error(exception.getMessage());
+            throw new ApiException("An error occurred. Please try again.");
+        }
+    }
+
+    @Override
+    public Map<Long, Customer> getAll(Collection<Long> ids) {
+        if(ids.isEmpty()) return Map.of();
+        try{
+            return readRouting.readOnly(CUSTOMERS, () -> {
+                Map<Long, Customer> customers = new HashMap<>(ids.size() * 2);
+                CustomerRowMapper rowMapper = new CustomerRowMapper();
+                jdbc.query(SELECT_CUSTOMERS_BY_IDS_QUERY, Map.of("ids", ids), rs -> {
+                    Customer customer = rowMapper.mapRow(rs, 0);
+                    customers.put(customer.getId(), customer);
+                });
+                return customers;
+            });
+        }catch (Exception exception){
+            log.error(exception.getMessage());
+            throw new ApiException("An error occurred. Please try again.");
+        }
+    }
+
+    private MapSqlParameterSource getSqlParameterSource(Customer customer) {
+        return new MapSqlParameterSource()
+                .addValue("name", customer.getName())
+                .addValue("email", customer.getEmail())
+                .addValue("type", customer.getType())
+                .addValue("status", customer.getStatus())
+                .addValue("address", customer.getAddress())
+                .addValue("phone", customer.getPhone())
+                .addValue("imageUrl", customer.getImageUrl());
+    }
+
+    private void applyStatusDelta(String status, int countDelta){
+        jdbc.update(UPSERT_CUSTOMER_STATUS_SUMMARY_QUERY, new MapSqlParameterSource()
+                .addValue("status", summaryStatus(status))
+                .addValue("customerCount", countDelta)
+                .addValue("slot", ThreadLocalRandom.current().nextInt(STATUS_SUMMARY_SLOTS)));
+    }
+
+    private static String summaryStatus(String status){
+        return status == null ? "UNKNOWN" : status;
+    }
+
+    private static String escapeLike(String value) {
+        return value.replace("\\", "\\\\").replace("%", "\\%").replace("_", "\\_");
+    }
+}
@@ -0,0 +1,146 @@
+package com.vladimirpandurov.invoice_manager3_02.repository.jdbc_implementation;
+
+import com.vladimirpandurov.invoice_manager3_02.domain.ImportJob;
+import com.vladimirpandurov.invoice_manager3_02.domain.ImportJobError;
+import com.vladimirpandurov.invoice_manager3_02.enumeration.ImportJobStatus;
+import com.vladimirpandurov.invoice_manager3_02.exception.ApiException;
+import com.vladimirpandurov.invoice_manager3_02.repository.ImportJobRepository;
+import com.vladimirpandurov.invoice_manager3_02.rowmapper.ImportJobErrorRowMapper;
+import com.vladimirpandurov.invoice_manager3_02.rowmapper.ImportJobRowMapper;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.dao.EmptyResultDataAccessException;
+import org.springframework.jdbc.core.namedparam.MapSqlParameterSource;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.jdbc.core.namedparam.SqlParameterSource;
+import org.springframework.jdbc.support.GeneratedKeyHolder;
+import org.springframework.jdbc.support.KeyHolder;
+import org.springframework.stereotype.Repository;
+
+import java.time.Duration;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+
+import static com.vladimirpandurov.invoice_manager3_02.enumeration.ImportJobStatus.RUNNING;
+import static com.vladimirpandurov.invoice_manager3_02.query.ImportJobQuery.*;
+
+@Repository
+@RequiredArgsConstructor
+@Slf4j
+public class ImportJobRepositoryImpl implements ImportJobRepository<ImportJob> {
+
+    private static final int MAX_ERRORS_RETURNED = 100;
+    private static final int MAX_REFERENCE_LENGTH = 100;
+    private static final int MAX_MESSAGE_LENGTH = 255;
+    private final NamedParameterJdbcTemplate jdbc;
+
+    @Override
+    public ImportJob create() {
+        try{
+            KeyHolder holder = new GeneratedKeyHolder();
+            jdbc.update(INSERT_IMPORT_JOB_QUERY, new MapSqlParameterSource("status", RUNNING.name()), holder, new String[]{"id"});
+            return ImportJob.builder().id(Objects.requireNonNull(holder.getKey()).longValue()).status(RUNNING).build();
+        }catch (Exception exception){
+            log.error(exception.getMessage());
+            throw new ApiException("An error occurred. Please try again.");
+        }
+    }
+
+    @Override
+    public ImportJob get(Long id) {
+        try{
+            ImportJob job = jdbc.queryForObject(SELECT_IMPORT_JOB_BY_ID_QUERY, Map.of("id", id), new ImportJobRowMapper());
+            Objects.requireNonNull(job).setErrors(jdbc.query(SELECT_IMPORT_JOB_ERRORS_QUERY, Map.of("jobId", id, "limit", MAX_ERRORS_RETURNED), new ImportJobErrorRowMapper()));
+            return job;
+        }catch (EmptyResultDataAccessException exception){
+            throw new ApiException("No import job found by id: " + id);
+        }catch (Exception exception){
+            log.error(exception.getMessage());
+            throw new ApiException("An error occurred. Please try again.");
+        }
+    }
+
+    @Override
+    public List<ImportJob> list(int limit) {
+        try{
+            return jdbc.query(SELECT_RECENT_IMPORT_JOBS_QUERY, Map.of("limit", limit), new ImportJobRowMapper());
+        }catch (Exception exception){
+            log.error(exception.getMessage());
+            throw new ApiException("An error occurred. Please try again.");
+        }
+    }
+
+    @Override
+    public void addProgress(Long id, long rowsRead, long invoicesCreated, long invoicesRejected) {
+        try{
+            jdbc.update(UPDATE_IMPORT_JOB_PROGRESS_QUERY, new MapSqlParameterSource()
+                    .addValue("id", id)
+                    .addValue("rowsRead", rowsRead)
+                    .addValue("invoicesCreated", invoicesCreated)
+                    .addValue("invoicesRejected", invoicesRejected));
+        }catch (Exception exception){
+            log.error(exception.getMessage());
+            throw new ApiException("An error occurred. Please try again.");
+        }
+    }
+
+    @Override
+    public void addErrors(Long id, List<ImportJobError> errors) {
+        if(errors.isEmpty()) return;
+        try{
+            SqlParameterSource[] parameters = errors.stream()
+                    .map(error -> new MapSqlParameterSource()
+                            .addValue("jobId", id)
+                            .addValue("lineNumber", error.getLineNumber())
+                            .addValue("reference", truncate(error.getReference(), MAX_REFERENCE_LENGTH))
+                            .addValue("message", truncate(error.getMessage(), MAX_MESSAGE_LENGTH)))
+                    .toArray(SqlParameterSource[]::new);
+            jdbc.batchUpdate(INSERT_IMPORT_JOB_ERROR_QUERY, parameters);
+        }catch (Exception exception){
+            log.error(exception.getMessage());
+            throw new ApiException("An error occurred. Please try again.");
+        }
+    }
+
+    @Override
+    public void complete(Long id, ImportJobStatus status, String message) {
+        try{
+            jdbc.update(COMPLETE_IMPORT_JOB_QUERY, new MapSqlParameterSource()
+                    .addValue("id", id)
+                    .addValue("status", status.name())
+                    .addValue("message", truncate(message, MAX_MESSAGE_LENGTH)));
+        }catch (Exception exception){
+            log.error(exception.getMessage());
+            throw new ApiException("An error occurred. Please try again.");
+        }
+    }
+
+    @Override
+    public void touch(Collection<Long> ids) {
+        if(ids.isEmpty()) return;
+        try{
+            jdbc.update(TOUCH_IMPORT_JOBS_QUERY, Map.of("ids", ids));
+        }catch (Exception exception){
+            log.error(exception.getMessage());
+            throw new ApiException("An error occurred. Please try again.");
+        }
+    }
+
+    @Override
+    public int failStale(Duration staleTimeout, String message) {
+        try{
+            return jdbc.update(FAIL_STALE_IMPORT_JOBS_QUERY, new MapSqlParameterSource()
+                    .addValue("staleSeconds", staleTimeout.toSeconds())
+                    .addValue("message", truncate(message, MAX_MESSAGE_LENGTH)));
+        }catch (Exception exception){
+            log.error(exception.getMessage());
+            throw new ApiException("An error occurred. Please try again.");
+        }
+    }
+
+    private static String truncate(String value, int length){
+        return value == null || value.length() <= length ? value : value.substring(0, length);
+    }
+}
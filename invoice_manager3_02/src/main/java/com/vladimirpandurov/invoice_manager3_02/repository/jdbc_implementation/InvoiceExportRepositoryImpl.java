@@ -0,0 +1,81 @@
+package com.vladimirpandurov.invoice_manager3_02.repository.jdbc_implementation;
+
+import com.vladimirpandurov.invoice_manager3_02.datasource.ReadRouting;
+import com.vladimirpandurov.invoice_manager3_02.domain.InvoiceExportRow;
+import com.vladimirpandurov.invoice_manager3_02.exception.ApiException;
+import com.vladimirpandurov.invoice_manager3_02.jdbc.InstrumentedJdbcTemplate;
+import com.vladimirpandurov.invoice_manager3_02.metric.QueryMetrics;
+import com.vladimirpandurov.invoice_manager3_02.repository.InvoiceExportRepository;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowCallbackHandler;
+import org.springframework.jdbc.core.namedparam.MapSqlParameterSource;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.stereotype.Repository;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.time.LocalDate;
+
+import static com.vladimirpandurov.invoice_manager3_02.query.InvoiceExportQuery.EXPORT_INVOICES_AFTER_QUERY;
+import static com.vladimirpandurov.invoice_manager3_02.query.InvoiceExportQuery.EXPORT_INVOICES_QUERY;
+
+@Repository
+@Slf4j
+public class InvoiceExportRepositoryImpl implements InvoiceExportRepository {
+
+    private static final String INVOICES = "invoices";
+    private final NamedParameterJdbcTemplate jdbc;
+    private final ReadRouting readRouting;
+
+    public InvoiceExportRepositoryImpl(JdbcTemplate jdbcTemplate, QueryMetrics queryMetrics, ReadRouting readRouting,
+                                       @Value("${application.invoice.export.fetch-size:-2147483648}") int fetchSize){
+        JdbcTemplate streaming = new JdbcTemplate(jdbcTemplate.getDataSource());
+        streaming.setFetchSize(fetchSize);
+        this.jdbc = new InstrumentedJdbcTemplate(streaming, queryMetrics);
+        this.readRouting = readRouting;
+    }
+
+    @Override
+    public void export(LocalDate from, LocalDate to, LocalDate afterIssuedAt, Long afterId, InvoiceExportRowConsumer consumer) throws IOException {
+        MapSqlParameterSource parameters = new MapSqlParameterSource()
+                .addValue("from", from)
+                .addValue("to", to)
+                .addValue("afterIssuedAt", afterIssuedAt)
+                .addValue("afterId", afterId);
+        InvoiceExportRow row = new InvoiceExportRow();
+        RowCallbackHandler handler = rs -> {
+            row.setInvoiceId(rs.getLong("id"));
+            row.setInvoiceNumber(rs.getString("invoice_number"));
+            row.setCustomerId(rs.getLong("customer_id"));
+            row.setCustomerName(rs.getString("customer_name"));
+            row.setCustomerEmail(rs.getString("customer_email"));
+            row.setStatus(rs.getString("status"));
+            row.setIssuedAt(rs.getDate("issued_at").toLocalDate());
+            row.setDueDate(rs.getDate("due_date").toLocalDate());
+            row.setCurrency(rs.getString("currency"));
+            row.setTotalMinor(rs.getLong("total_minor"));
+            row.setDescription(rs.getString("description"));
+            row.setQuantity(rs.getInt("quantity"));
+            row.setUnitPriceMinor(rs.getLong("unit_price_minor"));
+            row.setAmountMinor(rs.getLong("amount_minor"));
+            try{
+                consumer.accept(row);
+            }catch (IOException exception){
+                throw new UncheckedIOException(exception);
+            }
+        };
+        try{
+            readRouting.readOnly(INVOICES, () -> {
+                jdbc.query(afterId == null ? EXPORT_INVOICES_QUERY : EXPORT_INVOICES_AFTER_QUERY, parameters, handler);
+                return null;
+            });
+        }catch (UncheckedIOException exception){
+            throw exception.getCause();
+        }catch (Exception exception){
+            log.error(exception.getMessage());
+            throw new ApiException("An error occurred. Please try again.");
+        }
+    }
+}
@@ -0,0 +1,467 @@
+package com.vladimirpandurov.invoice_manager3_02.repository.jdbc_implementation;
+
+import com.vladimirpandurov.invoice_manager3_02.datasource.ReadRouting;
+import com.vladimirpandurov.invoice_manager3_02.domain.Invoice;
+import com.vladimirpandurov.invoice_manager3_02.domain.InvoiceLine;
+import com.vladimirpandurov.invoice_manager3_02.domain.InvoiceSummary;
+import com.vladimirpandurov.invoice_manager3_02.domain.Money;
+import com.vladimirpandurov.invoice_manager3_02.enumeration.InvoiceStatus;
+import com.vladimirpandurov.invoice_manager3_02.exception.ApiException;
+import com.vladimirpandurov.invoice_manager3_02.index.SearchIndex;
+import com.vladimirpandurov.invoice_manager3_02.repository.InvoiceRepository;
+import com.vladimirpandurov.invoice_manager3_02.rowmapper.InvoiceLineRowMapper;
+import com.vladimirpandurov.invoice_manager3_02.rowmapper.InvoiceRowMapper;
+import com.vladimirpandurov.invoice_manager3_02.rowmapper.InvoiceSummaryRowMapper;
+import com.vladimirpandurov.invoice_manager3_02.statistics.DashboardStatistics;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.apache.commons.lang3.StringUtils;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.dao.EmptyResultDataAccessException;
+import org.springframework.jdbc.core.SingleColumnRowMapper;
+import org.springframework.jdbc.core.namedparam.MapSqlParameterSource;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.jdbc.core.namedparam.SqlParameterSource;
+import org.springframework.jdbc.support.GeneratedKeyHolder;
+import org.springframework.jdbc.support.KeyHolder;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.Clock;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Currency;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.concurrent.ThreadLocalRandom;
+
+import static com.vladimirpandurov.invoice_manager3_02.enumeration.InvoiceStatus.*;
+import static com.vladimirpandurov.invoice_manager3_02.query.InvoiceQuery.*;
+
+@Repository
+@RequiredArgsConstructor
+@Slf4j
+public class InvoiceRepositoryImpl implements InvoiceRepository<Invoice> {
+
+    private static final String INVOICES = "invoices";
+    private static final int ACCOUNT_SUMMARY_SLOTS = 16;
+    private static final String CUSTOMER_FOREIGN_KEY = "FK_Invoices_Customer_Id";
+    private static final String INVOICE_NUMBER_KEY = "UQ_Invoices_Invoice_Number";
+    private static final String IMPORT_REFERENCE_KEY = "UQ_Invoices_Import_Reference";
+    private final NamedParameterJdbcTemplate jdbc;
+    private final ReadRouting readRouting;
+    private final SearchIndex searchIndex;
+    private final DashboardStatistics dashboardStatistics;
+    private final Clock clock;
+    @Value("${application.invoice.currency:USD}")
+    private Currency currency;
+
+    @Override
+    @Transactional
+    public Invoice create(Invoice invoice) {
+        try{
+            invoice.setStatus(PENDING);
+            invoice.setIssuedAt(LocalDate.now(clock));
+            invoice.setTotal(calculateTotal(invoice.getLines()));
+            KeyHolder holder = new GeneratedKeyHolder();
+            jdbc.update(INSERT_INVOICE_QUERY, getSqlParameterSource(invoice)
+                    .addValue("invoiceNumber", invoice.getInvoiceNumber())
+                    .addValue("customerId", invoice.getCustomerId())
+                    .addValue("status", invoice.getStatus().name())
+                    .addValue("issuedAt", invoice.getIssuedAt())
+                    .addValue("currency", currency.getCurrencyCode()), holder, new String[]{"id"});
+            invoice.setId(Objects.requireNonNull(holder.getKey()).longValue());
+            insertLines(List.of(invoice));
+            applySummaryDelta(invoice.getCustomerId(), invoice.getIssuedAt(), 1, null, 0, invoice.getStatus(), invoice.getTotal().getMinorUnits());
+            readRouting.written(INVOICES);
+            searchIndex.indexInvoices(List.of(invoice));
+            dashboardStatistics.recordWrites(1);
+            return invoice;
+        }catch (ApiException exception){
+            throw exception;
+        }catch (DataIntegrityViolationException exception){
+            log.error(exception.getMessage());
+            throw integrityViolation(exception, "No customer found by id: " + invoice.getCustomerId());
+        }catch (Exception exception){
+            log.error(exception.getMessage());
+            throw new ApiException("An error occurred. Please try again.");
+        }
+    }
+
+    @Override
+    @Transactional
+    public int createAll(List<Invoice> invoices) {
+        try{
+            LocalDate today = LocalDate.now(clock);
+            SqlParameterSource[] parameters = new SqlParameterSource[invoices.size()];
+            Map<Long, long[]> customerTotals = new TreeMap<>();
+            long accountTotal = 0;
+            for(int i = 0; i < invoices.size(); i++){
+                Invoice invoice = invoices.get(i);
+                invoice.setStatus(PENDING);
+                invoice.setIssuedAt(today);
+                invoice.setTotal(calculateTotal(invoice.getLines()));
+                parameters[i] = getSqlParameterSource(invoice)
+                        .addValue("invoiceNumber", invoice.getInvoiceNumber())
+                        .addValue("customerId", invoice.getCustomerId())
+                        .addValue("status", PENDING.name())
+                        .addValue("issuedAt", today)
+                        .addValue("currency", currency.getCurrencyCode());
+                long total = invoice.getTotal().getMinorUnits();
+                long[] customerTotal = customerTotals.computeIfAbsent(invoice.getCustomerId(), id -> new long[2]);
+                customerTotal[0]++;
+                customerTotal[1] = Math.addExact(customerTotal[1], total);
+                accountTotal = Math.addExact(accountTotal, total);
+            }
+            jdbc.batchUpdate(INSERT_INVOICE_QUERY, parameters);
+            Map<String, Long> ids = new HashMap<>(invoices.size() * 2);
+            jdbc.query(SELECT_INVOICE_IDS_BY_NUMBER_QUERY, Map.of("invoiceNumbers", invoices.stream().map(Invoice::getInvoiceNumber).toList()), rs -> {
+                ids.put(rs.getString("invoice_number"), rs.getLong("id"));
+            });
+            for(Invoice invoice : invoices){
+                invoice.setId(ids.get(invoice.getInvoiceNumber()));
+            }
+            insertLines(invoices);
+            jdbc.batchUpdate(UPSERT_CUSTOMER_INVOICE_SUMMARY_QUERY, customerTotals.entrySet().stream()
+                    .map(entry -> getSummaryParameterSource(entry.getKey(), (int) entry.getValue()[0], entry.getValue()[1], entry.getValue()[1], 0))
+                    .toArray(SqlParameterSource[]::new));
+            jdbc.update(UPDATE_ACCOUNT_INVOICE_SUMMARY_QUERY, getSummaryParameterSource(null, invoices.size(), accountTotal, accountTotal, 0));
+            jdbc.update(UPSERT_INVOICE_STATUS_SUMMARY_QUERY, getStatusSummaryParameterSource(PENDING, invoices.size(), accountTotal));
+            jdbc.update(UPSERT_MONTHLY_REVENUE_SUMMARY_QUERY, getRevenueSummaryParameterSource(today, invoices.size(), accountTotal, 0));
+            readRouting.written(INVOICES);
+            searchIndex.indexInvoices(invoices);
+            dashboardStatistics.recordWrites(invoices.size());
+            return invoices.size();
+        }catch (ApiException exception){
+            throw exception;
+        }catch (DataIntegrityViolationException exception){
+            log.error(exception.getMessage());
+            throw integrityViolation(exception, "Invoices reference a customer that does not exist");
+        }catch (Exception exception){
+            log.error(exception.getMessage());
+            throw new ApiException("An error occurred. Please try again.");
+        }
+    }
+
+    @Override
+    public List<Invoice> list(Long afterId, int pageSize) {
+        try{
+            return readRouting.readOnly(INVOICES, () -> afterId == null
+                    ? jdbc.query(SELECT_INVOICES_FIRST_PAGE_QUERY, Map.of("size", pageSize), new InvoiceRowMapper())
+                    : jdbc.query(SELECT_INVOICES_PAGE_QUERY, Map.of("afterId", afterId, "size", pageSize), new InvoiceRowMapper()));
+        }catch (Exception exception){
+            log.error(exception.getMessage());
+            throw new ApiException("An error occurred. Please try again.");
+        }
+    }
+
+    @Override
+    public Invoice get(Long id) {
+        try{
+            return readRouting.readOnly(INVOICES, () -> {
+                Invoice invoice = jdbc.queryForObject(SELECT_INVOICE_BY_ID_QUERY, Map.of("id", id), new InvoiceRowMapper());
+                Objects.requireNonNull(invoice).setLines(jdbc.query(SELECT_INVOICE_LINES_QUERY, Map.of("invoiceId", id), new InvoiceLineRowMapper(invoice.getTotal().getCurrency())));
+                return invoice;
+            });
+        }catch (EmptyResultDataAccessException exception){
+            throw new ApiException("No invoice found by id: " + id);
+        }catch (Exception exception){
+            log.error(exception.getMessage());
+            throw new ApiException("An error occurred. Please try again.");
+        }
+    }
+
+    @Override
+    @Transactional
+    public Invoice update(Invoice invoice) {
+        try{
+            Invoice current = lock(invoice.getId());
+            if(current.getStatus() == PAID || current.getStatus() == CANCELLED) throw new ApiException("A " + current.getStatus().name().toLowerCase() + " invoice cannot be changed");
+            Money total = calculateTotal(invoice.getLines());
+            jdbc.update(UPDATE_INVOICE_QUERY, getSqlParameterSource(invoice).addValue("id", invoice.getId()).addValue("total", total.getMinorUnits()));
+            jdbc.update(DELETE_INVOICE_LINES_QUERY, Map.of("invoiceId", invoice.getId()));
+            insertLines(List.of(invoice));
+            applySummaryDelta(current.getCustomerId(), current.getIssuedAt(), 0, current.getStatus(), current.getTotal().getMinorUnits(), current.getStatus(), total.getMinorUnits());
+            readRouting.written(INVOICES);
+            current.setDueDate(invoice.getDueDate());
+            current.setTotal(total);
+            current.setVersion(current.getVersion() + 1);
+            current.setLines(invoice.getLines());
+            searchIndex.indexInvoices(List.of(current));
+            dashboardStatistics.recordWrites(1);
+            return current;
+        }catch (ApiException exception){
+            throw exception;
+        }catch (Exception exception){
+            log.error(exception.getMessage());
+            throw new ApiException("An error occurred. Please try again.");
+        }
+    }
+
+    @Override
+    @Transactional
+    public Boolean delete(Long id) {
+        try{
+            Invoice current = lock(id);
+            jdbc.update(DELETE_INVOICE_QUERY, Map.of("id", id));
+            applySummaryDelta(current.getCustomerId(), current.getIssuedAt(), -1, current.getStatus(), current.getTotal().getMinorUnits(), null, 0);
+            readRouting.written(INVOICES);
+            searchIndex.removeInvoice(id);
+            dashboardStatistics.recordWrites(1);
+            return true;
+        }catch (ApiException exception){
+            throw exception;
+        }catch (Exception exception){
+            log.error(exception.getMessage());
+            throw new ApiException("An error occurred. Please try again.");
+        }
+    }
+
+    @Override
+    public List<Invoice> listByCustomer(Long customerId, Long afterId, int pageSize) {
+        try{
+            return readRouting.readOnly(INVOICES, () -> afterId == null
+                    ? jdbc.query(SELECT_CUSTOMER_INVOICES_FIRST_PAGE_QUERY, Map.of("customerId", customerId, "size", pageSize), new InvoiceRowMapper())
+                    : jdbc.query(SELECT_CUSTOMER_INVOICES_PAGE_QUERY, Map.of("customerId", customerId, "afterId", afterId, "size", pageSize), new InvoiceRowMapper()));
+        }catch (Exception exception){
+            log.error(exception.getMessage());
+            throw new ApiException("An error occurred. Please try again.");
+        }
+    }
+
+    @Override
+    public Map<Long, Invoice> getAll(Collection<Long> ids) {
+        if(ids.isEmpty()) return Map.of();
+        try{
+            return readRouting.readOnly(INVOICES, () -> {
+                Map<Long, Invoice> invoices = new HashMap<>(ids.size() * 2);
+                InvoiceRowMapper rowMapper = new InvoiceRowMapper();
+                jdbc.query(SELECT_INVOICES_BY_IDS_QUERY, Map.of("ids", ids), rs -> {
+                    Invoice invoice = rowMapper.mapRow(rs, 0);
+                    invoices.put(invoice.getId(), invoice);
+                });
+                return invoices;
+            });
+        }catch (Exception exception){
+            log.error(exception.getMessage());
+            throw new ApiException("An error occurred. Please try again.");
+        }
+    }
+
+    @Override
+    public Set<String> getImportedReferences(Collection<String> references) {
+        if(references.isEmpty()) return Set.of();
+        try{
+            return new HashSet<>(jdbc.queryForList(SELECT_IMPORTED_REFERENCES_QUERY, Map.of("references", references), String.class));
+        }catch (Exception exception){
+            log.error(exception.getMessage());
+            throw new ApiException("An error occurred. Please try again.");
+        }
+    }
+
+    @Override
+    public List<Invoice> listIssued(LocalDate from, LocalDate to, LocalDate afterIssuedAt, Long afterId, int pageSize) {
+        try{
+            return readRouting.readOnly(INVOICES, () -> {
+                List<Invoice> invoices = afterId == null
+                        ? jdbc.query(SELECT_ISSUED_INVOICES_FIRST_PAGE_QUERY, Map.of("from", from, "to", to, "size", pageSize), new InvoiceRowMapper())
+                        : jdbc.query(SELECT_ISSUED_INVOICES_PAGE_QUERY, Map.of("from", from, "to", to, "afterIssuedAt", afterIssuedAt, "afterId", afterId, "size", pageSize), new InvoiceRowMapper());
+                if(invoices.isEmpty()) return invoices;
+                Map<Long, Invoice> byId = new HashMap<>(invoices.size() * 2);
+                for(Invoice invoice : invoices){
+                    invoice.setLines(new ArrayList<>());
+                    byId.put(invoice.getId(), invoice);
+                }
+                InvoiceLineRowMapper lineRowMapper = new InvoiceLineRowMapper(currency);
+                jdbc.query(SELECT_INVOICE_LINES_BY_INVOICE_IDS_QUERY, Map.of("invoiceIds", byId.keySet()), rs -> {
+                    byId.get(rs.getLong("invoice_id")).getLines().add(lineRowMapper.mapRow(rs, 0));
+                });
+                return invoices;
+            });
+        }catch (Exception exception){
+            log.error(exception.getMessage());
+            throw new ApiException("An error occurred. Please try again.");
+        }
+    }
+
+    @Override
+    @Transactional
+    public Invoice updateStatus(Long id, InvoiceStatus status) {
+        try{
+            Invoice current = lock(id);
+            if(current.getStatus() == status) return current;
+            if(current.getStatus() == PAID || current.getStatus() == CANCELLED) throw new ApiException("A " + current.getStatus().name().toLowerCase() + " invoice cannot be changed");
+            jdbc.update(UPDATE_INVOICE_STATUS_QUERY, Map.of("id", id, "status", status.name(), "previousStatus", current.getStatus().name()));
+            applySummaryDelta(current.getCustomerId(), current.getIssuedAt(), 0, current.getStatus(), current.getTotal().getMinorUnits(), status, current.getTotal().getMinorUnits());
+            readRouting.written(INVOICES);
+            dashboardStatistics.recordWrites(1);
+            current.setStatus(status);
+            current.setVersion(current.getVersion() + 1);
+            return current;
+        }catch (ApiException exception){
+            throw exception;
+        }catch (Exception exception){
+            log.error(exception.getMessage());
+            throw new ApiException("An error occurred. Please try again.");
+        }
+    }
+
+    @Override
+    public List<Long> getOverdueIds(LocalDate today, int limit) {
+        return jdbc.query(SELECT_OVERDUE_INVOICE_IDS_QUERY, Map.of("today", today, "size", limit), new SingleColumnRowMapper<>(Long.class));
+    }
+
+    @Override
+    public InvoiceSummary getCustomerSummary(Long customerId) {
+        try{
+            return readRouting.readOnly(INVOICES, () -> jdbc.queryForObject(SELECT_CUSTOMER_INVOICE_SUMMARY_QUERY, Map.of("customerId", customerId), new InvoiceSummaryRowMapper(currency)));
+        }catch (EmptyResultDataAccessException exception){
+            return InvoiceSummary.builder().totalBilled(Money.zero(currency)).outstanding(Money.zero(currency)).build();
+        }catch (Exception exception){
+            log.error(exception.getMessage());
+            throw new ApiException("An error occurred. Please try again.");
+        }
+    }
+
+    @Override
+    public InvoiceSummary getAccountSummary() {
+        try{
+            return readRouting.readOnly(INVOICES, () -> jdbc.queryForObject(SELECT_ACCOUNT_INVOICE_SUMMARY_QUERY, Map.of(), new InvoiceSummaryRowMapper(currency)));
+        }catch (Exception exception){
+            log.error(exception.getMessage());
+            throw new ApiException("An error occurred. Please try again.");
+        }
+    }
+
+    private Invoice lock(Long id){
+        try{
+            return jdbc.queryForObject(SELECT_INVOICE_FOR_UPDATE_QUERY, Map.of("id", id), new InvoiceRowMapper());
+        }catch (EmptyResultDataAccessException exception){
+            throw new ApiException("No invoice found by id: " + id);
+        }
+    }
+
+    private void insertLines(List<Invoice> invoices){
+        SqlParameterSource[] parameters = invoices.stream()
+                .flatMap(invoice -> invoice.getLines().stream().map(line -> new MapSqlParameterSource()
+                        .addValue("invoiceId", invoice.getId())
+                        .addValue("description", line.getDescription())
+                        .addValue("quantity", line.getQuantity())
+                        .addValue("unitPrice", line.getUnitPrice().getMinorUnits())
+                        .addValue("amount", line.getAmount().getMinorUnits())))
+                .toArray(SqlParameterSource[]::new);
+        jdbc.batchUpdate(INSERT_INVOICE_LINE_QUERY, parameters);
+    }
+
+    private void applySummaryDelta(Long customerId, LocalDate issuedAt, int countDelta, InvoiceStatus previousStatus, long previousTotal, InvoiceStatus status, long total){
+        applyStatusSummaryDelta(previousStatus, previousTotal, status, total);
+        long billed = Math.subtractExact(billed(status, total), billed(previousStatus, previousTotal));
+        long paid = Math.subtractExact(paid(status, total), paid(previousStatus, previousTotal));
+        if(countDelta != 0 || billed != 0 || paid != 0) jdbc.update(UPSERT_MONTHLY_REVENUE_SUMMARY_QUERY, getRevenueSummaryParameterSource(issuedAt, countDelta, billed, paid));
+        long outstanding = Math.subtractExact(outstanding(status, total), outstanding(previousStatus, previousTotal));
+        int overdue = overdue(status) - overdue(previousStatus);
+        if(countDelta == 0 && billed == 0 && outstanding == 0 && overdue == 0) return;
+        MapSqlParameterSource parameters = getSummaryParameterSource(customerId, countDelta, billed, outstanding, overdue);
+        jdbc.update(UPSERT_CUSTOMER_INVOICE_SUMMARY_QUERY, parameters);
+        jdbc.update(UPDATE_ACCOUNT_INVOICE_SUMMARY_QUERY, parameters);
+    }
+
+    private void applyStatusSummaryDelta(InvoiceStatus previousStatus, long previousTotal, InvoiceStatus status, long total){
+        if(previousStatus == status){
+            if(total != previousTotal) jdbc.update(UPSERT_INVOICE_STATUS_SUMMARY_QUERY, getStatusSummaryParameterSource(status, 0, Math.subtractExact(total, previousTotal)));
+            return;
+        }
+        if(previousStatus != null) jdbc.update(UPSERT_INVOICE_STATUS_SUMMARY_QUERY, getStatusSummaryParameterSource(previousStatus, -1, -previousTotal));
+        if(status != null) jdbc.update(UPSERT_INVOICE_STATUS_SUMMARY_QUERY, getStatusSummaryParameterSource(status, 1, total));
+    }
+
+    private static MapSqlParameterSource getStatusSummaryParameterSource(InvoiceStatus status, int countDelta, long total){
+        return new MapSqlParameterSource()
+                .addValue("status", status.name())
+                .addValue("invoiceCount", countDelta)
+                .addValue("total", total)
+                .addValue("slot", ThreadLocalRandom.current().nextInt(ACCOUNT_SUMMARY_SLOTS));
+    }
+
+    private static MapSqlParameterSource getRevenueSummaryParameterSource(LocalDate issuedAt, int countDelta, long billed, long paid){
+        return new MapSqlParameterSource()
+                .addValue("issuedYear", issuedAt.getYear())
+                .addValue("issuedMonth", issuedAt.getMonthValue())
+                .addValue("invoiceCount", countDelta)
+                .addValue("billed", billed)
+                .addValue("paid", paid)
+                .addValue("slot", ThreadLocalRandom.current().nextInt(ACCOUNT_SUMMARY_SLOTS));
+    }
+
+    private static MapSqlParameterSource getSummaryParameterSource(Long customerId, int countDelta, long billed, long outstanding, int overdue){
+        return new MapSqlParameterSource()
+                .addValue("customerId", customerId)
+                .addValue("invoiceCount", countDelta)
+                .addValue("totalBilled", billed)
+                .addValue("outstanding", outstanding)
+                .addValue("overdueCount", overdue)
+                .addValue("slot", ThreadLocalRandom.current().nextInt(ACCOUNT_SUMMARY_SLOTS));
+    }
+
+    private static ApiException integrityViolation(DataIntegrityViolationException exception, String missingCustomerMessage){
+        String message = exception.getMostSpecificCause().getMessage();
+        if(StringUtils.containsIgnoreCase(message, CUSTOMER_FOREIGN_KEY)) return new ApiException(missingCustomerMessage);
+        if(StringUtils.containsIgnoreCase(message, INVOICE_NUMBER_KEY)) return new ApiException("Invoice number already exists");
+        if(StringUtils.containsIgnoreCase(message, IMPORT_REFERENCE_KEY)) return new ApiException("Invoice was already imported");
+        return new ApiException("An error occurred. Please try again.");
+    }
+
+    private static long billed(InvoiceStatus status, long total){
+        return status == null || status == CANCELLED ? 0 : total;
+    }
+
+    private static long paid(InvoiceStatus status, long total){
+        return status == PAID ? total : 0;
+    }
+
+    private static long outstanding(InvoiceStatus status, long total){
+        return status == PENDING || status == OVERDUE ? total : 0;
+    }
+
+    private static int overdue(InvoiceStatus status){
+        return status == OVERDUE ? 1 : 0;
+    }
+
+    private Money calculateTotal(List<InvoiceLine> lines){
+        int size = lines.size();
+        long[] unitPrices = new long[size];
+        int[] quantities = new int[size];
+        long[] amounts = new long[size];
+        for(int i = 0; i < size; i++){
+            Money unitPrice = lines.get(i).getUnitPrice();
+            if(!currency.equals(unitPrice.getCurrency())) throw new ApiException("Invoice lines must be priced in " + currency.getCurrencyCode());
+            if(unitPrice.signum() < 0) throw new ApiException("Unit price cannot be negative");
+            unitPrices[i] = unitPrice.getMinorUnits();
+            quantities[i] = lines.get(i).getQuantity();
+        }
+        long total;
+        try{
+            total = Money.sumProducts(unitPrices, quantities, amounts);
+        }catch (ArithmeticException exception){
+            throw new ApiException("Invoice total is too large");
+        }
+        for(int i = 0; i < size; i++){
+            lines.get(i).setAmount(Money.ofMinor(amounts[i], currency));
+        }
+        return Money.ofMinor(total, currency);
+    }
+
+    private MapSqlParameterSource getSqlParameterSource(Invoice invoice){
+        return new MapSqlParameterSource()
+                .addValue("dueDate", invoice.getDueDate())
+                .addValue("total", invoice.getTotal() == null ? 0 : invoice.getTotal().getMinorUnits())
+                .addValue("importReference", invoice.getImportReference());
+    }
+}
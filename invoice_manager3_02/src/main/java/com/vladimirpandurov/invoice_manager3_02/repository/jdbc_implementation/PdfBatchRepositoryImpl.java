@@ -0,0 +1,130 @@
+package com.vladimirpandurov.invoice_manager3_02.repository.jdbc_implementation;
+
+import com.vladimirpandurov.invoice_manager3_02.domain.PdfBatch;
+import com.vladimirpandurov.invoice_manager3_02.enumeration.PdfBatchStatus;
+import com.vladimirpandurov.invoice_manager3_02.exception.ApiException;
+import com.vladimirpandurov.invoice_manager3_02.repository.PdfBatchRepository;
+import com.vladimirpandurov.invoice_manager3_02.rowmapper.PdfBatchRowMapper;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.dao.EmptyResultDataAccessException;
+import org.springframework.jdbc.core.SingleColumnRowMapper;
+import org.springframework.jdbc.core.namedparam.MapSqlParameterSource;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.jdbc.support.GeneratedKeyHolder;
+import org.springframework.jdbc.support.KeyHolder;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+
+import static com.vladimirpandurov.invoice_manager3_02.enumeration.PdfBatchStatus.RUNNING;
+import static com.vladimirpandurov.invoice_manager3_02.query.PdfBatchQuery.*;
+
+@Repository
+@RequiredArgsConstructor
+@Slf4j
+public class PdfBatchRepositoryImpl implements PdfBatchRepository<PdfBatch> {
+
+    private static final int MAX_MESSAGE_LENGTH = 255;
+    private final NamedParameterJdbcTemplate jdbc;
+
+    @Override
+    public PdfBatch create(LocalDate issuedFrom, LocalDate issuedTo, String owner) {
+        try{
+            KeyHolder holder = new GeneratedKeyHolder();
+            jdbc.update(INSERT_PDF_BATCH_QUERY, new MapSqlParameterSource()
+                    .addValue("status", RUNNING.name())
+                    .addValue("issuedFrom", issuedFrom)
+                    .addValue("issuedTo", issuedTo)
+                    .addValue("owner", owner), holder, new String[]{"id"});
+            return PdfBatch.builder()
+                    .id(Objects.requireNonNull(holder.getKey()).longValue())
+                    .status(RUNNING)
+                    .issuedFrom(issuedFrom)
+                    .issuedTo(issuedTo)
+                    .owner(owner)
+                    .build();
+        }catch (Exception exception){
+            log.error(exception.getMessage());
+            throw new ApiException("An error occurred. Please try again.");
+        }
+    }
+
+    @Override
+    public PdfBatch get(Long id) {
+        try{
+            return jdbc.queryForObject(SELECT_PDF_BATCH_BY_ID_QUERY, Map.of("id", id), new PdfBatchRowMapper());
+        }catch (EmptyResultDataAccessException exception){
+            throw new ApiException("No PDF batch found by id: " + id);
+        }catch (Exception exception){
+            log.error(exception.getMessage());
+            throw new ApiException("An error occurred. Please try again.");
+        }
+    }
+
+    @Override
+    public List<PdfBatch> list(int limit) {
+        try{
+            return jdbc.query(SELECT_RECENT_PDF_BATCHES_QUERY, Map.of("limit", limit), new PdfBatchRowMapper());
+        }catch (Exception exception){
+            log.error(exception.getMessage());
+            throw new ApiException("An error occurred. Please try again.");
+        }
+    }
+
+    @Override
+    public boolean reopen(Long id, String owner) {
+        try{
+            return jdbc.update(REOPEN_PDF_BATCH_QUERY, Map.of("id", id, "owner", owner)) == 1;
+        }catch (Exception exception){
+            log.error(exception.getMessage());
+            throw new ApiException("An error occurred. Please try again.");
+        }
+    }
+
+    @Override
+    public List<Long> claimStale(LocalDateTime staleBefore, String owner) {
+        try{
+            return jdbc.query(SELECT_STALE_PDF_BATCH_IDS_QUERY, Map.of("staleBefore", staleBefore), new SingleColumnRowMapper<>(Long.class)).stream()
+                    .filter(id -> jdbc.update(CLAIM_STALE_PDF_BATCH_QUERY, Map.of("id", id, "staleBefore", staleBefore, "owner", owner)) == 1)
+                    .toList();
+        }catch (Exception exception){
+            log.error(exception.getMessage());
+            throw new ApiException("An error occurred. Please try again.");
+        }
+    }
+
+    @Override
+    public boolean checkpoint(Long id, String owner, LocalDate lastIssuedAt, Long lastInvoiceId, long rendered, long failed) {
+        try{
+            return jdbc.update(CHECKPOINT_PDF_BATCH_QUERY, new MapSqlParameterSource()
+                    .addValue("id", id)
+                    .addValue("owner", owner)
+                    .addValue("lastIssuedAt", lastIssuedAt)
+                    .addValue("lastInvoiceId", lastInvoiceId)
+                    .addValue("rendered", rendered)
+                    .addValue("failed", failed)) == 1;
+        }catch (Exception exception){
+            log.error(exception.getMessage());
+            throw new ApiException("An error occurred. Please try again.");
+        }
+    }
+
+    @Override
+    public boolean complete(Long id, String owner, PdfBatchStatus status, String message) {
+        try{
+            return jdbc.update(COMPLETE_PDF_BATCH_QUERY, new MapSqlParameterSource()
+                    .addValue("id", id)
+                    .addValue("owner", owner)
+                    .addValue("status", status.name())
+                    .addValue("message", message == null || message.length() <= MAX_MESSAGE_LENGTH ? message : message.substring(0, MAX_MESSAGE_LENGTH))) == 1;
+        }catch (Exception exception){
+            log.error(exception.getMessage());
+            throw new ApiException("An error occurred. Please try again.");
+        }
+    }
+}
@@ -0,0 +1,206 @@
+package com.vladimirpandurov.invoice_manager3_02.repository.jdbc_implementation;
+
+import com.vladimirpandurov.invoice_manager3_02.datasource.ReadRouting;
+import com.vladimirpandurov.invoice_manager3_02.domain.RecurringSchedule;
+import com.vladimirpandurov.invoice_manager3_02.exception.ApiException;
+import com.vladimirpandurov.invoice_manager3_02.repository.RecurringScheduleRepository;
+import com.vladimirpandurov.invoice_manager3_02.rowmapper.RecurringScheduleRowMapper;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.apache.commons.lang3.StringUtils;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.dao.EmptyResultDataAccessException;
+import org.springframework.jdbc.core.SingleColumnRowMapper;
+import org.springframework.jdbc.core.namedparam.MapSqlParameterSource;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.jdbc.core.namedparam.SqlParameterSource;
+import org.springframework.jdbc.support.GeneratedKeyHolder;
+import org.springframework.jdbc.support.KeyHolder;
+import org.springframework.stereotype.Repository;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+
+import static com.vladimirpandurov.invoice_manager3_02.query.RecurringScheduleQuery.*;
+
+@Repository
+@RequiredArgsConstructor
+@Slf4j
+public class RecurringScheduleRepositoryImpl implements RecurringScheduleRepository<RecurringSchedule> {
+
+    private static final String RECURRING = "recurring";
+    private static final String CUSTOMER_FOREIGN_KEY = "FK_RecurringSchedules_Customer_Id";
+    private final NamedParameterJdbcTemplate jdbc;
+    private final ReadRouting readRouting;
+
+    @Override
+    public RecurringSchedule create(RecurringSchedule schedule) {
+        try{
+            KeyHolder holder = new GeneratedKeyHolder();
+            jdbc.update(INSERT_RECURRING_SCHEDULE_QUERY, new MapSqlParameterSource()
+                    .addValue("customerId", schedule.getCustomerId())
+                    .addValue("partition", schedule.getPartition())
+                    .addValue("frequency", schedule.getFrequency().name())
+                    .addValue("anchorDay", schedule.getAnchorDay())
+                    .addValue("description", schedule.getDescription())
+                    .addValue("quantity", schedule.getQuantity())
+                    .addValue("currency", schedule.getUnitPrice().getCurrencyCode())
+                    .addValue("unitPrice", schedule.getUnitPrice().getMinorUnits())
+                    .addValue("dueDays", schedule.getDueDays())
+                    .addValue("nextRunAt", schedule.getNextRunAt()), holder, new String[]{"id"});
+            schedule.setId(Objects.requireNonNull(holder.getKey()).longValue());
+            schedule.setActive(true);
+            readRouting.written(RECURRING);
+            return schedule;
+        }catch (DataIntegrityViolationException exception){
+            log.error(exception.getMessage());
+            if(StringUtils.containsIgnoreCase(exception.getMostSpecificCause().getMessage(), CUSTOMER_FOREIGN_KEY)) throw new ApiException("No customer found by id: " + schedule.getCustomerId());
+            throw new ApiException("An error occurred. Please try again.");
+        }catch (Exception exception){
+            log.error(exception.getMessage());
+            throw new ApiException("An error occurred. Please try again.");
+        }
+    }
+
+    @Override
+    public RecurringSchedule get(Long id) {
+        try{
+            return readRouting.readOnly(RECURRING, () -> jdbc.queryForObject(SELECT_RECURRING_SCHEDULE_BY_ID_QUERY, Map.of("id", id), new RecurringScheduleRowMapper()));
+        }catch (EmptyResultDataAccessException exception){
+            throw new ApiException("No recurring schedule found by id: " + id);
+        }catch (Exception exception){
+            log.error(exception.getMessage());
+            throw new ApiException("An error occurred. Please try again.");
+        }
+    }
+
+    @Override
+    public List<RecurringSchedule> list(Long afterId, int pageSize) {
+        try{
+            return readRouting.readOnly(RECURRING, () -> afterId == null
+                    ? jdbc.query(SELECT_RECURRING_SCHEDULES_FIRST_PAGE_QUERY, Map.of("size", pageSize), new RecurringScheduleRowMapper())
+                    : jdbc.query(SELECT_RECURRING_SCHEDULES_PAGE_QUERY, Map.of("afterId", afterId, "size", pageSize), new RecurringScheduleRowMapper()));
+        }catch (Exception exception){
+            log.error(exception.getMessage());
+            throw new ApiException("An error occurred. Please try again.");
+        }
+    }
+
+    @Override
+    public boolean cancel(Long id) {
+        try{
+            boolean cancelled = jdbc.update(CANCEL_RECURRING_SCHEDULE_QUERY, Map.of("id", id)) == 1;
+            readRouting.written(RECURRING);
+            return cancelled;
+        }catch (Exception exception){
+            log.error(exception.getMessage());
+            throw new ApiException("An error occurred. Please try again.");
+        }
+    }
+
+    @Override
+    public List<RecurringSchedule> listDue(int partition, LocalDateTime until, LocalDateTime afterRunAt, Long afterId, int pageSize) {
+        try{
+            MapSqlParameterSource parameters = new MapSqlParameterSource()
+                    .addValue("partition", partition)
+                    .addValue("until", until)
+                    .addValue("afterRunAt", afterRunAt)
+                    .addValue("afterId", afterId)
+                    .addValue("size", pageSize);
+            return jdbc.query(afterId == null ? SELECT_DUE_RECURRING_SCHEDULES_FIRST_PAGE_QUERY : SELECT_DUE_RECURRING_SCHEDULES_PAGE_QUERY, parameters, (rs, rowNum) -> RecurringSchedule.builder()
+                    .id(rs.getLong("id"))
+                    .partition(partition)
+                    .nextRunAt(rs.getTimestamp("next_run_at").toLocalDateTime())
+                    .build());
+        }catch (Exception exception){
+            log.error(exception.getMessage());
+            throw new ApiException("An error occurred. Please try again.");
+        }
+    }
+
+    @Override
+    public List<RecurringSchedule> lockDue(Collection<Long> ids, LocalDateTime now) {
+        if(ids.isEmpty()) return List.of();
+        try{
+            return jdbc.query(LOCK_DUE_RECURRING_SCHEDULES_QUERY, Map.of("ids", ids, "now", now), new RecurringScheduleRowMapper());
+        }catch (Exception exception){
+            log.error(exception.getMessage());
+            throw new ApiException("An error occurred. Please try again.");
+        }
+    }
+
+    @Override
+    public void advance(List<RecurringSchedule> schedules) {
+        try{
+            jdbc.batchUpdate(ADVANCE_RECURRING_SCHEDULE_QUERY, schedules.stream()
+                    .map(schedule -> new MapSqlParameterSource()
+                            .addValue("id", schedule.getId())
+                            .addValue("nextRunAt", schedule.getNextRunAt())
+                            .addValue("lastRunAt", schedule.getLastRunAt()))
+                    .toArray(SqlParameterSource[]::new));
+            readRouting.written(RECURRING);
+        }catch (Exception exception){
+            log.error(exception.getMessage());
+            throw new ApiException("An error occurred. Please try again.");
+        }
+    }
+
+    @Override
+    public List<Integer> renewLeases(String owner, Duration leaseDuration) {
+        try{
+            Map<String, Object> parameters = Map.of("owner", owner, "leaseSeconds", leaseDuration.toSeconds());
+            jdbc.update(RENEW_SCHEDULE_LEASES_QUERY, parameters);
+            return jdbc.query(SELECT_OWNED_SCHEDULE_LEASES_QUERY, parameters, new SingleColumnRowMapper<>(Integer.class));
+        }catch (Exception exception){
+            log.error(exception.getMessage());
+            throw new ApiException("An error occurred. Please try again.");
+        }
+    }
+
+    @Override
+    public boolean acquireLease(int partition, String owner, Duration leaseDuration) {
+        try{
+            return jdbc.update(ACQUIRE_SCHEDULE_LEASE_QUERY, Map.of("partition", partition, "owner", owner, "leaseSeconds", leaseDuration.toSeconds())) == 1;
+        }catch (Exception exception){
+            log.error(exception.getMessage());
+            throw new ApiException("An error occurred. Please try again.");
+        }
+    }
+
+    @Override
+    public void releaseLease(int partition, String owner) {
+        try{
+            jdbc.update(RELEASE_SCHEDULE_LEASE_QUERY, Map.of("partition", partition, "owner", owner));
+        }catch (Exception exception){
+            log.error(exception.getMessage());
+            throw new ApiException("An error occurred. Please try again.");
+        }
+    }
+
+    @Override
+    public int heartbeat(String owner, Duration aliveFor) {
+        try{
+            Map<String, Object> parameters = Map.of("owner", owner, "aliveSeconds", aliveFor.toSeconds());
+            jdbc.update(UPSERT_SCHEDULER_NODE_QUERY, parameters);
+            jdbc.update(DELETE_STALE_SCHEDULER_NODES_QUERY, parameters);
+            return Objects.requireNonNull(jdbc.queryForObject(COUNT_LIVE_SCHEDULER_NODES_QUERY, parameters, Integer.class));
+        }catch (Exception exception){
+            log.error(exception.getMessage());
+            throw new ApiException("An error occurred. Please try again.");
+        }
+    }
+
+    @Override
+    public void leave(String owner) {
+        try{
+            jdbc.update(DELETE_SCHEDULER_NODE_QUERY, Map.of("owner", owner));
+        }catch (Exception exception){
+            log.error(exception.getMessage());
+            throw new ApiException("An error occurred. Please try again.");
+        }
+    }
+}
@@ -0,0 +1,84 @@
+package com.vladimirpandurov.invoice_manager3_02.repository.jdbc_implementation;
+
+import com.vladimirpandurov.invoice_manager3_02.domain.RefreshToken;
+import com.vladimirpandurov.invoice_manager3_02.exception.ApiException;
+import com.vladimirpandurov.invoice_manager3_02.repository.RefreshTokenRepository;
+import com.vladimirpandurov.invoice_manager3_02.rowmapper.RefreshTokenRowMapper;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.dao.EmptyResultDataAccessException;
+import org.springframework.jdbc.core.namedparam.MapSqlParameterSource;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDateTime;
+import java.util.Map;
+
+import static com.vladimirpandurov.invoice_manager3_02.query.RefreshTokenQuery.*;
+
+@Repository
+@RequiredArgsConstructor
+@Slf4j
+public class RefreshTokenRepositoryImpl implements RefreshTokenRepository<RefreshToken> {
+
+    private final NamedParameterJdbcTemplate jdbc;
+
+    @Override
+    public RefreshToken create(RefreshToken refreshToken) {
+        try{
+            jdbc.update(INSERT_REFRESH_TOKEN_QUERY, new MapSqlParameterSource()
+                    .addValue("id", refreshToken.getId())
+                    .addValue("familyId", refreshToken.getFamilyId())
+                    .addValue("userId", refreshToken.getUserId())
+                    .addValue("expiresAt", refreshToken.getExpiresAt()));
+            return refreshToken;
+        }catch (Exception exception){
+            log.error(exception.getMessage());
+            throw new ApiException("An error occurred. Please try again.");
+        }
+    }
+
+    @Override
+    public RefreshToken get(Long id) {
+        try{
+            return jdbc.queryForObject(SELECT_REFRESH_TOKEN_BY_ID_QUERY, Map.of("id", id), new RefreshTokenRowMapper());
+        }catch (EmptyResultDataAccessException exception){
+            return null;
+        }catch (Exception exception){
+            log.error(exception.getMessage());
+            throw new ApiException("An error occurred. Please try again.");
+        }
+    }
+
+    @Override
+    public boolean markUsed(Long id) {
+        try{
+            return jdbc.update(MARK_REFRESH_TOKEN_USED_QUERY, Map.of("id", id)) == 1;
+        }catch (Exception exception){
+            log.error(exception.getMessage());
+            throw new ApiException("An error occurred. Please try again.");
+        }
+    }
+
+    @Override
+    public void revokeFamily(Long familyId) {
+        try{
+            jdbc.update(REVOKE_REFRESH_TOKEN_FAMILY_QUERY, Map.of("familyId", familyId));
+        }catch (Exception exception){
+            log.error(exception.getMessage());
+            throw new ApiException("An error occurred. Please try again.");
+        }
+    }
+
+    @Override
+    public void loadActive(ActiveTokenConsumer consumer) {
+        jdbc.query(SELECT_ACTIVE_REFRESH_TOKENS_QUERY, Map.of(), resultSet -> {
+            consumer.accept(resultSet.getLong("id"), resultSet.getTimestamp("expires_at").toLocalDateTime());
+        });
+    }
+
+    @Override
+    public int deleteExpired(LocalDateTime before) {
+        return jdbc.update(DELETE_EXPIRED_REFRESH_TOKENS_QUERY, Map.of("before", before));
+    }
+}
@@ -0,0 +1,68 @@
+package com.vladimirpandurov.invoice_manager3_02.repository.jdbc_implementation;
+
+import com.vladimirpandurov.invoice_manager3_02.domain.RevokedToken;
+import com.vladimirpandurov.invoice_manager3_02.exception.ApiException;
+import com.vladimirpandurov.invoice_manager3_02.repository.RevokedTokenRepository;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.dao.DuplicateKeyException;
+import org.springframework.jdbc.core.namedparam.MapSqlParameterSource;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.jdbc.support.GeneratedKeyHolder;
+import org.springframework.jdbc.support.KeyHolder;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.Map;
+import java.util.Objects;
+
+import static com.vladimirpandurov.invoice_manager3_02.query.RevokedTokenQuery.*;
+
+@Repository
+@RequiredArgsConstructor
+@Slf4j
+public class RevokedTokenRepositoryImpl implements RevokedTokenRepository<RevokedToken> {
+
+    private final NamedParameterJdbcTemplate jdbc;
+
+    @Override
+    public RevokedToken create(RevokedToken revokedToken) {
+        try{
+            KeyHolder holder = new GeneratedKeyHolder();
+            jdbc.update(INSERT_REVOKED_TOKEN_QUERY, new MapSqlParameterSource()
+                    .addValue("tokenId", revokedToken.getTokenId())
+                    .addValue("userId", revokedToken.getUserId())
+                    .addValue("expiresAt", revokedToken.getExpiresAt()), holder, new String[]{"id"});
+            revokedToken.setId(Objects.requireNonNull(holder.getKey()).longValue());
+            return revokedToken;
+        }catch (DuplicateKeyException exception){
+            return revokedToken;
+        }catch (Exception exception){
+            log.error(exception.getMessage());
+            throw new ApiException("An error occurred. Please try again.");
+        }
+    }
+
+    @Override
+    public long loadAfter(long lastId, int limit, RevokedTokenConsumer consumer) {
+        long[] maxId = {lastId};
+        jdbc.query(SELECT_REVOKED_TOKENS_AFTER_ID_QUERY, Map.of("lastId", lastId, "limit", limit), resultSet -> {
+            maxId[0] = resultSet.getLong("id");
+            consumer.accept(maxId[0], resultSet.getLong("token_id"), resultSet.getTimestamp("expires_at").toLocalDateTime());
+        });
+        return maxId[0];
+    }
+
+    @Override
+    public void loadByIds(Collection<Long> ids, RevokedTokenConsumer consumer) {
+        jdbc.query(SELECT_REVOKED_TOKENS_BY_IDS_QUERY, Map.of("ids", ids), resultSet -> {
+            consumer.accept(resultSet.getLong("id"), resultSet.getLong("token_id"), resultSet.getTimestamp("expires_at").toLocalDateTime());
+        });
+    }
+
+    @Override
+    public int deleteExpired(LocalDateTime before) {
+        return jdbc.update(DELETE_EXPIRED_REVOKED_TOKENS_QUERY, Map.of("before", before));
+    }
+}
@@ -1,7 +1,9 @@
 package com.vladimirpandurov.invoice_manager3_02.repository.jdbc_implementation;
 
+import com.vladimirpandurov.invoice_manager3_02.datasource.ReadRouting;
 import com.vladimirpandurov.invoice_manager3_02.domain.Role;
 import com.vladimirpandurov.invoice_manager3_02.exception.ApiException;
+import com.vladimirpandurov.invoice_manager3_02.feed.UserChangeFeed;
 import com.vladimirpandurov.invoice_manager3_02.repository.RoleRepository;
 import com.vladimirpandurov.invoice_manager3_02.rowmapper.RoleRowMapper;
 import lombok.RequiredArgsConstructor;
@@ -9,11 +11,13 @@ import lombok.extern.slf4j.Slf4j;
 import org.springframework.dao.EmptyResultDataAccessException;
 import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
 import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
 
 import java.util.Collection;
 import java.util.Map;
 import java.util.Objects;
 
+import static com.vladimirpandurov.invoice_manager3_02.enumeration.UserChangeType.ROLE_CHANGED;
 import static com.vladimirpandurov.invoice_manager3_02.query.RoleQuery.*;
 
 @Repository
@@ -22,6 +26,8 @@ import static com.vladimirpandurov.invoice_manager3_02.query.RoleQuery.*;
 public class RoleRepositoryImpl implements RoleRepository<Role> {
 
     private final NamedParameterJdbcTemplate jdbc;
+    private final ReadRouting readRouting;
+    private final UserChangeFeed userChangeFeed;
 
     @Override
     public Role create(Role data) {
@@ -54,6 +60,7 @@ public class RoleRepositoryImpl implements RoleRepository<Role> {
         try{
             Role role = jdbc.queryForObject(SELECT_ROLE_BY_NAME_QUERY, Map.of("roleName", roleName), new RoleRowMapper());
             jdbc.update(INSERT_ROLE_TO_USER_QUERY, Map.of("userId", userId, "roleId", Objects.requireNonNull(role).getId()));
+            readRouting.written(userId);
         }catch (EmptyResultDataAccessException exception){
             throw new ApiException("No role found by name: " + roleName);
         }catch (Exception exception){
@@ -64,7 +71,7 @@ public class RoleRepositoryImpl implements RoleRepository<Role> {
     @Override
     public Role getRoleByUserId(Long userId) {
         try{
-            Role role = jdbc.queryForObject(SELECT_ROLE_BY_USER_ID_QUERY, Map.of("userId", userId), new RoleRowMapper());
+            Role role = readRouting.readOnly(userId, () -> jdbc.queryForObject(SELECT_ROLE_BY_USER_ID_QUERY, Map.of("userId", userId), new RoleRowMapper()));
             return role;
         }catch (EmptyResultDataAccessException exception){
             throw new ApiException("No role found by user id: " + userId);
@@ -79,7 +86,18 @@ public class RoleRepositoryImpl implements RoleRepository<Role> {
     }
 
     @Override
+    @Transactional
     public void updateUserRole(Long userId, String roleName) {
-
+        log.info("Updating role for user id: {}", userId);
+        try{
+            Role role = jdbc.queryForObject(SELECT_ROLE_BY_NAME_QUERY, Map.of("roleName", roleName), new RoleRowMapper());
+            jdbc.update(UPDATE_USER_ROLE_QUERY, Map.of("userId", userId, "roleId", Objects.requireNonNull(role).getId()));
+            userChangeFeed.publish(ROLE_CHANGED, userId, null);
+            readRouting.written(userId);
+        }catch (EmptyResultDataAccessException exception){
+            throw new ApiException("No role found by name: " + roleName);
+        }catch (Exception exception){
+            throw new ApiException("An error occurred. Please try again");
+        }
     }
 }
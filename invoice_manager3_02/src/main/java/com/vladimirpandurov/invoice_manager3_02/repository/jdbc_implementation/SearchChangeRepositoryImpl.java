@@ -0,0 +1,58 @@
+package com.vladimirpandurov.invoice_manager3_02.repository.jdbc_implementation;
+
+import com.vladimirpandurov.invoice_manager3_02.domain.SearchChange;
+import com.vladimirpandurov.invoice_manager3_02.enumeration.SearchEntityType;
+import com.vladimirpandurov.invoice_manager3_02.repository.SearchChangeRepository;
+import com.vladimirpandurov.invoice_manager3_02.rowmapper.SearchChangeRowMapper;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.jdbc.core.namedparam.MapSqlParameterSource;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.jdbc.core.namedparam.SqlParameterSource;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+
+import static com.vladimirpandurov.invoice_manager3_02.query.SearchChangeQuery.*;
+
+@Repository
+@RequiredArgsConstructor
+@Slf4j
+public class SearchChangeRepositoryImpl implements SearchChangeRepository<SearchChange> {
+
+    private final NamedParameterJdbcTemplate jdbc;
+
+    @Override
+    public void create(SearchEntityType entityType, Collection<Long> entityIds) {
+        if(entityIds.isEmpty()) return;
+        jdbc.batchUpdate(INSERT_SEARCH_CHANGE_QUERY, entityIds.stream()
+                .map(id -> new MapSqlParameterSource()
+                        .addValue("entityType", entityType.name())
+                        .addValue("entityId", id))
+                .toArray(SqlParameterSource[]::new));
+    }
+
+    @Override
+    public List<SearchChange> listAfter(long lastId, int limit) {
+        return jdbc.query(SELECT_SEARCH_CHANGES_AFTER_ID_QUERY, Map.of("lastId", lastId, "limit", limit), new SearchChangeRowMapper());
+    }
+
+    @Override
+    public List<SearchChange> listByIds(Collection<Long> ids) {
+        return jdbc.query(SELECT_SEARCH_CHANGES_BY_IDS_QUERY, Map.of("ids", ids), new SearchChangeRowMapper());
+    }
+
+    @Override
+    public long getLastId() {
+        Long lastId = jdbc.queryForObject(SELECT_LAST_SEARCH_CHANGE_ID_QUERY, Map.of(), Long.class);
+        return lastId == null ? 0 : lastId;
+    }
+
+    @Override
+    public int deleteBefore(LocalDateTime before) {
+        return jdbc.update(DELETE_SEARCH_CHANGES_BEFORE_QUERY, Map.of("before", before));
+    }
+}
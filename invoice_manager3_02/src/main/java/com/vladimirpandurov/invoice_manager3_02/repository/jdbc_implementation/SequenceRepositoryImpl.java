@@ -0,0 +1,40 @@
+package com.vladimirpandurov.invoice_manager3_02.repository.jdbc_implementation;
+
+import com.vladimirpandurov.invoice_manager3_02.exception.ApiException;
+import com.vladimirpandurov.invoice_manager3_02.repository.SequenceRepository;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.dao.EmptyResultDataAccessException;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.Map;
+import java.util.Objects;
+
+import static com.vladimirpandurov.invoice_manager3_02.query.SequenceQuery.ADVANCE_SEQUENCE_QUERY;
+import static com.vladimirpandurov.invoice_manager3_02.query.SequenceQuery.SELECT_SEQUENCE_FOR_UPDATE_QUERY;
+
+@Repository
+@RequiredArgsConstructor
+@Slf4j
+public class SequenceRepositoryImpl implements SequenceRepository {
+
+    private final NamedParameterJdbcTemplate jdbc;
+
+    @Override
+    @Transactional(propagation = Propagation.REQUIRES_NEW)
+    public long reserve(String name, int blockSize) {
+        try{
+            Long first = jdbc.queryForObject(SELECT_SEQUENCE_FOR_UPDATE_QUERY, Map.of("name", name), Long.class);
+            jdbc.update(ADVANCE_SEQUENCE_QUERY, Map.of("name", name, "blockSize", blockSize));
+            return Objects.requireNonNull(first);
+        }catch (EmptyResultDataAccessException exception){
+            throw new ApiException("No sequence found by name: " + name);
+        }catch (Exception exception){
+            log.error(exception.getMessage());
+            throw new ApiException("An error occurred. Please try again.");
+        }
+    }
+}
@@ -0,0 +1,52 @@
+package com.vladimirpandurov.invoice_manager3_02.repository.jdbc_implementation;
+
+import com.vladimirpandurov.invoice_manager3_02.datasource.ReadRouting;
+import com.vladimirpandurov.invoice_manager3_02.domain.InvoiceStatusStats;
+import com.vladimirpandurov.invoice_manager3_02.domain.MonthlyRevenue;
+import com.vladimirpandurov.invoice_manager3_02.repository.StatisticsRepository;
+import com.vladimirpandurov.invoice_manager3_02.rowmapper.InvoiceStatusStatsRowMapper;
+import com.vladimirpandurov.invoice_manager3_02.rowmapper.MonthlyRevenueRowMapper;
+import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDate;
+import java.util.Currency;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+
+import static com.vladimirpandurov.invoice_manager3_02.query.StatisticsQuery.*;
+
+@Repository
+@RequiredArgsConstructor
+public class StatisticsRepositoryImpl implements StatisticsRepository {
+
+    private static final String STATISTICS = "statistics";
+    private final NamedParameterJdbcTemplate jdbc;
+    private final ReadRouting readRouting;
+    @Value("${application.invoice.currency:USD}")
+    private Currency currency;
+
+    @Override
+    public Map<String, Long> countCustomersByStatus() {
+        return readRouting.readOnly(STATISTICS, () -> {
+            Map<String, Long> counts = new TreeMap<>();
+            jdbc.query(COUNT_CUSTOMERS_BY_STATUS_QUERY, Map.of(), rs -> {
+                counts.put(rs.getString("status") == null ? "UNKNOWN" : rs.getString("status"), rs.getLong("customer_count"));
+            });
+            return counts;
+        });
+    }
+
+    @Override
+    public List<InvoiceStatusStats> sumInvoicesByStatus() {
+        return readRouting.readOnly(STATISTICS, () -> jdbc.query(SUM_INVOICES_BY_STATUS_QUERY, Map.of(), new InvoiceStatusStatsRowMapper(currency)));
+    }
+
+    @Override
+    public List<MonthlyRevenue> sumRevenueByMonth(LocalDate since) {
+        return readRouting.readOnly(STATISTICS, () -> jdbc.query(SUM_REVENUE_BY_MONTH_QUERY, Map.of("sinceYear", since.getYear(), "sinceMonth", since.getMonthValue()), new MonthlyRevenueRowMapper(currency)));
+    }
+}
@@ -0,0 +1,54 @@
+package com.vladimirpandurov.invoice_manager3_02.repository.jdbc_implementation;
+
+import com.vladimirpandurov.invoice_manager3_02.domain.UserChange;
+import com.vladimirpandurov.invoice_manager3_02.repository.UserChangeRepository;
+import com.vladimirpandurov.invoice_manager3_02.rowmapper.UserChangeRowMapper;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.jdbc.core.namedparam.MapSqlParameterSource;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+
+import static com.vladimirpandurov.invoice_manager3_02.query.UserChangeQuery.*;
+
+@Repository
+@RequiredArgsConstructor
+@Slf4j
+public class UserChangeRepositoryImpl implements UserChangeRepository<UserChange> {
+
+    private final NamedParameterJdbcTemplate jdbc;
+
+    @Override
+    public void create(UserChange userChange) {
+        jdbc.update(INSERT_USER_CHANGE_QUERY, new MapSqlParameterSource()
+                .addValue("userId", userChange.getUserId())
+                .addValue("email", userChange.getEmail())
+                .addValue("type", userChange.getType().name()));
+    }
+
+    @Override
+    public List<UserChange> listAfter(long lastId, int limit) {
+        return jdbc.query(SELECT_USER_CHANGES_AFTER_ID_QUERY, Map.of("lastId", lastId, "limit", limit), new UserChangeRowMapper());
+    }
+
+    @Override
+    public List<UserChange> listByIds(Collection<Long> ids) {
+        return jdbc.query(SELECT_USER_CHANGES_BY_IDS_QUERY, Map.of("ids", ids), new UserChangeRowMapper());
+    }
+
+    @Override
+    public long getLastId() {
+        Long lastId = jdbc.queryForObject(SELECT_LAST_USER_CHANGE_ID_QUERY, Map.of(), Long.class);
+        return lastId == null ? 0 : lastId;
+    }
+
+    @Override
+    public int deleteBefore(LocalDateTime before) {
+        return jdbc.update(DELETE_USER_CHANGES_BEFORE_QUERY, Map.of("before", before));
+    }
+}
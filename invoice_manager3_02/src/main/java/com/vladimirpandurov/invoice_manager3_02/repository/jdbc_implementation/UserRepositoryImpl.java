@@ -1,15 +1,19 @@
 package com.vladimirpandurov.invoice_manager3_02.repository.jdbc_implementation;
 
+import com.vladimirpandurov.invoice_manager3_02.datasource.ReadRouting;
 import com.vladimirpandurov.invoice_manager3_02.domain.User;
 import com.vladimirpandurov.invoice_manager3_02.domain.UserPrincipal;
 import com.vladimirpandurov.invoice_manager3_02.dto.UserDTO;
 import com.vladimirpandurov.invoice_manager3_02.enumeration.VerificationType;
 import com.vladimirpandurov.invoice_manager3_02.exception.ApiException;
+import com.vladimirpandurov.invoice_manager3_02.feed.UserChangeFeed;
+import com.vladimirpandurov.invoice_manager3_02.index.RegisteredEmailIndex;
 import com.vladimirpandurov.invoice_manager3_02.repository.RoleRepository;
 import com.vladimirpandurov.invoice_manager3_02.repository.UserRepository;
 import com.vladimirpandurov.invoice_manager3_02.rowmapper.UserRowMapper;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.dao.DuplicateKeyException;
 import org.springframework.dao.EmptyResultDataAccessException;
 import org.springframework.jdbc.core.namedparam.MapSqlParameterSource;
 import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
@@ -21,11 +25,13 @@ import org.springframework.security.core.userdetails.UserDetailsService;
 import org.springframework.security.core.userdetails.UsernameNotFoundException;
 import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
 import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
 import org.springframework.web.servlet.support.ServletUriComponentsBuilder;
 
 import java.util.*;
 
 import static com.vladimirpandurov.invoice_manager3_02.enumeration.RoleType.ROLE_USER;
+import static com.vladimirpandurov.invoice_manager3_02.enumeration.UserChangeType.*;
 import static com.vladimirpandurov.invoice_manager3_02.enumeration.VerificationType.ACCOUNT;
 import static com.vladimirpandurov.invoice_manager3_02.enumeration.VerificationType.PASSWORD;
 import static com.vladimirpandurov.invoice_manager3_02.query.UserQuery.*;
@@ -42,22 +48,31 @@ public class UserRepositoryImpl implements UserRepository<User>, UserDetailsServ
     private final NamedParameterJdbcTemplate jdbc;
     private final RoleRepository roleRepository;
     private final BCryptPasswordEncoder encoder;
+    private final RegisteredEmailIndex emailIndex;
+    private final ReadRouting readRouting;
+    private final UserChangeFeed userChangeFeed;
 
     @Override
+    @Transactional
     public User create(User user) {
-        if(getEmailCount(user.getEmail().trim().toLowerCase()) > 0) throw new ApiException("Email already in use. Please use a different email and try again");
+        if(!emailIndex.isDefinitelyNotRegistered(user.getEmail()) && getEmailCount(user.getEmail().trim().toLowerCase()) > 0) throw new ApiException("Email already in use. Please use a different email and try again");
         try{
             KeyHolder holder = new GeneratedKeyHolder();
             SqlParameterSource parameters = getSqlParameterSource(user);
-            jdbc.update(INSERT_USER_QUERY, parameters, holder);
+            jdbc.update(INSERT_USER_QUERY, parameters, holder, new String[]{"id"});
             user.setId(Objects.requireNonNull(holder.getKey()).longValue());
             roleRepository.addRoleToUser(user.getId(), ROLE_USER.name());
             String verificationUrl = getVerificationUrl(UUID.randomUUID().toString(), ACCOUNT.getType());
             jdbc.update(INSERT_ACCOUNT_VERIFICATION_URL_QUERY, Map.of("userId", user.getId(), "url", verificationUrl));
+            userChangeFeed.publish(CREATED, user.getId(), user.getEmail());
             //emailService.sendVerificationUrl()
+            emailIndex.add(user.getEmail());
+            readRouting.written(user.getEmail(), user.getId());
             user.setEnabled(true);
             user.setNotLocked(true);
             return user;
+        }catch (DuplicateKeyException exception){
+            throw new ApiException("Email already in use. Please use a different email and try again");
         }catch (Exception exception){
             throw new ApiException("An error occurred. Please try again.");
         }
@@ -87,7 +102,7 @@ public class UserRepositoryImpl implements UserRepository<User>, UserDetailsServ
     @Override
     public User getUserByEmail(String email) {
         try{
-            User user = jdbc.queryForObject(SELECT_USER_BY_EMAIL_QUERY, Map.of("email", email), new UserRowMapper());
+            User user = readRouting.readOnly(email, () -> jdbc.queryForObject(SELECT_USER_BY_EMAIL_QUERY, Map.of("email", email), new UserRowMapper()));
             return user;
         }catch (EmptyResultDataAccessException exception){
             log.error("No user found by email");
@@ -134,7 +149,7 @@ public class UserRepositoryImpl implements UserRepository<User>, UserDetailsServ
 
     @Override
     public void resetPassword(String email) {
-        if(getEmailCount(email.trim().toLowerCase()) <= 0) throw new ApiException("There is no account for this email address");
+        if(emailIndex.isDefinitelyNotRegistered(email) || getEmailCount(email.trim().toLowerCase()) <= 0) throw new ApiException("There is no account for this email address");
         try{
             String expirationDate = format(addDays(new Date(), 1), DATA_FORMAT);
             User user = getUserByEmail(email);
@@ -162,21 +177,30 @@ public class UserRepositoryImpl implements UserRepository<User>, UserDetailsServ
     }
 
     @Override
+    @Transactional
     public void renewPassword(String key, String password, String confirmPassword) {
         if(!password.equals(confirmPassword)) throw new ApiException("Passwords don't match. Please try again");
         try{
+            User user = jdbc.queryForObject(SELECT_USER_BY_PASSWORD_URL_QUERY, Map.of("url", getVerificationUrl(key, PASSWORD.getType())), new UserRowMapper());
             jdbc.update(UPDATE_USER_PASSWORD_BY_URL_QUERY, Map.of("password", encoder.encode(password), "url", getVerificationUrl(key, PASSWORD.getType())));
             jdbc.update(DELETE_VERIFICATION_BY_URL_QUERY, Map.of("url", getVerificationUrl(key, PASSWORD.getType())));
+            userChangeFeed.publish(PASSWORD_CHANGED, user.getId(), user.getEmail());
+            readRouting.written(user.getEmail(), user.getId());
+        }catch (EmptyResultDataAccessException exception){
+            throw new ApiException("This link is not valid. Please reset your password again");
         }catch (Exception exception){
             throw new ApiException("An error occurred. Please try again");
         }
     }
 
     @Override
+    @Transactional
     public User verifyAccountKey(String key) {
         try{
             User user = jdbc.queryForObject(SELECT_USER_BY_ACCOUNT_URL_QUERY, Map.of("url", getVerificationUrl(key, ACCOUNT.getType())), new UserRowMapper());
             jdbc.update(UPDATE_USER_ENABLED_QUERY, Map.of("enabled", true, "id", user.getId()));
+            userChangeFeed.publish(ENABLED, user.getId(), user.getEmail());
+            readRouting.written(user.getEmail(), user.getId());
             return user;
         }catch (EmptyResultDataAccessException exception){
             throw new ApiException("This link is not valid");
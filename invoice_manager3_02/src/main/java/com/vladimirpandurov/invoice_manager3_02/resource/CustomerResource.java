@@ -0,0 +1,116 @@
+package com.vladimirpandurov.invoice_manager3_02.resource;
+
+import com.vladimirpandurov.invoice_manager3_02.domain.Customer;
+import com.vladimirpandurov.invoice_manager3_02.domain.HttpResponse;
+import com.vladimirpandurov.invoice_manager3_02.domain.Page;
+import com.vladimirpandurov.invoice_manager3_02.form.CustomerStatusForm;
+import com.vladimirpandurov.invoice_manager3_02.service.CustomerService;
+import com.vladimirpandurov.invoice_manager3_02.service.InvoiceService;
+import jakarta.validation.Valid;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.support.ServletUriComponentsBuilder;
+
+import java.net.URI;
+import java.time.LocalDateTime;
+import java.util.Map;
+
+@RestController
+@RequestMapping("/customer")
+@RequiredArgsConstructor
+@Slf4j
+public class CustomerResource {
+
+    private final CustomerService customerService;
+    private final InvoiceService invoiceService;
+
+    @PostMapping("/create")
+    public ResponseEntity<HttpResponse> createCustomer(@RequestBody @Valid Customer customer){
+        Customer created = customerService.createCustomer(customer);
+        return ResponseEntity.created(getUri(created.getId())).body(
+                HttpResponse.builder()
+                .timeStamp(LocalDateTime.now().toString())
+                .data(Map.of("customer", created))
+                .message("Customer created")
+                .status(HttpStatus.CREATED)
+                .statusCode(HttpStatus.CREATED.value())
+                .build()
+        );
+    }
+    @GetMapping("/list")
+    public ResponseEntity<HttpResponse> getCustomers(@RequestParam(value = "cursor", required = false) String cursor, @RequestParam(value = "size", defaultValue = "20") int size){
+        return sendPage(customerService.getCustomers(cursor, size), "Customers retrieved");
+    }
+    @GetMapping("/search")
+    public ResponseEntity<HttpResponse> searchCustomers(@RequestParam("name") String name, @RequestParam(value = "cursor", required = false) String cursor, @RequestParam(value = "size", defaultValue = "20") int size){
+        return sendPage(customerService.searchCustomers(name, cursor, size), "Customers retrieved");
+    }
+    @GetMapping("/get/{id}")
+    public ResponseEntity<HttpResponse> getCustomer(@PathVariable("id") Long id){
+        return ResponseEntity.ok().body(
+                HttpResponse.builder()
+                .timeStamp(LocalDateTime.now().toString())
+                .data(Map.of("customer", customerService.getCustomer(id), "summary", invoiceService.getCustomerSummary(id)))
+                .message("Customer retrieved")
+                .status(HttpStatus.OK)
+                .statusCode(HttpStatus.OK.value())
+                .build()
+        );
+    }
+    @PutMapping("/update")
+    public ResponseEntity<HttpResponse> updateCustomer(@RequestBody @Valid Customer customer){
+        return ResponseEntity.ok().body(
+                HttpResponse.builder()
+                .timeStamp(LocalDateTime.now().toString())
+                .data(Map.of("customer", customerService.updateCustomer(customer)))
+                .message("Customer updated")
+                .status(HttpStatus.OK)
+                .statusCode(HttpStatus.OK.value())
+                .build()
+        );
+    }
+    @PatchMapping("/status")
+    public ResponseEntity<HttpResponse> updateCustomerStatus(@RequestBody @Valid CustomerStatusForm form){
+        int updated = customerService.updateCustomerStatus(form.getIds(), form.getStatus());
+        return ResponseEntity.ok().body(
+                HttpResponse.builder()
+                .timeStamp(LocalDateTime.now().toString())
+                .data(Map.of("updated", updated))
+                .message("Customer status updated")
+                .status(HttpStatus.OK)
+                .statusCode(HttpStatus.OK.value())
+                .build()
+        );
+    }
+    @DeleteMapping("/delete/{id}")
+    public ResponseEntity<HttpResponse> deleteCustomer(@PathVariable("id") Long id){
+        boolean deleted = customerService.deleteCustomer(id);
+        return ResponseEntity.ok().body(
+                HttpResponse.builder()
+                .timeStamp(LocalDateTime.now().toString())
+                .message(deleted ? "Customer deleted" : "No customer found by id: " + id)
+                .status(HttpStatus.OK)
+                .statusCode(HttpStatus.OK.value())
+                .build()
+        );
+    }
+
+    private ResponseEntity<HttpResponse> sendPage(Page<Customer> page, String message){
+        return ResponseEntity.ok().body(
+                HttpResponse.builder()
+                .timeStamp(LocalDateTime.now().toString())
+                .data(Map.of("page", page))
+                .message(message)
+                .status(HttpStatus.OK)
+                .statusCode(HttpStatus.OK.value())
+                .build()
+        );
+    }
+
+    private URI getUri(Long customerId){
+        return URI.create(ServletUriComponentsBuilder.fromCurrentContextPath().path("/customer/get/" + customerId).toUriString());
+    }
+}
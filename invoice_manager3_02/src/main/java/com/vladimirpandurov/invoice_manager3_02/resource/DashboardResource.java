@@ -0,0 +1,34 @@
+package com.vladimirpandurov.invoice_manager3_02.resource;
+
+import com.vladimirpandurov.invoice_manager3_02.domain.HttpResponse;
+import com.vladimirpandurov.invoice_manager3_02.service.DashboardService;
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+import java.time.LocalDateTime;
+import java.util.Map;
+
+@RestController
+@RequestMapping("/dashboard")
+@RequiredArgsConstructor
+public class DashboardResource {
+
+    private final DashboardService dashboardService;
+
+    @GetMapping("/stats")
+    public ResponseEntity<HttpResponse> getStats(){
+        return ResponseEntity.ok().body(
+                HttpResponse.builder()
+                .timeStamp(LocalDateTime.now().toString())
+                .data(Map.of("stats", dashboardService.getStats()))
+                .message("Dashboard statistics retrieved")
+                .status(HttpStatus.OK)
+                .statusCode(HttpStatus.OK.value())
+                .build()
+        );
+    }
+}
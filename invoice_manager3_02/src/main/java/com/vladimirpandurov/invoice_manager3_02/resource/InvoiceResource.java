@@ -0,0 +1,330 @@
+package com.vladimirpandurov.invoice_manager3_02.resource;
+
+import com.vladimirpandurov.invoice_manager3_02.domain.HttpResponse;
+import com.vladimirpandurov.invoice_manager3_02.domain.ImportJob;
+import com.vladimirpandurov.invoice_manager3_02.domain.Invoice;
+import com.vladimirpandurov.invoice_manager3_02.domain.Page;
+import com.vladimirpandurov.invoice_manager3_02.domain.PdfBatch;
+import com.vladimirpandurov.invoice_manager3_02.domain.RecurringSchedule;
+import com.vladimirpandurov.invoice_manager3_02.enumeration.InvoiceStatus;
+import com.vladimirpandurov.invoice_manager3_02.exception.ApiException;
+import com.vladimirpandurov.invoice_manager3_02.export.ExportFormat;
+import com.vladimirpandurov.invoice_manager3_02.export.ExportGzipOutputStream;
+import com.vladimirpandurov.invoice_manager3_02.form.PdfBatchForm;
+import com.vladimirpandurov.invoice_manager3_02.service.InvoiceExportService;
+import com.vladimirpandurov.invoice_manager3_02.service.InvoiceImportService;
+import com.vladimirpandurov.invoice_manager3_02.service.InvoicePdfService;
+import com.vladimirpandurov.invoice_manager3_02.service.InvoiceService;
+import com.vladimirpandurov.invoice_manager3_02.service.RecurringInvoiceService;
+import com.vladimirpandurov.invoice_manager3_02.utils.FileSender;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import jakarta.validation.Valid;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.support.ServletUriComponentsBuilder;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.net.URI;
+import java.nio.file.NoSuchFileException;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.Map;
+
+import static java.nio.charset.StandardCharsets.UTF_8;
+import static org.springframework.http.HttpHeaders.*;
+import static org.springframework.http.MediaType.APPLICATION_PDF_VALUE;
+
+@RestController
+@RequestMapping("/invoice")
+@RequiredArgsConstructor
+@Slf4j
+public class InvoiceResource {
+
+    private static final int EXPORT_BUFFER_SIZE = 64 * 1024;
+    private final InvoiceService invoiceService;
+    private final InvoiceImportService invoiceImportService;
+    private final InvoiceExportService invoiceExportService;
+    private final InvoicePdfService invoicePdfService;
+    private final RecurringInvoiceService recurringInvoiceService;
+
+    @PostMapping("/create")
+    public ResponseEntity<HttpResponse> createInvoice(@RequestBody @Valid Invoice invoice){
+        Invoice created = invoiceService.createInvoice(invoice);
+        return ResponseEntity.created(getUri(created.getId())).body(
+                HttpResponse.builder()
+                .timeStamp(LocalDateTime.now().toString())
+                .data(Map.of("invoice", created))
+                .message("Invoice created")
+                .status(HttpStatus.CREATED)
+                .statusCode(HttpStatus.CREATED.value())
+                .build()
+        );
+    }
+    @GetMapping("/list")
+    public ResponseEntity<HttpResponse> getInvoices(@RequestParam(value = "cursor", required = false) String cursor, @RequestParam(value = "size", defaultValue = "20") int size){
+        return sendPage(invoiceService.getInvoices(cursor, size));
+    }
+    @GetMapping("/customer/{customerId}")
+    public ResponseEntity<HttpResponse> getCustomerInvoices(@PathVariable("customerId") Long customerId, @RequestParam(value = "cursor", required = false) String cursor, @RequestParam(value = "size", defaultValue = "20") int size){
+        return sendPage(invoiceService.getCustomerInvoices(customerId, cursor, size));
+    }
+    @GetMapping("/get/{id}")
+    public ResponseEntity<HttpResponse> getInvoice(@PathVariable("id") Long id){
+        return sendInvoice(invoiceService.getInvoice(id), "Invoice retrieved");
+    }
+    @PutMapping("/update")
+    public ResponseEntity<HttpResponse> updateInvoice(@RequestBody @Valid Invoice invoice){
+        return sendInvoice(invoiceService.updateInvoice(invoice), "Invoice updated");
+    }
+    @PatchMapping("/status/{id}/{status}")
+    public ResponseEntity<HttpResponse> updateInvoiceStatus(@PathVariable("id") Long id, @PathVariable("status") InvoiceStatus status){
+        return sendInvoice(invoiceService.updateInvoiceStatus(id, status), "Invoice status updated");
+    }
+    @DeleteMapping("/delete/{id}")
+    public ResponseEntity<HttpResponse> deleteInvoice(@PathVariable("id") Long id){
+        invoiceService.deleteInvoice(id);
+        return ResponseEntity.ok().body(
+                HttpResponse.builder()
+                .timeStamp(LocalDateTime.now().toString())
+                .message("Invoice deleted")
+                .status(HttpStatus.OK)
+                .statusCode(HttpStatus.OK.value())
+                .build()
+        );
+    }
+    @GetMapping("/summary")
+    public ResponseEntity<HttpResponse> getAccountSummary(){
+        return ResponseEntity.ok().body(
+                HttpResponse.builder()
+                .timeStamp(LocalDateTime.now().toString())
+                .data(Map.of("summary", invoiceService.getAccountSummary()))
+                .message("Invoice summary retrieved")
+                .status(HttpStatus.OK)
+                .statusCode(HttpStatus.OK.value())
+                .build()
+        );
+    }
+
+    @PostMapping(value = "/import", consumes = {"text/csv", "application/octet-stream"})
+    public ResponseEntity<HttpResponse> importInvoices(HttpServletRequest request) throws IOException {
+        ImportJob job = invoiceImportService.importInvoices(request.getInputStream());
+        return ResponseEntity.accepted().body(
+                HttpResponse.builder()
+                .timeStamp(LocalDateTime.now().toString())
+                .data(Map.of("job", job))
+                .message("Invoice import started")
+                .status(HttpStatus.ACCEPTED)
+                .statusCode(HttpStatus.ACCEPTED.value())
+                .build()
+        );
+    }
+    @GetMapping("/import/list")
+    public ResponseEntity<HttpResponse> getImportJobs(){
+        return ResponseEntity.ok().body(
+                HttpResponse.builder()
+                .timeStamp(LocalDateTime.now().toString())
+                .data(Map.of("jobs", invoiceImportService.getImportJobs()))
+                .message("Import jobs retrieved")
+                .status(HttpStatus.OK)
+                .statusCode(HttpStatus.OK.value())
+                .build()
+        );
+    }
+    @GetMapping("/import/{id}")
+    public ResponseEntity<HttpResponse> getImportJob(@PathVariable("id") Long id){
+        return sendImportJob(invoiceImportService.getImportJob(id), "Import job retrieved");
+    }
+
+    @GetMapping("/export")
+    public void exportInvoices(@RequestParam("from") @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate from,
+                               @RequestParam("to") @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate to,
+                               @RequestParam(value = "format", defaultValue = "csv") String format,
+                               @RequestParam(value = "cursor", required = false) String cursor,
+                               @RequestHeader(value = ACCEPT_ENCODING, required = false) String acceptEncoding,
+                               HttpServletResponse response) throws IOException {
+        boolean gzip = acceptEncoding != null && acceptEncoding.contains("gzip");
+        ExportGzipOutputStream[] compressed = new ExportGzipOutputStream[1];
+        try{
+            invoiceExportService.exportInvoices(from, to, cursor, ExportFormat.of(format), exportFormat -> {
+                response.setContentType(exportFormat.getContentType());
+                response.setCharacterEncoding(UTF_8.name());
+                response.setHeader(CONTENT_DISPOSITION, "attachment; filename=\"invoices-" + from + "-" + to + "." + exportFormat.getExtension() + "\"");
+                response.setHeader(VARY, ACCEPT_ENCODING);
+                OutputStream output = response.getOutputStream();
+                if(gzip){
+                    response.setHeader(CONTENT_ENCODING, "gzip");
+                    compressed[0] = new ExportGzipOutputStream(output, EXPORT_BUFFER_SIZE);
+                    output = compressed[0];
+                }
+                return new BufferedWriter(new OutputStreamWriter(output, UTF_8), EXPORT_BUFFER_SIZE);
+            });
+        }catch (IOException exception){
+            if(response.isCommitted()) throw exception;
+            response.reset();
+            throw new ApiException("An error occurred. Please try again.");
+        }finally {
+            if(compressed[0] != null) compressed[0].release();
+        }
+    }
+
+    @GetMapping("/pdf/{id}")
+    public void getInvoicePdf(@PathVariable("id") Long id, HttpServletRequest request, HttpServletResponse response) throws IOException {
+        response.setHeader(CONTENT_DISPOSITION, "inline; filename=\"invoice-" + id + ".pdf\"");
+        try{
+            FileSender.send(request, response, invoicePdfService.getInvoicePdf(id), APPLICATION_PDF_VALUE);
+        }catch (NoSuchFileException exception){
+            FileSender.send(request, response, invoicePdfService.getInvoicePdf(id), APPLICATION_PDF_VALUE);
+        }
+    }
+    @PostMapping("/pdf/batch")
+    public ResponseEntity<HttpResponse> startPdfBatch(@RequestBody @Valid PdfBatchForm form){
+        PdfBatch batch = invoicePdfService.startBatch(form.getFrom(), form.getTo());
+        return ResponseEntity.accepted().body(
+                HttpResponse.builder()
+                .timeStamp(LocalDateTime.now().toString())
+                .data(Map.of("batch", batch))
+                .message("PDF batch started")
+                .status(HttpStatus.ACCEPTED)
+                .statusCode(HttpStatus.ACCEPTED.value())
+                .build()
+        );
+    }
+    @GetMapping("/pdf/batch/list")
+    public ResponseEntity<HttpResponse> getPdfBatches(){
+        return ResponseEntity.ok().body(
+                HttpResponse.builder()
+                .timeStamp(LocalDateTime.now().toString())
+                .data(Map.of("batches", invoicePdfService.getBatches()))
+                .message("PDF batches retrieved")
+                .status(HttpStatus.OK)
+                .statusCode(HttpStatus.OK.value())
+                .build()
+        );
+    }
+    @GetMapping("/pdf/batch/{id}")
+    public ResponseEntity<HttpResponse> getPdfBatch(@PathVariable("id") Long id){
+        return sendPdfBatch(invoicePdfService.getBatch(id), "PDF batch retrieved");
+    }
+    @PatchMapping("/pdf/batch/{id}/resume")
+    public ResponseEntity<HttpResponse> resumePdfBatch(@PathVariable("id") Long id){
+        return sendPdfBatch(invoicePdfService.resumeBatch(id), "PDF batch resumed");
+    }
+
+    @PostMapping("/recurring/create")
+    public ResponseEntity<HttpResponse> createRecurringSchedule(@RequestBody @Valid RecurringSchedule schedule){
+        RecurringSchedule created = recurringInvoiceService.createSchedule(schedule);
+        return ResponseEntity.created(URI.create(ServletUriComponentsBuilder.fromCurrentContextPath().path("/invoice/recurring/get/" + created.getId()).toUriString())).body(
+                HttpResponse.builder()
+                .timeStamp(LocalDateTime.now().toString())
+                .data(Map.of("schedule", created))
+                .message("Recurring schedule created")
+                .status(HttpStatus.CREATED)
+                .statusCode(HttpStatus.CREATED.value())
+                .build()
+        );
+    }
+    @GetMapping("/recurring/list")
+    public ResponseEntity<HttpResponse> getRecurringSchedules(@RequestParam(value = "cursor", required = false) String cursor, @RequestParam(value = "size", defaultValue = "20") int size){
+        return ResponseEntity.ok().body(
+                HttpResponse.builder()
+                .timeStamp(LocalDateTime.now().toString())
+                .data(Map.of("page", recurringInvoiceService.getSchedules(cursor, size)))
+                .message("Recurring schedules retrieved")
+                .status(HttpStatus.OK)
+                .statusCode(HttpStatus.OK.value())
+                .build()
+        );
+    }
+    @GetMapping("/recurring/get/{id}")
+    public ResponseEntity<HttpResponse> getRecurringSchedule(@PathVariable("id") Long id){
+        return sendRecurringSchedule(recurringInvoiceService.getSchedule(id), "Recurring schedule retrieved");
+    }
+    @PatchMapping("/recurring/cancel/{id}")
+    public ResponseEntity<HttpResponse> cancelRecurringSchedule(@PathVariable("id") Long id){
+        return sendRecurringSchedule(recurringInvoiceService.cancelSchedule(id), "Recurring schedule cancelled");
+    }
+    @GetMapping("/recurring/status")
+    public ResponseEntity<HttpResponse> getRecurringBillingStatus(){
+        return ResponseEntity.ok().body(
+                HttpResponse.builder()
+                .timeStamp(LocalDateTime.now().toString())
+                .data(Map.of("status", recurringInvoiceService.getStatus()))
+                .message("Recurring billing status retrieved")
+                .status(HttpStatus.OK)
+                .statusCode(HttpStatus.OK.value())
+                .build()
+        );
+    }
+
+    private ResponseEntity<HttpResponse> sendRecurringSchedule(RecurringSchedule schedule, String message){
+        return ResponseEntity.ok().body(
+                HttpResponse.builder()
+                .timeStamp(LocalDateTime.now().toString())
+                .data(Map.of("schedule", schedule))
+                .message(message)
+                .status(HttpStatus.OK)
+                .statusCode(HttpStatus.OK.value())
+                .build()
+        );
+    }
+
+    private ResponseEntity<HttpResponse> sendPdfBatch(PdfBatch batch, String message){
+        return ResponseEntity.ok().body(
+                HttpResponse.builder()
+                .timeStamp(LocalDateTime.now().toString())
+                .data(Map.of("batch", batch))
+                .message(message)
+                .status(HttpStatus.OK)
+                .statusCode(HttpStatus.OK.value())
+                .build()
+        );
+    }
+
+    private ResponseEntity<HttpResponse> sendImportJob(ImportJob job, String message){
+        return ResponseEntity.ok().body(
+                HttpResponse.builder()
+                .timeStamp(LocalDateTime.now().toString())
+                .data(Map.of("job", job))
+                .message(message)
+                .status(HttpStatus.OK)
+                .statusCode(HttpStatus.OK.value())
+                .build()
+        );
+    }
+
+    private ResponseEntity<HttpResponse> sendInvoice(Invoice invoice, String message){
+        return ResponseEntity.ok().body(
+                HttpResponse.builder()
+                .timeStamp(LocalDateTime.now().toString())
+                .data(Map.of("invoice", invoice))
+                .message(message)
+                .status(HttpStatus.OK)
+                .statusCode(HttpStatus.OK.value())
+                .build()
+        );
+    }
+
+    private ResponseEntity<HttpResponse> sendPage(Page<Invoice> page){
+        return ResponseEntity.ok().body(
+                HttpResponse.builder()
+                .timeStamp(LocalDateTime.now().toString())
+                .data(Map.of("page", page))
+                .message("Invoices retrieved")
+                .status(HttpStatus.OK)
+                .statusCode(HttpStatus.OK.value())
+                .build()
+        );
+    }
+
+    private URI getUri(Long invoiceId){
+        return URI.create(ServletUriComponentsBuilder.fromCurrentContextPath().path("/invoice/get/" + invoiceId).toUriString());
+    }
+}
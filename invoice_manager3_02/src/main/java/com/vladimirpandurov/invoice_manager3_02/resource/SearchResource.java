@@ -0,0 +1,44 @@
+package com.vladimirpandurov.invoice_manager3_02.resource;
+
+import com.vladimirpandurov.invoice_manager3_02.domain.HttpResponse;
+import com.vladimirpandurov.invoice_manager3_02.exception.ApiException;
+import com.vladimirpandurov.invoice_manager3_02.service.SearchService;
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+
+import java.time.LocalDateTime;
+import java.util.Map;
+
+@RestController
+@RequestMapping("/search")
+@RequiredArgsConstructor
+public class SearchResource {
+
+    private final SearchService searchService;
+
+    @GetMapping
+    public ResponseEntity<HttpResponse> search(@RequestParam("q") String query,
+                                               @RequestParam(value = "type", defaultValue = "customers") String type,
+                                               @RequestParam(value = "cursor", required = false) String cursor,
+                                               @RequestParam(value = "size", defaultValue = "20") int size){
+        Object page = switch (type) {
+            case "customers" -> searchService.searchCustomers(query, cursor, size);
+            case "invoices" -> searchService.searchInvoices(query, cursor, size);
+            default -> throw new ApiException("Unsupported search type: " + type);
+        };
+        return ResponseEntity.ok().body(
+                HttpResponse.builder()
+                .timeStamp(LocalDateTime.now().toString())
+                .data(Map.of("page", page))
+                .message("Search results retrieved")
+                .status(HttpStatus.OK)
+                .statusCode(HttpStatus.OK.value())
+                .build()
+        );
+    }
+}
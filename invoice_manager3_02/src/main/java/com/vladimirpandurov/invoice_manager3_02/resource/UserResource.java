@@ -1,14 +1,21 @@
 package com.vladimirpandurov.invoice_manager3_02.resource;
 
+import com.auth0.jwt.exceptions.JWTVerificationException;
+import com.auth0.jwt.interfaces.DecodedJWT;
 import com.vladimirpandurov.invoice_manager3_02.domain.HttpResponse;
+import com.vladimirpandurov.invoice_manager3_02.domain.RefreshToken;
+import com.vladimirpandurov.invoice_manager3_02.domain.Role;
 import com.vladimirpandurov.invoice_manager3_02.domain.User;
 import com.vladimirpandurov.invoice_manager3_02.domain.UserPrincipal;
 import com.vladimirpandurov.invoice_manager3_02.dto.UserDTO;
 import com.vladimirpandurov.invoice_manager3_02.dtomapper.UserDTOMapper;
 import com.vladimirpandurov.invoice_manager3_02.exception.ApiException;
 import com.vladimirpandurov.invoice_manager3_02.form.LoginForm;
+import com.vladimirpandurov.invoice_manager3_02.jfr.LoginEvent;
+import com.vladimirpandurov.invoice_manager3_02.metric.AuthMetrics;
 import com.vladimirpandurov.invoice_manager3_02.provider.TokenProvider;
-import com.vladimirpandurov.invoice_manager3_02.service.RoleService;
+import com.vladimirpandurov.invoice_manager3_02.service.RefreshTokenService;
+import com.vladimirpandurov.invoice_manager3_02.service.RevokedTokenService;
 import com.vladimirpandurov.invoice_manager3_02.service.UserService;
 import jakarta.servlet.http.HttpServletRequest;
 import jakarta.validation.Valid;
@@ -26,8 +33,13 @@ import org.springframework.web.servlet.support.ServletUriComponentsBuilder;
 import javax.imageio.stream.FileCacheImageOutputStream;
 import java.net.URI;
 import java.time.LocalDateTime;
+import java.time.ZoneId;
 import java.util.Map;
 
+import static com.vladimirpandurov.invoice_manager3_02.metric.AuthMetrics.Outcome.VALID;
+import static com.vladimirpandurov.invoice_manager3_02.metric.AuthMetrics.Stage.AUTHENTICATE;
+import static com.vladimirpandurov.invoice_manager3_02.provider.TokenProvider.DECODED_TOKEN;
+import static com.vladimirpandurov.invoice_manager3_02.provider.TokenProvider.TOKEN_FAMILY;
 import static org.springframework.http.HttpHeaders.AUTHORIZATION;
 import static org.springframework.security.authentication.UsernamePasswordAuthenticationToken.unauthenticated;
 
@@ -39,9 +51,11 @@ public class UserResource {
 
     private static final String TOKEN_PREFIX = "Bearer ";
     private final UserService userService;
-    private final RoleService roleService;
     private final AuthenticationManager authenticationManager;
     private final TokenProvider tokenProvider;
+    private final RefreshTokenService refreshTokenService;
+    private final RevokedTokenService revokedTokenService;
+    private final AuthMetrics authMetrics;
 
     @PostMapping("/register")
     public ResponseEntity<HttpResponse> saveUser(@RequestBody @Valid User user){
@@ -58,9 +72,25 @@ public class UserResource {
     }
     @PostMapping("/login")
     public ResponseEntity<HttpResponse> login(@RequestBody @Valid LoginForm loginForm){
-        Authentication authentication = authenticate(loginForm.getEmail(), loginForm.getPassword());
-        UserDTO userDTO = getAuthenticatedUser(authentication);
-        return userDTO.isUsingMfa() ? sendVerificationCode(userDTO) : sendResponse(userDTO);
+        LoginEvent event = new LoginEvent();
+        event.begin();
+        boolean usingMfa = false;
+        boolean success = false;
+        try{
+            Authentication authentication = authenticate(loginForm.getEmail(), loginForm.getPassword());
+            UserDTO userDTO = getAuthenticatedUser(authentication);
+            usingMfa = userDTO.isUsingMfa();
+            ResponseEntity<HttpResponse> response = usingMfa ? sendVerificationCode(userDTO) : sendResponse(userDTO);
+            success = true;
+            return response;
+        }finally {
+            event.end();
+            if(event.shouldCommit()){
+                event.usingMfa = usingMfa;
+                event.success = success;
+                event.commit();
+            }
+        }
     }
     @GetMapping("/verify/code/{email}/{code}")
     public ResponseEntity<HttpResponse> verifyCode(@PathVariable("email") String email, @PathVariable("code") String code){
@@ -81,6 +111,24 @@ public class UserResource {
                 .build()
         );
     }
+    @PostMapping("/logout")
+    public ResponseEntity<HttpResponse> logout(Authentication authentication, @RequestAttribute(DECODED_TOKEN) DecodedJWT decodedJWT){
+        UserDTO userDTO = (UserDTO) authentication.getPrincipal();
+        long tokenId = tokenProvider.getTokenId(decodedJWT);
+        if(tokenId != 0){
+            revokedTokenService.revoke(tokenId, userDTO.getId(), LocalDateTime.ofInstant(decodedJWT.getExpiresAt().toInstant(), ZoneId.systemDefault()));
+        }
+        Long familyId = decodedJWT.getClaim(TOKEN_FAMILY).asLong();
+        if(familyId != null) refreshTokenService.revokeFamily(familyId);
+        return ResponseEntity.ok().body(
+                HttpResponse.builder()
+                .timeStamp(LocalDateTime.now().toString())
+                .message("Logged out")
+                .status(HttpStatus.OK)
+                .statusCode(HttpStatus.OK.value())
+                .build()
+        );
+    }
     @GetMapping("/resetpassword/{email}")
     public ResponseEntity<HttpResponse> resetPassword(@PathVariable("email") String email){
         userService.resetPassword(email);
@@ -133,37 +181,40 @@ public class UserResource {
     }
     @GetMapping("/refresh/token")
     public ResponseEntity<HttpResponse> refreshToken(HttpServletRequest request){
-        if(isHeaderAndTokenValid(request)){
-            String token = request.getHeader(AUTHORIZATION).substring(TOKEN_PREFIX.length());
-            UserDTO userDTO = userService.getUserByEmail(tokenProvider.getSubject(token, request));
-            return ResponseEntity.ok().body(
-                    HttpResponse.builder()
-                    .timeStamp(LocalDateTime.now().toString())
-                    .data(Map.of("user", userDTO,
-                            "access_token", tokenProvider.createAccessToken(getUserPrincipal(userDTO)),
-                            "refresh_token", token))
-                    .message("Token refreshed")
-                    .status(HttpStatus.OK)
-                    .statusCode(HttpStatus.OK.value())
-                    .build()
-            );
-        }else{
-            return ResponseEntity.ok().body(
-                    HttpResponse.builder()
-                    .timeStamp(LocalDateTime.now().toString())
-                    .reason("Refresh Token missing or invalid")
-                    .status(HttpStatus.BAD_REQUEST)
-                    .statusCode(HttpStatus.BAD_REQUEST.value())
-                    .build()
-            );
+        if(isHeaderValid(request)){
+            try{
+                DecodedJWT decodedJWT = tokenProvider.verifyToken(request.getHeader(AUTHORIZATION).substring(TOKEN_PREFIX.length()), request);
+                UserDTO userDTO = userService.getUserByEmail(decodedJWT.getSubject());
+                UserPrincipal userPrincipal = getUserPrincipal(userDTO);
+                RefreshToken refreshToken = refreshTokenService.rotate(Long.parseLong(decodedJWT.getId()), decodedJWT.getClaim(TOKEN_FAMILY).asLong(), userDTO.getId());
+                return ResponseEntity.ok().body(
+                        HttpResponse.builder()
+                        .timeStamp(LocalDateTime.now().toString())
+                        .data(Map.of("user", userDTO,
+                                "access_token", tokenProvider.createAccessToken(userPrincipal, refreshToken.getFamilyId()),
+                                "refresh_token", tokenProvider.createRefreshToken(userPrincipal, refreshToken)))
+                        .message("Token refreshed")
+                        .status(HttpStatus.OK)
+                        .statusCode(HttpStatus.OK.value())
+                        .build()
+                );
+            }catch (JWTVerificationException | NumberFormatException | ApiException exception){
+                log.error(exception.getMessage());
+            }
         }
+        return ResponseEntity.badRequest().body(
+                HttpResponse.builder()
+                .timeStamp(LocalDateTime.now().toString())
+                .reason("Refresh Token missing or invalid")
+                .status(HttpStatus.BAD_REQUEST)
+                .statusCode(HttpStatus.BAD_REQUEST.value())
+                .build()
+        );
     }
 
-    private boolean isHeaderAndTokenValid(HttpServletRequest request) {
+    private boolean isHeaderValid(HttpServletRequest request) {
         return (request.getHeader(AUTHORIZATION) != null) &&
-                (request.getHeader(AUTHORIZATION).startsWith(TOKEN_PREFIX)) &&
-                (tokenProvider.isTokenValid(tokenProvider.getSubject(request.getHeader(AUTHORIZATION).substring(TOKEN_PREFIX.length()), request),
-                        request.getHeader(AUTHORIZATION).substring(TOKEN_PREFIX.length())));
+                (request.getHeader(AUTHORIZATION).startsWith(TOKEN_PREFIX));
     }
 
     @RequestMapping("/error")
@@ -183,21 +234,26 @@ public class UserResource {
     }
 
     private Authentication authenticate(String email, String password){
+        long start = authMetrics.start();
         try{
             Authentication authentication = authenticationManager.authenticate(unauthenticated(email, password));
+            authMetrics.record(AUTHENTICATE, VALID, start);
             return authentication;
         }catch (Exception exception){
+            authMetrics.record(AUTHENTICATE, exception, start);
             throw new ApiException(exception.getMessage());
         }
     }
 
     private ResponseEntity<HttpResponse> sendResponse(UserDTO userDTO){
+        UserPrincipal userPrincipal = getUserPrincipal(userDTO);
+        RefreshToken refreshToken = refreshTokenService.issue(userDTO.getId());
         return ResponseEntity.ok().body(
                 HttpResponse.builder()
                         .timeStamp(LocalDateTime.now().toString())
                         .data(Map.of("user", userDTO,
-                                "access_token", tokenProvider.createAccessToken(getUserPrincipal(userDTO)),
-                                "refresh_token", tokenProvider.createRefreshToken(getUserPrincipal(userDTO))))
+                                "access_token", tokenProvider.createAccessToken(userPrincipal, refreshToken.getFamilyId()),
+                                "refresh_token", tokenProvider.createRefreshToken(userPrincipal, refreshToken)))
                         .message("Login Success")
                         .status(HttpStatus.OK)
                         .statusCode(HttpStatus.OK.value())
@@ -206,7 +262,7 @@ public class UserResource {
     }
 
     private UserPrincipal getUserPrincipal(UserDTO userDTO){
-        return new UserPrincipal(UserDTOMapper.toUser(userService.getUserByEmail(userDTO.getEmail())), this.roleService.getRoleByUserId(userDTO.getId()));
+        return new UserPrincipal(UserDTOMapper.toUser(userDTO), Role.builder().name(userDTO.getRoleName()).permission(userDTO.getPermissions()).build());
     }
 
     private ResponseEntity<HttpResponse> sendVerificationCode(UserDTO userDTO){
@@ -0,0 +1,25 @@
+package com.vladimirpandurov.invoice_manager3_02.rowmapper;
+
+import com.vladimirpandurov.invoice_manager3_02.domain.Customer;
+import org.springframework.jdbc.core.RowMapper;
+
+import java.sql.ResultSet;
+import java.sql.SQLException;
+
+public class CustomerRowMapper implements RowMapper<Customer> {
+
+    @Override
+    public Customer mapRow(ResultSet rs, int rowNum) throws SQLException {
+        return Customer.builder()
+                .id(rs.getLong("id"))
+                .name(rs.getString("name"))
+                .email(rs.getString("email"))
+                .type(rs.getString("type"))
+                .status(rs.getString("status"))
+                .address(rs.getString("address"))
+                .phone(rs.getString("phone"))
+                .imageUrl(rs.getString("image_url"))
+                .createdAt(rs.getTimestamp("created_at").toLocalDateTime())
+                .build();
+    }
+}
@@ -0,0 +1,21 @@
+package com.vladimirpandurov.invoice_manager3_02.rowmapper;
+
+import com.vladimirpandurov.invoice_manager3_02.domain.Customer;
+import org.springframework.jdbc.core.RowMapper;
+
+import java.sql.ResultSet;
+import java.sql.SQLException;
+
+public class CustomerSummaryRowMapper implements RowMapper<Customer> {
+
+    @Override
+    public Customer mapRow(ResultSet rs, int rowNum) throws SQLException {
+        return Customer.builder()
+                .id(rs.getLong("id"))
+                .name(rs.getString("name"))
+                .email(rs.getString("email"))
+                .type(rs.getString("type"))
+                .status(rs.getString("status"))
+                .build();
+    }
+}
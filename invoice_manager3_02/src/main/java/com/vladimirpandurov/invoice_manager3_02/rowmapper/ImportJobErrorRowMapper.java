@@ -0,0 +1,19 @@
+package com.vladimirpandurov.invoice_manager3_02.rowmapper;
+
+import com.vladimirpandurov.invoice_manager3_02.domain.ImportJobError;
+import org.springframework.jdbc.core.RowMapper;
+
+import java.sql.ResultSet;
+import java.sql.SQLException;
+
+public class ImportJobErrorRowMapper implements RowMapper<ImportJobError> {
+
+    @Override
+    public ImportJobError mapRow(ResultSet rs, int rowNum) throws SQLException {
+        return ImportJobError.builder()
+                .lineNumber(rs.getLong("line_number"))
+                .reference(rs.getString("reference"))
+                .message(rs.getString("message"))
+                .build();
+    }
+}
@@ -0,0 +1,28 @@
+package com.vladimirpandurov.invoice_manager3_02.rowmapper;
+
+import com.vladimirpandurov.invoice_manager3_02.domain.ImportJob;
+import com.vladimirpandurov.invoice_manager3_02.enumeration.ImportJobStatus;
+import org.springframework.jdbc.core.RowMapper;
+
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Timestamp;
+
+public class ImportJobRowMapper implements RowMapper<ImportJob> {
+
+    @Override
+    public ImportJob mapRow(ResultSet rs, int rowNum) throws SQLException {
+        Timestamp completedAt = rs.getTimestamp("completed_at");
+        return ImportJob.builder()
+                .id(rs.getLong("id"))
+                .status(ImportJobStatus.valueOf(rs.getString("status")))
+                .rowsRead(rs.getLong("rows_read"))
+                .invoicesCreated(rs.getLong("invoices_created"))
+                .invoicesRejected(rs.getLong("invoices_rejected"))
+                .message(rs.getString("message"))
+                .createdAt(rs.getTimestamp("created_at").toLocalDateTime())
+                .updatedAt(rs.getTimestamp("updated_at").toLocalDateTime())
+                .completedAt(completedAt == null ? null : completedAt.toLocalDateTime())
+                .build();
+    }
+}
@@ -0,0 +1,30 @@
+package com.vladimirpandurov.invoice_manager3_02.rowmapper;
+
+import com.vladimirpandurov.invoice_manager3_02.domain.InvoiceLine;
+import com.vladimirpandurov.invoice_manager3_02.domain.Money;
+import org.springframework.jdbc.core.RowMapper;
+
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.Currency;
+
+public class InvoiceLineRowMapper implements RowMapper<InvoiceLine> {
+
+    private final Currency currency;
+
+    public InvoiceLineRowMapper(Currency currency){
+        this.currency = currency;
+    }
+
+    @Override
+    public InvoiceLine mapRow(ResultSet rs, int rowNum) throws SQLException {
+        return InvoiceLine.builder()
+                .id(rs.getLong("id"))
+                .invoiceId(rs.getLong("invoice_id"))
+                .description(rs.getString("description"))
+                .quantity(rs.getInt("quantity"))
+                .unitPrice(Money.ofMinor(rs.getLong("unit_price_minor"), currency))
+                .amount(Money.ofMinor(rs.getLong("amount_minor"), currency))
+                .build();
+    }
+}
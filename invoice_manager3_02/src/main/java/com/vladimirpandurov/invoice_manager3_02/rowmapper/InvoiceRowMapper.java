@@ -0,0 +1,28 @@
+package com.vladimirpandurov.invoice_manager3_02.rowmapper;
+
+import com.vladimirpandurov.invoice_manager3_02.domain.Invoice;
+import com.vladimirpandurov.invoice_manager3_02.domain.Money;
+import com.vladimirpandurov.invoice_manager3_02.enumeration.InvoiceStatus;
+import org.springframework.jdbc.core.RowMapper;
+
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.Currency;
+
+public class InvoiceRowMapper implements RowMapper<Invoice> {
+
+    @Override
+    public Invoice mapRow(ResultSet rs, int rowNum) throws SQLException {
+        return Invoice.builder()
+                .id(rs.getLong("id"))
+                .invoiceNumber(rs.getString("invoice_number"))
+                .customerId(rs.getLong("customer_id"))
+                .status(InvoiceStatus.valueOf(rs.getString("status")))
+                .issuedAt(rs.getDate("issued_at").toLocalDate())
+                .dueDate(rs.getDate("due_date").toLocalDate())
+                .total(Money.ofMinor(rs.getLong("total_minor"), Currency.getInstance(rs.getString("currency"))))
+                .version(rs.getInt("version"))
+                .createdAt(rs.getTimestamp("created_at").toLocalDateTime())
+                .build();
+    }
+}
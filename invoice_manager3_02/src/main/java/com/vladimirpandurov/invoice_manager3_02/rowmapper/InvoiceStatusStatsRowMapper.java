@@ -0,0 +1,28 @@
+package com.vladimirpandurov.invoice_manager3_02.rowmapper;
+
+import com.vladimirpandurov.invoice_manager3_02.domain.InvoiceStatusStats;
+import com.vladimirpandurov.invoice_manager3_02.domain.Money;
+import com.vladimirpandurov.invoice_manager3_02.enumeration.InvoiceStatus;
+import org.springframework.jdbc.core.RowMapper;
+
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.Currency;
+
+public class InvoiceStatusStatsRowMapper implements RowMapper<InvoiceStatusStats> {
+
+    private final Currency currency;
+
+    public InvoiceStatusStatsRowMapper(Currency currency){
+        this.currency = currency;
+    }
+
+    @Override
+    public InvoiceStatusStats mapRow(ResultSet rs, int rowNum) throws SQLException {
+        return InvoiceStatusStats.builder()
+                .status(InvoiceStatus.valueOf(rs.getString("status")))
+                .invoiceCount(rs.getLong("invoice_count"))
+                .total(Money.ofMinor(rs.getLong("total_minor"), currency))
+                .build();
+    }
+}
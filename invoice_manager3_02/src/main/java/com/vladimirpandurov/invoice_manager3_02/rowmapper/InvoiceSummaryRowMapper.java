@@ -0,0 +1,28 @@
+package com.vladimirpandurov.invoice_manager3_02.rowmapper;
+
+import com.vladimirpandurov.invoice_manager3_02.domain.InvoiceSummary;
+import com.vladimirpandurov.invoice_manager3_02.domain.Money;
+import org.springframework.jdbc.core.RowMapper;
+
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.Currency;
+
+public class InvoiceSummaryRowMapper implements RowMapper<InvoiceSummary> {
+
+    private final Currency currency;
+
+    public InvoiceSummaryRowMapper(Currency currency){
+        this.currency = currency;
+    }
+
+    @Override
+    public InvoiceSummary mapRow(ResultSet rs, int rowNum) throws SQLException {
+        return InvoiceSummary.builder()
+                .invoiceCount(rs.getLong("invoice_count"))
+                .totalBilled(Money.ofMinor(rs.getLong("total_billed_minor"), currency))
+                .outstanding(Money.ofMinor(rs.getLong("outstanding_minor"), currency))
+                .overdueCount(rs.getLong("overdue_count"))
+                .build();
+    }
+}
@@ -0,0 +1,29 @@
+package com.vladimirpandurov.invoice_manager3_02.rowmapper;
+
+import com.vladimirpandurov.invoice_manager3_02.domain.MonthlyRevenue;
+import com.vladimirpandurov.invoice_manager3_02.domain.Money;
+import org.springframework.jdbc.core.RowMapper;
+
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.time.YearMonth;
+import java.util.Currency;
+
+public class MonthlyRevenueRowMapper implements RowMapper<MonthlyRevenue> {
+
+    private final Currency currency;
+
+    public MonthlyRevenueRowMapper(Currency currency){
+        this.currency = currency;
+    }
+
+    @Override
+    public MonthlyRevenue mapRow(ResultSet rs, int rowNum) throws SQLException {
+        return MonthlyRevenue.builder()
+                .month(YearMonth.of(rs.getInt("issued_year"), rs.getInt("issued_month")))
+                .invoiceCount(rs.getLong("invoice_count"))
+                .billed(Money.ofMinor(rs.getLong("billed_minor"), currency))
+                .paid(Money.ofMinor(rs.getLong("paid_minor"), currency))
+                .build();
+    }
+}
@@ -0,0 +1,35 @@
+package com.vladimirpandurov.invoice_manager3_02.rowmapper;
+
+import com.vladimirpandurov.invoice_manager3_02.domain.PdfBatch;
+import com.vladimirpandurov.invoice_manager3_02.enumeration.PdfBatchStatus;
+import org.springframework.jdbc.core.RowMapper;
+
+import java.sql.Date;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Timestamp;
+
+public class PdfBatchRowMapper implements RowMapper<PdfBatch> {
+
+    @Override
+    public PdfBatch mapRow(ResultSet rs, int rowNum) throws SQLException {
+        Date lastIssuedAt = rs.getDate("last_issued_at");
+        long lastInvoiceId = rs.getLong("last_invoice_id");
+        Timestamp completedAt = rs.getTimestamp("completed_at");
+        return PdfBatch.builder()
+                .id(rs.getLong("id"))
+                .status(PdfBatchStatus.valueOf(rs.getString("status")))
+                .issuedFrom(rs.getDate("issued_from").toLocalDate())
+                .issuedTo(rs.getDate("issued_to").toLocalDate())
+                .lastIssuedAt(lastIssuedAt == null ? null : lastIssuedAt.toLocalDate())
+                .lastInvoiceId(rs.wasNull() ? null : lastInvoiceId)
+                .rendered(rs.getLong("rendered"))
+                .failed(rs.getLong("failed"))
+                .owner(rs.getString("owner"))
+                .message(rs.getString("message"))
+                .createdAt(rs.getTimestamp("created_at").toLocalDateTime())
+                .updatedAt(rs.getTimestamp("updated_at").toLocalDateTime())
+                .completedAt(completedAt == null ? null : completedAt.toLocalDateTime())
+                .build();
+    }
+}
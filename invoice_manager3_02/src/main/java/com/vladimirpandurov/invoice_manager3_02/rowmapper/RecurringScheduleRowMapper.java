@@ -0,0 +1,34 @@
+package com.vladimirpandurov.invoice_manager3_02.rowmapper;
+
+import com.vladimirpandurov.invoice_manager3_02.domain.Money;
+import com.vladimirpandurov.invoice_manager3_02.domain.RecurringSchedule;
+import com.vladimirpandurov.invoice_manager3_02.enumeration.RecurringFrequency;
+import org.springframework.jdbc.core.RowMapper;
+
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Timestamp;
+import java.util.Currency;
+
+public class RecurringScheduleRowMapper implements RowMapper<RecurringSchedule> {
+
+    @Override
+    public RecurringSchedule mapRow(ResultSet rs, int rowNum) throws SQLException {
+        Timestamp lastRunAt = rs.getTimestamp("last_run_at");
+        return RecurringSchedule.builder()
+                .id(rs.getLong("id"))
+                .customerId(rs.getLong("customer_id"))
+                .partition(rs.getInt("partition_no"))
+                .frequency(RecurringFrequency.valueOf(rs.getString("frequency")))
+                .anchorDay(rs.getInt("anchor_day"))
+                .description(rs.getString("description"))
+                .quantity(rs.getInt("quantity"))
+                .unitPrice(Money.ofMinor(rs.getLong("unit_price_minor"), Currency.getInstance(rs.getString("currency"))))
+                .dueDays(rs.getInt("due_days"))
+                .nextRunAt(rs.getTimestamp("next_run_at").toLocalDateTime())
+                .lastRunAt(lastRunAt == null ? null : lastRunAt.toLocalDateTime())
+                .active(rs.getBoolean("active"))
+                .createdAt(rs.getTimestamp("created_at").toLocalDateTime())
+                .build();
+    }
+}
@@ -0,0 +1,25 @@
+package com.vladimirpandurov.invoice_manager3_02.rowmapper;
+
+import com.vladimirpandurov.invoice_manager3_02.domain.RefreshToken;
+import org.springframework.jdbc.core.RowMapper;
+
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Timestamp;
+
+public class RefreshTokenRowMapper implements RowMapper<RefreshToken> {
+
+    @Override
+    public RefreshToken mapRow(ResultSet rs, int rowNum) throws SQLException {
+        Timestamp usedAt = rs.getTimestamp("used_at");
+        return RefreshToken.builder()
+                .id(rs.getLong("id"))
+                .familyId(rs.getLong("family_id"))
+                .userId(rs.getLong("user_id"))
+                .expiresAt(rs.getTimestamp("expires_at").toLocalDateTime())
+                .usedAt(usedAt == null ? null : usedAt.toLocalDateTime())
+                .revoked(rs.getBoolean("revoked"))
+                .createdAt(rs.getTimestamp("created_at").toLocalDateTime())
+                .build();
+    }
+}
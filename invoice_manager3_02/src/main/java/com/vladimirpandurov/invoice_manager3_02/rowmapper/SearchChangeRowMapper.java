@@ -0,0 +1,21 @@
+package com.vladimirpandurov.invoice_manager3_02.rowmapper;
+
+import com.vladimirpandurov.invoice_manager3_02.domain.SearchChange;
+import com.vladimirpandurov.invoice_manager3_02.enumeration.SearchEntityType;
+import org.springframework.jdbc.core.RowMapper;
+
+import java.sql.ResultSet;
+import java.sql.SQLException;
+
+public class SearchChangeRowMapper implements RowMapper<SearchChange> {
+
+    @Override
+    public SearchChange mapRow(ResultSet rs, int rowNum) throws SQLException {
+        return SearchChange.builder()
+                .id(rs.getLong("id"))
+                .entityType(SearchEntityType.valueOf(rs.getString("entity_type")))
+                .entityId(rs.getLong("entity_id"))
+                .createdAt(rs.getTimestamp("created_at").toLocalDateTime())
+                .build();
+    }
+}
@@ -0,0 +1,22 @@
+package com.vladimirpandurov.invoice_manager3_02.rowmapper;
+
+import com.vladimirpandurov.invoice_manager3_02.domain.UserChange;
+import com.vladimirpandurov.invoice_manager3_02.enumeration.UserChangeType;
+import org.springframework.jdbc.core.RowMapper;
+
+import java.sql.ResultSet;
+import java.sql.SQLException;
+
+public class UserChangeRowMapper implements RowMapper<UserChange> {
+
+    @Override
+    public UserChange mapRow(ResultSet rs, int rowNum) throws SQLException {
+        return UserChange.builder()
+                .id(rs.getLong("id"))
+                .userId(rs.getLong("user_id"))
+                .email(rs.getString("email"))
+                .type(UserChangeType.valueOf(rs.getString("type")))
+                .createdAt(rs.getTimestamp("created_at").toLocalDateTime())
+                .build();
+    }
+}
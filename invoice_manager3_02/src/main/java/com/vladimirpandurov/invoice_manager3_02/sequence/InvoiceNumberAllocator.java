@@ -0,0 +1,81 @@
+package com.vladimirpandurov.invoice_manager3_02.sequence;
+
+import com.vladimirpandurov.invoice_manager3_02.repository.SequenceRepository;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.concurrent.locks.ReentrantLock;
+
+@Component
+@Slf4j
+public class InvoiceNumberAllocator {
+
+    private static final String SEQUENCE_NAME = "INVOICE";
+    private static final char[] PREFIX = "INV-".toCharArray();
+    private static final int DIGITS = 10;
+    private static final long MAX_PADDED = 9_999_999_999L;
+    private static final Block EXHAUSTED = new Block(0, 0);
+    private final SequenceRepository sequenceRepository;
+    private final int blockSize;
+    private final Counter reservations;
+    private final AtomicReference<Block> current = new AtomicReference<>(EXHAUSTED);
+    private final ReentrantLock refillLock = new ReentrantLock();
+
+    public InvoiceNumberAllocator(SequenceRepository sequenceRepository, MeterRegistry registry,
+                                  @Value("${application.invoice.number-block-size:100}") int blockSize){
+        this.sequenceRepository = sequenceRepository;
+        this.blockSize = blockSize;
+        this.reservations = Counter.builder("invoice.number.blocks")
+                .description("Invoice number blocks reserved from the sequence table")
+                .register(registry);
+    }
+
+    public String next(){
+        return format(nextValue());
+    }
+
+    public long nextValue(){
+        while(true){
+            Block block = current.get();
+            long value = block.next.getAndIncrement();
+            if(value < block.end) return value;
+            refillLock.lock();
+            try{
+                if(current.get() == block){
+                    long first = sequenceRepository.reserve(SEQUENCE_NAME, blockSize);
+                    current.set(new Block(first, first + blockSize));
+                    reservations.increment();
+                    log.debug("Reserved invoice numbers {} to {}", first, first + blockSize - 1);
+                }
+            }finally {
+                refillLock.unlock();
+            }
+        }
+    }
+
+    static String format(long value){
+        if(value > MAX_PADDED) return new String(PREFIX) + value;
+        char[] chars = new char[PREFIX.length + DIGITS];
+        System.arraycopy(PREFIX, 0, chars, 0, PREFIX.length);
+        for(int i = chars.length - 1; i >= PREFIX.length; i--){
+            chars[i] = (char) ('0' + value % 10);
+            value /= 10;
+        }
+        return new String(chars);
+    }
+
+    private static final class Block {
+        private final AtomicLong next;
+        private final long end;
+
+        private Block(long first, long end){
+            this.next = new AtomicLong(first);
+            this.end = end;
+        }
+    }
+}
@@ -0,0 +1,23 @@
+package com.vladimirpandurov.invoice_manager3_02.service;
+
+import com.vladimirpandurov.invoice_manager3_02.domain.Customer;
+import com.vladimirpandurov.invoice_manager3_02.domain.Page;
+
+import java.util.List;
+
+public interface CustomerService {
+
+    Customer createCustomer(Customer customer);
+
+    Customer updateCustomer(Customer customer);
+
+    Customer getCustomer(Long id);
+
+    Page<Customer> getCustomers(String cursor, int size);
+
+    Page<Customer> searchCustomers(String name, String cursor, int size);
+
+    int updateCustomerStatus(List<Long> ids, String status);
+
+    Boolean deleteCustomer(Long id);
+}
@@ -0,0 +1,8 @@
+package com.vladimirpandurov.invoice_manager3_02.service;
+
+import com.vladimirpandurov.invoice_manager3_02.domain.DashboardStats;
+
+public interface DashboardService {
+
+    DashboardStats getStats();
+}
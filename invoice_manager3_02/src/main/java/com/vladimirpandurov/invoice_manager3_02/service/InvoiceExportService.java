@@ -0,0 +1,17 @@
+package com.vladimirpandurov.invoice_manager3_02.service;
+
+import com.vladimirpandurov.invoice_manager3_02.export.ExportFormat;
+
+import java.io.IOException;
+import java.io.Writer;
+import java.time.LocalDate;
+
+public interface InvoiceExportService {
+
+    long exportInvoices(LocalDate from, LocalDate to, String cursor, ExportFormat format, ExportOutput output) throws IOException;
+
+    @FunctionalInterface
+    interface ExportOutput {
+        Writer open(ExportFormat format) throws IOException;
+    }
+}
@@ -0,0 +1,15 @@
+package com.vladimirpandurov.invoice_manager3_02.service;
+
+import com.vladimirpandurov.invoice_manager3_02.domain.ImportJob;
+
+import java.io.InputStream;
+import java.util.List;
+
+public interface InvoiceImportService {
+
+    ImportJob importInvoices(InputStream input);
+
+    ImportJob getImportJob(Long id);
+
+    List<ImportJob> getImportJobs();
+}
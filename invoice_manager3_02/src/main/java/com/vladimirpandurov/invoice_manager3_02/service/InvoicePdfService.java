@@ -0,0 +1,20 @@
+package com.vladimirpandurov.invoice_manager3_02.service;
+
+import com.vladimirpandurov.invoice_manager3_02.domain.PdfBatch;
+
+import java.nio.file.Path;
+import java.time.LocalDate;
+import java.util.List;
+
+public interface InvoicePdfService {
+
+    Path getInvoicePdf(Long id);
+
+    PdfBatch startBatch(LocalDate from, LocalDate to);
+
+    PdfBatch resumeBatch(Long id);
+
+    PdfBatch getBatch(Long id);
+
+    List<PdfBatch> getBatches();
+}
@@ -0,0 +1,27 @@
+package com.vladimirpandurov.invoice_manager3_02.service;
+
+import com.vladimirpandurov.invoice_manager3_02.domain.Invoice;
+import com.vladimirpandurov.invoice_manager3_02.domain.InvoiceSummary;
+import com.vladimirpandurov.invoice_manager3_02.domain.Page;
+import com.vladimirpandurov.invoice_manager3_02.enumeration.InvoiceStatus;
+
+public interface InvoiceService {
+
+    Invoice createInvoice(Invoice invoice);
+
+    Invoice updateInvoice(Invoice invoice);
+
+    Invoice getInvoice(Long id);
+
+    Page<Invoice> getInvoices(String cursor, int size);
+
+    Page<Invoice> getCustomerInvoices(Long customerId, String cursor, int size);
+
+    Invoice updateInvoiceStatus(Long id, InvoiceStatus status);
+
+    Boolean deleteInvoice(Long id);
+
+    InvoiceSummary getCustomerSummary(Long customerId);
+
+    InvoiceSummary getAccountSummary();
+}
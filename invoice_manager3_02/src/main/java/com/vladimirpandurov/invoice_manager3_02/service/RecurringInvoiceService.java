@@ -0,0 +1,18 @@
+package com.vladimirpandurov.invoice_manager3_02.service;
+
+import com.vladimirpandurov.invoice_manager3_02.domain.Page;
+import com.vladimirpandurov.invoice_manager3_02.domain.RecurringBillingStatus;
+import com.vladimirpandurov.invoice_manager3_02.domain.RecurringSchedule;
+
+public interface RecurringInvoiceService {
+
+    RecurringSchedule createSchedule(RecurringSchedule schedule);
+
+    RecurringSchedule getSchedule(Long id);
+
+    Page<RecurringSchedule> getSchedules(String cursor, int size);
+
+    RecurringSchedule cancelSchedule(Long id);
+
+    RecurringBillingStatus getStatus();
+}
@@ -0,0 +1,12 @@
+package com.vladimirpandurov.invoice_manager3_02.service;
+
+import com.vladimirpandurov.invoice_manager3_02.domain.RefreshToken;
+
+public interface RefreshTokenService {
+
+    RefreshToken issue(Long userId);
+
+    RefreshToken rotate(Long tokenId, Long familyId, Long userId);
+
+    void revokeFamily(Long familyId);
+}
@@ -0,0 +1,8 @@
+package com.vladimirpandurov.invoice_manager3_02.service;
+
+import java.time.LocalDateTime;
+
+public interface RevokedTokenService {
+
+    void revoke(Long tokenId, Long userId, LocalDateTime expiresAt);
+}
@@ -0,0 +1,12 @@
+package com.vladimirpandurov.invoice_manager3_02.service;
+
+import com.vladimirpandurov.invoice_manager3_02.domain.Customer;
+import com.vladimirpandurov.invoice_manager3_02.domain.Invoice;
+import com.vladimirpandurov.invoice_manager3_02.domain.Page;
+
+public interface SearchService {
+
+    Page<Customer> searchCustomers(String query, String cursor, int size);
+
+    Page<Invoice> searchInvoices(String query, String cursor, int size);
+}
@@ -0,0 +1,108 @@
+package com.vladimirpandurov.invoice_manager3_02.service.implementation;
+
+import com.vladimirpandurov.invoice_manager3_02.domain.Customer;
+import com.vladimirpandurov.invoice_manager3_02.domain.Page;
+import com.vladimirpandurov.invoice_manager3_02.exception.ApiException;
+import com.vladimirpandurov.invoice_manager3_02.repository.CustomerRepository;
+import com.vladimirpandurov.invoice_manager3_02.service.CustomerService;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Service;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
+import java.util.List;
+
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class CustomerServiceImpl implements CustomerService {
+
+    private static final int MAX_PAGE_SIZE = 100;
+    private static final int MAX_STATUS_UPDATE = 1000;
+    private static final String DEFAULT_TYPE = "INDIVIDUAL";
+    private static final String DEFAULT_STATUS = "ACTIVE";
+    private static final char CURSOR_SEPARATOR = '\n';
+    private final CustomerRepository<Customer> customerRepository;
+
+    @Override
+    public Customer createCustomer(Customer customer) {
+        if(customer.getType() == null) customer.setType(DEFAULT_TYPE);
+        if(customer.getStatus() == null) customer.setStatus(DEFAULT_STATUS);
+        return customerRepository.create(customer);
+    }
+
+    @Override
+    public Customer updateCustomer(Customer customer) {
+        if(customer.getId() == null) throw new ApiException("Customer id cannot be empty");
+        return customerRepository.update(customer);
+    }
+
+    @Override
+    public Customer getCustomer(Long id) {
+        return customerRepository.get(id);
+    }
+
+    @Override
+    public Page<Customer> getCustomers(String cursor, int size) {
+        int pageSize = getPageSize(size);
+        List<Customer> customers = customerRepository.list(cursor == null ? null : decodeId(cursor), pageSize);
+        String nextCursor = customers.size() < pageSize ? null : Long.toString(customers.get(customers.size() - 1).getId());
+        return new Page<>(customers, nextCursor);
+    }
+
+    @Override
+    public Page<Customer> searchCustomers(String name, String cursor, int size) {
+        if(name == null || name.isBlank()) throw new ApiException("Search term cannot be empty");
+        int pageSize = getPageSize(size);
+        String afterName = null;
+        Long afterId = null;
+        if(cursor != null){
+            String decoded = new String(decode(cursor), StandardCharsets.UTF_8);
+            int separator = decoded.lastIndexOf(CURSOR_SEPARATOR);
+            if(separator < 0) throw new ApiException("Invalid cursor");
+            afterName = decoded.substring(0, separator);
+            afterId = decodeId(decoded.substring(separator + 1));
+        }
+        List<Customer> customers = customerRepository.search(name.trim(), afterName, afterId, pageSize);
+        String nextCursor = null;
+        if(customers.size() == pageSize){
+            Customer last = customers.get(customers.size() - 1);
+            nextCursor = Base64.getUrlEncoder().withoutPadding().encodeToString((last.getName() + CURSOR_SEPARATOR + last.getId()).getBytes(StandardCharsets.UTF_8));
+        }
+        return new Page<>(customers, nextCursor);
+    }
+
+    @Override
+    public int updateCustomerStatus(List<Long> ids, String status) {
+        if(ids == null || ids.isEmpty()) return 0;
+        if(ids.size() > MAX_STATUS_UPDATE) throw new ApiException("Cannot update more than " + MAX_STATUS_UPDATE + " customers at once");
+        if(status == null || status.isBlank()) throw new ApiException("Status cannot be empty");
+        return customerRepository.updateStatus(ids, status);
+    }
+
+    @Override
+    public Boolean deleteCustomer(Long id) {
+        return customerRepository.delete(id);
+    }
+
+    private static int getPageSize(int size) {
+        return Math.max(1, Math.min(MAX_PAGE_SIZE, size));
+    }
+
+    private static Long decodeId(String value) {
+        try{
+            return Long.parseLong(value);
+        }catch (NumberFormatException exception){
+            throw new ApiException("Invalid cursor");
+        }
+    }
+
+    private static byte[] decode(String cursor) {
+        try{
+            return Base64.getUrlDecoder().decode(cursor);
+        }catch (IllegalArgumentException exception){
+            throw new ApiException("Invalid cursor");
+        }
+    }
+}
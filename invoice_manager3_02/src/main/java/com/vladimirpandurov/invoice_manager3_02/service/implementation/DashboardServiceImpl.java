@@ -0,0 +1,22 @@
+package com.vladimirpandurov.invoice_manager3_02.service.implementation;
+
+import com.vladimirpandurov.invoice_manager3_02.domain.DashboardStats;
+import com.vladimirpandurov.invoice_manager3_02.exception.ApiException;
+import com.vladimirpandurov.invoice_manager3_02.service.DashboardService;
+import com.vladimirpandurov.invoice_manager3_02.statistics.DashboardStatistics;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Service;
+
+@Service
+@RequiredArgsConstructor
+public class DashboardServiceImpl implements DashboardService {
+
+    private final DashboardStatistics dashboardStatistics;
+
+    @Override
+    public DashboardStats getStats() {
+        DashboardStats stats = dashboardStatistics.get();
+        if(stats == null) throw new ApiException("Dashboard statistics are not available yet. Please try again later");
+        return stats;
+    }
+}
@@ -0,0 +1,64 @@
+package com.vladimirpandurov.invoice_manager3_02.service.implementation;
+
+import com.vladimirpandurov.invoice_manager3_02.exception.ApiException;
+import com.vladimirpandurov.invoice_manager3_02.export.ExportCursor;
+import com.vladimirpandurov.invoice_manager3_02.export.ExportFormat;
+import com.vladimirpandurov.invoice_manager3_02.export.InvoiceExportWriter;
+import com.vladimirpandurov.invoice_manager3_02.repository.InvoiceExportRepository;
+import com.vladimirpandurov.invoice_manager3_02.service.InvoiceExportService;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.io.IOException;
+import java.io.Writer;
+import java.time.LocalDate;
+import java.util.concurrent.Semaphore;
+
+@Service
+@Slf4j
+public class InvoiceExportServiceImpl implements InvoiceExportService {
+
+    private final InvoiceExportRepository invoiceExportRepository;
+    private final Semaphore runningExports;
+    private final Counter exported;
+
+    public InvoiceExportServiceImpl(InvoiceExportRepository invoiceExportRepository, MeterRegistry registry,
+                                    @Value("${application.invoice.export.max-exports:4}") int maxExports){
+        this.invoiceExportRepository = invoiceExportRepository;
+        this.runningExports = new Semaphore(maxExports);
+        this.exported = Counter.builder("invoice.export.invoices")
+                .description("Invoices written by streaming exports")
+                .register(registry);
+    }
+
+    @Override
+    public long exportInvoices(LocalDate from, LocalDate to, String cursor, ExportFormat format, ExportOutput output) throws IOException {
+        if(to.isBefore(from)) throw new ApiException("Export period cannot end before it starts");
+        ExportCursor after = cursor == null ? null : ExportCursor.decode(cursor);
+        if(!runningExports.tryAcquire()) throw new ApiException("Too many exports are running. Please try again later");
+        InvoiceExportWriter exportWriter = null;
+        try{
+            Writer writer = output.open(format);
+            exportWriter = format.writer(writer);
+            exportWriter.writeHeader();
+            invoiceExportRepository.export(from, to, after == null ? null : after.getIssuedAt(), after == null ? null : after.getInvoiceId(), exportWriter::write);
+            exportWriter.finish();
+            writer.close();
+            log.info("Exported {} invoices issued from {} to {}", exportWriter.getInvoices(), from, to);
+            return exportWriter.getInvoices();
+        }catch (IOException exception){
+            log.info("Invoice export stopped after {} invoices: {}", exportWriter == null ? 0 : exportWriter.getInvoices(), exception.getMessage());
+            throw exception;
+        }catch (RuntimeException exception){
+            if(exportWriter == null) throw exception;
+            log.error("Invoice export failed after {} invoices: {}", exportWriter.getInvoices(), exception.getMessage());
+            throw new IOException("Invoice export failed after " + exportWriter.getInvoices() + " invoices", exception);
+        }finally {
+            if(exportWriter != null) exported.increment(exportWriter.getInvoices());
+            runningExports.release();
+        }
+    }
+}
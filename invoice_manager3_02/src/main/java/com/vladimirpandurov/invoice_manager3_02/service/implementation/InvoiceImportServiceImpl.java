@@ -0,0 +1,460 @@
+package com.vladimirpandurov.invoice_manager3_02.service.implementation;
+
+import com.vladimirpandurov.invoice_manager3_02.domain.Customer;
+import com.vladimirpandurov.invoice_manager3_02.domain.ImportJob;
+import com.vladimirpandurov.invoice_manager3_02.domain.ImportJobError;
+import com.vladimirpandurov.invoice_manager3_02.domain.Invoice;
+import com.vladimirpandurov.invoice_manager3_02.domain.InvoiceLine;
+import com.vladimirpandurov.invoice_manager3_02.domain.Money;
+import com.vladimirpandurov.invoice_manager3_02.exception.ApiException;
+import com.vladimirpandurov.invoice_manager3_02.repository.CustomerRepository;
+import com.vladimirpandurov.invoice_manager3_02.repository.ImportJobRepository;
+import com.vladimirpandurov.invoice_manager3_02.repository.InvoiceRepository;
+import com.vladimirpandurov.invoice_manager3_02.sequence.InvoiceNumberAllocator;
+import com.vladimirpandurov.invoice_manager3_02.service.InvoiceImportService;
+import com.vladimirpandurov.invoice_manager3_02.utils.CsvReader;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.math.BigDecimal;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.time.Duration;
+import java.time.LocalDate;
+import java.time.format.DateTimeParseException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Currency;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static com.vladimirpandurov.invoice_manager3_02.enumeration.ImportJobStatus.COMPLETED;
+import static com.vladimirpandurov.invoice_manager3_02.enumeration.ImportJobStatus.FAILED;
+import static java.nio.charset.StandardCharsets.UTF_8;
+import static java.util.concurrent.TimeUnit.NANOSECONDS;
+
+@Service
+@Slf4j
+public class InvoiceImportServiceImpl implements InvoiceImportService {
+
+    private static final String[] COLUMNS = {"reference", "customer_email", "due_date", "description", "quantity", "unit_price"};
+    private static final int REFERENCE = 0;
+    private static final int CUSTOMER_EMAIL = 1;
+    private static final int DUE_DATE = 2;
+    private static final int DESCRIPTION = 3;
+    private static final int QUANTITY = 4;
+    private static final int UNIT_PRICE = 5;
+    private static final int MAX_LINES_PER_INVOICE = 1000;
+    private static final int MAX_REFERENCE_LENGTH = 100;
+    private static final int MAX_DESCRIPTION_LENGTH = 255;
+    private static final int MAX_RECORDED_ERRORS = 1000;
+    private static final int RECENT_JOBS = 20;
+    private static final long MISSING_CUSTOMER = -1L;
+    private static final String STALE_JOB_MESSAGE = "Import was interrupted. Upload the file again; invoices that were already imported are skipped by reference";
+    private final ImportJobRepository<ImportJob> importJobRepository;
+    private final CustomerRepository<Customer> customerRepository;
+    private final InvoiceRepository<Invoice> invoiceRepository;
+    private final InvoiceNumberAllocator invoiceNumberAllocator;
+    private final Currency currency;
+    private final int chunkSize;
+    private final int parallelism;
+    private final Duration staleTimeout;
+    private final Semaphore runningJobs;
+    private final Set<Long> activeJobs = ConcurrentHashMap.newKeySet();
+    private final ExecutorService coordinators;
+    private final ExecutorService workers;
+    private final Timer chunkTimer;
+    private final Counter created;
+    private final Counter rejected;
+
+    public InvoiceImportServiceImpl(ImportJobRepository<ImportJob> importJobRepository, CustomerRepository<Customer> customerRepository,
+                                    InvoiceRepository<Invoice> invoiceRepository, InvoiceNumberAllocator invoiceNumberAllocator, MeterRegistry registry,
+                                    @Value("${application.invoice.currency:USD}") Currency currency,
+                                    @Value("${application.invoice.import.chunk-size:500}") int chunkSize,
+                                    @Value("${application.invoice.import.parallelism:4}") int parallelism,
+                                    @Value("${application.invoice.import.max-jobs:2}") int maxJobs,
+                                    @Value("${application.invoice.import.stale-timeout:PT5M}") Duration staleTimeout){
+        this.importJobRepository = importJobRepository;
+        this.customerRepository = customerRepository;
+        this.invoiceRepository = invoiceRepository;
+        this.invoiceNumberAllocator = invoiceNumberAllocator;
+        this.currency = currency;
+        this.chunkSize = chunkSize;
+        this.parallelism = parallelism;
+        this.staleTimeout = staleTimeout;
+        this.runningJobs = new Semaphore(maxJobs);
+        AtomicInteger jobThreads = new AtomicInteger();
+        this.coordinators = Executors.newFixedThreadPool(maxJobs, runnable -> {
+            Thread thread = new Thread(runnable, "invoice-import-job-" + jobThreads.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
+        AtomicInteger threads = new AtomicInteger();
+        this.workers = Executors.newFixedThreadPool(parallelism * maxJobs, runnable -> {
+            Thread thread = new Thread(runnable, "invoice-import-" + threads.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
+        this.chunkTimer = Timer.builder("invoice.import.chunk")
+                .description("Time to validate and write one chunk of imported invoices")
+                .register(registry);
+        this.created = Counter.builder("invoice.import.invoices").tag("result", "created").register(registry);
+        this.rejected = Counter.builder("invoice.import.invoices").tag("result", "rejected").register(registry);
+    }
+
+    @Override
+    public ImportJob importInvoices(InputStream input) {
+        if(!runningJobs.tryAcquire()) throw new ApiException("Too many imports are running. Please try again later");
+        Path file = null;
+        try{
+            file = spool(input);
+            try(CsvReader reader = open(file)){
+                readHeader(reader);
+            }
+            ImportJob job = importJobRepository.create();
+            activeJobs.add(job.getId());
+            Path upload = file;
+            coordinators.execute(() -> run(job.getId(), upload));
+            log.info("Started invoice import job {}", job.getId());
+            return job;
+        }catch (IOException exception){
+            delete(file);
+            runningJobs.release();
+            throw new ApiException("Unable to read the file: " + exception.getMessage());
+        }catch (RuntimeException exception){
+            delete(file);
+            runningJobs.release();
+            throw exception;
+        }
+    }
+
+    @Override
+    public ImportJob getImportJob(Long id) {
+        return importJobRepository.get(id);
+    }
+
+    @Override
+    public List<ImportJob> getImportJobs() {
+        return importJobRepository.list(RECENT_JOBS);
+    }
+
+    @Scheduled(fixedDelayString = "${application.invoice.import.heartbeat-interval:PT30S}")
+    public void heartbeat(){
+        importJobRepository.touch(List.copyOf(activeJobs));
+    }
+
+    @Scheduled(initialDelayString = "${application.invoice.import.sweep-interval:PT1M}", fixedDelayString = "${application.invoice.import.sweep-interval:PT1M}")
+    public void failStaleJobs(){
+        int failed = importJobRepository.failStale(staleTimeout, STALE_JOB_MESSAGE);
+        if(failed > 0) log.warn("Marked {} stale invoice import jobs as failed", failed);
+    }
+
+    @PreDestroy
+    public void shutdown(){
+        coordinators.shutdownNow();
+        workers.shutdownNow();
+    }
+
+    private void run(Long jobId, Path file){
+        ImportRun run = new ImportRun(jobId, parallelism);
+        try(CsvReader reader = open(file)){
+            int[] columns = readHeader(reader);
+            readInvoices(run, reader, columns);
+        }catch (Exception exception){
+            log.error("Invoice import job {} failed: {}", jobId, exception.getMessage());
+            run.fail("An error occurred. Please try again.");
+        }finally {
+            try{
+                importJobRepository.complete(jobId, run.failure == null ? COMPLETED : FAILED, run.failure);
+                log.info("Finished invoice import job {}", jobId);
+            }catch (Exception exception){
+                log.error("Unable to complete invoice import job {}: {}", jobId, exception.getMessage());
+            }finally {
+                activeJobs.remove(jobId);
+                delete(file);
+                runningJobs.release();
+            }
+        }
+    }
+
+    private Path spool(InputStream input) throws IOException {
+        Path file = Files.createTempFile("invoice-import-", ".csv");
+        try{
+            Files.copy(input, file, StandardCopyOption.REPLACE_EXISTING);
+            return file;
+        }catch (IOException exception){
+            delete(file);
+            throw exception;
+        }
+    }
+
+    private static CsvReader open(Path file) throws IOException {
+        return new CsvReader(new InputStreamReader(Files.newInputStream(file), UTF_8));
+    }
+
+    private static void delete(Path file){
+        if(file == null) return;
+        try{
+            Files.deleteIfExists(file);
+        }catch (IOException exception){
+            log.warn("Unable to delete import upload {}: {}", file, exception.getMessage());
+        }
+    }
+
+    private void readInvoices(ImportRun run, CsvReader reader, int[] columns){
+        List<PendingInvoice> chunk = new ArrayList<>(chunkSize);
+        PendingInvoice current = null;
+        long rows = 0;
+        try{
+            String[] record;
+            while(run.failure == null && (record = reader.next()) != null){
+                if(record.length == 1 && record[0].isBlank()) continue;
+                rows++;
+                String[] row = new String[COLUMNS.length];
+                for(int i = 0; i < COLUMNS.length; i++){
+                    row[i] = columns[i] < record.length ? record[columns[i]].trim() : "";
+                }
+                if(current == null || !current.reference.equals(row[REFERENCE])){
+                    if(current != null) chunk.add(current);
+                    if(chunk.size() == chunkSize){
+                        submit(run, chunk, rows - 1);
+                        chunk = new ArrayList<>(chunkSize);
+                        rows = 1;
+                    }
+                    current = new PendingInvoice(row[REFERENCE]);
+                }
+                current.add(reader.getLineNumber(), row);
+            }
+            if(current != null) chunk.add(current);
+            if(!chunk.isEmpty()) submit(run, chunk, rows);
+        }catch (IOException exception){
+            run.fail("Unable to read the file: " + exception.getMessage());
+        }catch (InterruptedException exception){
+            Thread.currentThread().interrupt();
+            run.fail("Import was interrupted");
+        }finally {
+            run.awaitChunks();
+        }
+    }
+
+    private void submit(ImportRun run, List<PendingInvoice> chunk, long rows) throws InterruptedException {
+        run.inFlight.acquire();
+        try{
+            workers.execute(() -> {
+                try{
+                    processChunk(run, chunk, rows);
+                }catch (Exception exception){
+                    log.error(exception.getMessage());
+                    run.fail("An error occurred. Please try again.");
+                }finally {
+                    run.inFlight.release();
+                }
+            });
+        }catch (RuntimeException exception){
+            run.inFlight.release();
+            throw exception;
+        }
+    }
+
+    private void processChunk(ImportRun run, List<PendingInvoice> chunk, long rows){
+        long start = System.nanoTime();
+        List<ImportJobError> errors = new ArrayList<>();
+        resolveCustomers(run, chunk);
+        Set<String> imported = invoiceRepository.getImportedReferences(chunk.stream()
+                .map(pending -> pending.reference)
+                .filter(reference -> !reference.isEmpty() && reference.length() <= MAX_REFERENCE_LENGTH)
+                .toList());
+        List<Invoice> invoices = new ArrayList<>(chunk.size());
+        List<PendingInvoice> sources = new ArrayList<>(chunk.size());
+        for(PendingInvoice pending : chunk){
+            if(imported.contains(pending.reference)){
+                errors.add(pending.error(pending.firstLine(), "Invoice " + pending.reference + " was already imported"));
+                continue;
+            }
+            Invoice invoice = toInvoice(run, pending, errors);
+            if(invoice != null){
+                invoice.setInvoiceNumber(invoiceNumberAllocator.next());
+                invoices.add(invoice);
+                sources.add(pending);
+            }
+        }
+        int saved = save(invoices, sources, errors);
+        importJobRepository.addProgress(run.jobId, rows, saved, chunk.size() - saved);
+        importJobRepository.addErrors(run.jobId, run.reserveErrors(errors));
+        created.increment(saved);
+        rejected.increment(chunk.size() - saved);
+        chunkTimer.record(System.nanoTime() - start, NANOSECONDS);
+    }
+
+    private int save(List<Invoice> invoices, List<PendingInvoice> sources, List<ImportJobError> errors){
+        if(invoices.isEmpty()) return 0;
+        try{
+            return invoiceRepository.createAll(invoices);
+        }catch (ApiException exception){
+            log.warn("Saving an import chunk failed, retrying its invoices one by one: {}", exception.getMessage());
+        }
+        int saved = 0;
+        for(int i = 0; i < invoices.size(); i++){
+            try{
+                saved += invoiceRepository.createAll(List.of(invoices.get(i)));
+            }catch (ApiException exception){
+                errors.add(sources.get(i).error(sources.get(i).firstLine(), exception.getMessage()));
+            }
+        }
+        return saved;
+    }
+
+    private void resolveCustomers(ImportRun run, List<PendingInvoice> chunk){
+        Set<String> unknown = new HashSet<>();
+        for(PendingInvoice pending : chunk){
+            String email = pending.rows.get(0)[CUSTOMER_EMAIL].toLowerCase();
+            if(!email.isEmpty() && !run.customerIds.containsKey(email)) unknown.add(email);
+        }
+        if(unknown.isEmpty()) return;
+        Map<String, Long> ids = customerRepository.getIdsByEmail(unknown);
+        for(String email : unknown){
+            run.customerIds.putIfAbsent(email, ids.getOrDefault(email, MISSING_CUSTOMER));
+        }
+    }
+
+    private Invoice toInvoice(ImportRun run, PendingInvoice pending, List<ImportJobError> errors){
+        String[] first = pending.rows.get(0);
+        if(pending.reference.isEmpty()) return reject(errors, pending, pending.firstLine(), "Reference cannot be empty");
+        if(pending.reference.length() > MAX_REFERENCE_LENGTH) return reject(errors, pending, pending.firstLine(), "Reference is longer than " + MAX_REFERENCE_LENGTH + " characters");
+        if(pending.truncated) return reject(errors, pending, pending.firstLine(), "Invoice has more than " + MAX_LINES_PER_INVOICE + " lines");
+        if(first[CUSTOMER_EMAIL].isEmpty()) return reject(errors, pending, pending.firstLine(), "Customer email cannot be empty");
+        long customerId = run.customerIds.getOrDefault(first[CUSTOMER_EMAIL].toLowerCase(), MISSING_CUSTOMER);
+        if(customerId == MISSING_CUSTOMER) return reject(errors, pending, pending.firstLine(), "No customer found by email: " + first[CUSTOMER_EMAIL]);
+        LocalDate dueDate;
+        try{
+            dueDate = LocalDate.parse(first[DUE_DATE]);
+        }catch (DateTimeParseException exception){
+            return reject(errors, pending, pending.firstLine(), "Invalid due date: " + first[DUE_DATE]);
+        }
+        List<InvoiceLine> lines = new ArrayList<>(pending.rows.size());
+        for(int i = 0; i < pending.rows.size(); i++){
+            String[] row = pending.rows.get(i);
+            long line = pending.lineNumbers[i];
+            if(!row[CUSTOMER_EMAIL].equalsIgnoreCase(first[CUSTOMER_EMAIL]) || !row[DUE_DATE].equals(first[DUE_DATE])){
+                return reject(errors, pending, line, "All lines of an invoice must have the same customer and due date");
+            }
+            if(row[DESCRIPTION].isEmpty()) return reject(errors, pending, line, "Description cannot be empty");
+            if(row[DESCRIPTION].length() > MAX_DESCRIPTION_LENGTH) return reject(errors, pending, line, "Description is longer than " + MAX_DESCRIPTION_LENGTH + " characters");
+            int quantity;
+            try{
+                quantity = Integer.parseInt(row[QUANTITY]);
+            }catch (NumberFormatException exception){
+                return reject(errors, pending, line, "Invalid quantity: " + row[QUANTITY]);
+            }
+            if(quantity <= 0) return reject(errors, pending, line, "Quantity must be greater than zero");
+            Money unitPrice;
+            try{
+                unitPrice = Money.of(new BigDecimal(row[UNIT_PRICE]), currency.getCurrencyCode());
+            }catch (IllegalArgumentException exception){
+                return reject(errors, pending, line, "Invalid unit price: " + row[UNIT_PRICE]);
+            }
+            if(unitPrice.signum() < 0) return reject(errors, pending, line, "Unit price cannot be negative");
+            lines.add(InvoiceLine.builder().description(row[DESCRIPTION]).quantity(quantity).unitPrice(unitPrice).build());
+        }
+        return Invoice.builder().customerId(customerId).dueDate(dueDate).lines(lines).importReference(pending.reference).build();
+    }
+
+    private static Invoice reject(List<ImportJobError> errors, PendingInvoice pending, long line, String message){
+        errors.add(pending.error(line, message));
+        return null;
+    }
+
+    private static int[] readHeader(CsvReader reader){
+        String[] header;
+        try{
+            header = reader.next();
+        }catch (IOException exception){
+            throw new ApiException("Unable to read the file: " + exception.getMessage());
+        }
+        if(header == null) throw new ApiException("The file is empty");
+        int[] columns = new int[COLUMNS.length];
+        for(int i = 0; i < COLUMNS.length; i++){
+            columns[i] = -1;
+            for(int j = 0; j < header.length; j++){
+                if(COLUMNS[i].equalsIgnoreCase(header[j].trim())) columns[i] = j;
+            }
+            if(columns[i] == -1) throw new ApiException("Missing column: " + COLUMNS[i]);
+        }
+        return columns;
+    }
+
+    private static class ImportRun {
+        private final Long jobId;
+        private final int parallelism;
+        private final Semaphore inFlight;
+        private final Map<String, Long> customerIds = new ConcurrentHashMap<>();
+        private final AtomicInteger errorBudget = new AtomicInteger(MAX_RECORDED_ERRORS);
+        private volatile String failure;
+
+        private ImportRun(Long jobId, int parallelism){
+            this.jobId = jobId;
+            this.parallelism = parallelism;
+            this.inFlight = new Semaphore(parallelism);
+        }
+
+        private void fail(String message){
+            if(failure == null) failure = message;
+        }
+
+        private void awaitChunks(){
+            inFlight.acquireUninterruptibly(parallelism);
+        }
+
+        private List<ImportJobError> reserveErrors(List<ImportJobError> errors){
+            if(errors.isEmpty()) return errors;
+            int available = errorBudget.getAndUpdate(budget -> Math.max(0, budget - errors.size()));
+            return errors.size() <= available ? errors : errors.subList(0, available);
+        }
+    }
+
+    private static class PendingInvoice {
+        private final String reference;
+        private final List<String[]> rows = new ArrayList<>(4);
+        private long[] lineNumbers = new long[4];
+        private boolean truncated;
+
+        private PendingInvoice(String reference){
+            this.reference = reference;
+        }
+
+        private void add(long lineNumber, String[] row){
+            if(rows.size() == MAX_LINES_PER_INVOICE){
+                truncated = true;
+                return;
+            }
+            if(rows.size() == lineNumbers.length) lineNumbers = Arrays.copyOf(lineNumbers, lineNumbers.length * 2);
+            lineNumbers[rows.size()] = lineNumber;
+            rows.add(row);
+        }
+
+        private long firstLine(){
+            return lineNumbers[0];
+        }
+
+        private ImportJobError error(long lineNumber, String message){
+            return ImportJobError.builder().lineNumber(lineNumber).reference(reference).message(message).build();
+        }
+    }
+}
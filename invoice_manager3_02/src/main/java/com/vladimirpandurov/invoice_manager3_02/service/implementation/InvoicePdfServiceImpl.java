@@ -0,0 +1,235 @@
+package com.vladimirpandurov.invoice_manager3_02.service.implementation;
+
+import com.vladimirpandurov.invoice_manager3_02.domain.Customer;
+import com.vladimirpandurov.invoice_manager3_02.domain.Invoice;
+import com.vladimirpandurov.invoice_manager3_02.domain.PdfBatch;
+import com.vladimirpandurov.invoice_manager3_02.enumeration.PdfBatchStatus;
+import com.vladimirpandurov.invoice_manager3_02.exception.ApiException;
+import com.vladimirpandurov.invoice_manager3_02.pdf.InvoicePdfRenderer;
+import com.vladimirpandurov.invoice_manager3_02.repository.CustomerRepository;
+import com.vladimirpandurov.invoice_manager3_02.repository.InvoiceRepository;
+import com.vladimirpandurov.invoice_manager3_02.repository.PdfBatchRepository;
+import com.vladimirpandurov.invoice_manager3_02.service.InvoicePdfService;
+import com.vladimirpandurov.invoice_manager3_02.utils.NodeIds;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.nio.file.Path;
+import java.time.Duration;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static com.vladimirpandurov.invoice_manager3_02.enumeration.PdfBatchStatus.*;
+
+@Service
+@Slf4j
+public class InvoicePdfServiceImpl implements InvoicePdfService {
+
+    private static final int RECENT_BATCHES = 20;
+    private static final int MAX_BATCH_DAYS = 366;
+    private final InvoicePdfRenderer renderer;
+    private final InvoiceRepository<Invoice> invoiceRepository;
+    private final CustomerRepository<Customer> customerRepository;
+    private final PdfBatchRepository<PdfBatch> pdfBatchRepository;
+    private final int pageSize;
+    private final Duration staleTimeout;
+    private final String owner = NodeIds.next();
+    private final Set<Long> runningBatches = ConcurrentHashMap.newKeySet();
+    private final ExecutorService coordinators;
+    private final Counter rendered;
+    private final Counter skipped;
+    private final Counter failed;
+
+    public InvoicePdfServiceImpl(InvoicePdfRenderer renderer, InvoiceRepository<Invoice> invoiceRepository, CustomerRepository<Customer> customerRepository,
+                                 PdfBatchRepository<PdfBatch> pdfBatchRepository, MeterRegistry registry,
+                                 @Value("${application.invoice.pdf.batch.page-size:500}") int pageSize,
+                                 @Value("${application.invoice.pdf.batch.max-batches:2}") int maxBatches,
+                                 @Value("${application.invoice.pdf.batch.stale-timeout:PT5M}") Duration staleTimeout){
+        this.renderer = renderer;
+        this.invoiceRepository = invoiceRepository;
+        this.customerRepository = customerRepository;
+        this.pdfBatchRepository = pdfBatchRepository;
+        this.pageSize = pageSize;
+        this.staleTimeout = staleTimeout;
+        AtomicInteger threads = new AtomicInteger();
+        this.coordinators = Executors.newFixedThreadPool(maxBatches, runnable -> {
+            Thread thread = new Thread(runnable, "invoice-pdf-batch-" + threads.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
+        this.rendered = Counter.builder("invoice.pdf.batch.invoices").tag("result", "rendered").register(registry);
+        this.skipped = Counter.builder("invoice.pdf.batch.invoices").tag("result", "skipped").register(registry);
+        this.failed = Counter.builder("invoice.pdf.batch.invoices").tag("result", "failed").register(registry);
+    }
+
+    @Override
+    public Path getInvoicePdf(Long id) {
+        Invoice invoice = invoiceRepository.get(id);
+        if(renderer.exists(invoice)) return renderer.path(invoice);
+        Customer customer = customerRepository.get(invoice.getCustomerId());
+        try{
+            return renderer.submit(invoice, customer).join();
+        }catch (RejectedExecutionException exception){
+            throw new ApiException("PDF renderer is busy. Please try again later");
+        }catch (CompletionException exception){
+            log.error("Unable to render the PDF of invoice {}: {}", id, exception.getCause().getMessage());
+            throw new ApiException("An error occurred. Please try again.");
+        }
+    }
+
+    @Override
+    public PdfBatch startBatch(LocalDate from, LocalDate to) {
+        if(from.isAfter(to)) throw new ApiException("Start date must not be after end date");
+        if(from.plusDays(MAX_BATCH_DAYS).isBefore(to)) throw new ApiException("A PDF batch cannot span more than " + MAX_BATCH_DAYS + " days");
+        PdfBatch batch = pdfBatchRepository.create(from, to, owner);
+        log.info("Started PDF batch {} for invoices issued from {} to {}", batch.getId(), from, to);
+        schedule(batch);
+        return batch;
+    }
+
+    @Override
+    public PdfBatch resumeBatch(Long id) {
+        PdfBatch batch = pdfBatchRepository.get(id);
+        if(batch.getStatus() == COMPLETED) throw new ApiException("PDF batch " + id + " is already completed");
+        if(batch.getStatus() == RUNNING) throw new ApiException("PDF batch " + id + " is already running");
+        if(!pdfBatchRepository.reopen(id, owner)) throw new ApiException("PDF batch " + id + " could not be resumed");
+        log.info("Resuming PDF batch {} after invoice {}", id, batch.getLastInvoiceId());
+        batch = pdfBatchRepository.get(id);
+        schedule(batch);
+        return batch;
+    }
+
+    @Override
+    public PdfBatch getBatch(Long id) {
+        return pdfBatchRepository.get(id);
+    }
+
+    @Override
+    public List<PdfBatch> getBatches() {
+        return pdfBatchRepository.list(RECENT_BATCHES);
+    }
+
+    @Scheduled(initialDelayString = "${application.invoice.pdf.batch.sweep-interval:PT1M}", fixedDelayString = "${application.invoice.pdf.batch.sweep-interval:PT1M}")
+    public void resumeStaleBatches(){
+        for(Long id : pdfBatchRepository.claimStale(LocalDateTime.now().minus(staleTimeout), owner)){
+            log.info("Taking over stale PDF batch {}", id);
+            schedule(pdfBatchRepository.get(id));
+        }
+    }
+
+    @PreDestroy
+    public void shutdown(){
+        coordinators.shutdownNow();
+    }
+
+    private void schedule(PdfBatch batch){
+        if(!runningBatches.add(batch.getId())) return;
+        try{
+            coordinators.execute(() -> {
+                try{
+                    run(batch);
+                }finally {
+                    runningBatches.remove(batch.getId());
+                }
+            });
+        }catch (RejectedExecutionException exception){
+            runningBatches.remove(batch.getId());
+            throw exception;
+        }
+    }
+
+    private void run(PdfBatch batch){
+        LocalDate afterIssuedAt = batch.getLastIssuedAt();
+        Long afterId = batch.getLastInvoiceId();
+        try{
+            List<Invoice> invoices;
+            do{
+                invoices = invoiceRepository.listIssued(batch.getIssuedFrom(), batch.getIssuedTo(), afterIssuedAt, afterId, pageSize);
+                if(invoices.isEmpty()) break;
+                PageOutcome outcome = renderPage(invoices);
+                int checkpointed = outcome.firstFailure < 0 ? invoices.size() : outcome.firstFailure;
+                if(checkpointed > 0){
+                    Invoice last = invoices.get(checkpointed - 1);
+                    afterIssuedAt = last.getIssuedAt();
+                    afterId = last.getId();
+                }
+                if(!pdfBatchRepository.checkpoint(batch.getId(), owner, afterIssuedAt, afterId, outcome.rendered, outcome.failed)){
+                    log.warn("PDF batch {} was taken over by another node", batch.getId());
+                    return;
+                }
+                if(outcome.firstFailure >= 0){
+                    complete(batch, FAILED, "Unable to render the PDF of invoice " + invoices.get(outcome.firstFailure).getId() + ": " + outcome.failure);
+                    return;
+                }
+            }while(invoices.size() == pageSize && !Thread.currentThread().isInterrupted());
+            if(Thread.currentThread().isInterrupted()) return;
+            complete(batch, COMPLETED, null);
+            log.info("Finished PDF batch {}", batch.getId());
+        }catch (Exception exception){
+            log.error("PDF batch {} failed after invoice {}: {}", batch.getId(), afterId, exception.getMessage());
+            complete(batch, FAILED, exception.getMessage());
+        }
+    }
+
+    private void complete(PdfBatch batch, PdfBatchStatus status, String message){
+        if(!pdfBatchRepository.complete(batch.getId(), owner, status, message)) log.warn("PDF batch {} was taken over by another node", batch.getId());
+    }
+
+    private PageOutcome renderPage(List<Invoice> invoices){
+        Map<Long, Customer> customers = customerRepository.getAll(invoices.stream().map(Invoice::getCustomerId).distinct().toList());
+        List<CompletableFuture<Path>> futures = new ArrayList<>(invoices.size());
+        for(Invoice invoice : invoices){
+            if(renderer.exists(invoice)){
+                skipped.increment();
+                futures.add(null);
+                continue;
+            }
+            try{
+                futures.add(renderer.submit(invoice, customers.get(invoice.getCustomerId())));
+            }catch (RejectedExecutionException exception){
+                futures.add(CompletableFuture.failedFuture(new ApiException("PDF renderer is busy")));
+            }
+        }
+        PageOutcome outcome = new PageOutcome();
+        for(int i = 0; i < futures.size(); i++){
+            if(futures.get(i) == null) continue;
+            try{
+                futures.get(i).join();
+                outcome.rendered++;
+            }catch (CompletionException exception){
+                log.warn("Unable to render the PDF of invoice {}: {}", invoices.get(i).getId(), exception.getCause().getMessage());
+                outcome.failed++;
+                if(outcome.firstFailure < 0){
+                    outcome.firstFailure = i;
+                    outcome.failure = exception.getCause().getMessage();
+                }
+            }
+        }
+        rendered.increment(outcome.rendered);
+        failed.increment(outcome.failed);
+        return outcome;
+    }
+
+    private static class PageOutcome {
+        private long rendered;
+        private long failed;
+        private int firstFailure = -1;
+        private String failure;
+    }
+}
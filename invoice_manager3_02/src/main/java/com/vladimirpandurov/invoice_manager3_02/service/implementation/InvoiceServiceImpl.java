@@ -0,0 +1,130 @@
+package com.vladimirpandurov.invoice_manager3_02.service.implementation;
+
+import com.vladimirpandurov.invoice_manager3_02.domain.Invoice;
+import com.vladimirpandurov.invoice_manager3_02.domain.InvoiceSummary;
+import com.vladimirpandurov.invoice_manager3_02.domain.Page;
+import com.vladimirpandurov.invoice_manager3_02.enumeration.InvoiceStatus;
+import com.vladimirpandurov.invoice_manager3_02.exception.ApiException;
+import com.vladimirpandurov.invoice_manager3_02.pdf.InvoicePdfRenderer;
+import com.vladimirpandurov.invoice_manager3_02.repository.InvoiceRepository;
+import com.vladimirpandurov.invoice_manager3_02.sequence.InvoiceNumberAllocator;
+import com.vladimirpandurov.invoice_manager3_02.service.InvoiceService;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.time.Clock;
+import java.time.LocalDate;
+import java.util.List;
+
+import static com.vladimirpandurov.invoice_manager3_02.enumeration.InvoiceStatus.OVERDUE;
+
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class InvoiceServiceImpl implements InvoiceService {
+
+    private static final int MAX_PAGE_SIZE = 100;
+    private static final int OVERDUE_BATCH_SIZE = 500;
+    private final InvoiceRepository<Invoice> invoiceRepository;
+    private final InvoiceNumberAllocator invoiceNumberAllocator;
+    private final InvoicePdfRenderer invoicePdfRenderer;
+    private final Clock clock;
+
+    @Override
+    public Invoice createInvoice(Invoice invoice) {
+        invoice.setInvoiceNumber(invoiceNumberAllocator.next());
+        return invoiceRepository.create(invoice);
+    }
+
+    @Override
+    public Invoice updateInvoice(Invoice invoice) {
+        if(invoice.getId() == null) throw new ApiException("Invoice id cannot be empty");
+        Invoice updated = invoiceRepository.update(invoice);
+        invoicePdfRenderer.evict(updated.getId());
+        return updated;
+    }
+
+    @Override
+    public Invoice getInvoice(Long id) {
+        return invoiceRepository.get(id);
+    }
+
+    @Override
+    public Page<Invoice> getInvoices(String cursor, int size) {
+        int pageSize = getPageSize(size);
+        return toPage(invoiceRepository.list(decodeCursor(cursor), pageSize), pageSize);
+    }
+
+    @Override
+    public Page<Invoice> getCustomerInvoices(Long customerId, String cursor, int size) {
+        int pageSize = getPageSize(size);
+        return toPage(invoiceRepository.listByCustomer(customerId, decodeCursor(cursor), pageSize), pageSize);
+    }
+
+    @Override
+    public Invoice updateInvoiceStatus(Long id, InvoiceStatus status) {
+        Invoice updated = invoiceRepository.updateStatus(id, status);
+        invoicePdfRenderer.evict(id);
+        return updated;
+    }
+
+    @Override
+    public Boolean deleteInvoice(Long id) {
+        Boolean deleted = invoiceRepository.delete(id);
+        invoicePdfRenderer.evict(id);
+        return deleted;
+    }
+
+    @Override
+    public InvoiceSummary getCustomerSummary(Long customerId) {
+        return invoiceRepository.getCustomerSummary(customerId);
+    }
+
+    @Override
+    public InvoiceSummary getAccountSummary() {
+        return invoiceRepository.getAccountSummary();
+    }
+
+    @Scheduled(cron = "${application.invoice.overdue-cron:0 5 0 * * *}")
+    public void markOverdue(){
+        LocalDate today = LocalDate.now(clock);
+        int marked = 0;
+        int batchMarked;
+        List<Long> ids;
+        do{
+            batchMarked = 0;
+            ids = invoiceRepository.getOverdueIds(today, OVERDUE_BATCH_SIZE);
+            for(Long id : ids){
+                try{
+                    invoiceRepository.updateStatus(id, OVERDUE);
+                    invoicePdfRenderer.evict(id);
+                    batchMarked++;
+                }catch (ApiException exception){
+                    log.warn("Unable to mark invoice {} overdue: {}", id, exception.getMessage());
+                }
+            }
+            marked += batchMarked;
+        }while(ids.size() == OVERDUE_BATCH_SIZE && batchMarked > 0);
+        log.info("Marked {} invoices overdue", marked);
+    }
+
+    private static Page<Invoice> toPage(List<Invoice> invoices, int pageSize) {
+        String nextCursor = invoices.size() < pageSize ? null : Long.toString(invoices.get(invoices.size() - 1).getId());
+        return new Page<>(invoices, nextCursor);
+    }
+
+    private static int getPageSize(int size) {
+        return Math.max(1, Math.min(MAX_PAGE_SIZE, size));
+    }
+
+    private static Long decodeCursor(String cursor) {
+        if(cursor == null) return null;
+        try{
+            return Long.parseLong(cursor);
+        }catch (NumberFormatException exception){
+            throw new ApiException("Invalid cursor");
+        }
+    }
+}
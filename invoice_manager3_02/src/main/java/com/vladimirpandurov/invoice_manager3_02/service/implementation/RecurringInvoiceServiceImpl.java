@@ -0,0 +1,79 @@
+package com.vladimirpandurov.invoice_manager3_02.service.implementation;
+
+import com.vladimirpandurov.invoice_manager3_02.domain.Page;
+import com.vladimirpandurov.invoice_manager3_02.domain.RecurringBillingStatus;
+import com.vladimirpandurov.invoice_manager3_02.domain.RecurringSchedule;
+import com.vladimirpandurov.invoice_manager3_02.exception.ApiException;
+import com.vladimirpandurov.invoice_manager3_02.recurring.RecurringBillingScheduler;
+import com.vladimirpandurov.invoice_manager3_02.repository.RecurringScheduleRepository;
+import com.vladimirpandurov.invoice_manager3_02.service.RecurringInvoiceService;
+import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.time.Clock;
+import java.time.LocalDateTime;
+import java.util.Currency;
+import java.util.List;
+
+@Service
+@RequiredArgsConstructor
+public class RecurringInvoiceServiceImpl implements RecurringInvoiceService {
+
+    private static final int MAX_PAGE_SIZE = 100;
+    private static final int MAX_DESCRIPTION_LENGTH = 255;
+    private final RecurringScheduleRepository<RecurringSchedule> scheduleRepository;
+    private final RecurringBillingScheduler scheduler;
+    private final Clock clock;
+    @Value("${application.invoice.currency:USD}")
+    private Currency currency;
+
+    @Override
+    public RecurringSchedule createSchedule(RecurringSchedule schedule) {
+        if(schedule.getDescription().length() > MAX_DESCRIPTION_LENGTH) throw new ApiException("Description cannot be longer than " + MAX_DESCRIPTION_LENGTH + " characters");
+        if(!currency.equals(schedule.getUnitPrice().getCurrency())) throw new ApiException("Recurring invoices must be priced in " + currency.getCurrencyCode());
+        if(schedule.getUnitPrice().signum() < 0) throw new ApiException("Unit price cannot be negative");
+        if(schedule.getNextRunAt().isBefore(LocalDateTime.now(clock))) throw new ApiException("First run cannot be in the past");
+        schedule.setPartition(Math.floorMod(schedule.getCustomerId(), RecurringBillingScheduler.PARTITIONS));
+        schedule.setAnchorDay(schedule.getNextRunAt().getDayOfMonth());
+        RecurringSchedule created = scheduleRepository.create(schedule);
+        scheduler.register(created);
+        return created;
+    }
+
+    @Override
+    public RecurringSchedule getSchedule(Long id) {
+        return scheduleRepository.get(id);
+    }
+
+    @Override
+    public Page<RecurringSchedule> getSchedules(String cursor, int size) {
+        int pageSize = Math.max(1, Math.min(MAX_PAGE_SIZE, size));
+        List<RecurringSchedule> schedules = scheduleRepository.list(decodeCursor(cursor), pageSize);
+        String nextCursor = schedules.size() < pageSize ? null : Long.toString(schedules.get(schedules.size() - 1).getId());
+        return new Page<>(schedules, nextCursor);
+    }
+
+    @Override
+    public RecurringSchedule cancelSchedule(Long id) {
+        RecurringSchedule schedule = scheduleRepository.get(id);
+        if(!schedule.isActive()) throw new ApiException("Recurring schedule " + id + " is already cancelled");
+        if(!scheduleRepository.cancel(id)) throw new ApiException("Recurring schedule " + id + " could not be cancelled");
+        schedule.setActive(false);
+        return schedule;
+    }
+
+    @Override
+    public RecurringBillingStatus getStatus() {
+        return scheduler.status();
+    }
+
+    private static Long decodeCursor(String cursor) {
+        if(cursor == null) return null;
+        try{
+            return Long.parseLong(cursor);
+        }catch (NumberFormatException exception){
+            throw new ApiException("Invalid cursor");
+        }
+    }
+}
@@ -0,0 +1,72 @@
+package com.vladimirpandurov.invoice_manager3_02.service.implementation;
+
+import com.vladimirpandurov.invoice_manager3_02.domain.RefreshToken;
+import com.vladimirpandurov.invoice_manager3_02.exception.ApiException;
+import com.vladimirpandurov.invoice_manager3_02.exception.RefreshTokenReuseException;
+import com.vladimirpandurov.invoice_manager3_02.index.RefreshTokenIndex;
+import com.vladimirpandurov.invoice_manager3_02.repository.RefreshTokenRepository;
+import com.vladimirpandurov.invoice_manager3_02.service.RefreshTokenService;
+import com.vladimirpandurov.invoice_manager3_02.utils.TokenIds;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDateTime;
+
+import static com.vladimirpandurov.invoice_manager3_02.provider.TokenProvider.REFRESH_TOKEN_EXPIRATION_TIME;
+
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class RefreshTokenServiceImpl implements RefreshTokenService {
+
+    private final RefreshTokenRepository<RefreshToken> refreshTokenRepository;
+    private final RefreshTokenIndex refreshTokenIndex;
+
+    @Override
+    public RefreshToken issue(Long userId) {
+        long tokenId = TokenIds.next();
+        return create(tokenId, tokenId, userId);
+    }
+
+    @Override
+    @Transactional(noRollbackFor = RefreshTokenReuseException.class)
+    public RefreshToken rotate(Long tokenId, Long familyId, Long userId) {
+        if(!refreshTokenIndex.isActive(tokenId)){
+            RefreshToken stored = refreshTokenRepository.get(tokenId);
+            if(stored == null || !stored.getFamilyId().equals(familyId) || !stored.getUserId().equals(userId)) throw new ApiException("Refresh Token missing or invalid");
+        }
+        if(!refreshTokenRepository.markUsed(tokenId)){
+            refreshTokenIndex.remove(tokenId);
+            refreshTokenRepository.revokeFamily(familyId);
+            log.warn("Refresh token reuse detected for user id: {}, revoking token family {}", userId, familyId);
+            throw new RefreshTokenReuseException("Refresh Token missing or invalid");
+        }
+        refreshTokenIndex.remove(tokenId);
+        return create(TokenIds.next(), familyId, userId);
+    }
+
+    @Override
+    public void revokeFamily(Long familyId) {
+        refreshTokenRepository.revokeFamily(familyId);
+    }
+
+    @Scheduled(cron = "${application.refresh-token.cleanup-cron:0 0 3 * * *}")
+    public void deleteExpired(){
+        int deleted = refreshTokenRepository.deleteExpired(LocalDateTime.now());
+        log.info("Deleted {} expired refresh tokens", deleted);
+    }
+
+    private RefreshToken create(long tokenId, long familyId, Long userId){
+        RefreshToken refreshToken = refreshTokenRepository.create(RefreshToken.builder()
+                .id(tokenId)
+                .familyId(familyId)
+                .userId(userId)
+                .expiresAt(LocalDateTime.now().plusNanos(REFRESH_TOKEN_EXPIRATION_TIME * 1_000_000))
+                .build());
+        refreshTokenIndex.add(refreshToken);
+        return refreshToken;
+    }
+}
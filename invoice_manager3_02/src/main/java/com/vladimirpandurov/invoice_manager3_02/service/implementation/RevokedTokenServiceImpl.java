@@ -0,0 +1,37 @@
+package com.vladimirpandurov.invoice_manager3_02.service.implementation;
+
+import com.vladimirpandurov.invoice_manager3_02.domain.RevokedToken;
+import com.vladimirpandurov.invoice_manager3_02.index.RevokedTokenIndex;
+import com.vladimirpandurov.invoice_manager3_02.repository.RevokedTokenRepository;
+import com.vladimirpandurov.invoice_manager3_02.service.RevokedTokenService;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.time.LocalDateTime;
+
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class RevokedTokenServiceImpl implements RevokedTokenService {
+
+    private final RevokedTokenRepository<RevokedToken> revokedTokenRepository;
+    private final RevokedTokenIndex revokedTokenIndex;
+
+    @Override
+    public void revoke(Long tokenId, Long userId, LocalDateTime expiresAt) {
+        revokedTokenRepository.create(RevokedToken.builder()
+                .tokenId(tokenId)
+                .userId(userId)
+                .expiresAt(expiresAt)
+                .build());
+        revokedTokenIndex.add(tokenId, expiresAt);
+    }
+
+    @Scheduled(cron = "${application.revoked-token.cleanup-cron:0 30 3 * * *}")
+    public void deleteExpired(){
+        int deleted = revokedTokenRepository.deleteExpired(LocalDateTime.now());
+        log.info("Deleted {} expired revoked tokens", deleted);
+    }
+}
@@ -3,19 +3,25 @@ package com.vladimirpandurov.invoice_manager3_02.service.implementation;
 import com.vladimirpandurov.invoice_manager3_02.domain.Role;
 import com.vladimirpandurov.invoice_manager3_02.repository.RoleRepository;
 import com.vladimirpandurov.invoice_manager3_02.service.RoleService;
-import lombok.RequiredArgsConstructor;
+import com.vladimirpandurov.invoice_manager3_02.utils.SingleFlight;
+import io.micrometer.core.instrument.MeterRegistry;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.stereotype.Service;
 
 @Service
-@RequiredArgsConstructor
 @Slf4j
 public class RoleServiceImpl implements RoleService {
 
     private final RoleRepository roleRepository;
+    private final SingleFlight<Long, Role> roleLookups;
+
+    public RoleServiceImpl(RoleRepository roleRepository, MeterRegistry registry){
+        this.roleRepository = roleRepository;
+        this.roleLookups = new SingleFlight<>("role_by_user_id", registry);
+    }
 
     @Override
     public Role getRoleByUserId(Long userId) {
-        return this.roleRepository.getRoleByUserId(userId);
+        return roleLookups.load(userId, () -> this.roleRepository.getRoleByUserId(userId));
     }
 }
@@ -0,0 +1,78 @@
+package com.vladimirpandurov.invoice_manager3_02.service.implementation;
+
+import com.vladimirpandurov.invoice_manager3_02.domain.Customer;
+import com.vladimirpandurov.invoice_manager3_02.domain.Invoice;
+import com.vladimirpandurov.invoice_manager3_02.domain.Page;
+import com.vladimirpandurov.invoice_manager3_02.exception.ApiException;
+import com.vladimirpandurov.invoice_manager3_02.index.SearchIndex;
+import com.vladimirpandurov.invoice_manager3_02.repository.CustomerRepository;
+import com.vladimirpandurov.invoice_manager3_02.repository.InvoiceRepository;
+import com.vladimirpandurov.invoice_manager3_02.service.SearchService;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Service;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class SearchServiceImpl implements SearchService {
+
+    private static final int MAX_PAGE_SIZE = 100;
+    private static final int MAX_QUERY_LENGTH = 200;
+    private final SearchIndex searchIndex;
+    private final CustomerRepository<Customer> customerRepository;
+    private final InvoiceRepository<Invoice> invoiceRepository;
+
+    @Override
+    public Page<Customer> searchCustomers(String query, String cursor, int size) {
+        int pageSize = getPageSize(size);
+        int[] ids = searchIndex.searchCustomers(validate(query), decodeCursor(cursor), pageSize);
+        return toPage(ids, customerRepository.getAll(toList(ids)), pageSize);
+    }
+
+    @Override
+    public Page<Invoice> searchInvoices(String query, String cursor, int size) {
+        int pageSize = getPageSize(size);
+        int[] ids = searchIndex.searchInvoices(validate(query), decodeCursor(cursor), pageSize);
+        return toPage(ids, invoiceRepository.getAll(toList(ids)), pageSize);
+    }
+
+    private String validate(String query){
+        if(!searchIndex.isReady()) throw new ApiException("Search is not available yet. Please try again later");
+        if(query == null || query.isBlank()) throw new ApiException("Search query cannot be empty");
+        if(query.length() > MAX_QUERY_LENGTH) throw new ApiException("Search query cannot be longer than " + MAX_QUERY_LENGTH + " characters");
+        return query;
+    }
+
+    private static <T> Page<T> toPage(int[] ids, Map<Long, T> found, int pageSize){
+        List<T> content = new ArrayList<>(ids.length);
+        for(int id : ids){
+            T item = found.get((long) id);
+            if(item != null) content.add(item);
+        }
+        String nextCursor = ids.length < pageSize ? null : Integer.toString(ids[ids.length - 1]);
+        return new Page<>(content, nextCursor);
+    }
+
+    private static List<Long> toList(int[] ids){
+        return Arrays.stream(ids).mapToObj(id -> (long) id).toList();
+    }
+
+    private static int getPageSize(int size) {
+        return Math.max(1, Math.min(MAX_PAGE_SIZE, size));
+    }
+
+    private static int decodeCursor(String cursor) {
+        if(cursor == null) return Integer.MAX_VALUE;
+        try{
+            return Integer.parseInt(cursor);
+        }catch (NumberFormatException exception){
+            throw new ApiException("Invalid cursor");
+        }
+    }
+}
@@ -1,25 +1,30 @@
 package com.vladimirpandurov.invoice_manager3_02.service.implementation;
 
-import com.vladimirpandurov.invoice_manager3_02.domain.Role;
 import com.vladimirpandurov.invoice_manager3_02.domain.User;
 import com.vladimirpandurov.invoice_manager3_02.dto.UserDTO;
-import com.vladimirpandurov.invoice_manager3_02.dtomapper.UserDTOMapper;
-import com.vladimirpandurov.invoice_manager3_02.repository.RoleRepository;
 import com.vladimirpandurov.invoice_manager3_02.repository.UserRepository;
+import com.vladimirpandurov.invoice_manager3_02.service.RoleService;
 import com.vladimirpandurov.invoice_manager3_02.service.UserService;
-import lombok.RequiredArgsConstructor;
+import com.vladimirpandurov.invoice_manager3_02.utils.SingleFlight;
+import io.micrometer.core.instrument.MeterRegistry;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.stereotype.Service;
 
 import static com.vladimirpandurov.invoice_manager3_02.dtomapper.UserDTOMapper.fromUser;
 
 @Service
-@RequiredArgsConstructor
 @Slf4j
 public class UserServiceImpl implements UserService {
 
     private final UserRepository<User> userRepository;
-    private final RoleRepository<Role> roleRepository;
+    private final RoleService roleService;
+    private final SingleFlight<String, UserDTO> userLookups;
+
+    public UserServiceImpl(UserRepository<User> userRepository, RoleService roleService, MeterRegistry registry){
+        this.userRepository = userRepository;
+        this.roleService = roleService;
+        this.userLookups = new SingleFlight<>("user_by_email", registry);
+    }
 
     @Override
     public UserDTO createUser(User user) {
@@ -28,7 +33,7 @@ public class UserServiceImpl implements UserService {
 
     @Override
     public UserDTO getUserByEmail(String email) {
-        return mapToUserDTO(userRepository.getUserByEmail(email));
+        return userLookups.load(email.trim().toLowerCase(), () -> mapToUserDTO(userRepository.getUserByEmail(email)));
     }
 
     @Override
@@ -62,6 +67,6 @@ public class UserServiceImpl implements UserService {
     }
 
     private UserDTO mapToUserDTO(User user){
-        return fromUser(user, roleRepository.getRoleByUserId(user.getId()));
+        return fromUser(user, roleService.getRoleByUserId(user.getId()));
     }
 }
@@ -0,0 +1,199 @@
+package com.vladimirpandurov.invoice_manager3_02.statistics;
+
+import com.vladimirpandurov.invoice_manager3_02.domain.DashboardStats;
+import com.vladimirpandurov.invoice_manager3_02.domain.InvoiceStatusStats;
+import com.vladimirpandurov.invoice_manager3_02.domain.Money;
+import com.vladimirpandurov.invoice_manager3_02.domain.MonthlyRevenue;
+import com.vladimirpandurov.invoice_manager3_02.repository.StatisticsRepository;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.time.YearMonth;
+import java.util.ArrayList;
+import java.util.Currency;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.ReentrantLock;
+
+import static com.vladimirpandurov.invoice_manager3_02.enumeration.InvoiceStatus.*;
+import static java.util.concurrent.TimeUnit.NANOSECONDS;
+
+@Component
+@Slf4j
+public class DashboardStatistics {
+
+    private final StatisticsRepository statisticsRepository;
+    private final Clock clock;
+    private final Currency currency;
+    private final int months;
+    private final long refreshAfterWrites;
+    private final Duration minRefreshInterval;
+    private final AtomicLong pendingWrites = new AtomicLong();
+    private final AtomicBoolean refreshScheduled = new AtomicBoolean();
+    private final ScheduledExecutorService refresher;
+    private final ReentrantLock refreshLock = new ReentrantLock();
+    private final Timer refreshTimer;
+    private final Counter refreshFailures;
+    private final DistributionSummary servedAge;
+    private volatile DashboardStats snapshot;
+    private volatile long refreshedAtMillis;
+    private volatile long refreshedAtNanos = System.nanoTime();
+
+    public DashboardStatistics(StatisticsRepository statisticsRepository, MeterRegistry registry, Clock clock,
+                               @Value("${application.invoice.currency:USD}") Currency currency,
+                               @Value("${application.dashboard.months:12}") int months,
+                               @Value("${application.dashboard.refresh-after-writes:50}") long refreshAfterWrites,
+                               @Value("${application.dashboard.min-refresh-interval:PT5S}") Duration minRefreshInterval){
+        this.statisticsRepository = statisticsRepository;
+        this.clock = clock;
+        this.currency = currency;
+        this.months = Math.max(1, months);
+        this.refreshAfterWrites = Math.max(1, refreshAfterWrites);
+        this.minRefreshInterval = minRefreshInterval;
+        this.refresher = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "dashboard-refresh");
+            thread.setDaemon(true);
+            return thread;
+        });
+        this.refreshTimer = Timer.builder("dashboard.refresh")
+                .description("Time to recompute the dashboard statistics snapshot")
+                .publishPercentiles(0.5, 0.99)
+                .register(registry);
+        this.refreshFailures = Counter.builder("dashboard.refresh.failures").register(registry);
+        this.servedAge = DistributionSummary.builder("dashboard.served.age")
+                .description("Age of the dashboard snapshot when it was served")
+                .baseUnit("milliseconds")
+                .publishPercentiles(0.5, 0.99)
+                .register(registry);
+        Gauge.builder("dashboard.staleness", this, statistics -> statistics.snapshot == null ? Double.NaN : (statistics.clock.millis() - statistics.refreshedAtMillis) / 1000.0)
+                .description("Seconds since the dashboard snapshot was computed")
+                .baseUnit("seconds")
+                .register(registry);
+        Gauge.builder("dashboard.pending_writes", pendingWrites, AtomicLong::get).register(registry);
+    }
+
+    public DashboardStats get(){
+        DashboardStats current = snapshot;
+        if(current != null) servedAge.record(clock.millis() - refreshedAtMillis);
+        return current;
+    }
+
+    public void recordWrites(int count){
+        if(!TransactionSynchronizationManager.isSynchronizationActive()){
+            addWrites(count);
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                addWrites(count);
+            }
+        });
+    }
+
+    private void addWrites(int count){
+        if(pendingWrites.addAndGet(count) < refreshAfterWrites || !refreshScheduled.compareAndSet(false, true)) return;
+        long delay = Math.max(0, refreshedAtNanos + minRefreshInterval.toNanos() - System.nanoTime());
+        try{
+            refresher.schedule(() -> {
+                refreshScheduled.set(false);
+                refresh();
+            }, delay, NANOSECONDS);
+        }catch (RejectedExecutionException exception){
+            refreshScheduled.set(false);
+        }
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void load(){
+        refresher.execute(this::refresh);
+    }
+
+    @Scheduled(initialDelayString = "${application.dashboard.refresh-interval:PT1M}", fixedDelayString = "${application.dashboard.refresh-interval:PT1M}")
+    public void refresh(){
+        refreshLock.lock();
+        try{
+            recompute();
+        }finally {
+            refreshLock.unlock();
+        }
+    }
+
+    @PreDestroy
+    public void shutdown(){
+        refresher.shutdownNow();
+    }
+
+    private void recompute(){
+        long start = System.nanoTime();
+        pendingWrites.set(0);
+        try{
+            Map<String, Long> customersByStatus = statisticsRepository.countCustomersByStatus();
+            List<InvoiceStatusStats> invoicesByStatus = statisticsRepository.sumInvoicesByStatus();
+            YearMonth current = YearMonth.now(clock);
+            YearMonth first = current.minusMonths(months - 1);
+            List<MonthlyRevenue> revenueByMonth = fillMonths(statisticsRepository.sumRevenueByMonth(first.atDay(1)), first, current);
+            long invoiceCount = 0;
+            long billed = 0;
+            long outstanding = 0;
+            for(InvoiceStatusStats stats : invoicesByStatus){
+                invoiceCount += stats.getInvoiceCount();
+                if(stats.getStatus() != CANCELLED) billed = Math.addExact(billed, stats.getTotal().getMinorUnits());
+                if(stats.getStatus() == PENDING || stats.getStatus() == OVERDUE) outstanding = Math.addExact(outstanding, stats.getTotal().getMinorUnits());
+            }
+            long elapsed = System.nanoTime() - start;
+            snapshot = DashboardStats.builder()
+                    .refreshedAt(LocalDateTime.now(clock))
+                    .refreshMillis(elapsed / 1_000_000)
+                    .customerCount(customersByStatus.values().stream().mapToLong(Long::longValue).sum())
+                    .customersByStatus(Map.copyOf(customersByStatus))
+                    .invoiceCount(invoiceCount)
+                    .totalBilled(Money.ofMinor(billed, currency))
+                    .outstanding(Money.ofMinor(outstanding, currency))
+                    .invoicesByStatus(List.copyOf(invoicesByStatus))
+                    .revenueByMonth(revenueByMonth)
+                    .build();
+            refreshedAtMillis = clock.millis();
+            refreshedAtNanos = System.nanoTime();
+            refreshTimer.record(elapsed, NANOSECONDS);
+        }catch (Exception exception){
+            refreshFailures.increment();
+            log.error("Unable to refresh dashboard statistics: {}", exception.getMessage());
+        }
+    }
+
+    private List<MonthlyRevenue> fillMonths(List<MonthlyRevenue> revenue, YearMonth first, YearMonth last){
+        Map<YearMonth, MonthlyRevenue> byMonth = new HashMap<>();
+        revenue.forEach(month -> byMonth.put(month.getMonth(), month));
+        List<MonthlyRevenue> filled = new ArrayList<>(months);
+        for(YearMonth month = first; !month.isAfter(last); month = month.plusMonths(1)){
+            filled.add(byMonth.getOrDefault(month, MonthlyRevenue.builder()
+                    .month(month)
+                    .billed(Money.zero(currency))
+                    .paid(Money.zero(currency))
+                    .build()));
+        }
+        return List.copyOf(filled);
+    }
+}
@@ -0,0 +1,90 @@
+package com.vladimirpandurov.invoice_manager3_02.utils;
+
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+public class BloomFilter {
+
+    private static final double LN2 = Math.log(2);
+    private final AtomicLongArray words;
+    private final long bitCount;
+    private final int hashCount;
+    private final long capacity;
+    private final AtomicLong size = new AtomicLong();
+
+    public BloomFilter(long capacity, double falsePositiveProbability){
+        this.capacity = Math.max(1, capacity);
+        long bits = (long) Math.ceil(-this.capacity * Math.log(falsePositiveProbability) / (LN2 * LN2));
+        int wordCount = (int) Math.max(1, (bits + 63) >>> 6);
+        this.words = new AtomicLongArray(wordCount);
+        this.bitCount = (long) wordCount << 6;
+        this.hashCount = Math.max(1, (int) Math.round((double) bitCount / this.capacity * LN2));
+    }
+
+    public void add(String value){
+        long hash = hash(value);
+        long h1 = hash;
+        long h2 = mix(hash ^ 0x9E3779B97F4A7C15L) | 1;
+        for(int i = 0; i < hashCount; i++){
+            long bit = Long.remainderUnsigned(h1 + i * h2, bitCount);
+            int index = (int) (bit >>> 6);
+            long mask = 1L << bit;
+            long word;
+            do{
+                word = words.get(index);
+                if((word & mask) != 0) break;
+            }while(!words.compareAndSet(index, word, word | mask));
+        }
+        size.incrementAndGet();
+    }
+
+    public boolean mightContain(String value){
+        long hash = hash(value);
+        long h1 = hash;
+        long h2 = mix(hash ^ 0x9E3779B97F4A7C15L) | 1;
+        for(int i = 0; i < hashCount; i++){
+            long bit = Long.remainderUnsigned(h1 + i * h2, bitCount);
+            if((words.get((int) (bit >>> 6)) & (1L << bit)) == 0) return false;
+        }
+        return true;
+    }
+
+    public boolean isFull(){
+        return size.get() >= capacity;
+    }
+
+    public long capacity(){
+        return capacity;
+    }
+
+    public long size(){
+        return size.get();
+    }
+
+    public long sizeInBytes(){
+        return bitCount >>> 3;
+    }
+
+    public double expectedFalsePositiveProbability(){
+        return Math.pow(1 - Math.exp(-(double) hashCount * size.get() / bitCount), hashCount);
+    }
+
+    private static long hash(String value){
+        long hash = 0xCBF29CE484222325L;
+        for(byte b : value.getBytes(StandardCharsets.UTF_8)){
+            hash ^= b & 0xFF;
+            hash *= 0x100000001B3L;
+        }
+        return mix(hash);
+    }
+
+    private static long mix(long hash){
+        hash ^= hash >>> 33;
+        hash *= 0xFF51AFD7ED558CCDL;
+        hash ^= hash >>> 33;
+        hash *= 0xC4CEB9FE1A85EC53L;
+        hash ^= hash >>> 33;
+        return hash;
+    }
+}
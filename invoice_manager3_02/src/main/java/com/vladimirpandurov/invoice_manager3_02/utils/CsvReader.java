@@ -0,0 +1,95 @@
+package com.vladimirpandurov.invoice_manager3_02.utils;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.Reader;
+import java.util.ArrayList;
+import java.util.List;
+
+public class CsvReader implements Closeable {
+
+    private static final int BUFFER_SIZE = 64 * 1024;
+    private final Reader reader;
+    private final char[] buffer = new char[BUFFER_SIZE];
+    private final StringBuilder field = new StringBuilder(64);
+    private final List<String> record = new ArrayList<>(16);
+    private int position;
+    private int limit;
+    private long lineNumber;
+
+    public CsvReader(Reader reader){
+        this.reader = reader;
+    }
+
+    @Override
+    public void close() throws IOException {
+        reader.close();
+    }
+
+    public String[] next() throws IOException {
+        record.clear();
+        field.setLength(0);
+        int c = read();
+        if(c == -1) return null;
+        lineNumber++;
+        boolean quoted = false;
+        boolean fieldStarted = false;
+        while(true){
+            if(quoted){
+                if(c == -1) throw new IOException("Unterminated quoted field on line " + lineNumber);
+                if(c == '"'){
+                    int following = read();
+                    if(following == '"'){
+                        field.append('"');
+                    }else{
+                        quoted = false;
+                        c = following;
+                        continue;
+                    }
+                }else{
+                    if(c == '\n') lineNumber++;
+                    field.append((char) c);
+                }
+            }else if(c == ','){
+                endField();
+                fieldStarted = false;
+            }else if(c == '\n' || c == -1){
+                break;
+            }else if(c == '\r'){
+                int following = read();
+                if(following != '\n' && following != -1) position--;
+                break;
+            }else if(c == '"' && !fieldStarted){
+                quoted = true;
+                fieldStarted = true;
+            }else{
+                field.append((char) c);
+                fieldStarted = true;
+            }
+            c = read();
+        }
+        endField();
+        return record.toArray(new String[0]);
+    }
+
+    public long getLineNumber(){
+        return lineNumber;
+    }
+
+    private void endField(){
+        record.add(field.toString());
+        field.setLength(0);
+    }
+
+    private int read() throws IOException {
+        if(position == limit){
+            limit = reader.read(buffer, 0, BUFFER_SIZE);
+            position = 0;
+            if(limit <= 0){
+                limit = 0;
+                return -1;
+            }
+        }
+        return buffer[position++];
+    }
+}
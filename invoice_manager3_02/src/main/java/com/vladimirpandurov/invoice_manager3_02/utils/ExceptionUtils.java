@@ -1,6 +1,7 @@
 package com.vladimirpandurov.invoice_manager3_02.utils;
 
 import com.auth0.jwt.exceptions.InvalidClaimException;
+import com.auth0.jwt.exceptions.JWTVerificationException;
 import com.auth0.jwt.exceptions.TokenExpiredException;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import com.vladimirpandurov.invoice_manager3_02.domain.HttpResponse;
@@ -18,6 +19,7 @@ import java.time.LocalDateTime;
 
 import static org.springframework.http.HttpStatus.BAD_REQUEST;
 import static org.springframework.http.HttpStatus.INTERNAL_SERVER_ERROR;
+import static org.springframework.http.HttpStatus.UNAUTHORIZED;
 import static org.springframework.http.MediaType.APPLICATION_JSON_VALUE;
 
 @Slf4j
@@ -32,6 +34,9 @@ public class ExceptionUtils {
         exception instanceof TokenExpiredException){
             HttpResponse httpResponse = getHttpResponse(response, exception.getMessage(), BAD_REQUEST);
             writeResponse(response, httpResponse);
+        }else if(exception instanceof JWTVerificationException){
+            HttpResponse httpResponse = getHttpResponse(response, exception.getMessage(), UNAUTHORIZED);
+            writeResponse(response, httpResponse);
         }else{
             HttpResponse httpResponse = getHttpResponse(response, "An error occurred. Please try again", INTERNAL_SERVER_ERROR);
             writeResponse(response, httpResponse);
@@ -39,6 +44,10 @@ public class ExceptionUtils {
         log.error(exception.getMessage());
     }
 
+    public static void processError(HttpServletResponse response, String message, HttpStatus httpStatus){
+        writeResponse(response, getHttpResponse(response, message, httpStatus));
+    }
+
     private static void writeResponse(HttpServletResponse response, HttpResponse httpResponse){
         OutputStream out;
         try{
@@ -0,0 +1,78 @@
+package com.vladimirpandurov.invoice_manager3_02.utils;
+
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+
+import java.io.IOException;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.channels.WritableByteChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+import static jakarta.servlet.http.HttpServletResponse.SC_PARTIAL_CONTENT;
+import static jakarta.servlet.http.HttpServletResponse.SC_REQUESTED_RANGE_NOT_SATISFIABLE;
+import static java.nio.file.StandardOpenOption.READ;
+import static org.springframework.http.HttpHeaders.*;
+
+public class FileSender {
+
+    private static final String SENDFILE_SUPPORT = "org.apache.tomcat.sendfile.support";
+    private static final String SENDFILE_FILENAME = "org.apache.tomcat.sendfile.filename";
+    private static final String SENDFILE_START = "org.apache.tomcat.sendfile.start";
+    private static final String SENDFILE_END = "org.apache.tomcat.sendfile.end";
+    private static final String BYTES_UNIT = "bytes=";
+
+    public static void send(HttpServletRequest request, HttpServletResponse response, Path path, String contentType) throws IOException {
+        try(FileChannel channel = FileChannel.open(path, READ)){
+            long length = channel.size();
+            long[] range = parseRange(request.getHeader(RANGE), length);
+            response.setContentType(contentType);
+            response.setHeader(ACCEPT_RANGES, "bytes");
+            response.setDateHeader(LAST_MODIFIED, Files.getLastModifiedTime(path).toMillis());
+            if(range == null){
+                response.setHeader(CONTENT_RANGE, "bytes */" + length);
+                response.setStatus(SC_REQUESTED_RANGE_NOT_SATISFIABLE);
+                return;
+            }
+            long start = range[0];
+            long end = range[1];
+            if(start != 0 || end != length){
+                response.setStatus(SC_PARTIAL_CONTENT);
+                response.setHeader(CONTENT_RANGE, "bytes " + start + "-" + (end - 1) + "/" + length);
+            }
+            response.setContentLengthLong(end - start);
+            if(Boolean.TRUE.equals(request.getAttribute(SENDFILE_SUPPORT))){
+                request.setAttribute(SENDFILE_FILENAME, path.toAbsolutePath().toString());
+                request.setAttribute(SENDFILE_START, start);
+                request.setAttribute(SENDFILE_END, end);
+                return;
+            }
+            WritableByteChannel output = Channels.newChannel(response.getOutputStream());
+            while(start < end){
+                start += channel.transferTo(start, end - start, output);
+            }
+        }
+    }
+
+    private static long[] parseRange(String header, long length){
+        if(header == null || !header.startsWith(BYTES_UNIT) || header.indexOf(',') >= 0) return new long[]{0, length};
+        String spec = header.substring(BYTES_UNIT.length()).trim();
+        int dash = spec.indexOf('-');
+        if(dash < 0) return new long[]{0, length};
+        try{
+            if(dash == 0){
+                long suffix = Long.parseLong(spec.substring(1));
+                if(suffix <= 0 || length == 0) return null;
+                return new long[]{Math.max(0, length - suffix), length};
+            }
+            long start = Long.parseLong(spec.substring(0, dash));
+            long last = dash == spec.length() - 1 ? Long.MAX_VALUE : Long.parseLong(spec.substring(dash + 1));
+            if(last < start) return new long[]{0, length};
+            if(start >= length) return null;
+            return new long[]{start, Math.min(length - 1, last) + 1};
+        }catch (NumberFormatException exception){
+            return new long[]{0, length};
+        }
+    }
+}
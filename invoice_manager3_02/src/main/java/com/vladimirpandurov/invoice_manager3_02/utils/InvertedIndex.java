@@ -0,0 +1,281 @@
+package com.vladimirpandurov.invoice_manager3_02.utils;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.SortedMap;
+import java.util.TreeMap;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+public class InvertedIndex {
+
+    private static final int MAX_TOKEN_LENGTH = 32;
+    private static final int MAX_QUERY_TOKENS = 8;
+    private static final int BITSET_DENSITY = 32;
+    private static final int TERM_OVERHEAD_BYTES = 40 + 24 + 16 + 16;
+    private static final int DOCUMENT_OVERHEAD_BYTES = 16 + 4;
+    private static final String[] NO_TERMS = new String[0];
+    private final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
+    private final TreeMap<String, int[]> terms = new TreeMap<>();
+    private String[][] documents = new String[1024][];
+    private int size;
+    private long termChars;
+    private long postingSlots;
+    private long documentTerms;
+
+    public void put(int id, String... fields){
+        if(id <= 0) throw new IllegalArgumentException("Document id must be positive");
+        String[] tokens = tokenize(Integer.MAX_VALUE, fields);
+        lock.writeLock().lock();
+        try{
+            remove(id);
+            if(tokens.length == 0) return;
+            if(id >= documents.length) documents = Arrays.copyOf(documents, Math.max(id + 1, documents.length * 2));
+            for(int i = 0; i < tokens.length; i++){
+                Map.Entry<String, int[]> entry = terms.ceilingEntry(tokens[i]);
+                if(entry != null && entry.getKey().equals(tokens[i])){
+                    tokens[i] = entry.getKey();
+                    int[] postings = entry.getValue();
+                    int[] added = add(postings, id);
+                    if(added != postings){
+                        postingSlots += added.length - postings.length;
+                        terms.put(tokens[i], added);
+                    }
+                }else{
+                    terms.put(tokens[i], new int[]{1, id});
+                    termChars += tokens[i].length();
+                    postingSlots += 2;
+                }
+            }
+            documents[id] = tokens;
+            documentTerms += tokens.length;
+            size++;
+        }finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public void remove(int id){
+        lock.writeLock().lock();
+        try{
+            String[] tokens = id > 0 && id < documents.length ? documents[id] : null;
+            if(tokens == null) return;
+            for(String token : tokens){
+                int[] postings = terms.get(token);
+                int[] removed = remove(postings, id);
+                postingSlots -= postings.length - removed.length;
+                if(removed[0] == 0){
+                    terms.remove(token);
+                    termChars -= token.length();
+                    postingSlots -= removed.length;
+                }else if(removed != postings){
+                    terms.put(token, removed);
+                }
+            }
+            documents[id] = null;
+            documentTerms -= tokens.length;
+            size--;
+        }finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public int[] search(String query, int beforeId, int limit){
+        String[] tokens = tokenize(MAX_QUERY_TOKENS, query);
+        if(tokens.length == 0 || limit <= 0) return new int[0];
+        lock.readLock().lock();
+        try{
+            int driver = -1;
+            long driverTotal = Long.MAX_VALUE;
+            for(int i = 0; i < tokens.length; i++){
+                long total = 0;
+                for(int[] postings : prefixRange(tokens[i]).values()){
+                    total += postings[0];
+                    if(total >= driverTotal) break;
+                }
+                if(total == 0) return new int[0];
+                if(total < driverTotal){
+                    driver = i;
+                    driverTotal = total;
+                }
+            }
+            Matches matches = match(tokens[driver], driverTotal);
+            int[] found = new int[limit];
+            int count = 0;
+            int candidate = matches.previous(beforeId);
+            while(candidate > 0 && count < limit){
+                if(matchesAll(documents[candidate], tokens, driver)) found[count++] = candidate;
+                candidate = matches.previous(candidate);
+            }
+            return Arrays.copyOf(found, count);
+        }finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    public int size(){
+        return size;
+    }
+
+    public int termCount(){
+        lock.readLock().lock();
+        try{
+            return terms.size();
+        }finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    public long sizeInBytes(){
+        lock.readLock().lock();
+        try{
+            return (long) terms.size() * TERM_OVERHEAD_BYTES + termChars + postingSlots * Integer.BYTES
+                    + (long) documents.length * 4 + (long) size * DOCUMENT_OVERHEAD_BYTES + documentTerms * 4;
+        }finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    public static String[] tokenize(int maxTokens, String... fields){
+        Set<String> tokens = new LinkedHashSet<>();
+        StringBuilder token = new StringBuilder(MAX_TOKEN_LENGTH);
+        for(String field : fields){
+            if(field == null) continue;
+            int previousType = 0;
+            for(int i = 0; i < field.length() && tokens.size() < maxTokens; i++){
+                char c = field.charAt(i);
+                int type = Character.isLetter(c) ? 1 : Character.isDigit(c) ? 2 : 0;
+                if(type != previousType && token.length() > 0){
+                    tokens.add(token.toString());
+                    token.setLength(0);
+                }
+                if(type != 0 && token.length() < MAX_TOKEN_LENGTH) token.append(Character.toLowerCase(c));
+                previousType = type;
+            }
+            if(token.length() > 0 && tokens.size() < maxTokens) tokens.add(token.toString());
+            token.setLength(0);
+        }
+        return tokens.isEmpty() ? NO_TERMS : tokens.toArray(new String[0]);
+    }
+
+    private SortedMap<String, int[]> prefixRange(String prefix){
+        return terms.subMap(prefix, prefix + Character.MAX_VALUE);
+    }
+
+    private static boolean matchesAll(String[] documentTokens, String[] prefixes, int skip){
+        for(int i = 0; i < prefixes.length; i++){
+            if(i == skip) continue;
+            boolean matches = false;
+            for(int j = 0; j < documentTokens.length && !matches; j++){
+                matches = documentTokens[j].startsWith(prefixes[i]);
+            }
+            if(!matches) return false;
+        }
+        return true;
+    }
+
+    private Matches match(String prefix, long total){
+        List<int[]> postings = new ArrayList<>(prefixRange(prefix).values());
+        if(postings.size() == 1) return new SortedMatches(postings.get(0), 1, postings.get(0)[0] + 1);
+        if(total * BITSET_DENSITY >= documents.length){
+            long[] words = new long[(documents.length >>> 6) + 1];
+            for(int[] termPostings : postings){
+                for(int i = 1; i <= termPostings[0]; i++){
+                    words[termPostings[i] >>> 6] |= 1L << termPostings[i];
+                }
+            }
+            return new BitMatches(words);
+        }
+        int[] merged = new int[(int) total];
+        int offset = 0;
+        for(int[] termPostings : postings){
+            System.arraycopy(termPostings, 1, merged, offset, termPostings[0]);
+            offset += termPostings[0];
+        }
+        Arrays.sort(merged);
+        int unique = 0;
+        for(int i = 0; i < merged.length; i++){
+            if(unique == 0 || merged[unique - 1] != merged[i]) merged[unique++] = merged[i];
+        }
+        return new SortedMatches(merged, 0, unique);
+    }
+
+    private static int[] add(int[] postings, int id){
+        int count = postings[0];
+        int index;
+        if(count == 0 || postings[count] < id){
+            index = count + 1;
+        }else{
+            int found = Arrays.binarySearch(postings, 1, count + 1, id);
+            if(found >= 0) return postings;
+            index = -found - 1;
+        }
+        int[] target = count + 1 < postings.length ? postings : Arrays.copyOf(postings, postings.length + (postings.length >> 1) + 1);
+        System.arraycopy(target, index, target, index + 1, count + 1 - index);
+        target[index] = id;
+        target[0] = count + 1;
+        return target;
+    }
+
+    private static int[] remove(int[] postings, int id){
+        int count = postings[0];
+        int index = Arrays.binarySearch(postings, 1, count + 1, id);
+        if(index < 0) return postings;
+        System.arraycopy(postings, index + 1, postings, index, count - index);
+        postings[0] = --count;
+        return count > 0 && count * 4 < postings.length ? Arrays.copyOf(postings, count * 2 + 1) : postings;
+    }
+
+    private interface Matches {
+        int previous(int beforeId);
+    }
+
+    private static class SortedMatches implements Matches {
+        private final int[] ids;
+        private final int from;
+        private final int to;
+
+        private SortedMatches(int[] ids, int from, int to){
+            this.ids = ids;
+            this.from = from;
+            this.to = to;
+        }
+
+        @Override
+        public int previous(int beforeId){
+            int index = Arrays.binarySearch(ids, from, to, beforeId);
+            index = (index >= 0 ? index : -index - 1) - 1;
+            return index >= from ? ids[index] : -1;
+        }
+    }
+
+    private static class BitMatches implements Matches {
+        private final long[] words;
+
+        private BitMatches(long[] words){
+            this.words = words;
+        }
+
+        @Override
+        public int previous(int beforeId){
+            int bit = beforeId - 1;
+            if(bit < 0) return -1;
+            int index = bit >>> 6;
+            long word;
+            if(index >= words.length){
+                index = words.length - 1;
+                word = words[index];
+            }else{
+                word = words[index] & (-1L >>> (63 - (bit & 63)));
+            }
+            while(true){
+                if(word != 0) return (index << 6) + 63 - Long.numberOfLeadingZeros(word);
+                if(--index < 0) return -1;
+                word = words[index];
+            }
+        }
+    }
+}
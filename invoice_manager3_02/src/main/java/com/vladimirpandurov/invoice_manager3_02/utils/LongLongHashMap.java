@@ -0,0 +1,136 @@
+package com.vladimirpandurov.invoice_manager3_02.utils;
+
+public class LongLongHashMap {
+
+    private static final long EMPTY = 0;
+    private static final double LOAD_FACTOR = 0.5;
+    private long[] keys;
+    private long[] values;
+    private int mask;
+    private int resizeAt;
+    private int size;
+
+    public LongLongHashMap(int expectedSize){
+        allocate(tableSizeFor((int) Math.ceil(Math.max(expectedSize, 8) / LOAD_FACTOR)));
+    }
+
+    public void put(long key, long value){
+        if(key == EMPTY) throw new IllegalArgumentException("Key 0 is reserved");
+        int index = slot(key);
+        while(keys[index] != EMPTY){
+            if(keys[index] == key){
+                values[index] = value;
+                return;
+            }
+            index = (index + 1) & mask;
+        }
+        keys[index] = key;
+        values[index] = value;
+        if(++size >= resizeAt) rehash(keys.length << 1);
+    }
+
+    public long get(long key, long missingValue){
+        int index = find(key);
+        return index < 0 ? missingValue : values[index];
+    }
+
+    public boolean containsKey(long key){
+        return find(key) >= 0;
+    }
+
+    public boolean remove(long key){
+        int hole = find(key);
+        if(hole < 0) return false;
+        int index = hole;
+        while(true){
+            index = (index + 1) & mask;
+            if(keys[index] == EMPTY) break;
+            int home = slot(keys[index]);
+            boolean homeBetweenHoleAndIndex = hole <= index ? hole < home && home <= index : hole < home || home <= index;
+            if(homeBetweenHoleAndIndex) continue;
+            keys[hole] = keys[index];
+            values[hole] = values[index];
+            hole = index;
+        }
+        keys[hole] = EMPTY;
+        values[hole] = 0;
+        size--;
+        return true;
+    }
+
+    public int removeIf(EntryPredicate predicate){
+        long[] oldKeys = keys;
+        long[] oldValues = values;
+        int removed = 0;
+        allocate(keys.length);
+        for(int i = 0; i < oldKeys.length; i++){
+            if(oldKeys[i] == EMPTY) continue;
+            if(predicate.test(oldKeys[i], oldValues[i])){
+                removed++;
+            }else{
+                put(oldKeys[i], oldValues[i]);
+            }
+        }
+        return removed;
+    }
+
+    public void forEach(EntryConsumer consumer){
+        for(int i = 0; i < keys.length; i++){
+            if(keys[i] != EMPTY) consumer.accept(keys[i], values[i]);
+        }
+    }
+
+    public int size(){
+        return size;
+    }
+
+    public long sizeInBytes(){
+        return 16L * keys.length;
+    }
+
+    private int find(long key){
+        if(key == EMPTY) return -1;
+        int index = slot(key);
+        while(keys[index] != EMPTY){
+            if(keys[index] == key) return index;
+            index = (index + 1) & mask;
+        }
+        return -1;
+    }
+
+    private void rehash(int capacity){
+        long[] oldKeys = keys;
+        long[] oldValues = values;
+        allocate(capacity);
+        for(int i = 0; i < oldKeys.length; i++){
+            if(oldKeys[i] != EMPTY) put(oldKeys[i], oldValues[i]);
+        }
+    }
+
+    private void allocate(int capacity){
+        keys = new long[capacity];
+        values = new long[capacity];
+        mask = capacity - 1;
+        resizeAt = (int) (capacity * LOAD_FACTOR);
+        size = 0;
+    }
+
+    private int slot(long key){
+        long hash = key * 0x9E3779B97F4A7C15L;
+        return (int) (hash ^ (hash >>> 32)) & mask;
+    }
+
+    private static int tableSizeFor(int capacity){
+        return Integer.highestOneBit(Math.max(capacity - 1, 1)) << 1;
+    }
+
+    @FunctionalInterface
+    public interface EntryPredicate {
+        boolean test(long key, long value);
+    }
+
+    @FunctionalInterface
+    public interface EntryConsumer {
+        void accept(long key, long value);
+    }
+}
@@ -0,0 +1,22 @@
+package com.vladimirpandurov.invoice_manager3_02.utils;
+
+import java.net.InetAddress;
+import java.util.UUID;
+
+public class NodeIds {
+
+    private static final int MAX_NODE_NAME_LENGTH = 48;
+
+    public static String next(){
+        return nodeName() + "-" + UUID.randomUUID().toString().substring(0, 8);
+    }
+
+    private static String nodeName(){
+        try{
+            String name = InetAddress.getLocalHost().getHostName();
+            return name.length() > MAX_NODE_NAME_LENGTH ? name.substring(0, MAX_NODE_NAME_LENGTH) : name;
+        }catch (Exception exception){
+            return "node";
+        }
+    }
+}
@@ -0,0 +1,45 @@
+package com.vladimirpandurov.invoice_manager3_02.utils;
+
+import java.time.Clock;
+import java.time.Instant;
+import java.time.ZoneId;
+
+public class SimulatedClock extends Clock {
+
+    private final long startMillis;
+    private final long originNanos;
+    private final double rate;
+    private final ZoneId zone;
+
+    public SimulatedClock(Instant start, double rate, ZoneId zone){
+        this(start.toEpochMilli(), System.nanoTime(), rate, zone);
+    }
+
+    private SimulatedClock(long startMillis, long originNanos, double rate, ZoneId zone){
+        if(rate <= 0) throw new IllegalArgumentException("Clock rate must be positive");
+        this.startMillis = startMillis;
+        this.originNanos = originNanos;
+        this.rate = rate;
+        this.zone = zone;
+    }
+
+    @Override
+    public ZoneId getZone() {
+        return zone;
+    }
+
+    @Override
+    public Clock withZone(ZoneId zone) {
+        return new SimulatedClock(startMillis, originNanos, rate, zone);
+    }
+
+    @Override
+    public long millis() {
+        return startMillis + (long) ((System.nanoTime() - originNanos) * rate / 1_000_000);
+    }
+
+    @Override
+    public Instant instant() {
+        return Instant.ofEpochMilli(millis());
+    }
+}
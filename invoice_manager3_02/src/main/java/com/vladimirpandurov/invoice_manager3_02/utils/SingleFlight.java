@@ -0,0 +1,64 @@
+package com.vladimirpandurov.invoice_manager3_02.utils;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Supplier;
+
+public class SingleFlight<K, V> {
+
+    private final ConcurrentHashMap<K, CompletableFuture<V>> inFlight = new ConcurrentHashMap<>();
+    private final Counter executed;
+    private final Counter coalesced;
+
+    public SingleFlight(String name, MeterRegistry registry){
+        this.executed = Counter.builder("singleflight.calls")
+                .description("Lookups that ran the loader")
+                .tag("name", name)
+                .tag("result", "executed")
+                .register(registry);
+        this.coalesced = Counter.builder("singleflight.calls")
+                .description("Lookups that shared another caller's in-flight load")
+                .tag("name", name)
+                .tag("result", "coalesced")
+                .register(registry);
+    }
+
+    public V load(K key, Supplier<V> loader){
+        CompletableFuture<V> call = new CompletableFuture<>();
+        CompletableFuture<V> existing = inFlight.putIfAbsent(key, call);
+        if(existing != null){
+            coalesced.increment();
+            return await(existing);
+        }
+        executed.increment();
+        try{
+            V value = loader.get();
+            call.complete(value);
+            return value;
+        }catch (Throwable throwable){
+            call.completeExceptionally(throwable);
+            throw throwable;
+        }finally {
+            inFlight.remove(key, call);
+        }
+    }
+
+    public int inFlight(){
+        return inFlight.size();
+    }
+
+    private V await(CompletableFuture<V> call){
+        try{
+            return call.join();
+        }catch (CompletionException exception){
+            Throwable cause = exception.getCause();
+            if(cause instanceof RuntimeException runtimeException) throw runtimeException;
+            if(cause instanceof Error error) throw error;
+            throw exception;
+        }
+    }
+}
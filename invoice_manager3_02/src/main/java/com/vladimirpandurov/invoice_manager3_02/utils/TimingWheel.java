@@ -0,0 +1,121 @@
+package com.vladimirpandurov.invoice_manager3_02.utils;
+
+import java.util.Arrays;
+
+public class TimingWheel {
+
+    private static final int WHEEL_BITS = 6;
+    private static final int WHEEL_SIZE = 1 << WHEEL_BITS;
+    private static final int WHEEL_MASK = WHEEL_SIZE - 1;
+    private static final int LEVELS = 4;
+    private final long tickMillis;
+    private final Entry[][] slots = new Entry[LEVELS][WHEEL_SIZE];
+    private Entry overflow;
+    private Entry expired;
+    private long currentTick;
+    private int size;
+    private int expiredCount;
+
+    public TimingWheel(long tickMillis, long startMillis){
+        if(tickMillis <= 0) throw new IllegalArgumentException("Tick must be positive");
+        this.tickMillis = tickMillis;
+        this.currentTick = startMillis / tickMillis;
+    }
+
+    public void schedule(long id, long deadlineMillis){
+        place(new Entry(id, deadlineMillis));
+        size++;
+    }
+
+    public int advance(long nowMillis, Expiry expiry){
+        long targetTick = nowMillis / tickMillis;
+        if(size == expiredCount) currentTick = Math.max(currentTick, targetTick);
+        while(currentTick < targetTick){
+            currentTick++;
+            for(int level = LEVELS - 1; level > 0; level--){
+                if((currentTick & ((1L << (WHEEL_BITS * level)) - 1)) != 0) continue;
+                if(level == LEVELS - 1 && (currentTick & ((1L << (WHEEL_BITS * LEVELS)) - 1)) == 0){
+                    Entry entries = overflow;
+                    overflow = null;
+                    replace(entries);
+                }
+                int index = (int) (currentTick >>> (WHEEL_BITS * level)) & WHEEL_MASK;
+                Entry entries = slots[level][index];
+                slots[level][index] = null;
+                replace(entries);
+            }
+            int index = (int) currentTick & WHEEL_MASK;
+            Entry entries = slots[0][index];
+            slots[0][index] = null;
+            replace(entries);
+        }
+        int fired = 0;
+        Entry entry = expired;
+        expired = null;
+        expiredCount = 0;
+        while(entry != null){
+            Entry next = entry.next;
+            size--;
+            fired++;
+            expiry.expired(entry.id, entry.deadline);
+            entry = next;
+        }
+        return fired;
+    }
+
+    public int size(){
+        return size;
+    }
+
+    public void clear(){
+        for(Entry[] level : slots){
+            Arrays.fill(level, null);
+        }
+        overflow = null;
+        expired = null;
+        expiredCount = 0;
+        size = 0;
+    }
+
+    private void replace(Entry entries){
+        while(entries != null){
+            Entry next = entries.next;
+            place(entries);
+            entries = next;
+        }
+    }
+
+    private void place(Entry entry){
+        long deadlineTick = Math.floorDiv(entry.deadline, tickMillis);
+        if(deadlineTick <= currentTick){
+            entry.next = expired;
+            expired = entry;
+            expiredCount++;
+            return;
+        }
+        int level = (63 - Long.numberOfLeadingZeros(deadlineTick ^ currentTick)) / WHEEL_BITS;
+        if(level >= LEVELS){
+            entry.next = overflow;
+            overflow = entry;
+            return;
+        }
+        int index = (int) (deadlineTick >>> (WHEEL_BITS * level)) & WHEEL_MASK;
+        entry.next = slots[level][index];
+        slots[level][index] = entry;
+    }
+
+    public interface Expiry {
+        void expired(long id, long deadlineMillis);
+    }
+
+    private static final class Entry {
+        private final long id;
+        private final long deadline;
+        private Entry next;
+
+        private Entry(long id, long deadline){
+            this.id = id;
+            this.deadline = deadline;
+        }
+    }
+}
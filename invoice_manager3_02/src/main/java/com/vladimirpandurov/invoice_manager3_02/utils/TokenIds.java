@@ -0,0 +1,16 @@
+package com.vladimirpandurov.invoice_manager3_02.utils;
+
+import java.security.SecureRandom;
+
+public class TokenIds {
+
+    private static final SecureRandom RANDOM = new SecureRandom();
+
+    public static long next(){
+        long id;
+        do{
+            id = RANDOM.nextLong() & Long.MAX_VALUE;
+        }while(id == 0);
+        return id;
+    }
+}
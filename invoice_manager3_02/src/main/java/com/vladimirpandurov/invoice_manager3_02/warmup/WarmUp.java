@@ -0,0 +1,18 @@
+package com.vladimirpandurov.invoice_manager3_02.warmup;
+
+public class WarmUp {
+
+    private static final ThreadLocal<Boolean> ACTIVE = ThreadLocal.withInitial(() -> false);
+
+    public static void begin(){
+        ACTIVE.set(true);
+    }
+
+    public static boolean isActive(){
+        return ACTIVE.get();
+    }
+
+    public static void end(){
+        ACTIVE.remove();
+    }
+}
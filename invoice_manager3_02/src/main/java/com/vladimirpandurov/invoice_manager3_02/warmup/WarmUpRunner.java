@@ -0,0 +1,162 @@
+package com.vladimirpandurov.invoice_manager3_02.warmup;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.vladimirpandurov.invoice_manager3_02.domain.HttpResponse;
+import com.vladimirpandurov.invoice_manager3_02.domain.RefreshToken;
+import com.vladimirpandurov.invoice_manager3_02.domain.Role;
+import com.vladimirpandurov.invoice_manager3_02.domain.User;
+import com.vladimirpandurov.invoice_manager3_02.domain.UserPrincipal;
+import com.vladimirpandurov.invoice_manager3_02.provider.TokenProvider;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.ApplicationArguments;
+import org.springframework.boot.ApplicationRunner;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.http.HttpStatus;
+import org.springframework.jdbc.core.RowMapper;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+import org.springframework.stereotype.Component;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static com.vladimirpandurov.invoice_manager3_02.enumeration.RoleType.ROLE_USER;
+import static com.vladimirpandurov.invoice_manager3_02.query.RoleQuery.SELECT_ROLE_BY_NAME_QUERY;
+import static com.vladimirpandurov.invoice_manager3_02.query.RoleQuery.SELECT_ROLE_BY_USER_ID_QUERY;
+import static com.vladimirpandurov.invoice_manager3_02.query.UserQuery.COUNT_USER_EMAIL_QUERY;
+import static com.vladimirpandurov.invoice_manager3_02.query.UserQuery.SELECT_USER_BY_EMAIL_QUERY;
+import static java.util.concurrent.TimeUnit.NANOSECONDS;
+
+@Component
+@ConditionalOnProperty(name = "application.warmup.enabled", havingValue = "true", matchIfMissing = true)
+@RequiredArgsConstructor
+@Slf4j
+public class WarmUpRunner implements ApplicationRunner {
+
+    private static final String WARMUP_EMAIL = "warmup@invoicemanager.dev";
+    private static final String WARMUP_PASSWORD = "warmup-password";
+    private static final int PASSWORD_HASH_ITERATIONS = 3;
+    private static final RowMapper<Long> FIRST_COLUMN = (resultSet, rowNum) -> resultSet.getLong(1);
+    private final DataSource dataSource;
+    private final NamedParameterJdbcTemplate jdbc;
+    private final TokenProvider tokenProvider;
+    private final BCryptPasswordEncoder encoder;
+    private final ObjectMapper objectMapper;
+    private final MeterRegistry registry;
+    private final AtomicLong warmUpMillis = new AtomicLong();
+    private final AtomicLong warmUpIterations = new AtomicLong();
+    @Value("${application.warmup.budget:PT15S}")
+    private Duration budget;
+    @Value("${application.warmup.iterations:2000}")
+    private int maxIterations;
+    @Value("${application.warmup.connections:10}")
+    private int connections;
+
+    @Override
+    public void run(ApplicationArguments args) {
+        registry.gauge("warmup.duration.ms", warmUpMillis);
+        registry.gauge("warmup.iterations", warmUpIterations);
+        long start = System.nanoTime();
+        long deadline = start + budget.toNanos();
+        WarmUp.begin();
+        try{
+            openConnections();
+            UserPrincipal principal = getWarmUpPrincipal();
+            String hash = encoder.encode(WARMUP_PASSWORD);
+            long firstIterationNanos = 0;
+            long lastIterationNanos = 0;
+            int iteration = 0;
+            while(iteration < maxIterations && System.nanoTime() < deadline){
+                long iterationStart = System.nanoTime();
+                runQueries();
+                runTokens(principal);
+                runSerialization(principal);
+                if(iteration < PASSWORD_HASH_ITERATIONS) encoder.matches(WARMUP_PASSWORD, hash);
+                lastIterationNanos = System.nanoTime() - iterationStart;
+                if(iteration == 0) firstIterationNanos = lastIterationNanos;
+                getIterationTimer(iteration == 0 ? "first" : "subsequent").record(lastIterationNanos, NANOSECONDS);
+                iteration++;
+            }
+            warmUpIterations.set(iteration);
+            log.info("Warm-up ran {} iterations, first iteration {} us, last iteration {} us",
+                    iteration, NANOSECONDS.toMicros(firstIterationNanos), NANOSECONDS.toMicros(lastIterationNanos));
+        }catch (Exception exception){
+            log.error("Warm-up stopped early: {}", exception.getMessage());
+        }finally {
+            WarmUp.end();
+            warmUpMillis.set(NANOSECONDS.toMillis(System.nanoTime() - start));
+            log.info("Warm-up finished in {} ms", warmUpMillis.get());
+        }
+    }
+
+    private void openConnections() throws Exception {
+        List<Connection> opened = new ArrayList<>();
+        try{
+            for(int i = 0; i < connections; i++){
+                Connection connection = dataSource.getConnection();
+                opened.add(connection);
+                connection.isValid(1);
+            }
+        }finally {
+            for(Connection connection : opened){
+                connection.close();
+            }
+        }
+    }
+
+    private void runQueries(){
+        jdbc.query(SELECT_ROLE_BY_NAME_QUERY, Map.of("roleName", ROLE_USER.name()), FIRST_COLUMN);
+        jdbc.queryForObject(COUNT_USER_EMAIL_QUERY, Map.of("email", WARMUP_EMAIL), Integer.class);
+        jdbc.query(SELECT_USER_BY_EMAIL_QUERY, Map.of("email", WARMUP_EMAIL), FIRST_COLUMN);
+        jdbc.query(SELECT_ROLE_BY_USER_ID_QUERY, Map.of("userId", 0L), FIRST_COLUMN);
+    }
+
+    private void runTokens(UserPrincipal principal){
+        String accessToken = tokenProvider.createAccessToken(principal);
+        tokenProvider.createRefreshToken(principal, RefreshToken.builder().id(1L).familyId(1L).expiresAt(LocalDateTime.now().plusDays(1)).build());
+        if(tokenProvider.isTokenValid(principal.getUsername(), accessToken)){
+            tokenProvider.getPermissions(accessToken);
+        }
+    }
+
+    private void runSerialization(UserPrincipal principal) throws Exception {
+        objectMapper.writeValueAsBytes(HttpResponse.builder()
+                .timeStamp(LocalDateTime.now().toString())
+                .data(Map.of("user", principal.getUser()))
+                .message("Warm-up")
+                .status(HttpStatus.OK)
+                .statusCode(HttpStatus.OK.value())
+                .build());
+    }
+
+    private UserPrincipal getWarmUpPrincipal(){
+        User user = User.builder()
+                .id(0L)
+                .firstName("Warm")
+                .lastName("Up")
+                .email(WARMUP_EMAIL)
+                .enabled(true)
+                .isNotLocked(true)
+                .createdAt(LocalDateTime.now())
+                .build();
+        Role role = Role.builder().id(0L).name(ROLE_USER.name()).permission("READ:USER,READ:CUSTOMER").build();
+        return new UserPrincipal(user, role);
+    }
+
+    private Timer getIterationTimer(String iteration){
+        return Timer.builder("warmup.iteration")
+                .description("Duration of a warm-up iteration")
+                .tag("iteration", iteration)
+                .register(registry);
+    }
+}
@@ -0,0 +1,17 @@
+DELETE FROM Customers;
+
+INSERT INTO Customers (name, email, type, status, address, phone)
+SELECT CONCAT(CHAR(65 + MOD(X, 26)), CHAR(97 + MOD(X / 26, 26)), CHAR(97 + MOD(X / 676, 26)), ' Customer ', X),
+       CONCAT('customer', X, '@invoicemanager.dev'),
+       CASE WHEN MOD(X, 5) = 0 THEN 'INSTITUTION' ELSE 'INDIVIDUAL' END,
+       CASE WHEN MOD(X, 10) = 0 THEN 'INACTIVE' ELSE 'ACTIVE' END,
+       CONCAT(X, ' Benchmark Street'),
+       CONCAT('555-', LPAD(CAST(MOD(X, 10000) AS VARCHAR), 4, '0'))
+FROM SYSTEM_RANGE(1, 1000000);
+
+DELETE FROM CustomerStatusSummaries;
+INSERT INTO CustomerStatusSummaries (slot, status, customer_count)
+SELECT 0, status, COUNT(*) FROM Customers GROUP BY status;
+
+-- H2 cannot walk the primary key backwards the way InnoDB does; without this the id DESC list sorts the whole range.
+CREATE INDEX IF NOT EXISTS IX_Customers_Id_Desc ON Customers (id DESC);
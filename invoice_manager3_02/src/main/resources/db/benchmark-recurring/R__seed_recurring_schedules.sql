@@ -0,0 +1,6 @@
+DELETE FROM RecurringSchedules;
+
+INSERT INTO RecurringSchedules (customer_id, partition_no, frequency, anchor_day, description, quantity, currency, unit_price_minor, due_days, next_run_at)
+SELECT X, MOD(X, 64), CASE WHEN MOD(X, 10) = 0 THEN 'WEEKLY' ELSE 'MONTHLY' END, 1,
+       CONCAT('Subscription ', X), 1, '${currency}', 1000 + MOD(X * 7919, 9000), 30, TIMESTAMP '2030-01-01 00:00:00'
+FROM SYSTEM_RANGE(1, 1000000);
@@ -0,0 +1,7 @@
+DELETE FROM Users WHERE email = 'benchmark@invoicemanager.dev';
+
+INSERT INTO Users (first_name, last_name, email, password, enabled, non_locked, using_mfa)
+VALUES ('Benchmark', 'User', 'benchmark@invoicemanager.dev', '$2a$12$KQ0LqK16C.mkXlbXO.WbSOYvSYOv2PbMlLuk1K6.mH4PnD9wLNN0e', TRUE, TRUE, FALSE);
+
+INSERT INTO UserRoles (user_id, role_id)
+SELECT u.id, r.id FROM Users u, Roles r WHERE u.email = 'benchmark@invoicemanager.dev' AND r.name = 'ROLE_USER';
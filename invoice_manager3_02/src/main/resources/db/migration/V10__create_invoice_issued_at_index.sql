@@ -0,0 +1 @@
+CREATE INDEX IX_Invoices_Issued_At ON Invoices (issued_at, id);
@@ -0,0 +1,17 @@
+CREATE TABLE PdfBatches
+(
+    id              BIGINT       NOT NULL AUTO_INCREMENT PRIMARY KEY,
+    status          VARCHAR(20)  NOT NULL DEFAULT 'RUNNING',
+    issued_from     DATE         NOT NULL,
+    issued_to       DATE         NOT NULL,
+    last_issued_at  DATE         DEFAULT NULL,
+    last_invoice_id BIGINT       DEFAULT NULL,
+    rendered        BIGINT       NOT NULL DEFAULT 0,
+    failed          BIGINT       NOT NULL DEFAULT 0,
+    message         VARCHAR(255) DEFAULT NULL,
+    created_at      DATETIME     DEFAULT CURRENT_TIMESTAMP,
+    updated_at      DATETIME     DEFAULT CURRENT_TIMESTAMP,
+    completed_at    DATETIME     DEFAULT NULL
+);
+
+CREATE INDEX IX_PdfBatches_Status_Updated_At ON PdfBatches (status, updated_at);
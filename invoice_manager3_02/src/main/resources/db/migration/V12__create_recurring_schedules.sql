@@ -0,0 +1,40 @@
+CREATE TABLE RecurringSchedules
+(
+    id               BIGINT       NOT NULL AUTO_INCREMENT PRIMARY KEY,
+    customer_id      BIGINT       NOT NULL,
+    partition_no     SMALLINT     NOT NULL,
+    frequency        VARCHAR(20)  NOT NULL,
+    anchor_day       TINYINT      NOT NULL,
+    description      VARCHAR(255) NOT NULL,
+    quantity         INT          NOT NULL,
+    currency         CHAR(3)      NOT NULL,
+    unit_price_minor BIGINT       NOT NULL,
+    due_days         INT          NOT NULL DEFAULT 30,
+    next_run_at      DATETIME     NOT NULL,
+    last_run_at      DATETIME     DEFAULT NULL,
+    active           BOOLEAN      NOT NULL DEFAULT TRUE,
+    created_at       DATETIME     DEFAULT CURRENT_TIMESTAMP,
+    CONSTRAINT FK_RecurringSchedules_Customer_Id FOREIGN KEY (customer_id) REFERENCES Customers (id) ON DELETE CASCADE ON UPDATE CASCADE
+);
+
+CREATE INDEX IX_RecurringSchedules_Partition_Next_Run_At ON RecurringSchedules (partition_no, next_run_at, id);
+
+CREATE TABLE ScheduleLeases
+(
+    partition_no SMALLINT    NOT NULL PRIMARY KEY,
+    owner        VARCHAR(64) DEFAULT NULL,
+    expires_at   DATETIME    DEFAULT NULL,
+    acquired_at  DATETIME    DEFAULT NULL
+);
+
+CREATE TABLE SchedulerNodes
+(
+    owner        VARCHAR(64) NOT NULL PRIMARY KEY,
+    heartbeat_at DATETIME    NOT NULL
+);
+
+INSERT INTO ScheduleLeases (partition_no)
+VALUES (0), (1), (2), (3), (4), (5), (6), (7), (8), (9), (10), (11), (12), (13), (14), (15),
+       (16), (17), (18), (19), (20), (21), (22), (23), (24), (25), (26), (27), (28), (29), (30), (31),
+       (32), (33), (34), (35), (36), (37), (38), (39), (40), (41), (42), (43), (44), (45), (46), (47),
+       (48), (49), (50), (51), (52), (53), (54), (55), (56), (57), (58), (59), (60), (61), (62), (63);
@@ -0,0 +1,4 @@
+ALTER TABLE Invoices ADD COLUMN import_reference VARCHAR(100) DEFAULT NULL;
+
+CREATE UNIQUE INDEX UQ_Invoices_Import_Reference ON Invoices (import_reference);
+CREATE INDEX IX_ImportJobs_Status_Updated_At ON ImportJobs (status, updated_at);
@@ -0,0 +1,3 @@
+ALTER TABLE Invoices ADD COLUMN version INT NOT NULL DEFAULT 0;
+
+ALTER TABLE PdfBatches ADD COLUMN owner VARCHAR(64) DEFAULT NULL;
@@ -0,0 +1,9 @@
+CREATE TABLE SearchChanges
+(
+    id          BIGINT      NOT NULL AUTO_INCREMENT PRIMARY KEY,
+    entity_type VARCHAR(20) NOT NULL,
+    entity_id   BIGINT      NOT NULL,
+    created_at  DATETIME    DEFAULT CURRENT_TIMESTAMP
+);
+
+CREATE INDEX IX_SearchChanges_Created_At ON SearchChanges (created_at);
@@ -0,0 +1,22 @@
+CREATE TABLE InvoiceStatusSummaries
+(
+    slot          INT         NOT NULL,
+    status        VARCHAR(20) NOT NULL,
+    invoice_count BIGINT      NOT NULL DEFAULT 0,
+    total_minor   BIGINT      NOT NULL DEFAULT 0,
+    PRIMARY KEY (slot, status)
+);
+
+INSERT INTO InvoiceStatusSummaries (slot, status, invoice_count, total_minor)
+SELECT 0, status, COUNT(*), COALESCE(SUM(total_minor), 0) FROM Invoices GROUP BY status;
+
+CREATE TABLE CustomerStatusSummaries
+(
+    slot           INT         NOT NULL,
+    status         VARCHAR(20) NOT NULL,
+    customer_count BIGINT      NOT NULL DEFAULT 0,
+    PRIMARY KEY (slot, status)
+);
+
+INSERT INTO CustomerStatusSummaries (slot, status, customer_count)
+SELECT 0, COALESCE(status, 'UNKNOWN'), COUNT(*) FROM Customers GROUP BY COALESCE(status, 'UNKNOWN');
@@ -0,0 +1,17 @@
+CREATE TABLE MonthlyRevenueSummaries
+(
+    issued_year   INT    NOT NULL,
+    issued_month  INT    NOT NULL,
+    slot          INT    NOT NULL,
+    invoice_count BIGINT NOT NULL DEFAULT 0,
+    billed_minor  BIGINT NOT NULL DEFAULT 0,
+    paid_minor    BIGINT NOT NULL DEFAULT 0,
+    PRIMARY KEY (issued_year, issued_month, slot)
+);
+
+INSERT INTO MonthlyRevenueSummaries (issued_year, issued_month, slot, invoice_count, billed_minor, paid_minor)
+SELECT YEAR(issued_at), MONTH(issued_at), 0, COUNT(*),
+       COALESCE(SUM(CASE WHEN status <> 'CANCELLED' THEN total_minor ELSE 0 END), 0),
+       COALESCE(SUM(CASE WHEN status = 'PAID' THEN total_minor ELSE 0 END), 0)
+FROM Invoices
+GROUP BY YEAR(issued_at), MONTH(issued_at);
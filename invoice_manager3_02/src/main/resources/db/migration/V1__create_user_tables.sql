@@ -0,0 +1,75 @@
+CREATE TABLE Users
+(
+    id         BIGINT       NOT NULL AUTO_INCREMENT PRIMARY KEY,
+    first_name VARCHAR(50)  NOT NULL,
+    last_name  VARCHAR(50)  NOT NULL,
+    email      VARCHAR(100) NOT NULL,
+    password   VARCHAR(255) DEFAULT NULL,
+    address    VARCHAR(255) DEFAULT NULL,
+    phone      VARCHAR(30)  DEFAULT NULL,
+    title      VARCHAR(50)  DEFAULT NULL,
+    bio        VARCHAR(255) DEFAULT NULL,
+    enabled    BOOLEAN      DEFAULT FALSE,
+    non_locked BOOLEAN      DEFAULT TRUE,
+    using_mfa  BOOLEAN      DEFAULT FALSE,
+    created_at DATETIME     DEFAULT CURRENT_TIMESTAMP,
+    image_url  VARCHAR(255) DEFAULT NULL,
+    CONSTRAINT UQ_Users_Email UNIQUE (email)
+);
+
+CREATE TABLE Roles
+(
+    id         BIGINT       NOT NULL AUTO_INCREMENT PRIMARY KEY,
+    name       VARCHAR(50)  NOT NULL,
+    permission VARCHAR(255) NOT NULL,
+    CONSTRAINT UQ_Roles_Name UNIQUE (name)
+);
+
+CREATE TABLE UserRoles
+(
+    id      BIGINT NOT NULL AUTO_INCREMENT PRIMARY KEY,
+    user_id BIGINT NOT NULL,
+    role_id BIGINT NOT NULL,
+    CONSTRAINT FK_UserRoles_User_Id FOREIGN KEY (user_id) REFERENCES Users (id) ON DELETE CASCADE ON UPDATE CASCADE,
+    CONSTRAINT FK_UserRoles_Role_Id FOREIGN KEY (role_id) REFERENCES Roles (id) ON DELETE RESTRICT ON UPDATE CASCADE,
+    CONSTRAINT UQ_UserRoles_User_Id UNIQUE (user_id)
+);
+
+CREATE INDEX IX_UserRoles_Role_Id ON UserRoles (role_id);
+
+CREATE TABLE AccountVerifications
+(
+    id      BIGINT       NOT NULL AUTO_INCREMENT PRIMARY KEY,
+    user_id BIGINT       NOT NULL,
+    url     VARCHAR(255) NOT NULL,
+    CONSTRAINT FK_AccountVerifications_User_Id FOREIGN KEY (user_id) REFERENCES Users (id) ON DELETE CASCADE ON UPDATE CASCADE,
+    CONSTRAINT UQ_AccountVerifications_User_Id UNIQUE (user_id),
+    CONSTRAINT UQ_AccountVerifications_Url UNIQUE (url)
+);
+
+CREATE TABLE ResetPasswordVerifications
+(
+    id              BIGINT       NOT NULL AUTO_INCREMENT PRIMARY KEY,
+    user_id         BIGINT       NOT NULL,
+    url             VARCHAR(255) NOT NULL,
+    expiration_data DATETIME     NOT NULL,
+    CONSTRAINT FK_ResetPasswordVerifications_User_Id FOREIGN KEY (user_id) REFERENCES Users (id) ON DELETE CASCADE ON UPDATE CASCADE,
+    CONSTRAINT UQ_ResetPasswordVerifications_User_Id UNIQUE (user_id),
+    CONSTRAINT UQ_ResetPasswordVerifications_Url UNIQUE (url)
+);
+
+CREATE TABLE TwoFactorVerifications
+(
+    id              BIGINT      NOT NULL AUTO_INCREMENT PRIMARY KEY,
+    user_id         BIGINT      NOT NULL,
+    code            VARCHAR(10) NOT NULL,
+    expiration_data DATETIME    NOT NULL,
+    CONSTRAINT FK_TwoFactorVerifications_User_Id FOREIGN KEY (user_id) REFERENCES Users (id) ON DELETE CASCADE ON UPDATE CASCADE,
+    CONSTRAINT UQ_TwoFactorVerifications_User_Id UNIQUE (user_id),
+    CONSTRAINT UQ_TwoFactorVerifications_Code UNIQUE (code)
+);
+
+INSERT INTO Roles (name, permission) VALUES ('ROLE_USER', 'READ:USER,READ:CUSTOMER');
+INSERT INTO Roles (name, permission) VALUES ('ROLE_MANAGER', 'READ:USER,READ:CUSTOMER,UPDATE:USER,UPDATE:CUSTOMER');
+INSERT INTO Roles (name, permission) VALUES ('ROLE_ADMIN', 'READ:USER,READ:CUSTOMER,CREATE:USER,CREATE:CUSTOMER,UPDATE:USER,UPDATE:CUSTOMER');
+INSERT INTO Roles (name, permission) VALUES ('ROLE_SYSADMIN', 'READ:USER,READ:CUSTOMER,CREATE:USER,CREATE:CUSTOMER,UPDATE:USER,UPDATE:CUSTOMER,DELETE:USER,DELETE:CUSTOMER');
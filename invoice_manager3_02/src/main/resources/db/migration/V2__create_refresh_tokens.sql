@@ -0,0 +1,14 @@
+CREATE TABLE RefreshTokens
+(
+    id         BIGINT   NOT NULL PRIMARY KEY,
+    family_id  BIGINT   NOT NULL,
+    user_id    BIGINT   NOT NULL,
+    expires_at DATETIME NOT NULL,
+    used_at    DATETIME DEFAULT NULL,
+    revoked    BOOLEAN  DEFAULT FALSE,
+    created_at DATETIME DEFAULT CURRENT_TIMESTAMP,
+    CONSTRAINT FK_RefreshTokens_User_Id FOREIGN KEY (user_id) REFERENCES Users (id) ON DELETE CASCADE ON UPDATE CASCADE
+);
+
+CREATE INDEX IX_RefreshTokens_Family_Id ON RefreshTokens (family_id);
+CREATE INDEX IX_RefreshTokens_Expires_At ON RefreshTokens (expires_at);
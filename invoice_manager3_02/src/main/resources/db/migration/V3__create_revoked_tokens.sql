@@ -0,0 +1,12 @@
+CREATE TABLE RevokedTokens
+(
+    id         BIGINT   NOT NULL AUTO_INCREMENT PRIMARY KEY,
+    token_id   BIGINT   NOT NULL,
+    user_id    BIGINT   NOT NULL,
+    expires_at DATETIME NOT NULL,
+    revoked_at DATETIME DEFAULT CURRENT_TIMESTAMP,
+    CONSTRAINT FK_RevokedTokens_User_Id FOREIGN KEY (user_id) REFERENCES Users (id) ON DELETE CASCADE ON UPDATE CASCADE,
+    CONSTRAINT UQ_RevokedTokens_Token_Id UNIQUE (token_id)
+);
+
+CREATE INDEX IX_RevokedTokens_Expires_At ON RevokedTokens (expires_at);
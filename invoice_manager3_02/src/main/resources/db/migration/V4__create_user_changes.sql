@@ -0,0 +1,10 @@
+CREATE TABLE UserChanges
+(
+    id         BIGINT       NOT NULL AUTO_INCREMENT PRIMARY KEY,
+    user_id    BIGINT       NOT NULL,
+    email      VARCHAR(100) DEFAULT NULL,
+    type       VARCHAR(30)  NOT NULL,
+    created_at DATETIME     DEFAULT CURRENT_TIMESTAMP
+);
+
+CREATE INDEX IX_UserChanges_Created_At ON UserChanges (created_at);
@@ -0,0 +1,15 @@
+CREATE TABLE Customers
+(
+    id         BIGINT       NOT NULL AUTO_INCREMENT PRIMARY KEY,
+    name       VARCHAR(100) NOT NULL,
+    email      VARCHAR(100) NOT NULL,
+    type       VARCHAR(20)  DEFAULT 'INDIVIDUAL',
+    status     VARCHAR(20)  DEFAULT 'ACTIVE',
+    address    VARCHAR(255) DEFAULT NULL,
+    phone      VARCHAR(30)  DEFAULT NULL,
+    image_url  VARCHAR(255) DEFAULT NULL,
+    created_at DATETIME     DEFAULT CURRENT_TIMESTAMP
+);
+
+CREATE INDEX IX_Customers_Name_Covering ON Customers (name, id, email, type, status);
+CREATE INDEX IX_Customers_Email ON Customers (email);
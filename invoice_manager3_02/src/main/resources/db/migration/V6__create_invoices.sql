@@ -0,0 +1,50 @@
+CREATE TABLE Invoices
+(
+    id             BIGINT         NOT NULL AUTO_INCREMENT PRIMARY KEY,
+    invoice_number VARCHAR(30)    NOT NULL,
+    customer_id    BIGINT         NOT NULL,
+    status         VARCHAR(20)    NOT NULL DEFAULT 'PENDING',
+    issued_at      DATE           NOT NULL,
+    due_date       DATE           NOT NULL,
+    total          DECIMAL(19, 2) NOT NULL DEFAULT 0,
+    created_at     DATETIME       DEFAULT CURRENT_TIMESTAMP,
+    CONSTRAINT FK_Invoices_Customer_Id FOREIGN KEY (customer_id) REFERENCES Customers (id) ON DELETE RESTRICT ON UPDATE CASCADE,
+    CONSTRAINT UQ_Invoices_Invoice_Number UNIQUE (invoice_number)
+);
+
+CREATE INDEX IX_Invoices_Customer_Id ON Invoices (customer_id, id);
+CREATE INDEX IX_Invoices_Status_Due_Date ON Invoices (status, due_date);
+
+CREATE TABLE InvoiceLines
+(
+    id          BIGINT         NOT NULL AUTO_INCREMENT PRIMARY KEY,
+    invoice_id  BIGINT         NOT NULL,
+    description VARCHAR(255)   NOT NULL,
+    quantity    INT            NOT NULL,
+    unit_price  DECIMAL(19, 2) NOT NULL,
+    amount      DECIMAL(19, 2) NOT NULL,
+    CONSTRAINT FK_InvoiceLines_Invoice_Id FOREIGN KEY (invoice_id) REFERENCES Invoices (id) ON DELETE CASCADE ON UPDATE CASCADE
+);
+
+CREATE INDEX IX_InvoiceLines_Invoice_Id ON InvoiceLines (invoice_id);
+
+CREATE TABLE CustomerInvoiceSummaries
+(
+    customer_id   BIGINT         NOT NULL PRIMARY KEY,
+    invoice_count BIGINT         NOT NULL DEFAULT 0,
+    total_billed  DECIMAL(19, 2) NOT NULL DEFAULT 0,
+    outstanding   DECIMAL(19, 2) NOT NULL DEFAULT 0,
+    overdue_count BIGINT         NOT NULL DEFAULT 0,
+    CONSTRAINT FK_CustomerInvoiceSummaries_Customer_Id FOREIGN KEY (customer_id) REFERENCES Customers (id) ON DELETE CASCADE ON UPDATE CASCADE
+);
+
+CREATE TABLE AccountInvoiceSummaries
+(
+    slot          INT            NOT NULL PRIMARY KEY,
+    invoice_count BIGINT         NOT NULL DEFAULT 0,
+    total_billed  DECIMAL(19, 2) NOT NULL DEFAULT 0,
+    outstanding   DECIMAL(19, 2) NOT NULL DEFAULT 0,
+    overdue_count BIGINT         NOT NULL DEFAULT 0
+);
+
+INSERT INTO AccountInvoiceSummaries (slot) VALUES (0), (1), (2), (3), (4), (5), (6), (7), (8), (9), (10), (11), (12), (13), (14), (15);
@@ -0,0 +1,7 @@
+CREATE TABLE InvoiceSequences
+(
+    name       VARCHAR(50) NOT NULL PRIMARY KEY,
+    next_value BIGINT      NOT NULL
+);
+
+INSERT INTO InvoiceSequences (name, next_value) VALUES ('INVOICE', 1);
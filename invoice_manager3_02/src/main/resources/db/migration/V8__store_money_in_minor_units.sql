@@ -0,0 +1,22 @@
+ALTER TABLE Invoices ADD COLUMN currency CHAR(3) NOT NULL DEFAULT '${currency}';
+ALTER TABLE Invoices ADD COLUMN total_minor BIGINT NOT NULL DEFAULT 0;
+UPDATE Invoices SET total_minor = ROUND(total * ${minorUnitFactor});
+ALTER TABLE Invoices DROP COLUMN total;
+
+ALTER TABLE InvoiceLines ADD COLUMN unit_price_minor BIGINT NOT NULL DEFAULT 0;
+ALTER TABLE InvoiceLines ADD COLUMN amount_minor BIGINT NOT NULL DEFAULT 0;
+UPDATE InvoiceLines SET unit_price_minor = ROUND(unit_price * ${minorUnitFactor}), amount_minor = ROUND(amount * ${minorUnitFactor});
+ALTER TABLE InvoiceLines DROP COLUMN unit_price;
+ALTER TABLE InvoiceLines DROP COLUMN amount;
+
+ALTER TABLE CustomerInvoiceSummaries ADD COLUMN total_billed_minor BIGINT NOT NULL DEFAULT 0;
+ALTER TABLE CustomerInvoiceSummaries ADD COLUMN outstanding_minor BIGINT NOT NULL DEFAULT 0;
+UPDATE CustomerInvoiceSummaries SET total_billed_minor = ROUND(total_billed * ${minorUnitFactor}), outstanding_minor = ROUND(outstanding * ${minorUnitFactor});
+ALTER TABLE CustomerInvoiceSummaries DROP COLUMN total_billed;
+ALTER TABLE CustomerInvoiceSummaries DROP COLUMN outstanding;
+
+ALTER TABLE AccountInvoiceSummaries ADD COLUMN total_billed_minor BIGINT NOT NULL DEFAULT 0;
+ALTER TABLE AccountInvoiceSummaries ADD COLUMN outstanding_minor BIGINT NOT NULL DEFAULT 0;
+UPDATE AccountInvoiceSummaries SET total_billed_minor = ROUND(total_billed * ${minorUnitFactor}), outstanding_minor = ROUND(outstanding * ${minorUnitFactor});
+ALTER TABLE AccountInvoiceSummaries DROP COLUMN total_billed;
+ALTER TABLE AccountInvoiceSummaries DROP COLUMN outstanding;
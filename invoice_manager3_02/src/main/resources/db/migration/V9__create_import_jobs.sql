@@ -0,0 +1,24 @@
+CREATE TABLE ImportJobs
+(
+    id                BIGINT       NOT NULL AUTO_INCREMENT PRIMARY KEY,
+    status            VARCHAR(20)  NOT NULL DEFAULT 'RUNNING',
+    rows_read         BIGINT       NOT NULL DEFAULT 0,
+    invoices_created  BIGINT       NOT NULL DEFAULT 0,
+    invoices_rejected BIGINT       NOT NULL DEFAULT 0,
+    message           VARCHAR(255) DEFAULT NULL,
+    created_at        DATETIME     DEFAULT CURRENT_TIMESTAMP,
+    updated_at        DATETIME     DEFAULT CURRENT_TIMESTAMP,
+    completed_at      DATETIME     DEFAULT NULL
+);
+
+CREATE TABLE ImportJobErrors
+(
+    id          BIGINT       NOT NULL AUTO_INCREMENT PRIMARY KEY,
+    job_id      BIGINT       NOT NULL,
+    line_number BIGINT       NOT NULL,
+    reference   VARCHAR(100) DEFAULT NULL,
+    message     VARCHAR(255) NOT NULL,
+    CONSTRAINT FK_ImportJobErrors_Job_Id FOREIGN KEY (job_id) REFERENCES ImportJobs (id) ON DELETE CASCADE ON UPDATE CASCADE
+);
+
+CREATE INDEX IX_ImportJobErrors_Job_Id ON ImportJobErrors (job_id, line_number);
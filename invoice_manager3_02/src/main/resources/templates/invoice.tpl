@@ -0,0 +1,15 @@
+## INVOICE {{invoiceNumber}}
+@columns 50 300
+Issued: {{issuedAt}}|Bill to:
+Due: {{dueDate}}|{{customerName}}
+Status: {{status}}|{{customerEmail}}
+|{{customerAddress}}
+|{{customerPhone}}
+
+@columns 50 360> 440> 545>
+## Description|Quantity|Unit price|Amount
+{{#lines}}
+{{description}}|{{quantity}}|{{unitPrice}}|{{amount}}
+{{/lines}}
+
+## Total ({{currency}})|||{{total}}
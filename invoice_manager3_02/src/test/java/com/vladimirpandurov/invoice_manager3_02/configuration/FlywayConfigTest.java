@@ -0,0 +1,51 @@
+package com.vladimirpandurov.invoice_manager3_02.configuration;
+
+import org.flywaydb.core.Flyway;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.CsvSource;
+import org.junit.jupiter.api.Test;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+
+import java.util.Currency;
+import java.util.List;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class FlywayConfigTest {
+
+    @ParameterizedTest(name = "{0}")
+    @CsvSource({"USD, 12345", "JPY, 123", "BHD, 123450"})
+    void minorUnitsMigrationUsesTheConfiguredCurrencyScale(String currencyCode, long expectedMinor){
+        DriverManagerDataSource dataSource = new DriverManagerDataSource("jdbc:h2:mem:flyway-" + UUID.randomUUID() + ";MODE=MySQL;DB_CLOSE_DELAY=-1", "sa", "");
+        JdbcTemplate jdbc = new JdbcTemplate(dataSource);
+        migrate(dataSource, currencyCode, "7");
+        jdbc.update("INSERT INTO Customers (name, email) VALUES ('Scale Customer', 'scale@invoicemanager.dev')");
+        jdbc.update("INSERT INTO Invoices (invoice_number, customer_id, issued_at, due_date, total) SELECT 'INV-1', id, CURRENT_DATE, CURRENT_DATE, 123.45 FROM Customers");
+
+        migrate(dataSource, currencyCode, "8");
+
+        assertThat(jdbc.queryForList("SELECT currency FROM Invoices", String.class)).isEqualTo(List.of(currencyCode));
+        assertThat(jdbc.queryForObject("SELECT total_minor FROM Invoices", Long.class)).isEqualTo(expectedMinor);
+    }
+
+    @Test
+    void currenciesWithoutAMinorUnitAreRefused(){
+        assertThatThrownBy(() -> FlywayConfig.currencyPlaceholders(Currency.getInstance("XAU")))
+                .isInstanceOf(IllegalStateException.class)
+                .hasMessageContaining("XAU");
+        assertThat(FlywayConfig.currencyPlaceholders(Currency.getInstance("EUR"))).containsEntry("minorUnitFactor", "100");
+    }
+
+    private static void migrate(DriverManagerDataSource dataSource, String currencyCode, String target){
+        Flyway.configure()
+                .dataSource(dataSource)
+                .locations("classpath:db/migration")
+                .placeholders(FlywayConfig.currencyPlaceholders(Currency.getInstance(currencyCode)))
+                .target(target)
+                .load()
+                .migrate();
+    }
+}
@@ -0,0 +1,76 @@
+package com.vladimirpandurov.invoice_manager3_02.configuration;
+
+import com.vladimirpandurov.invoice_manager3_02.support.ApiClient;
+import org.apache.tomcat.util.threads.VirtualThreadExecutor;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.web.server.LocalServerPort;
+import org.springframework.boot.web.embedded.tomcat.TomcatWebServer;
+import org.springframework.boot.web.servlet.context.ServletWebServerApplicationContext;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.springframework.boot.test.context.SpringBootTest.WebEnvironment.RANDOM_PORT;
+
+@SpringBootTest(webEnvironment = RANDOM_PORT, properties = "spring.threads.virtual.enabled=true")
+@ActiveProfiles("test")
+class VirtualThreadTest {
+
+    private static final int CONCURRENT_PROFILE_READS = 2000;
+    private static final int SESSIONS = 20;
+    private static final int REFRESHES_PER_SESSION = 5;
+
+    @LocalServerPort
+    private int port;
+    @Autowired
+    private ServletWebServerApplicationContext context;
+
+    @Test
+    void servesRequestsOnVirtualThreads(){
+        TomcatWebServer webServer = (TomcatWebServer) context.getWebServer();
+        assertThat(webServer.getTomcat().getConnector().getProtocolHandler().getExecutor()).isInstanceOf(VirtualThreadExecutor.class);
+    }
+
+    @Test
+    void servesConcurrentProfileReadsAndRefreshesAgainstTheEmbeddedDatabase() throws Exception {
+        ApiClient client = new ApiClient(port);
+        List<ApiClient.Response> logins = new ArrayList<>();
+        for(int i = 0; i < SESSIONS; i++){
+            logins.add(client.login());
+        }
+        String accessToken = logins.get(0).accessToken();
+        List<Future<Integer>> profileReads = new ArrayList<>();
+        List<Future<Integer>> refreshChains = new ArrayList<>();
+        try(ExecutorService callers = Executors.newVirtualThreadPerTaskExecutor()){
+            for(int i = 0; i < CONCURRENT_PROFILE_READS; i++){
+                profileReads.add(callers.submit(() -> client.get("/user/profile", accessToken).status()));
+            }
+            for(ApiClient.Response login : logins){
+                refreshChains.add(callers.submit(() -> {
+                    String refreshToken = login.refreshToken();
+                    int refreshed = 0;
+                    for(int i = 0; i < REFRESHES_PER_SESSION; i++){
+                        ApiClient.Response response = client.get("/user/refresh/token", refreshToken);
+                        if(response.status() != 200) break;
+                        refreshToken = response.refreshToken();
+                        refreshed++;
+                    }
+                    return refreshed;
+                }));
+            }
+        }
+        for(Future<Integer> read : profileReads){
+            assertThat(read.get()).isEqualTo(200);
+        }
+        for(Future<Integer> chain : refreshChains){
+            assertThat(chain.get()).isEqualTo(REFRESHES_PER_SESSION);
+        }
+    }
+}
@@ -0,0 +1,88 @@
+package com.vladimirpandurov.invoice_manager3_02.datasource;
+
+import com.vladimirpandurov.invoice_manager3_02.configuration.FlywayConfig;
+import com.vladimirpandurov.invoice_manager3_02.exception.ApiException;
+import com.vladimirpandurov.invoice_manager3_02.service.UserService;
+import com.vladimirpandurov.invoice_manager3_02.support.ApiClient;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.flywaydb.core.Flyway;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.web.server.LocalServerPort;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+
+import java.util.Currency;
+import java.util.UUID;
+
+import static com.vladimirpandurov.invoice_manager3_02.support.ApiClient.BENCHMARK_EMAIL;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.springframework.boot.test.context.SpringBootTest.WebEnvironment.RANDOM_PORT;
+
+@SpringBootTest(webEnvironment = RANDOM_PORT, properties = "application.datasource.read-your-writes-window=PT1S")
+@ActiveProfiles("test")
+class ReadRoutingTest {
+
+    private static final String REPLICA_URL = "jdbc:h2:mem:replica-" + UUID.randomUUID() + ";MODE=MySQL;DB_CLOSE_DELAY=-1";
+
+    @LocalServerPort
+    private int port;
+    @Autowired
+    private UserService userService;
+    @Autowired
+    private ReadRouting readRouting;
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+    @Autowired
+    private MeterRegistry registry;
+
+    @DynamicPropertySource
+    static void replica(DynamicPropertyRegistry properties){
+        Flyway.configure()
+                .dataSource(REPLICA_URL, "sa", "")
+                .locations("classpath:db/migration", "classpath:db/benchmark")
+                .placeholders(FlywayConfig.currencyPlaceholders(Currency.getInstance("USD")))
+                .load()
+                .migrate();
+        properties.add("application.datasource.replica.url", () -> REPLICA_URL);
+        properties.add("application.datasource.replica.username", () -> "sa");
+        properties.add("application.datasource.replica.password", () -> "");
+    }
+
+    @Test
+    void readsOwnWritesFromThePrimaryUntilTheWindowCloses() throws InterruptedException {
+        String email = "replica-lag-" + UUID.randomUUID() + "@invoicemanager.dev";
+        ApiClient.Response registered = new ApiClient(port).post("/user/register", null,
+                "{\"firstName\":\"Replica\",\"lastName\":\"Lag\",\"email\":\"" + email + "\",\"password\":\"password\"}");
+        assertThat(registered.status()).isEqualTo(201);
+        double pinned = reads("primary");
+
+        assertThat(userService.getUserByEmail(email).getEmail()).isEqualTo(email);
+        assertThat(reads("primary") - pinned).isEqualTo(2);
+
+        Thread.sleep(1_500);
+        assertThatThrownBy(() -> userService.getUserByEmail(email))
+                .isInstanceOf(ApiException.class)
+                .hasMessageContaining("No user found by email");
+    }
+
+    @Test
+    void readsUsersWithoutRecentWritesFromTheReplica(){
+        jdbcTemplate.update("UPDATE Users SET first_name = 'Primary' WHERE email = ?", BENCHMARK_EMAIL);
+        double replica = reads("replica");
+
+        assertThat(userService.getUserByEmail(BENCHMARK_EMAIL).getFirstName()).isEqualTo("Benchmark");
+        assertThat(reads("replica") - replica).isEqualTo(2);
+
+        readRouting.written(BENCHMARK_EMAIL);
+        assertThat(userService.getUserByEmail(BENCHMARK_EMAIL).getFirstName()).isEqualTo("Primary");
+    }
+
+    private double reads(String target){
+        return registry.get("datasource.reads").tag("target", target).counter().count();
+    }
+}
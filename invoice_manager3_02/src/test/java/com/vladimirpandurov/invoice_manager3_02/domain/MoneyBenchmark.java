@@ -0,0 +1,103 @@
+package com.vladimirpandurov.invoice_manager3_02.domain;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.util.Currency;
+import java.util.SplittableRandom;
+import java.util.concurrent.TimeUnit;
+
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class MoneyBenchmark {
+
+    private static final Currency USD = Currency.getInstance("USD");
+
+    @Param({"3", "100"})
+    private int lines;
+    private long[] unitMinor;
+    private int[] quantities;
+    private long[] amounts;
+    private Money[] unitPrices;
+    private BigDecimal[] unitDecimals;
+
+    @Setup
+    public void setUp(){
+        SplittableRandom random = new SplittableRandom(44);
+        unitMinor = new long[lines];
+        quantities = new int[lines];
+        amounts = new long[lines];
+        unitPrices = new Money[lines];
+        unitDecimals = new BigDecimal[lines];
+        for(int i = 0; i < lines; i++){
+            unitMinor[i] = random.nextLong(1, 1_000_000);
+            quantities[i] = random.nextInt(1, 100);
+            unitPrices[i] = Money.ofMinor(unitMinor[i], USD);
+            unitDecimals[i] = BigDecimal.valueOf(unitMinor[i], 2);
+        }
+    }
+
+    @Benchmark
+    public long invoiceTotalMinorUnits(){
+        return Money.sumProducts(unitMinor, quantities, amounts);
+    }
+
+    @Benchmark
+    public Money invoiceTotalMoney(){
+        Money total = Money.zero(USD);
+        for(int i = 0; i < lines; i++){
+            total = total.plus(unitPrices[i].times(quantities[i]));
+        }
+        return total;
+    }
+
+    @Benchmark
+    public BigDecimal invoiceTotalBigDecimal(){
+        BigDecimal total = BigDecimal.ZERO;
+        for(int i = 0; i < lines; i++){
+            total = total.add(unitDecimals[i].multiply(BigDecimal.valueOf(quantities[i])));
+        }
+        return total;
+    }
+
+    @Benchmark
+    public long taxMinorUnits(){
+        long tax = 0;
+        for(int i = 0; i < lines; i++){
+            tax += Money.multiply(unitMinor[i], 2_125, 10_000, RoundingMode.HALF_EVEN);
+        }
+        return tax;
+    }
+
+    @Benchmark
+    public BigDecimal taxBigDecimal(){
+        BigDecimal rate = new BigDecimal("0.2125");
+        BigDecimal tax = BigDecimal.ZERO;
+        for(int i = 0; i < lines; i++){
+            tax = tax.add(unitDecimals[i].multiply(rate).setScale(2, RoundingMode.HALF_EVEN));
+        }
+        return tax;
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        new Runner(new OptionsBuilder().include(MoneyBenchmark.class.getSimpleName()).build()).run();
+    }
+}
@@ -0,0 +1,131 @@
+package com.vladimirpandurov.invoice_manager3_02.domain;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+import java.math.BigInteger;
+import java.math.RoundingMode;
+import java.util.Currency;
+import java.util.SplittableRandom;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class MoneyTest {
+
+    private static final int SAMPLES = 200_000;
+    private static final BigInteger LONG_MIN = BigInteger.valueOf(Long.MIN_VALUE);
+    private static final BigInteger LONG_MAX = BigInteger.valueOf(Long.MAX_VALUE);
+    private static final Currency USD = Currency.getInstance("USD");
+    private final SplittableRandom random = new SplittableRandom(44);
+
+    @Test
+    void multiplyRoundsLikeBigDecimalInEveryMode(){
+        for(int i = 0; i < SAMPLES; i++){
+            long minor = random.nextLong(-1_000_000_000_000L, 1_000_000_000_000L);
+            long numerator = random.nextLong(-1_000_000, 1_000_000);
+            long denominator = random.nextInt(4) == 0 ? random.nextLong(1, 10) : random.nextLong(1, 1_000_000);
+            for(RoundingMode mode : RoundingMode.values()){
+                BigDecimal exact = BigDecimal.valueOf(minor).multiply(BigDecimal.valueOf(numerator)).divide(BigDecimal.valueOf(denominator), 20, RoundingMode.UNNECESSARY.equals(mode) ? RoundingMode.DOWN : mode);
+                long expected;
+                try{
+                    expected = BigDecimal.valueOf(minor).multiply(BigDecimal.valueOf(numerator)).divide(BigDecimal.valueOf(denominator), 0, mode).longValueExact();
+                }catch (ArithmeticException exception){
+                    assertThatThrownBy(() -> Money.multiply(minor, numerator, denominator, mode)).isInstanceOf(ArithmeticException.class);
+                    continue;
+                }
+                assertThat(Money.multiply(minor, numerator, denominator, mode))
+                        .as("%d * %d / %d %s (exact %s)", minor, numerator, denominator, mode, exact)
+                        .isEqualTo(expected);
+            }
+        }
+    }
+
+    @Test
+    void sumMatchesBigIntegerAndThrowsExactlyOnOverflow(){
+        for(int i = 0; i < SAMPLES / 100; i++){
+            long[] values = new long[random.nextInt(1, 200)];
+            boolean large = random.nextBoolean();
+            BigInteger exact = BigInteger.ZERO;
+            boolean overflow = false;
+            for(int n = 0; n < values.length; n++){
+                values[n] = large ? random.nextLong() : random.nextLong(-1_000_000_000L, 1_000_000_000L);
+                exact = exact.add(BigInteger.valueOf(values[n]));
+                overflow |= exact.compareTo(LONG_MIN) < 0 || exact.compareTo(LONG_MAX) > 0;
+            }
+            if(overflow){
+                assertThatThrownBy(() -> Money.sum(values)).isInstanceOf(ArithmeticException.class);
+            }else{
+                assertThat(Money.sum(values)).isEqualTo(exact.longValueExact());
+            }
+        }
+    }
+
+    @Test
+    void sumProductsMatchesBigIntegerAndThrowsExactlyOnOverflow(){
+        for(int i = 0; i < SAMPLES / 100; i++){
+            int lines = random.nextInt(1, 100);
+            long[] units = new long[lines];
+            int[] quantities = new int[lines];
+            long[] amounts = new long[lines];
+            boolean large = random.nextInt(4) == 0;
+            BigInteger exact = BigInteger.ZERO;
+            boolean overflow = false;
+            for(int n = 0; n < lines; n++){
+                units[n] = large ? random.nextLong() : random.nextLong(-10_000_000L, 10_000_000L);
+                quantities[n] = large ? random.nextInt() : random.nextInt(1, 10_000);
+                BigInteger amount = BigInteger.valueOf(units[n]).multiply(BigInteger.valueOf(quantities[n]));
+                exact = exact.add(amount);
+                overflow |= amount.compareTo(LONG_MIN) < 0 || amount.compareTo(LONG_MAX) > 0
+                        || exact.compareTo(LONG_MIN) < 0 || exact.compareTo(LONG_MAX) > 0;
+            }
+            if(overflow){
+                assertThatThrownBy(() -> Money.sumProducts(units, quantities, amounts)).isInstanceOf(ArithmeticException.class);
+            }else{
+                assertThat(Money.sumProducts(units, quantities, amounts)).isEqualTo(exact.longValueExact());
+                for(int n = 0; n < lines; n++){
+                    assertThat(amounts[n]).isEqualTo(units[n] * quantities[n]);
+                }
+            }
+        }
+    }
+
+    @Test
+    void plusAndMinusAreInversesAndCommute(){
+        for(int i = 0; i < SAMPLES; i++){
+            Money a = Money.ofMinor(random.nextLong(-1L << 60, 1L << 60), USD);
+            Money b = Money.ofMinor(random.nextLong(-1L << 60, 1L << 60), USD);
+            assertThat(a.plus(b)).isEqualTo(b.plus(a));
+            assertThat(a.plus(b).minus(b)).isEqualTo(a);
+            assertThat(a.compareTo(b)).isEqualTo(Long.compare(a.getMinorUnits(), b.getMinorUnits()));
+        }
+        assertThatThrownBy(() -> Money.ofMinor(Long.MAX_VALUE, USD).plus(Money.ofMinor(1, USD))).isInstanceOf(ArithmeticException.class);
+        assertThatThrownBy(() -> Money.ofMinor(1, USD).plus(Money.ofMinor(1, Currency.getInstance("EUR")))).isInstanceOf(IllegalArgumentException.class);
+    }
+
+    @Test
+    void decimalAmountsRoundTripAtTheCurrencyScale(){
+        for(String code : new String[]{"USD", "JPY", "BHD"}){
+            Currency currency = Currency.getInstance(code);
+            int scale = currency.getDefaultFractionDigits();
+            for(int i = 0; i < SAMPLES / 100; i++){
+                BigDecimal amount = BigDecimal.valueOf(random.nextLong(-1_000_000_000_000L, 1_000_000_000_000L), scale);
+                Money money = Money.of(amount, code);
+                assertThat(money.toBigDecimal()).isEqualTo(amount);
+                assertThat(money.getMinorUnits()).isEqualTo(amount.unscaledValue().longValueExact());
+            }
+            BigDecimal tooPrecise = BigDecimal.ONE.movePointLeft(scale + 1);
+            assertThatThrownBy(() -> Money.of(tooPrecise, code)).isInstanceOf(IllegalArgumentException.class);
+        }
+    }
+
+    @Test
+    void serializesAsAmountAndCurrency() throws Exception {
+        ObjectMapper mapper = new ObjectMapper();
+        Money money = Money.ofMinor(123_45, USD);
+        String json = mapper.writeValueAsString(money);
+        assertThat(json).isEqualTo("{\"amount\":123.45,\"currency\":\"USD\"}");
+        assertThat(mapper.readValue(json, Money.class)).isEqualTo(money);
+    }
+}
@@ -0,0 +1,104 @@
+package com.vladimirpandurov.invoice_manager3_02.feed;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.context.TestConfiguration;
+import org.springframework.context.annotation.Bean;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@SpringBootTest(properties = "application.user-change-feed.gap-timeout=PT1S")
+@ActiveProfiles("test")
+class UserChangeFeedTest {
+
+    private static final String INSERT_CHANGE = "INSERT INTO UserChanges (id, user_id, email, type) VALUES (:id, 0, 'feed@invoicemanager.dev', 'ROLE_CHANGED')";
+    private static final List<Long> received = new CopyOnWriteArrayList<>();
+    private static final List<Long> failed = new CopyOnWriteArrayList<>();
+
+    @Autowired
+    private UserChangeFeed feed;
+    @Autowired
+    private NamedParameterJdbcTemplate jdbc;
+    @Autowired
+    private MeterRegistry registry;
+
+    @Test
+    void gapsAreHeldBackRecheckedAndGivenUpAfterTheTimeout() throws InterruptedException {
+        long base = lastId();
+
+        record(base + 2);
+        feed.poll();
+        assertThat(received).contains(base + 2).doesNotContain(base + 1);
+        assertThat(gaps()).isEqualTo(1);
+
+        record(base + 1);
+        feed.poll();
+        assertThat(received).contains(base + 1);
+        assertThat(gaps()).isZero();
+
+        record(base + 4);
+        feed.poll();
+        assertThat(gaps()).isEqualTo(1);
+        Thread.sleep(1500);
+        feed.poll();
+        assertThat(gaps()).isZero();
+
+        record(base + 3);
+        feed.poll();
+        assertThat(received).doesNotContain(base + 3);
+    }
+
+    @Test
+    void listenersSeeChangesInIdOrderAndAFailingListenerDoesNotStopTheOthers(){
+        long base = lastId();
+        for(long id = base + 1; id <= base + 5; id++){
+            record(id);
+        }
+
+        feed.poll();
+
+        assertThat(received.stream().filter(id -> id > base).toList()).containsExactly(base + 1, base + 2, base + 3, base + 4, base + 5);
+        assertThat(failed.stream().filter(id -> id > base).toList()).containsExactly(base + 1, base + 2, base + 3, base + 4, base + 5);
+    }
+
+    private long lastId(){
+        return jdbc.queryForObject("SELECT COALESCE(MAX(id), 0) FROM UserChanges", Map.of(), Long.class);
+    }
+
+    private void record(long id){
+        jdbc.update(INSERT_CHANGE, Map.of("id", id));
+    }
+
+    private double gaps(){
+        return registry.get("user.change.feed.gaps").gauge().value();
+    }
+
+    @TestConfiguration
+    static class Listeners {
+
+        @Bean
+        @Order(Ordered.HIGHEST_PRECEDENCE)
+        UserChangeListener failingListener(){
+            return change -> {
+                failed.add(change.getId());
+                throw new IllegalStateException("listener failure");
+            };
+        }
+
+        @Bean
+        @Order(Ordered.LOWEST_PRECEDENCE)
+        UserChangeListener recordingListener(){
+            return change -> received.add(change.getId());
+        }
+    }
+}
@@ -0,0 +1,59 @@
+package com.vladimirpandurov.invoice_manager3_02.index;
+
+import com.vladimirpandurov.invoice_manager3_02.domain.RefreshToken;
+import com.vladimirpandurov.invoice_manager3_02.repository.RefreshTokenRepository;
+import com.vladimirpandurov.invoice_manager3_02.repository.RefreshTokenRepository.ActiveTokenConsumer;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDateTime;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.mock;
+
+class RefreshTokenIndexTest {
+
+    private static final LocalDateTime EXPIRES_AT = LocalDateTime.now().plusDays(1);
+
+    @SuppressWarnings("unchecked")
+    private final RefreshTokenRepository<RefreshToken> repository = mock(RefreshTokenRepository.class);
+    private final RefreshTokenIndex index = new RefreshTokenIndex(repository, new SimpleMeterRegistry());
+
+    @Test
+    void loadReplacesEntriesThatAreNoLongerActiveInTheDatabase(){
+        index.add(token(1));
+        doAnswer(invocation -> {
+            invocation.<ActiveTokenConsumer>getArgument(0).accept(2, EXPIRES_AT);
+            return null;
+        }).when(repository).loadActive(any());
+
+        index.load();
+
+        assertThat(index.isActive(1)).isFalse();
+        assertThat(index.isActive(2)).isTrue();
+    }
+
+    @Test
+    void loadReplaysChangesMadeWhileItWasReading(){
+        doAnswer(invocation -> {
+            ActiveTokenConsumer consumer = invocation.getArgument(0);
+            consumer.accept(1, EXPIRES_AT);
+            index.remove(1);
+            index.add(token(3));
+            consumer.accept(2, EXPIRES_AT);
+            return null;
+        }).when(repository).loadActive(any());
+
+        index.load();
+
+        assertThat(index.isActive(1)).isFalse();
+        assertThat(index.isActive(2)).isTrue();
+        assertThat(index.isActive(3)).isTrue();
+    }
+
+    private static RefreshToken token(long id){
+        return RefreshToken.builder().id(id).familyId(id).userId(1L).expiresAt(EXPIRES_AT).build();
+    }
+}
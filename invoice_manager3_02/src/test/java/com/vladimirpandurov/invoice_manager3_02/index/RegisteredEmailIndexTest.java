@@ -0,0 +1,26 @@
+package com.vladimirpandurov.invoice_manager3_02.index;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class RegisteredEmailIndexTest {
+
+    private static final double FALSE_POSITIVE_PROBABILITY = 0.01;
+
+    @Test
+    void compoundedFalsePositiveProbabilityStaysWithinTargetAsFiltersAreAdded(){
+        SimpleMeterRegistry registry = new SimpleMeterRegistry();
+        RegisteredEmailIndex index = new RegisteredEmailIndex(new JdbcTemplate(new DriverManagerDataSource()), null, registry, 1000);
+        ReflectionTestUtils.setField(index, "falsePositiveProbability", FALSE_POSITIVE_PROBABILITY);
+        for(int i = 0; i < 1_500_000; i++){
+            index.add("user" + i + "@invoicemanager.dev");
+        }
+        assertThat(registry.get("email.index.entries").gauge().value()).isEqualTo(1_500_000);
+        assertThat(registry.get("email.index.false_positive_probability").gauge().value()).isLessThanOrEqualTo(FALSE_POSITIVE_PROBABILITY);
+    }
+}
@@ -0,0 +1,105 @@
+package com.vladimirpandurov.invoice_manager3_02.index;
+
+import com.vladimirpandurov.invoice_manager3_02.domain.RevokedToken;
+import com.vladimirpandurov.invoice_manager3_02.repository.RevokedTokenRepository;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.Map;
+import java.util.TreeMap;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class RevokedTokenIndexTest {
+
+    private static final LocalDateTime EXPIRES_AT = LocalDateTime.now().plusHours(1);
+
+    private final CommittedRows repository = new CommittedRows();
+    private final SimpleMeterRegistry registry = new SimpleMeterRegistry();
+    private final RevokedTokenIndex index = new RevokedTokenIndex(repository, registry, 2, Duration.ofMinutes(1));
+
+    @Test
+    void picksUpRowsThatCommitBehindTheCursor(){
+        repository.commit(1, 101);
+        index.load();
+        repository.commit(3, 103);
+        repository.commit(4, 104);
+        index.refresh();
+        assertThat(index.isRevoked(103)).isTrue();
+        assertThat(registry.get("revoked_token.index.gaps").gauge().value()).isEqualTo(1);
+
+        repository.commit(2, 102);
+        index.refresh();
+        assertThat(index.isRevoked(102)).isTrue();
+        assertThat(registry.get("revoked_token.index.gaps").gauge().value()).isZero();
+    }
+
+    @Test
+    void gapsAreDroppedAfterTheTimeout(){
+        RevokedTokenIndex shortLived = new RevokedTokenIndex(repository, new SimpleMeterRegistry(), 10, Duration.ZERO);
+        repository.commit(1, 101);
+        shortLived.load();
+        repository.commit(3, 103);
+        shortLived.refresh();
+        repository.commit(2, 102);
+        shortLived.refresh();
+        assertThat(shortLived.isRevoked(102)).isFalse();
+        assertThat(shortLived.isRevoked(103)).isTrue();
+    }
+
+    @Test
+    void expiredRowsAdvanceTheCursorWithoutBeingIndexed(){
+        repository.commit(1, 101, LocalDateTime.now().minusMinutes(1));
+        repository.commit(2, 102);
+        index.load();
+        assertThat(index.isRevoked(101)).isFalse();
+        assertThat(index.isRevoked(102)).isTrue();
+    }
+
+    private static class CommittedRows implements RevokedTokenRepository<RevokedToken> {
+
+        private final TreeMap<Long, Row> rows = new TreeMap<>();
+
+        void commit(long id, long tokenId){
+            commit(id, tokenId, EXPIRES_AT);
+        }
+
+        void commit(long id, long tokenId, LocalDateTime expiresAt){
+            rows.put(id, new Row(tokenId, expiresAt));
+        }
+
+        @Override
+        public RevokedToken create(RevokedToken data){
+            throw new UnsupportedOperationException();
+        }
+
+        @Override
+        public long loadAfter(long lastId, int limit, RevokedTokenConsumer consumer){
+            long maxId = lastId;
+            for(Map.Entry<Long, Row> row : rows.tailMap(lastId, false).entrySet()){
+                if(limit-- == 0) break;
+                maxId = row.getKey();
+                consumer.accept(row.getKey(), row.getValue().tokenId(), row.getValue().expiresAt());
+            }
+            return maxId;
+        }
+
+        @Override
+        public void loadByIds(Collection<Long> ids, RevokedTokenConsumer consumer){
+            for(Long id : ids){
+                Row row = rows.get(id);
+                if(row != null) consumer.accept(id, row.tokenId(), row.expiresAt());
+            }
+        }
+
+        @Override
+        public int deleteExpired(LocalDateTime before){
+            return 0;
+        }
+
+        private record Row(long tokenId, LocalDateTime expiresAt){}
+    }
+}
@@ -0,0 +1,106 @@
+package com.vladimirpandurov.invoice_manager3_02.index;
+
+import com.vladimirpandurov.invoice_manager3_02.domain.Customer;
+import com.vladimirpandurov.invoice_manager3_02.repository.CustomerRepository;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.namedparam.MapSqlParameterSource;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.jdbc.support.GeneratedKeyHolder;
+import org.springframework.jdbc.support.KeyHolder;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+
+import static com.vladimirpandurov.invoice_manager3_02.query.CustomerQuery.INSERT_CUSTOMER_QUERY;
+import static org.assertj.core.api.Assertions.assertThat;
+
+@SpringBootTest
+@ActiveProfiles("test")
+class SearchIndexTest {
+
+    private static final String INSERT_CHANGE = "INSERT INTO SearchChanges (id, entity_type, entity_id) VALUES (:id, :entityType, :entityId)";
+
+    @Autowired
+    private SearchIndex searchIndex;
+    @Autowired
+    private CustomerRepository<Customer> customerRepository;
+    @Autowired
+    private NamedParameterJdbcTemplate jdbc;
+
+    @Test
+    void customersWrittenByAnotherNodeBecomeSearchableAfterPoll(){
+        String name = "Qx" + UUID.randomUUID().toString().substring(0, 8);
+        long id = insertCustomer(name);
+        assertThat(searchIndex.searchCustomers(name, Integer.MAX_VALUE, 10)).isEmpty();
+
+        recordChange(lastChangeId() + 1, "CUSTOMER", id);
+        searchIndex.poll();
+        assertThat(searchIndex.searchCustomers(name, Integer.MAX_VALUE, 10)).containsExactly((int) id);
+
+        jdbc.update("DELETE FROM Customers WHERE id = :id", Map.of("id", id));
+        recordChange(lastChangeId() + 1, "CUSTOMER", id);
+        searchIndex.poll();
+        assertThat(searchIndex.searchCustomers(name, Integer.MAX_VALUE, 10)).isEmpty();
+    }
+
+    @Test
+    void changesThatCommitBehindTheCursorAreStillApplied(){
+        String late = "Qx" + UUID.randomUUID().toString().substring(0, 8);
+        String early = "Qx" + UUID.randomUUID().toString().substring(0, 8);
+        long lateId = insertCustomer(late);
+        long earlyId = insertCustomer(early);
+        long base = lastChangeId();
+
+        recordChange(base + 2, "CUSTOMER", earlyId);
+        searchIndex.poll();
+        assertThat(searchIndex.searchCustomers(early, Integer.MAX_VALUE, 10)).containsExactly((int) earlyId);
+
+        recordChange(base + 1, "CUSTOMER", lateId);
+        searchIndex.poll();
+        assertThat(searchIndex.searchCustomers(late, Integer.MAX_VALUE, 10)).containsExactly((int) lateId);
+    }
+
+    @Test
+    void bulkCreatedCustomersAreSearchable(){
+        String name = "Qx" + UUID.randomUUID().toString().substring(0, 8);
+        List<Customer> customers = new ArrayList<>();
+        for(int i = 0; i < 3; i++){
+            customers.add(Customer.builder().name(name).email(i + "@" + name.toLowerCase() + ".dev").type("INDIVIDUAL").status("ACTIVE").build());
+        }
+
+        List<Long> ids = customerRepository.createAll(customers);
+
+        assertThat(ids).hasSize(3).doesNotContainNull();
+        assertThat(customers).extracting(Customer::getId).containsExactlyElementsOf(ids);
+        assertThat(searchIndex.searchCustomers(name, Integer.MAX_VALUE, 10))
+                .containsExactlyInAnyOrder(ids.stream().mapToInt(Long::intValue).toArray());
+        Long recorded = jdbc.queryForObject("SELECT COUNT(*) FROM SearchChanges WHERE entity_type = 'CUSTOMER' AND entity_id IN (:ids)", Map.of("ids", ids), Long.class);
+        assertThat(recorded).isEqualTo(3);
+    }
+
+    private long insertCustomer(String name){
+        KeyHolder holder = new GeneratedKeyHolder();
+        jdbc.update(INSERT_CUSTOMER_QUERY, new MapSqlParameterSource()
+                .addValue("name", name)
+                .addValue("email", UUID.randomUUID() + "@invoicemanager.dev")
+                .addValue("type", "INDIVIDUAL")
+                .addValue("status", "ACTIVE")
+                .addValue("address", null)
+                .addValue("phone", null)
+                .addValue("imageUrl", null), holder, new String[]{"id"});
+        return holder.getKey().longValue();
+    }
+
+    private long lastChangeId(){
+        return jdbc.queryForObject("SELECT COALESCE(MAX(id), 0) FROM SearchChanges", Map.of(), Long.class);
+    }
+
+    private void recordChange(long id, String entityType, long entityId){
+        jdbc.update(INSERT_CHANGE, Map.of("id", id, "entityType", entityType, "entityId", entityId));
+    }
+}
@@ -0,0 +1,102 @@
+package com.vladimirpandurov.invoice_manager3_02.limit;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class AdaptiveConcurrencyLimitTest {
+
+    private static final int WORKERS = 8;
+    private static final long SERVICE_MILLIS = 5;
+    private static final long BACKOFF_MILLIS = 4 * SERVICE_MILLIS;
+    private static final long PHASE_MILLIS = 3_000;
+
+    @Test
+    void goodputStaysFlatAndLatencyBoundedUnderOverload() throws Exception {
+        AdaptiveConcurrencyLimit limit = new AdaptiveConcurrencyLimit(50, 4, 400, 100);
+        Server server = new Server();
+
+        Load nominal = server.run(limit, WORKERS);
+        Load overload = server.run(limit, 50 * WORKERS);
+
+        assertThat(overload.goodput()).isGreaterThan(0.8 * nominal.goodput());
+        assertThat(overload.meanLatencyMillis()).isLessThan(8 * Math.max(nominal.meanLatencyMillis(), SERVICE_MILLIS));
+        assertThat(overload.rejected()).isPositive();
+        assertThat(limit.getLimit()).isLessThan(50);
+    }
+
+    @Test
+    void withoutTheLimitLatencyGrowsWithTheQueue() throws Exception {
+        AdaptiveConcurrencyLimit unlimited = new AdaptiveConcurrencyLimit(Integer.MAX_VALUE, Integer.MAX_VALUE, Integer.MAX_VALUE, 100);
+        Load overload = new Server().run(unlimited, 50 * WORKERS);
+
+        assertThat(overload.rejected()).isZero();
+        assertThat(overload.meanLatencyMillis()).isGreaterThan(20 * SERVICE_MILLIS);
+    }
+
+    @Test
+    void rejectsOnceTheLimitIsReached(){
+        AdaptiveConcurrencyLimit limit = new AdaptiveConcurrencyLimit(2, 1, 2, 100);
+        assertThat(limit.tryAcquire()).isTrue();
+        assertThat(limit.tryAcquire()).isTrue();
+        assertThat(limit.tryAcquire()).isFalse();
+        assertThat(limit.getInflight()).isEqualTo(2);
+        limit.release(TimeUnit.MILLISECONDS.toNanos(SERVICE_MILLIS));
+        assertThat(limit.tryAcquire()).isTrue();
+    }
+
+    private record Load(long completed, long rejected, long latencyNanos){
+
+        double goodput(){
+            return completed * 1000.0 / PHASE_MILLIS;
+        }
+
+        double meanLatencyMillis(){
+            return completed == 0 ? 0 : latencyNanos / 1_000_000.0 / completed;
+        }
+    }
+
+    private static class Server {
+
+        private final Semaphore workers = new Semaphore(WORKERS, true);
+
+        Load run(AdaptiveConcurrencyLimit limit, int clients) throws InterruptedException {
+            AtomicLong completed = new AtomicLong();
+            AtomicLong rejected = new AtomicLong();
+            AtomicLong latency = new AtomicLong();
+            long deadline = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(PHASE_MILLIS);
+            try(ExecutorService pool = Executors.newVirtualThreadPerTaskExecutor()){
+                for(int i = 0; i < clients; i++){
+                    pool.submit(() -> {
+                        while(System.nanoTime() < deadline){
+                            if(!limit.tryAcquire()){
+                                rejected.incrementAndGet();
+                                Thread.sleep(BACKOFF_MILLIS);
+                                continue;
+                            }
+                            long start = System.nanoTime();
+                            workers.acquire();
+                            try{
+                                Thread.sleep(SERVICE_MILLIS);
+                            }finally {
+                                workers.release();
+                            }
+                            long rtt = System.nanoTime() - start;
+                            limit.release(rtt);
+                            completed.incrementAndGet();
+                            latency.addAndGet(rtt);
+                        }
+                        return null;
+                    });
+                }
+            }
+            return new Load(completed.get(), rejected.get(), latency.get());
+        }
+    }
+}
@@ -0,0 +1,58 @@
+package com.vladimirpandurov.invoice_manager3_02.limit;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.springframework.http.HttpHeaders.RETRY_AFTER;
+
+class ConcurrencyLimitFilterTest {
+
+    private final SimpleMeterRegistry registry = new SimpleMeterRegistry();
+    private final ConcurrencyLimitFilter filter = new ConcurrencyLimitFilter(registry, 1, 1, 1, 1, 1, 100, 2);
+
+    @Test
+    void rejectsWith503AndRetryAfterWhileTheGroupIsFull() throws Exception {
+        MockHttpServletResponse nested = new MockHttpServletResponse();
+        MockHttpServletResponse outer = new MockHttpServletResponse();
+        filter.doFilter(request("/invoice/list"), outer,
+                (request, response) -> filter.doFilter(request("/customer/list"), nested, (r, s) -> {}));
+
+        assertThat(outer.getStatus()).isEqualTo(200);
+        assertThat(nested.getStatus()).isEqualTo(503);
+        assertThat(nested.getHeader(RETRY_AFTER)).isEqualTo("2");
+        assertThat(rejected("api")).isEqualTo(1);
+        assertThat(registry.get("concurrency.inflight").tag("group", "api").gauge().value()).isZero();
+    }
+
+    @Test
+    void publicAndApiRoutesHaveSeparateLimits() throws Exception {
+        MockHttpServletResponse nested = new MockHttpServletResponse();
+        filter.doFilter(request("/invoice/list"), new MockHttpServletResponse(),
+                (request, response) -> filter.doFilter(request("/user/login"), nested, (r, s) -> {}));
+
+        assertThat(nested.getStatus()).isEqualTo(200);
+        assertThat(rejected("public") + rejected("api")).isZero();
+    }
+
+    @Test
+    void actuatorRoutesAreNeverLimited() throws Exception {
+        MockHttpServletResponse nested = new MockHttpServletResponse();
+        filter.doFilter(request("/invoice/list"), new MockHttpServletResponse(),
+                (request, response) -> filter.doFilter(request("/actuator/health"), nested, (r, s) -> {}));
+
+        assertThat(nested.getStatus()).isEqualTo(200);
+    }
+
+    private double rejected(String group){
+        return registry.get("concurrency.rejected").tag("group", group).counter().count();
+    }
+
+    private static MockHttpServletRequest request(String path){
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", path);
+        request.setServletPath(path);
+        return request;
+    }
+}
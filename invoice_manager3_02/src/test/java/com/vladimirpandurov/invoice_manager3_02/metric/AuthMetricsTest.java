@@ -0,0 +1,57 @@
+package com.vladimirpandurov.invoice_manager3_02.metric;
+
+import com.vladimirpandurov.invoice_manager3_02.support.ApiClient;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.actuate.observability.AutoConfigureObservability;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.web.server.LocalServerPort;
+import org.springframework.test.context.ActiveProfiles;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.springframework.boot.test.context.SpringBootTest.WebEnvironment.RANDOM_PORT;
+
+@SpringBootTest(webEnvironment = RANDOM_PORT)
+@ActiveProfiles("test")
+@AutoConfigureObservability
+class AuthMetricsTest {
+
+    @LocalServerPort
+    private int port;
+    @Autowired
+    private MeterRegistry registry;
+
+    @Test
+    void prometheusEndpointRequiresAuthentication(){
+        ApiClient client = new ApiClient(port);
+        assertThat(client.get("/actuator/prometheus", null).status()).isEqualTo(401);
+        assertThat(client.get("/actuator/health", null).status()).isEqualTo(200);
+        assertThat(client.get("/actuator/prometheus", client.login().accessToken()).status()).isEqualTo(200);
+    }
+
+    @Test
+    void publishesHistogramBucketsWithoutClientSidePercentiles(){
+        ApiClient client = new ApiClient(port);
+        String scrape = client.get("/actuator/prometheus", client.login().accessToken()).body();
+        assertThat(scrape).contains("auth_stage_seconds_bucket{");
+        assertThat(scrape).doesNotContainPattern("auth_stage_seconds\\{[^}]*quantile=");
+    }
+
+    @Test
+    void recordsOneVerificationAndOneRevocationCheckPerRequest(){
+        ApiClient client = new ApiClient(port);
+        String accessToken = client.login().accessToken();
+        long verified = count("jwt_verify");
+        long revocationChecked = count("revocation_check");
+        assertThat(client.get("/user/profile", accessToken).status()).isEqualTo(200);
+        assertThat(count("jwt_verify") - verified).isEqualTo(1);
+        assertThat(count("revocation_check") - revocationChecked).isEqualTo(1);
+    }
+
+    private long count(String stage){
+        Timer timer = registry.get("auth.stage").tag("stage", stage).tag("outcome", "valid").timer();
+        return timer.count();
+    }
+}
@@ -0,0 +1,62 @@
+package com.vladimirpandurov.invoice_manager3_02.query;
+
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.Arguments;
+import org.junit.jupiter.params.provider.MethodSource;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.namedparam.MapSqlParameterSource;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.lang.reflect.Field;
+import java.lang.reflect.Modifier;
+import java.util.Arrays;
+import java.util.Map;
+import java.util.stream.Stream;
+
+import static java.util.Map.entry;
+import static org.assertj.core.api.Assertions.assertThat;
+
+@SpringBootTest
+@ActiveProfiles("test")
+class LookupIndexTest {
+
+    private static final Map<String, Object> PARAMETERS = Map.ofEntries(
+            entry("email", "benchmark@invoicemanager.dev"),
+            entry("roleName", "ROLE_USER"),
+            entry("url", "https://invoicemanager.dev/verify"),
+            entry("code", "ABCDEFGH"),
+            entry("password", "hash"),
+            entry("id", 1L),
+            entry("userId", 1L),
+            entry("user_id", 1L),
+            entry("roleId", 1L),
+            entry("enabled", true));
+
+    @Autowired
+    private NamedParameterJdbcTemplate jdbc;
+
+    static Stream<Arguments> lookups(){
+        return Stream.of(UserQuery.class, RoleQuery.class)
+                .flatMap(type -> Arrays.stream(type.getDeclaredFields()))
+                .filter(field -> Modifier.isStatic(field.getModifiers()) && field.getType() == String.class)
+                .map(field -> Arguments.of(field.getName(), sql(field)))
+                .filter(arguments -> ((String) arguments.get()[1]).contains(" WHERE "));
+    }
+
+    @ParameterizedTest(name = "{0}")
+    @MethodSource("lookups")
+    void lookupUsesAnIndex(String name, String sql){
+        String plan = jdbc.queryForObject("EXPLAIN " + sql, new MapSqlParameterSource(PARAMETERS), String.class);
+        assertThat(plan).doesNotContainIgnoringCase("tableScan").containsPattern("/\\* PUBLIC\\.\\w+: ");
+    }
+
+    private static String sql(Field field){
+        try{
+            return (String) field.get(null);
+        }catch (IllegalAccessException exception){
+            throw new IllegalStateException(exception);
+        }
+    }
+}
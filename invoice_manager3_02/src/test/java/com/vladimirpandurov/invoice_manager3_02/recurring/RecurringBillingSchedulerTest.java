@@ -0,0 +1,137 @@
+package com.vladimirpandurov.invoice_manager3_02.recurring;
+
+import com.vladimirpandurov.invoice_manager3_02.domain.Customer;
+import com.vladimirpandurov.invoice_manager3_02.domain.Money;
+import com.vladimirpandurov.invoice_manager3_02.domain.RecurringSchedule;
+import com.vladimirpandurov.invoice_manager3_02.repository.CustomerRepository;
+import com.vladimirpandurov.invoice_manager3_02.repository.RecurringScheduleRepository;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.Currency;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+import java.util.function.BooleanSupplier;
+
+import static com.vladimirpandurov.invoice_manager3_02.enumeration.RecurringFrequency.MONTHLY;
+import static com.vladimirpandurov.invoice_manager3_02.recurring.RecurringBillingScheduler.PARTITIONS;
+import static org.assertj.core.api.Assertions.assertThat;
+
+@SpringBootTest
+@ActiveProfiles("test")
+class RecurringBillingSchedulerTest {
+
+    private static final int SCHEDULES = 2000;
+    private static final Currency USD = Currency.getInstance("USD");
+
+    @Autowired
+    private RecurringScheduleRepository<RecurringSchedule> scheduleRepository;
+    @Autowired
+    private RecurringInvoiceGenerator generator;
+    @Autowired
+    private CustomerRepository<Customer> customerRepository;
+    @Autowired
+    private NamedParameterJdbcTemplate jdbc;
+    @Autowired
+    private Clock clock;
+
+    @Test
+    void overlappingLeasesNeverBillAScheduleTwice() throws InterruptedException {
+        List<Long> customerIds = createSchedules(LocalDateTime.now(clock).truncatedTo(ChronoUnit.SECONDS).plusSeconds(8));
+        RecurringBillingScheduler first = scheduler();
+        RecurringBillingScheduler second = scheduler();
+        try{
+            first.start();
+            await(() -> first.status().getPartitions().size() == PARTITIONS);
+
+            jdbc.update("UPDATE ScheduleLeases SET expires_at = TIMESTAMPADD(SECOND, -1, CURRENT_TIMESTAMP)", Map.of());
+            second.start();
+            await(() -> second.status().getPartitions().size() == PARTITIONS / 2);
+            Set<Integer> overlap = new HashSet<>(first.status().getPartitions());
+            overlap.retainAll(second.status().getPartitions());
+            assertThat(overlap).hasSize(PARTITIONS / 2);
+
+            await(() -> invoicesPerCustomer(customerIds).size() == SCHEDULES);
+            Thread.sleep(1000);
+
+            assertThat(invoicesPerCustomer(customerIds).values()).hasSize(SCHEDULES).containsOnly(1L);
+            assertThat(first.status().getGenerated() + second.status().getGenerated()).isEqualTo(SCHEDULES);
+            assertThat(first.status().getFailed() + second.status().getFailed()).isZero();
+        }finally {
+            first.shutdown();
+            second.shutdown();
+        }
+    }
+
+    @Test
+    void leasesExpireOnTheDatabaseClock(){
+        String owner = "node-" + UUID.randomUUID();
+        int partition = PARTITIONS - 1;
+        jdbc.update("UPDATE ScheduleLeases SET owner = 'other', expires_at = TIMESTAMPADD(SECOND, 30, CURRENT_TIMESTAMP) WHERE partition_no = :partition", Map.of("partition", partition));
+        assertThat(scheduleRepository.acquireLease(partition, owner, Duration.ofSeconds(30))).isFalse();
+
+        jdbc.update("UPDATE ScheduleLeases SET expires_at = TIMESTAMPADD(SECOND, -1, CURRENT_TIMESTAMP) WHERE partition_no = :partition", Map.of("partition", partition));
+        assertThat(scheduleRepository.acquireLease(partition, owner, Duration.ofSeconds(30))).isTrue();
+        assertThat(scheduleRepository.renewLeases(owner, Duration.ofSeconds(30))).containsExactly(partition);
+        assertThat(scheduleRepository.heartbeat(owner, Duration.ofSeconds(30))).isPositive();
+        scheduleRepository.releaseLease(partition, owner);
+        scheduleRepository.leave(owner);
+    }
+
+    private RecurringBillingScheduler scheduler(){
+        return new RecurringBillingScheduler(scheduleRepository, generator, clock, new SimpleMeterRegistry(), true,
+                Duration.ofMillis(100), Duration.ofSeconds(60), Duration.ofSeconds(30), Duration.ofHours(1),
+                Duration.ofMinutes(10), Duration.ofSeconds(1), 100, 2);
+    }
+
+    private List<Long> createSchedules(LocalDateTime runAt){
+        String domain = UUID.randomUUID() + ".dev";
+        List<Customer> customers = new ArrayList<>(SCHEDULES);
+        for(int i = 0; i < SCHEDULES; i++){
+            customers.add(Customer.builder().name("Recurring Customer " + i).email(i + "@" + domain).type("INDIVIDUAL").status("ACTIVE").build());
+        }
+        List<Long> ids = customerRepository.createAll(customers);
+        for(Long id : ids){
+            scheduleRepository.create(RecurringSchedule.builder()
+                    .customerId(id)
+                    .partition((int) (id % PARTITIONS))
+                    .frequency(MONTHLY)
+                    .anchorDay(runAt.getDayOfMonth())
+                    .description("Subscription")
+                    .quantity(1)
+                    .unitPrice(Money.ofMinor(10_00, USD))
+                    .dueDays(30)
+                    .nextRunAt(runAt)
+                    .build());
+        }
+        return ids;
+    }
+
+    private Map<Long, Long> invoicesPerCustomer(List<Long> customerIds){
+        Map<Long, Long> counts = new HashMap<>();
+        jdbc.query("SELECT customer_id, COUNT(*) AS invoice_count FROM Invoices WHERE customer_id IN (:ids) GROUP BY customer_id", Map.of("ids", customerIds), rs -> {
+            counts.put(rs.getLong("customer_id"), rs.getLong("invoice_count"));
+        });
+        return counts;
+    }
+
+    private static void await(BooleanSupplier condition) throws InterruptedException {
+        for(int attempt = 0; attempt < 600 && !condition.getAsBoolean(); attempt++){
+            Thread.sleep(100);
+        }
+        assertThat(condition.getAsBoolean()).isTrue();
+    }
+}
@@ -0,0 +1,69 @@
+package com.vladimirpandurov.invoice_manager3_02.recurring;
+
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+import static com.vladimirpandurov.invoice_manager3_02.enumeration.RecurringFrequency.MONTHLY;
+import static com.vladimirpandurov.invoice_manager3_02.enumeration.RecurringFrequency.WEEKLY;
+import static com.vladimirpandurov.invoice_manager3_02.recurring.RecurringInvoiceGenerator.nextRun;
+import static org.assertj.core.api.Assertions.assertThat;
+
+class RecurringInvoiceGeneratorTest {
+
+    @Test
+    void monthEndAnchorsClampToShortMonthsAndReturnAfterwards(){
+        assertThat(walk(31, LocalDateTime.of(2030, 1, 31, 9, 30), 6)).containsExactly(
+                LocalDateTime.of(2030, 2, 28, 9, 30),
+                LocalDateTime.of(2030, 3, 31, 9, 30),
+                LocalDateTime.of(2030, 4, 30, 9, 30),
+                LocalDateTime.of(2030, 5, 31, 9, 30),
+                LocalDateTime.of(2030, 6, 30, 9, 30),
+                LocalDateTime.of(2030, 7, 31, 9, 30));
+        assertThat(walk(30, LocalDateTime.of(2031, 1, 30, 0, 0), 2)).containsExactly(
+                LocalDateTime.of(2031, 2, 28, 0, 0),
+                LocalDateTime.of(2031, 3, 30, 0, 0));
+    }
+
+    @Test
+    void leapYearsKeepTheTwentyNinth(){
+        assertThat(walk(29, LocalDateTime.of(2032, 1, 29, 0, 0), 2)).containsExactly(
+                LocalDateTime.of(2032, 2, 29, 0, 0),
+                LocalDateTime.of(2032, 3, 29, 0, 0));
+        assertThat(walk(29, LocalDateTime.of(2033, 1, 29, 0, 0), 2)).containsExactly(
+                LocalDateTime.of(2033, 2, 28, 0, 0),
+                LocalDateTime.of(2033, 3, 29, 0, 0));
+    }
+
+    @Test
+    void everyAnchorLandsOnItsDayOrTheLastDayOfEachMonth(){
+        for(int anchor = 1; anchor <= 31; anchor++){
+            LocalDateTime run = LocalDateTime.of(2030, 1, anchor, 0, 0);
+            for(int month = 0; month < 48; month++){
+                run = nextRun(MONTHLY, anchor, run);
+                LocalDate date = run.toLocalDate();
+                assertThat(date.getDayOfMonth()).as("anchor %d in %s", anchor, date).isEqualTo(Math.min(anchor, date.lengthOfMonth()));
+            }
+            assertThat(run.toLocalDate().withDayOfMonth(1)).isEqualTo(LocalDate.of(2034, 1, 1));
+        }
+    }
+
+    @Test
+    void weeklySchedulesAdvanceSevenDaysAndIgnoreTheAnchor(){
+        LocalDateTime run = LocalDateTime.of(2030, 2, 26, 8, 0);
+        assertThat(nextRun(WEEKLY, 31, run)).isEqualTo(LocalDateTime.of(2030, 3, 5, 8, 0));
+    }
+
+    private static List<LocalDateTime> walk(int anchor, LocalDateTime first, int runs){
+        List<LocalDateTime> dates = new ArrayList<>();
+        LocalDateTime run = first;
+        for(int i = 0; i < runs; i++){
+            run = nextRun(MONTHLY, anchor, run);
+            dates.add(run);
+        }
+        return dates;
+    }
+}
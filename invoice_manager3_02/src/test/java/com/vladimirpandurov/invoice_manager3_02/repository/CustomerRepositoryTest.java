@@ -0,0 +1,85 @@
+package com.vladimirpandurov.invoice_manager3_02.repository;
+
+import com.vladimirpandurov.invoice_manager3_02.domain.Customer;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+
+import static com.vladimirpandurov.invoice_manager3_02.query.CustomerQuery.SEARCH_CUSTOMERS_PAGE_QUERY;
+import static com.vladimirpandurov.invoice_manager3_02.support.QueryBudget.assertAtMost;
+import static org.assertj.core.api.Assertions.assertThat;
+
+@SpringBootTest
+@ActiveProfiles("test")
+class CustomerRepositoryTest {
+
+    private static final int PAGE_SIZE = 7;
+
+    @Autowired
+    private CustomerRepository<Customer> customerRepository;
+    @Autowired
+    private NamedParameterJdbcTemplate jdbc;
+
+    @Test
+    void searchPagesWalkDuplicateNamesInNameIdOrder(){
+        String prefix = "Kz" + UUID.randomUUID().toString().substring(0, 8);
+        List<Customer> customers = new ArrayList<>();
+        for(int i = 0; i < 60; i++){
+            customers.add(customer(prefix + " " + (char) ('a' + i % 4), i));
+        }
+        customerRepository.createAll(customers);
+
+        List<Customer> walked = new ArrayList<>();
+        List<Customer> page = customerRepository.search(prefix, null, null, PAGE_SIZE);
+        while(!page.isEmpty()){
+            walked.addAll(page);
+            Customer last = page.get(page.size() - 1);
+            page = customerRepository.search(prefix, last.getName(), last.getId(), PAGE_SIZE);
+        }
+
+        assertThat(walked).hasSize(60);
+        assertThat(walked).isSortedAccordingTo(Comparator.comparing(Customer::getName).thenComparing(Customer::getId));
+        assertThat(walked).extracting(Customer::getId).doesNotHaveDuplicates();
+    }
+
+    @Test
+    void searchPageQueryIsARangeOnTheCoveringIndex(){
+        String plan = jdbc.queryForObject("EXPLAIN " + SEARCH_CUSTOMERS_PAGE_QUERY,
+                Map.of("prefix", "Ab%", "afterName", "Ab Customer", "afterId", 1L, "size", 50), String.class);
+        assertThat(plan).contains("IX_CUSTOMERS_NAME_COVERING").doesNotContainIgnoringCase("tableScan");
+    }
+
+    @Test
+    void statusUpdateForManyIdsTakesAFixedNumberOfStatements(){
+        String prefix = "Kz" + UUID.randomUUID().toString().substring(0, 8);
+        List<Customer> customers = new ArrayList<>();
+        for(int i = 0; i < 1000; i++){
+            customers.add(customer(prefix, i));
+        }
+        customerRepository.createAll(customers);
+        List<Long> ids = customerRepository.search(prefix, null, null, 1000).stream().map(Customer::getId).toList();
+
+        int[] updated = new int[1];
+        assertAtMost(4, () -> updated[0] = customerRepository.updateStatus(ids, "INACTIVE"));
+
+        assertThat(updated[0]).isEqualTo(1000);
+        assertThat(customerRepository.getAll(ids).values()).extracting(Customer::getStatus).containsOnly("INACTIVE");
+    }
+
+    private static Customer customer(String name, int i){
+        return Customer.builder()
+                .name(name)
+                .email("customer" + i + "@" + name.replace(' ', '-').toLowerCase() + ".dev")
+                .type("INDIVIDUAL")
+                .status("ACTIVE")
+                .build();
+    }
+}
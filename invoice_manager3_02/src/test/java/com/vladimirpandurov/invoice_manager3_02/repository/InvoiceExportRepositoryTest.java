@@ -0,0 +1,56 @@
+package com.vladimirpandurov.invoice_manager3_02.repository;
+
+import com.vladimirpandurov.invoice_manager3_02.domain.Customer;
+import com.vladimirpandurov.invoice_manager3_02.domain.Invoice;
+import com.vladimirpandurov.invoice_manager3_02.domain.InvoiceLine;
+import com.vladimirpandurov.invoice_manager3_02.domain.Money;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.io.IOException;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Currency;
+import java.util.List;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@SpringBootTest
+@ActiveProfiles("test")
+class InvoiceExportRepositoryTest {
+
+    @Autowired
+    private InvoiceExportRepository invoiceExportRepository;
+    @Autowired
+    private InvoiceRepository<Invoice> invoiceRepository;
+    @Autowired
+    private CustomerRepository<Customer> customerRepository;
+
+    @Test
+    void exportResumesAfterTheCursorWithinTheSameIssueDate() throws IOException {
+        Customer customer = customerRepository.create(Customer.builder()
+                .name("Export Customer").email(UUID.randomUUID() + "@invoicemanager.dev").type("INDIVIDUAL").status("ACTIVE").build());
+        List<Invoice> invoices = new ArrayList<>();
+        for(int i = 0; i < 3; i++){
+            invoices.add(Invoice.builder()
+                    .invoiceNumber("E-" + UUID.randomUUID().toString().substring(0, 20))
+                    .customerId(customer.getId())
+                    .dueDate(LocalDate.now().plusDays(30))
+                    .lines(List.of(InvoiceLine.builder().description("Consulting").quantity(1).unitPrice(Money.ofMinor(10_00, Currency.getInstance("USD"))).build()))
+                    .build());
+        }
+        invoiceRepository.createAll(invoices);
+        LocalDate today = invoices.get(0).getIssuedAt();
+        Long first = invoices.get(0).getId();
+
+        List<Long> exported = new ArrayList<>();
+        invoiceExportRepository.export(today, today, today, first, row -> {
+            if(row.getCustomerId() == customer.getId()) exported.add(row.getInvoiceId());
+        });
+
+        assertThat(exported).containsExactly(invoices.get(1).getId(), invoices.get(2).getId());
+    }
+}
@@ -0,0 +1,83 @@
+package com.vladimirpandurov.invoice_manager3_02.repository;
+
+import com.vladimirpandurov.invoice_manager3_02.domain.Customer;
+import com.vladimirpandurov.invoice_manager3_02.domain.Invoice;
+import com.vladimirpandurov.invoice_manager3_02.domain.InvoiceLine;
+import com.vladimirpandurov.invoice_manager3_02.domain.Money;
+import com.vladimirpandurov.invoice_manager3_02.exception.ApiException;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.time.LocalDate;
+import java.util.Currency;
+import java.util.List;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+@SpringBootTest
+@ActiveProfiles("test")
+class InvoiceRepositoryTest {
+
+    private static final Currency USD = Currency.getInstance("USD");
+
+    @Autowired
+    private InvoiceRepository<Invoice> invoiceRepository;
+    @Autowired
+    private CustomerRepository<Customer> customerRepository;
+
+    @Test
+    void missingCustomerIsReportedAsMissingCustomer(){
+        assertThatThrownBy(() -> invoiceRepository.create(invoice(uniqueNumber(), Long.MAX_VALUE)))
+                .isInstanceOf(ApiException.class)
+                .hasMessage("No customer found by id: " + Long.MAX_VALUE);
+    }
+
+    @Test
+    void duplicateInvoiceNumberIsReportedAsDuplicate(){
+        Customer customer = customerRepository.create(Customer.builder()
+                .name("Invoice Repository Customer").email(UUID.randomUUID() + "@invoicemanager.dev").type("INDIVIDUAL").status("ACTIVE").build());
+        String invoiceNumber = uniqueNumber();
+        invoiceRepository.create(invoice(invoiceNumber, customer.getId()));
+
+        assertThatThrownBy(() -> invoiceRepository.create(invoice(invoiceNumber, customer.getId())))
+                .isInstanceOf(ApiException.class)
+                .hasMessage("Invoice number already exists");
+        assertThatThrownBy(() -> invoiceRepository.createAll(List.of(invoice(invoiceNumber, customer.getId()))))
+                .isInstanceOf(ApiException.class)
+                .hasMessage("Invoice number already exists");
+    }
+
+    @Test
+    void duplicateImportReferenceIsReportedAsAlreadyImported(){
+        Customer customer = customerRepository.create(Customer.builder()
+                .name("Invoice Repository Customer").email(UUID.randomUUID() + "@invoicemanager.dev").type("INDIVIDUAL").status("ACTIVE").build());
+        String reference = UUID.randomUUID().toString();
+        Invoice imported = invoice(uniqueNumber(), customer.getId());
+        imported.setImportReference(reference);
+        invoiceRepository.createAll(List.of(imported));
+        Invoice reimported = invoice(uniqueNumber(), customer.getId());
+        reimported.setImportReference(reference);
+
+        assertThat(invoiceRepository.getImportedReferences(List.of(reference, UUID.randomUUID().toString()))).containsExactly(reference);
+        assertThatThrownBy(() -> invoiceRepository.createAll(List.of(reimported)))
+                .isInstanceOf(ApiException.class)
+                .hasMessage("Invoice was already imported");
+    }
+
+    private static String uniqueNumber(){
+        return "T-" + UUID.randomUUID().toString().substring(0, 20);
+    }
+
+    private static Invoice invoice(String invoiceNumber, Long customerId){
+        return Invoice.builder()
+                .invoiceNumber(invoiceNumber)
+                .customerId(customerId)
+                .dueDate(LocalDate.now().plusDays(30))
+                .lines(List.of(InvoiceLine.builder().description("Consulting").quantity(2).unitPrice(Money.ofMinor(12_50, USD)).build()))
+                .build();
+    }
+}
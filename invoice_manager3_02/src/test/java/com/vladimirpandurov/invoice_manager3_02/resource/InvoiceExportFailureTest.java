@@ -0,0 +1,94 @@
+package com.vladimirpandurov.invoice_manager3_02.resource;
+
+import com.vladimirpandurov.invoice_manager3_02.domain.InvoiceExportRow;
+import com.vladimirpandurov.invoice_manager3_02.exception.ApiException;
+import com.vladimirpandurov.invoice_manager3_02.repository.InvoiceExportRepository;
+import com.vladimirpandurov.invoice_manager3_02.support.ApiClient;
+import org.junit.jupiter.api.Test;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.boot.test.web.server.LocalServerPort;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.io.IOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.LocalDate;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.doAnswer;
+import static org.springframework.boot.test.context.SpringBootTest.WebEnvironment.RANDOM_PORT;
+
+@SpringBootTest(webEnvironment = RANDOM_PORT)
+@ActiveProfiles("test")
+class InvoiceExportFailureTest {
+
+    private static final String EXPORT_PATH = "/invoice/export?from=2026-01-01&to=2026-12-31";
+
+    @LocalServerPort
+    private int port;
+    @MockBean
+    private InvoiceExportRepository invoiceExportRepository;
+
+    @Test
+    void failureAfterTheResponseIsCommittedAbortsTheConnection() throws IOException {
+        failAfter(10_000);
+
+        assertThatThrownBy(() -> export(false)).isInstanceOf(IOException.class);
+        assertThatThrownBy(() -> export(true)).isInstanceOf(IOException.class);
+    }
+
+    @Test
+    void failureBeforeAnythingIsSentIsReportedAsAnError() throws IOException, InterruptedException {
+        failAfter(10);
+
+        HttpResponse<String> response = export(true);
+
+        assertThat(response.statusCode()).isEqualTo(500);
+        assertThat(response.headers().firstValue("Content-Type")).hasValue("application/json");
+        assertThat(response.headers().firstValue("Content-Encoding")).isEmpty();
+        assertThat(response.body()).contains("\"statusCode\":500");
+    }
+
+    private void failAfter(int rows) throws IOException {
+        doAnswer(invocation -> {
+            InvoiceExportRepository.InvoiceExportRowConsumer consumer = invocation.getArgument(4);
+            for(int i = 1; i <= rows; i++){
+                consumer.accept(row(i));
+            }
+            throw new ApiException("An error occurred. Please try again.");
+        }).when(invoiceExportRepository).export(any(), any(), any(), any(), any());
+    }
+
+    private HttpResponse<String> export(boolean gzip) throws IOException, InterruptedException {
+        String token = new ApiClient(port).login().accessToken();
+        HttpRequest.Builder request = HttpRequest.newBuilder(URI.create("http://localhost:" + port + EXPORT_PATH))
+                .header("Authorization", "Bearer " + token);
+        if(gzip) request.header("Accept-Encoding", "gzip");
+        return HttpClient.newBuilder().version(HttpClient.Version.HTTP_1_1).build()
+                .send(request.GET().build(), HttpResponse.BodyHandlers.ofString());
+    }
+
+    private static InvoiceExportRow row(long id){
+        InvoiceExportRow row = new InvoiceExportRow();
+        row.setInvoiceId(id);
+        row.setInvoiceNumber("INV-" + id);
+        row.setCustomerId(id);
+        row.setCustomerName("Customer " + id);
+        row.setCustomerEmail("customer" + id + "@invoicemanager.dev");
+        row.setStatus("PENDING");
+        row.setIssuedAt(LocalDate.of(2026, 6, 1));
+        row.setDueDate(LocalDate.of(2026, 7, 1));
+        row.setCurrency("USD");
+        row.setTotalMinor(12_50);
+        row.setDescription("Consulting");
+        row.setQuantity(1);
+        row.setUnitPriceMinor(12_50);
+        row.setAmountMinor(12_50);
+        return row;
+    }
+}
@@ -0,0 +1,44 @@
+package com.vladimirpandurov.invoice_manager3_02.resource;
+
+import com.vladimirpandurov.invoice_manager3_02.form.LoginForm;
+import com.vladimirpandurov.invoice_manager3_02.support.QueryBudget;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+
+import static com.vladimirpandurov.invoice_manager3_02.support.ApiClient.BENCHMARK_EMAIL;
+import static com.vladimirpandurov.invoice_manager3_02.support.ApiClient.BENCHMARK_PASSWORD;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+@SpringBootTest
+@ActiveProfiles("test")
+class LoginQueryBudgetTest {
+
+    private static final int LOGIN_BUDGET = 4;
+
+    @Autowired
+    private UserResource userResource;
+
+    @Test
+    void loginStaysWithinItsStatementBudget(){
+        for(int i = 0; i < 3; i++){
+            assertThat(QueryBudget.assertAtMost(LOGIN_BUDGET, () -> userResource.login(form()))).isPositive();
+        }
+    }
+
+    @Test
+    void failsWhenTheBudgetIsExceeded(){
+        assertThatThrownBy(() -> QueryBudget.assertAtMost(0, () -> userResource.login(form())))
+                .isInstanceOf(AssertionError.class)
+                .hasMessageContaining("Expected at most 0 statements");
+    }
+
+    private static LoginForm form(){
+        LoginForm form = new LoginForm();
+        form.setEmail(BENCHMARK_EMAIL);
+        form.setPassword(BENCHMARK_PASSWORD);
+        return form;
+    }
+}
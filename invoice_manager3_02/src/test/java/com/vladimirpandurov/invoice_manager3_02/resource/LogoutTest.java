@@ -0,0 +1,47 @@
+package com.vladimirpandurov.invoice_manager3_02.resource;
+
+import com.vladimirpandurov.invoice_manager3_02.support.ApiClient;
+import org.junit.jupiter.api.Test;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.web.server.LocalServerPort;
+import org.springframework.test.context.ActiveProfiles;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.springframework.boot.test.context.SpringBootTest.WebEnvironment.RANDOM_PORT;
+
+@SpringBootTest(webEnvironment = RANDOM_PORT)
+@ActiveProfiles("test")
+class LogoutTest {
+
+    @LocalServerPort
+    private int port;
+
+    @Test
+    void logoutRevokesTheAccessTokenAndTheSessionsRefreshTokens(){
+        ApiClient client = new ApiClient(port);
+        ApiClient.Response session = client.login();
+        ApiClient.Response rotated = client.get("/user/refresh/token", session.refreshToken());
+        ApiClient.Response other = client.login();
+
+        assertThat(client.post("/user/logout", rotated.accessToken(), "").status()).isEqualTo(200);
+
+        assertThat(client.get("/user/profile", rotated.accessToken()).status()).isEqualTo(400);
+        assertThat(client.get("/user/refresh/token", rotated.refreshToken()).status()).isEqualTo(400);
+        assertThat(client.get("/user/profile", rotated.refreshToken()).status()).isEqualTo(401);
+        assertThat(client.post("/user/logout", rotated.refreshToken(), "").status()).isEqualTo(401);
+        assertThat(client.get("/user/profile", other.accessToken()).status()).isEqualTo(200);
+        assertThat(client.get("/user/refresh/token", other.refreshToken()).status()).isEqualTo(200);
+    }
+
+    @Test
+    void aRefreshTokenCannotBeUsedAsABearerTokenAfterLogout(){
+        ApiClient client = new ApiClient(port);
+        ApiClient.Response session = client.login();
+
+        assertThat(client.post("/user/logout", session.accessToken(), "").status()).isEqualTo(200);
+
+        assertThat(client.get("/user/profile", session.accessToken()).status()).isEqualTo(400);
+        assertThat(client.get("/user/profile", session.refreshToken()).status()).isEqualTo(401);
+        assertThat(client.get("/user/refresh/token", session.refreshToken()).status()).isEqualTo(400);
+    }
+}
@@ -0,0 +1,41 @@
+package com.vladimirpandurov.invoice_manager3_02.resource;
+
+import com.vladimirpandurov.invoice_manager3_02.support.ApiClient;
+import org.junit.jupiter.api.Test;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.web.server.LocalServerPort;
+import org.springframework.test.context.ActiveProfiles;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.springframework.boot.test.context.SpringBootTest.WebEnvironment.RANDOM_PORT;
+
+@SpringBootTest(webEnvironment = RANDOM_PORT)
+@ActiveProfiles("test")
+class RefreshTokenRotationTest {
+
+    @LocalServerPort
+    private int port;
+
+    @Test
+    void reusingARotatedTokenRevokesTheWholeFamily(){
+        ApiClient client = new ApiClient(port);
+        String first = client.login().refreshToken();
+        ApiClient.Response rotated = client.get("/user/refresh/token", first);
+        assertThat(rotated.status()).isEqualTo(200);
+        String second = rotated.refreshToken();
+
+        assertThat(client.get("/user/refresh/token", first).status()).isEqualTo(400);
+        assertThat(client.get("/user/refresh/token", second).status()).isEqualTo(400);
+    }
+
+    @Test
+    void otherSessionsSurviveAReuseInAnotherFamily(){
+        ApiClient client = new ApiClient(port);
+        String victim = client.login().refreshToken();
+        String bystander = client.login().refreshToken();
+        client.get("/user/refresh/token", victim);
+        client.get("/user/refresh/token", victim);
+
+        assertThat(client.get("/user/refresh/token", bystander).status()).isEqualTo(200);
+    }
+}
@@ -0,0 +1,144 @@
+package com.vladimirpandurov.invoice_manager3_02.sequence;
+
+import com.vladimirpandurov.invoice_manager3_02.repository.SequenceRepository;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@SpringBootTest
+@ActiveProfiles("test")
+class InvoiceNumberAllocatorTest {
+
+    private static final String NEXT_VALUE_QUERY = "SELECT next_value FROM InvoiceSequences WHERE name = 'INVOICE'";
+    private static final int BLOCK_SIZE = 10;
+    private static final int THREADS = 64;
+    private static final int PER_THREAD = 500;
+
+    @Autowired
+    private SequenceRepository sequenceRepository;
+    @Autowired
+    private NamedParameterJdbcTemplate jdbc;
+
+    @Test
+    void threadsOnSeveralNodesNeverShareANumber() throws Exception {
+        List<SimpleMeterRegistry> registries = List.of(new SimpleMeterRegistry(), new SimpleMeterRegistry(), new SimpleMeterRegistry());
+        List<InvoiceNumberAllocator> nodes = registries.stream()
+                .map(registry -> new InvoiceNumberAllocator(sequenceRepository, registry, BLOCK_SIZE))
+                .toList();
+        long before = nextValue();
+        Set<Long> values = ConcurrentHashMap.newKeySet();
+        try(ExecutorService callers = Executors.newVirtualThreadPerTaskExecutor()){
+            List<Future<?>> results = new ArrayList<>();
+            for(int i = 0; i < THREADS; i++){
+                results.add(callers.submit(() -> {
+                    for(int n = 0; n < PER_THREAD; n++){
+                        long value = nodes.get(ThreadLocalRandom.current().nextInt(nodes.size())).nextValue();
+                        assertThat(values.add(value)).as("value %d handed out twice", value).isTrue();
+                    }
+                    return null;
+                }));
+            }
+            for(Future<?> result : results){
+                result.get(60, TimeUnit.SECONDS);
+            }
+        }
+        long after = nextValue();
+        double blocks = registries.stream().mapToDouble(registry -> registry.get("invoice.number.blocks").counter().count()).sum();
+
+        assertThat(values).hasSize(THREADS * PER_THREAD);
+        assertThat(values).allMatch(value -> value >= before && value < after);
+        assertThat(after - before).isEqualTo((long) blocks * BLOCK_SIZE);
+        assertThat(blocks).isLessThanOrEqualTo(THREADS * PER_THREAD / BLOCK_SIZE + nodes.size());
+    }
+
+    @Test
+    void concurrentRefillsReserveOneBlockAtATime() throws Exception {
+        AtomicInteger reserving = new AtomicInteger();
+        AtomicInteger maxReserving = new AtomicInteger();
+        AtomicLong sequence = new AtomicLong(1);
+        SequenceRepository slowSequence = (name, blockSize) -> {
+            maxReserving.accumulateAndGet(reserving.incrementAndGet(), Math::max);
+            try{
+                Thread.sleep(2);
+            }catch (InterruptedException exception){
+                Thread.currentThread().interrupt();
+            }
+            reserving.decrementAndGet();
+            return sequence.getAndAdd(blockSize);
+        };
+        SimpleMeterRegistry registry = new SimpleMeterRegistry();
+        InvoiceNumberAllocator allocator = new InvoiceNumberAllocator(slowSequence, registry, BLOCK_SIZE);
+        Set<Long> values = ConcurrentHashMap.newKeySet();
+        try(ExecutorService callers = Executors.newVirtualThreadPerTaskExecutor()){
+            for(int i = 0; i < THREADS; i++){
+                callers.submit(() -> {
+                    for(int n = 0; n < 50; n++) values.add(allocator.nextValue());
+                });
+            }
+        }
+
+        assertThat(values).hasSize(THREADS * 50);
+        assertThat(maxReserving).hasValue(1);
+        assertThat(registry.get("invoice.number.blocks").counter().count()).isEqualTo(THREADS * 50 / BLOCK_SIZE);
+    }
+
+    @Test
+    void waitingForARefillDoesNotPinCarrierThreads() throws Exception {
+        CountDownLatch releaseReserve = new CountDownLatch(1);
+        CountDownLatch reserveStarted = new CountDownLatch(1);
+        SequenceRepository blockedSequence = (name, blockSize) -> {
+            reserveStarted.countDown();
+            try{
+                releaseReserve.await();
+            }catch (InterruptedException exception){
+                Thread.currentThread().interrupt();
+            }
+            return 1;
+        };
+        InvoiceNumberAllocator allocator = new InvoiceNumberAllocator(blockedSequence, new SimpleMeterRegistry(), BLOCK_SIZE);
+        int waiters = Runtime.getRuntime().availableProcessors() * 2;
+        try(ExecutorService callers = Executors.newVirtualThreadPerTaskExecutor()){
+            for(int i = 0; i <= waiters; i++){
+                callers.submit(allocator::nextValue);
+            }
+            try{
+                assertThat(reserveStarted.await(10, TimeUnit.SECONDS)).isTrue();
+                CountDownLatch unrelated = new CountDownLatch(1);
+                Thread.ofVirtual().start(unrelated::countDown);
+                assertThat(unrelated.await(10, TimeUnit.SECONDS)).as("virtual thread scheduled while a refill is blocked").isTrue();
+            }finally {
+                releaseReserve.countDown();
+            }
+        }
+    }
+
+    @Test
+    void formatsPaddedNumbers(){
+        assertThat(InvoiceNumberAllocator.format(42)).isEqualTo("INV-0000000042");
+        assertThat(InvoiceNumberAllocator.format(9_999_999_999L)).isEqualTo("INV-9999999999");
+        assertThat(InvoiceNumberAllocator.format(10_000_000_000L)).isEqualTo("INV-10000000000");
+    }
+
+    private long nextValue(){
+        return jdbc.queryForObject(NEXT_VALUE_QUERY, Map.of(), Long.class);
+    }
+}
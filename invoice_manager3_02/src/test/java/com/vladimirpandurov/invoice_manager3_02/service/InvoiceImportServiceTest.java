@@ -0,0 +1,109 @@
+package com.vladimirpandurov.invoice_manager3_02.service;
+
+import com.vladimirpandurov.invoice_manager3_02.domain.Customer;
+import com.vladimirpandurov.invoice_manager3_02.domain.ImportJob;
+import com.vladimirpandurov.invoice_manager3_02.domain.ImportJobError;
+import com.vladimirpandurov.invoice_manager3_02.exception.ApiException;
+import com.vladimirpandurov.invoice_manager3_02.repository.CustomerRepository;
+import com.vladimirpandurov.invoice_manager3_02.repository.ImportJobRepository;
+import com.vladimirpandurov.invoice_manager3_02.service.implementation.InvoiceImportServiceImpl;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.io.ByteArrayInputStream;
+import java.time.LocalDate;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+
+import static com.vladimirpandurov.invoice_manager3_02.enumeration.ImportJobStatus.COMPLETED;
+import static com.vladimirpandurov.invoice_manager3_02.enumeration.ImportJobStatus.FAILED;
+import static com.vladimirpandurov.invoice_manager3_02.enumeration.ImportJobStatus.RUNNING;
+import static java.nio.charset.StandardCharsets.UTF_8;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+@SpringBootTest
+@ActiveProfiles("test")
+class InvoiceImportServiceTest {
+
+    @Autowired
+    private InvoiceImportServiceImpl importService;
+    @Autowired
+    private ImportJobRepository<ImportJob> importJobRepository;
+    @Autowired
+    private CustomerRepository<Customer> customerRepository;
+    @Autowired
+    private NamedParameterJdbcTemplate jdbc;
+
+    @Test
+    void reuploadingAFileSkipsInvoicesThatWereAlreadyImported() throws InterruptedException {
+        String email = UUID.randomUUID() + "@invoicemanager.dev";
+        customerRepository.create(Customer.builder().name("Import Customer").email(email).type("INDIVIDUAL").status("ACTIVE").build());
+        String prefix = UUID.randomUUID().toString().substring(0, 8);
+        String dueDate = LocalDate.now().plusDays(30).toString();
+        String csv = "reference,customer_email,due_date,description,quantity,unit_price\n" +
+                prefix + "-1," + email + "," + dueDate + ",Consulting,2,12.50\n" +
+                prefix + "-1," + email + "," + dueDate + ",Travel,1,40.00\n" +
+                prefix + "-2," + email + "," + dueDate + ",Consulting,1,99.99\n";
+
+        ImportJob started = importService.importInvoices(new ByteArrayInputStream(csv.getBytes(UTF_8)));
+        assertThat(started.getStatus()).isEqualTo(RUNNING);
+        ImportJob first = await(started.getId());
+        ImportJob second = await(importService.importInvoices(new ByteArrayInputStream(csv.getBytes(UTF_8))).getId());
+
+        assertThat(first.getStatus()).isEqualTo(COMPLETED);
+        assertThat(first.getInvoicesCreated()).isEqualTo(2);
+        assertThat(second.getStatus()).isEqualTo(COMPLETED);
+        assertThat(second.getInvoicesCreated()).isZero();
+        assertThat(second.getInvoicesRejected()).isEqualTo(2);
+        assertThat(second.getErrors()).extracting(ImportJobError::getMessage)
+                .containsExactly("Invoice " + prefix + "-1 was already imported", "Invoice " + prefix + "-2 was already imported");
+        assertThat(jdbc.queryForObject("SELECT COUNT(*) FROM Invoices WHERE import_reference LIKE :prefix", Map.of("prefix", prefix + "-%"), Long.class))
+                .isEqualTo(2);
+    }
+
+    @Test
+    void aFileWithoutTheRequiredColumnsIsRejectedBeforeAJobStarts() throws InterruptedException {
+        Long lastJob = jdbc.queryForObject("SELECT COALESCE(MAX(id), 0) FROM ImportJobs", Map.of(), Long.class);
+        for(int i = 0; i < 3; i++){
+            assertThatThrownBy(() -> importService.importInvoices(new ByteArrayInputStream("reference,customer_email\n".getBytes(UTF_8))))
+                    .isInstanceOf(ApiException.class)
+                    .hasMessage("Missing column: due_date");
+        }
+        assertThat(jdbc.queryForObject("SELECT COUNT(*) FROM ImportJobs WHERE id > :id", Map.of("id", lastJob), Long.class)).isZero();
+
+        ImportJob empty = await(importService.importInvoices(new ByteArrayInputStream("reference,customer_email,due_date,description,quantity,unit_price\n".getBytes(UTF_8))).getId());
+        assertThat(empty.getStatus()).isEqualTo(COMPLETED);
+        assertThat(empty.getRowsRead()).isZero();
+    }
+
+    @Test
+    void staleJobsAreFailedWhileHeartbeatingJobsKeepRunning(){
+        Long abandoned = importJobRepository.create().getId();
+        Long alive = importJobRepository.create().getId();
+        jdbc.update("UPDATE ImportJobs SET updated_at = TIMESTAMPADD(MINUTE, -10, CURRENT_TIMESTAMP) WHERE id IN (:ids)", Map.of("ids", List.of(abandoned, alive)));
+
+        importJobRepository.touch(List.of(alive));
+        importService.failStaleJobs();
+
+        ImportJob failed = importJobRepository.get(abandoned);
+        assertThat(failed.getStatus()).isEqualTo(FAILED);
+        assertThat(failed.getMessage()).startsWith("Import was interrupted");
+        assertThat(failed.getCompletedAt()).isNotNull();
+        assertThat(importJobRepository.get(alive).getStatus()).isEqualTo(RUNNING);
+        importJobRepository.complete(alive, COMPLETED, null);
+    }
+
+    private ImportJob await(Long id) throws InterruptedException {
+        ImportJob job = importService.getImportJob(id);
+        for(int attempt = 0; attempt < 300 && job.getStatus() == RUNNING; attempt++){
+            Thread.sleep(100);
+            job = importService.getImportJob(id);
+        }
+        return job;
+    }
+}
@@ -0,0 +1,139 @@
+package com.vladimirpandurov.invoice_manager3_02.service;
+
+import com.vladimirpandurov.invoice_manager3_02.domain.Customer;
+import com.vladimirpandurov.invoice_manager3_02.domain.Invoice;
+import com.vladimirpandurov.invoice_manager3_02.domain.InvoiceLine;
+import com.vladimirpandurov.invoice_manager3_02.domain.Money;
+import com.vladimirpandurov.invoice_manager3_02.domain.PdfBatch;
+import com.vladimirpandurov.invoice_manager3_02.pdf.InvoicePdfRenderer;
+import com.vladimirpandurov.invoice_manager3_02.repository.CustomerRepository;
+import com.vladimirpandurov.invoice_manager3_02.repository.PdfBatchRepository;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.mock.mockito.SpyBean;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.Currency;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+
+import static com.vladimirpandurov.invoice_manager3_02.enumeration.InvoiceStatus.PAID;
+import static com.vladimirpandurov.invoice_manager3_02.enumeration.PdfBatchStatus.COMPLETED;
+import static com.vladimirpandurov.invoice_manager3_02.enumeration.PdfBatchStatus.FAILED;
+import static com.vladimirpandurov.invoice_manager3_02.enumeration.PdfBatchStatus.RUNNING;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.argThat;
+import static org.mockito.Mockito.doReturn;
+import static org.mockito.Mockito.reset;
+
+@SpringBootTest
+@ActiveProfiles("test")
+class InvoicePdfServiceTest {
+
+    @TempDir
+    static Path pdfs;
+
+    @DynamicPropertySource
+    static void pdfDirectory(DynamicPropertyRegistry registry){
+        registry.add("application.invoice.pdf.directory", () -> pdfs.toString());
+    }
+
+    @Autowired
+    private InvoicePdfService invoicePdfService;
+    @Autowired
+    private InvoiceService invoiceService;
+    @Autowired
+    private CustomerRepository<Customer> customerRepository;
+    @Autowired
+    private PdfBatchRepository<PdfBatch> pdfBatchRepository;
+    @SpyBean
+    private InvoicePdfRenderer renderer;
+
+    @Test
+    void changedInvoicesGetANewPdfFile(){
+        Invoice invoice = createInvoice(createCustomer());
+
+        Path original = invoicePdfService.getInvoicePdf(invoice.getId());
+        invoiceService.updateInvoiceStatus(invoice.getId(), PAID);
+        Path paid = invoicePdfService.getInvoicePdf(invoice.getId());
+
+        assertThat(original.getFileName()).hasToString(invoice.getId() + "-v0.pdf");
+        assertThat(paid.getFileName()).hasToString(invoice.getId() + "-v1.pdf");
+        assertThat(paid).exists();
+        assertThat(original).doesNotExist();
+        assertThat(invoicePdfService.getInvoicePdf(invoice.getId())).isEqualTo(paid);
+    }
+
+    @Test
+    void batchCheckpointsStopAtTheFirstFailedRender() throws InterruptedException {
+        Customer customer = createCustomer();
+        Invoice first = createInvoice(customer);
+        Invoice broken = createInvoice(customer);
+        Invoice last = createInvoice(customer);
+        doReturn(CompletableFuture.failedFuture(new IllegalStateException("Template error")))
+                .when(renderer).submit(argThat(invoice -> invoice != null && broken.getId().equals(invoice.getId())), any());
+
+        PdfBatch failed = await(invoicePdfService.startBatch(first.getIssuedAt(), first.getIssuedAt()).getId());
+
+        assertThat(failed.getStatus()).isEqualTo(FAILED);
+        assertThat(failed.getLastInvoiceId()).isEqualTo(first.getId());
+        assertThat(failed.getFailed()).isEqualTo(1);
+        assertThat(failed.getMessage()).contains("invoice " + broken.getId());
+        assertThat(renderer.exists(last)).isTrue();
+
+        reset(renderer);
+        invoicePdfService.resumeBatch(failed.getId());
+        PdfBatch resumed = await(failed.getId());
+
+        assertThat(resumed.getStatus()).isEqualTo(COMPLETED);
+        assertThat(resumed.getFailed()).isEqualTo(1);
+        assertThat(resumed.getRendered()).isEqualTo(failed.getRendered() + 1);
+        assertThat(renderer.exists(broken)).isTrue();
+    }
+
+    @Test
+    void onlyTheOwnerOfABatchCanCheckpointOrCompleteIt(){
+        LocalDate today = LocalDate.now();
+        PdfBatch batch = pdfBatchRepository.create(today, today, "node-a");
+
+        assertThat(pdfBatchRepository.claimStale(LocalDateTime.now().plusMinutes(1), "node-b")).contains(batch.getId());
+        assertThat(pdfBatchRepository.checkpoint(batch.getId(), "node-a", today, 1L, 1, 0)).isFalse();
+        assertThat(pdfBatchRepository.complete(batch.getId(), "node-a", COMPLETED, null)).isFalse();
+        assertThat(pdfBatchRepository.checkpoint(batch.getId(), "node-b", today, 1L, 1, 0)).isTrue();
+        assertThat(pdfBatchRepository.complete(batch.getId(), "node-b", COMPLETED, null)).isTrue();
+        assertThat(pdfBatchRepository.get(batch.getId()).getOwner()).isEqualTo("node-b");
+    }
+
+    private PdfBatch await(Long id) throws InterruptedException {
+        PdfBatch batch = invoicePdfService.getBatch(id);
+        for(int attempt = 0; batch.getStatus() == RUNNING && attempt < 200; attempt++){
+            Thread.sleep(50);
+            batch = invoicePdfService.getBatch(id);
+        }
+        return batch;
+    }
+
+    private Customer createCustomer(){
+        return customerRepository.create(Customer.builder()
+                .name("PDF Customer").email(UUID.randomUUID() + "@invoicemanager.dev").type("INDIVIDUAL").status("ACTIVE").build());
+    }
+
+    private Invoice createInvoice(Customer customer){
+        return invoiceService.createInvoice(Invoice.builder()
+                .invoiceNumber("P-" + UUID.randomUUID().toString().substring(0, 20))
+                .customerId(customer.getId())
+                .dueDate(LocalDate.now().plusDays(30))
+                .lines(List.of(InvoiceLine.builder().description("Consulting").quantity(1).unitPrice(Money.ofMinor(10_00, Currency.getInstance("USD"))).build()))
+                .build());
+    }
+}
@@ -0,0 +1,166 @@
+package com.vladimirpandurov.invoice_manager3_02.statistics;
+
+import com.vladimirpandurov.invoice_manager3_02.domain.Customer;
+import com.vladimirpandurov.invoice_manager3_02.domain.DashboardStats;
+import com.vladimirpandurov.invoice_manager3_02.domain.Invoice;
+import com.vladimirpandurov.invoice_manager3_02.domain.InvoiceLine;
+import com.vladimirpandurov.invoice_manager3_02.domain.MonthlyRevenue;
+import com.vladimirpandurov.invoice_manager3_02.domain.Money;
+import com.vladimirpandurov.invoice_manager3_02.repository.CustomerRepository;
+import com.vladimirpandurov.invoice_manager3_02.repository.InvoiceRepository;
+import com.vladimirpandurov.invoice_manager3_02.repository.StatisticsRepository;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDate;
+import java.time.YearMonth;
+import java.util.ArrayList;
+import java.util.Currency;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.UUID;
+
+import static com.vladimirpandurov.invoice_manager3_02.enumeration.InvoiceStatus.CANCELLED;
+import static com.vladimirpandurov.invoice_manager3_02.enumeration.InvoiceStatus.OVERDUE;
+import static com.vladimirpandurov.invoice_manager3_02.enumeration.InvoiceStatus.PAID;
+import static org.assertj.core.api.Assertions.assertThat;
+
+@SpringBootTest(properties = "application.clock.start=2031-03-31T10:00:00")
+@ActiveProfiles("test")
+class DashboardStatisticsTest {
+
+    private static final Currency USD = Currency.getInstance("USD");
+
+    @Autowired
+    private DashboardStatistics dashboardStatistics;
+    @Autowired
+    private StatisticsRepository statisticsRepository;
+    @Autowired
+    private CustomerRepository<Customer> customerRepository;
+    @Autowired
+    private InvoiceRepository<Invoice> invoiceRepository;
+    @Autowired
+    private NamedParameterJdbcTemplate jdbc;
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+    @Autowired
+    private MeterRegistry registry;
+
+    @Test
+    void statusTotalsFromTheSummariesMatchTheTables(){
+        Customer first = customerRepository.create(customer("ACTIVE"));
+        Customer second = customerRepository.create(customer("ACTIVE"));
+        Customer removed = customerRepository.create(customer(null));
+        customerRepository.createAll(List.of(customer("ACTIVE"), customer("INACTIVE"), customer(null)));
+        second.setStatus("INACTIVE");
+        customerRepository.update(second);
+        customerRepository.updateStatus(List.of(first.getId(), second.getId()), "BLOCKED");
+        customerRepository.delete(removed.getId());
+
+        Invoice paid = invoiceRepository.create(invoice(first, 10_00));
+        Invoice cancelled = invoiceRepository.create(invoice(first, 20_00));
+        Invoice edited = invoiceRepository.create(invoice(second, 30_00));
+        Invoice deleted = invoiceRepository.create(invoice(second, 40_00));
+        Invoice free = invoice(second, 0);
+        invoiceRepository.createAll(List.of(invoice(first, 5_00), free));
+        invoiceRepository.updateStatus(paid.getId(), PAID);
+        invoiceRepository.updateStatus(cancelled.getId(), CANCELLED);
+        invoiceRepository.updateStatus(free.getId(), PAID);
+        invoiceRepository.updateStatus(edited.getId(), OVERDUE);
+        Invoice edit = invoice(second, 35_00);
+        edit.setId(edited.getId());
+        invoiceRepository.update(edit);
+        invoiceRepository.delete(deleted.getId());
+
+        assertThat(statisticsRepository.countCustomersByStatus()).isEqualTo(scanCustomersByStatus());
+        assertThat(statisticsRepository.sumInvoicesByStatus())
+                .extracting(stats -> stats.getStatus() + ":" + stats.getInvoiceCount() + ":" + stats.getTotal().getMinorUnits())
+                .containsExactlyInAnyOrderElementsOf(scanInvoicesByStatus());
+        assertThat(statisticsRepository.sumRevenueByMonth(LocalDate.of(2030, 4, 1)))
+                .extracting(revenue -> revenue.getMonth() + ":" + revenue.getInvoiceCount() + ":" + revenue.getBilled().getMinorUnits() + ":" + revenue.getPaid().getMinorUnits())
+                .containsExactlyInAnyOrderElementsOf(scanRevenueByMonth(LocalDate.of(2030, 4, 1)));
+    }
+
+    @Test
+    void writesAreCountedOnlyAfterTheTransactionCommits(){
+        dashboardStatistics.refresh();
+        TransactionTemplate transaction = new TransactionTemplate(transactionManager);
+
+        transaction.executeWithoutResult(status -> {
+            dashboardStatistics.recordWrites(3);
+            assertThat(pendingWrites()).isZero();
+        });
+        assertThat(pendingWrites()).isEqualTo(3);
+
+        transaction.executeWithoutResult(status -> {
+            dashboardStatistics.recordWrites(3);
+            status.setRollbackOnly();
+        });
+        assertThat(pendingWrites()).isEqualTo(3);
+    }
+
+    @Test
+    void snapshotUsesTheInjectedClock(){
+        Customer customer = customerRepository.create(customer("ACTIVE"));
+        invoiceRepository.create(invoice(customer, 12_00));
+
+        dashboardStatistics.refresh();
+        DashboardStats stats = dashboardStatistics.get();
+
+        assertThat(stats.getRefreshedAt().toLocalDate()).isEqualTo(LocalDate.of(2031, 3, 31));
+        MonthlyRevenue last = stats.getRevenueByMonth().get(stats.getRevenueByMonth().size() - 1);
+        assertThat(last.getMonth()).isEqualTo(YearMonth.of(2031, 3));
+        assertThat(last.getInvoiceCount()).isPositive();
+    }
+
+    private double pendingWrites(){
+        return registry.get("dashboard.pending_writes").gauge().value();
+    }
+
+    private Map<String, Long> scanCustomersByStatus(){
+        Map<String, Long> counts = new TreeMap<>();
+        jdbc.query("SELECT COALESCE(status, 'UNKNOWN') AS status, COUNT(*) AS customer_count FROM Customers GROUP BY COALESCE(status, 'UNKNOWN')", Map.of(), rs -> {
+            counts.put(rs.getString("status"), rs.getLong("customer_count"));
+        });
+        return counts;
+    }
+
+    private List<String> scanInvoicesByStatus(){
+        List<String> totals = new ArrayList<>();
+        jdbc.query("SELECT status, COUNT(*) AS invoice_count, SUM(total_minor) AS total_minor FROM Invoices GROUP BY status", Map.of(), rs -> {
+            totals.add(rs.getString("status") + ":" + rs.getLong("invoice_count") + ":" + rs.getLong("total_minor"));
+        });
+        return totals;
+    }
+
+    private List<String> scanRevenueByMonth(LocalDate since){
+        List<String> months = new ArrayList<>();
+        jdbc.query("SELECT YEAR(issued_at) AS issued_year, MONTH(issued_at) AS issued_month, COUNT(*) AS invoice_count, " +
+                "COALESCE(SUM(CASE WHEN status <> 'CANCELLED' THEN total_minor ELSE 0 END), 0) AS billed_minor, " +
+                "COALESCE(SUM(CASE WHEN status = 'PAID' THEN total_minor ELSE 0 END), 0) AS paid_minor " +
+                "FROM Invoices WHERE issued_at >= :since GROUP BY YEAR(issued_at), MONTH(issued_at)", Map.of("since", since), rs -> {
+            months.add(YearMonth.of(rs.getInt("issued_year"), rs.getInt("issued_month")) + ":" + rs.getLong("invoice_count") + ":" + rs.getLong("billed_minor") + ":" + rs.getLong("paid_minor"));
+        });
+        return months;
+    }
+
+    private static Customer customer(String status){
+        return Customer.builder().name("Dashboard Customer").email(UUID.randomUUID() + "@invoicemanager.dev").type("INDIVIDUAL").status(status).build();
+    }
+
+    private static Invoice invoice(Customer customer, long unitPrice){
+        return Invoice.builder()
+                .invoiceNumber("D-" + UUID.randomUUID().toString().substring(0, 20))
+                .customerId(customer.getId())
+                .dueDate(LocalDate.of(2031, 4, 30))
+                .lines(new ArrayList<>(List.of(InvoiceLine.builder().description("Consulting").quantity(1).unitPrice(Money.ofMinor(unitPrice, USD)).build())))
+                .build();
+    }
+}
@@ -0,0 +1,88 @@
+package com.vladimirpandurov.invoice_manager3_02.support;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+
+public class ApiClient {
+
+    public static final String BENCHMARK_EMAIL = "benchmark@invoicemanager.dev";
+    public static final String BENCHMARK_PASSWORD = "password";
+    private static final ObjectMapper MAPPER = new ObjectMapper();
+    private final HttpClient client = HttpClient.newBuilder()
+            .version(HttpClient.Version.HTTP_1_1)
+            .connectTimeout(Duration.ofSeconds(10))
+            .build();
+    private final String baseUrl;
+
+    public ApiClient(int port){
+        this.baseUrl = "http://localhost:" + port;
+    }
+
+    public Response login(String email, String password){
+        return post("/user/login", null, "{\"email\":\"" + email + "\",\"password\":\"" + password + "\"}");
+    }
+
+    public Response login(){
+        return login(BENCHMARK_EMAIL, BENCHMARK_PASSWORD);
+    }
+
+    public Response get(String path, String token){
+        return send(request(path, token).GET().build());
+    }
+
+    public Response post(String path, String token, String json){
+        return send(request(path, token).header("Content-Type", "application/json").POST(HttpRequest.BodyPublishers.ofString(json)).build());
+    }
+
+    public Response send(String method, String path, String token, String contentType, String body){
+        return send(request(path, token).header("Content-Type", contentType).method(method, HttpRequest.BodyPublishers.ofString(body)).build());
+    }
+
+    private HttpRequest.Builder request(String path, String token){
+        HttpRequest.Builder builder = HttpRequest.newBuilder(URI.create(baseUrl + path)).timeout(Duration.ofSeconds(60));
+        return token == null ? builder : builder.header("Authorization", "Bearer " + token);
+    }
+
+    private Response send(HttpRequest request){
+        try{
+            HttpResponse<String> response = client.send(request, HttpResponse.BodyHandlers.ofString());
+            return new Response(response.statusCode(), response.body());
+        }catch (IOException exception){
+            throw new UncheckedIOException(exception);
+        }catch (InterruptedException exception){
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException(exception);
+        }
+    }
+
+    public record Response(int status, String body){
+
+        public JsonNode json(){
+            try{
+                return MAPPER.readTree(body);
+            }catch (IOException exception){
+                throw new UncheckedIOException(exception);
+            }
+        }
+
+        public JsonNode data(){
+            return json().path("data");
+        }
+
+        public String accessToken(){
+            return data().path("access_token").asText();
+        }
+
+        public String refreshToken(){
+            return data().path("refresh_token").asText();
+        }
+    }
+}
@@ -0,0 +1,22 @@
+package com.vladimirpandurov.invoice_manager3_02.support;
+
+import com.vladimirpandurov.invoice_manager3_02.jdbc.QueryCounter;
+
+public final class QueryBudget {
+
+    private QueryBudget(){}
+
+    public static int count(Runnable action){
+        int before = QueryCounter.current();
+        action.run();
+        return QueryCounter.current() - before;
+    }
+
+    public static int assertAtMost(int budget, Runnable action){
+        int statements = count(action);
+        if(statements > budget){
+            throw new AssertionError("Expected at most " + budget + " statements but " + statements + " were issued");
+        }
+        return statements;
+    }
+}
@@ -0,0 +1,106 @@
+package com.vladimirpandurov.invoice_manager3_02.utils;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class InvertedIndexTest {
+
+    private static final String[] WORDS = {"alpha", "alpine", "alps", "beta", "bet", "better", "gamma", "gam", "delta", "al"};
+    private static final int SPARSE_ID = 5_000_000;
+
+    @Test
+    void bitsetAndSortedMatchesAgreeWithABruteForceScan(){
+        Random random = new Random(42);
+        InvertedIndex dense = new InvertedIndex();
+        InvertedIndex sparse = new InvertedIndex();
+        sparse.put(SPARSE_ID, "zzz");
+        Map<Integer, String> documents = new HashMap<>();
+        for(int operation = 0; operation < 5_000; operation++){
+            int id = random.nextInt(400) + 1;
+            if(random.nextInt(5) == 0){
+                dense.remove(id);
+                sparse.remove(id);
+                documents.remove(id);
+            }else{
+                String text = WORDS[random.nextInt(WORDS.length)] + " " + WORDS[random.nextInt(WORDS.length)] + random.nextInt(3);
+                dense.put(id, text);
+                sparse.put(id, text);
+                documents.put(id, text);
+            }
+        }
+
+        for(String query : List.of("al", "alp", "bet", "g", "a b", "alpha gam", "delta al", "better", "x")){
+            int[] expected = bruteForce(documents, query);
+            assertThat(page(dense, query)).as(query).containsExactly(expected);
+            assertThat(page(sparse, query)).as(query).containsExactly(expected);
+        }
+        assertThat(dense.size()).isEqualTo(documents.size());
+    }
+
+    @Test
+    void prefixRangeCoversLongerTermsOnly(){
+        InvertedIndex index = new InvertedIndex();
+        index.put(1, "ab");
+        index.put(2, "abz");
+        index.put(3, "abzzzz");
+        index.put(4, "ac");
+        index.put(5, "aa");
+
+        assertThat(index.search("ab", Integer.MAX_VALUE, 10)).containsExactly(3, 2, 1);
+        assertThat(index.search("abz", Integer.MAX_VALUE, 10)).containsExactly(3, 2);
+        assertThat(index.search("a", 3, 10)).containsExactly(2, 1);
+    }
+
+    @Test
+    void removeAndRePutReplaceTheDocumentTerms(){
+        InvertedIndex index = new InvertedIndex();
+        index.put(7, "Acme Consulting", "billing@acme.dev");
+        index.put(7, "Globex");
+
+        assertThat(index.search("acme", Integer.MAX_VALUE, 10)).isEmpty();
+        assertThat(index.search("glob", Integer.MAX_VALUE, 10)).containsExactly(7);
+        assertThat(index.size()).isEqualTo(1);
+
+        index.remove(7);
+        index.remove(7);
+        assertThat(index.size()).isZero();
+        assertThat(index.termCount()).isZero();
+        assertThat(index.search("glob", Integer.MAX_VALUE, 10)).isEmpty();
+
+        index.put(7, "Acme");
+        assertThat(index.search("acme", Integer.MAX_VALUE, 10)).containsExactly(7);
+        assertThat(index.size()).isEqualTo(1);
+    }
+
+    private static int[] page(InvertedIndex index, String query){
+        List<Integer> found = new ArrayList<>();
+        int[] page = index.search(query, SPARSE_ID, 7);
+        while(page.length > 0){
+            Arrays.stream(page).forEach(found::add);
+            page = index.search(query, page[page.length - 1], 7);
+        }
+        return found.stream().mapToInt(Integer::intValue).toArray();
+    }
+
+    private static int[] bruteForce(Map<Integer, String> documents, String query){
+        String[] prefixes = InvertedIndex.tokenize(Integer.MAX_VALUE, query);
+        return documents.entrySet().stream()
+                .filter(document -> {
+                    String[] tokens = InvertedIndex.tokenize(Integer.MAX_VALUE, document.getValue());
+                    return Arrays.stream(prefixes).allMatch(prefix -> Arrays.stream(tokens).anyMatch(token -> token.startsWith(prefix)));
+                })
+                .map(Map.Entry::getKey)
+                .sorted(Comparator.reverseOrder())
+                .mapToInt(Integer::intValue)
+                .toArray();
+    }
+}
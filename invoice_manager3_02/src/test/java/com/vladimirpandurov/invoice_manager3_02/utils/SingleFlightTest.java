@@ -0,0 +1,132 @@
+package com.vladimirpandurov.invoice_manager3_02.utils;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.CyclicBarrier;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class SingleFlightTest {
+
+    private static final int CALLERS = 200;
+
+    private final SimpleMeterRegistry registry = new SimpleMeterRegistry();
+    private final SingleFlight<String, Integer> singleFlight = new SingleFlight<>("test", registry);
+
+    @Test
+    void concurrentCallersForOneKeyShareASingleLoad() throws Exception {
+        AtomicInteger loads = new AtomicInteger();
+        CountDownLatch release = new CountDownLatch(1);
+        List<Future<Integer>> results = new ArrayList<>();
+        try(ExecutorService callers = Executors.newVirtualThreadPerTaskExecutor()){
+            for(int i = 0; i < CALLERS; i++){
+                results.add(callers.submit(() -> singleFlight.load("user@invoicemanager.dev", () -> {
+                    loads.incrementAndGet();
+                    await(release);
+                    return 42;
+                })));
+            }
+            while(calls("coalesced") < CALLERS - 1) Thread.onSpinWait();
+            release.countDown();
+            for(Future<Integer> result : results){
+                assertThat(result.get(10, TimeUnit.SECONDS)).isEqualTo(42);
+            }
+        }
+        assertThat(loads).hasValue(1);
+        assertThat(calls("executed")).isEqualTo(1);
+        assertThat(singleFlight.inFlight()).isZero();
+    }
+
+    @Test
+    void differentKeysLoadInParallel() throws Exception {
+        CyclicBarrier allLoading = new CyclicBarrier(CALLERS);
+        List<Future<Integer>> results = new ArrayList<>();
+        try(ExecutorService callers = Executors.newVirtualThreadPerTaskExecutor()){
+            for(int i = 0; i < CALLERS; i++){
+                int key = i;
+                results.add(callers.submit(() -> singleFlight.load("user" + key, () -> {
+                    try{
+                        allLoading.await(10, TimeUnit.SECONDS);
+                    }catch (Exception exception){
+                        throw new IllegalStateException(exception);
+                    }
+                    return key;
+                })));
+            }
+            for(int i = 0; i < CALLERS; i++){
+                assertThat(results.get(i).get(20, TimeUnit.SECONDS)).isEqualTo(i);
+            }
+        }
+        assertThat(calls("executed")).isEqualTo(CALLERS);
+        assertThat(calls("coalesced")).isZero();
+    }
+
+    @Test
+    void failureReachesEveryWaiterAndIsNotCached() throws Exception {
+        IllegalStateException failure = new IllegalStateException("database unavailable");
+        CountDownLatch release = new CountDownLatch(1);
+        List<Future<Integer>> results = new ArrayList<>();
+        try(ExecutorService callers = Executors.newVirtualThreadPerTaskExecutor()){
+            for(int i = 0; i < CALLERS; i++){
+                results.add(callers.submit(() -> singleFlight.load("user@invoicemanager.dev", () -> {
+                    await(release);
+                    throw failure;
+                })));
+            }
+            while(calls("coalesced") < CALLERS - 1) Thread.onSpinWait();
+            release.countDown();
+            for(Future<Integer> result : results){
+                assertThatThrownBy(() -> result.get(10, TimeUnit.SECONDS)).hasCause(failure);
+            }
+        }
+        assertThat(singleFlight.load("user@invoicemanager.dev", () -> 7)).isEqualTo(7);
+        assertThat(singleFlight.inFlight()).isZero();
+    }
+
+    @Test
+    void everyCallIsCountedOnceUnderRandomContention() throws Exception {
+        int calls = 20_000;
+        AtomicInteger loads = new AtomicInteger();
+        try(ExecutorService callers = Executors.newFixedThreadPool(16)){
+            List<Future<Integer>> results = new ArrayList<>();
+            for(int i = 0; i < calls; i++){
+                int key = ThreadLocalRandom.current().nextInt(8);
+                results.add(callers.submit(() -> singleFlight.load("user" + key, () -> {
+                    loads.incrementAndGet();
+                    Thread.yield();
+                    return key;
+                })));
+            }
+            for(Future<Integer> result : results){
+                assertThat(result.get(10, TimeUnit.SECONDS)).isBetween(0, 7);
+            }
+        }
+        assertThat(calls("executed")).isEqualTo(loads.get());
+        assertThat(calls("executed") + calls("coalesced")).isEqualTo(calls);
+        assertThat(singleFlight.inFlight()).isZero();
+    }
+
+    private double calls(String result){
+        return registry.get("singleflight.calls").tag("result", result).counter().count();
+    }
+
+    private static void await(CountDownLatch latch){
+        try{
+            latch.await();
+        }catch (InterruptedException exception){
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException(exception);
+        }
+    }
+}
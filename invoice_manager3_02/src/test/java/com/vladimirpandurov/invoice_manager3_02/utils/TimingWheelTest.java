@@ -0,0 +1,95 @@
+package com.vladimirpandurov.invoice_manager3_02.utils;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Random;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.fail;
+
+class TimingWheelTest {
+
+    private static final long START = 1_234_567;
+    private static final long OVERFLOW_TICKS = 1L << 24;
+
+    @Test
+    void everyEntryFiresExactlyOnceAtItsTickAcrossCascadesAndOverflow(){
+        Random random = new Random(7);
+        TimingWheel wheel = new TimingWheel(1, START);
+        Map<Long, Long> deadlines = new HashMap<>();
+        Map<Long, Integer> fired = new HashMap<>();
+        long[] now = {START};
+        long nextId = 0;
+        for(; nextId < 20_000; nextId++){
+            long deadline = START + randomDelay(random);
+            deadlines.put(nextId, deadline);
+            wheel.schedule(nextId, deadline);
+        }
+
+        long end = START + 3 * OVERFLOW_TICKS;
+        while(now[0] < end){
+            now[0] = Math.min(end, now[0] + 1 + random.nextInt(random.nextBoolean() ? 100 : 200_000));
+            wheel.advance(now[0], (id, deadline) -> {
+                assertThat(deadline).isEqualTo(deadlines.get(id)).isLessThanOrEqualTo(now[0]);
+                fired.merge(id, 1, Integer::sum);
+            });
+            deadlines.forEach((id, deadline) -> {
+                if(deadline <= now[0] && !fired.containsKey(id)) fail("Entry " + id + " due at " + deadline + " did not fire by " + now[0]);
+            });
+            for(int i = 0; i < 20; i++, nextId++){
+                long deadline = now[0] + randomDelay(random);
+                deadlines.put(nextId, deadline);
+                wheel.schedule(nextId, deadline);
+            }
+        }
+        wheel.advance(end + 3 * OVERFLOW_TICKS, (id, deadline) -> fired.merge(id, 1, Integer::sum));
+
+        assertThat(fired).hasSize(deadlines.size());
+        assertThat(fired.values()).containsOnly(1);
+        assertThat(wheel.size()).isZero();
+    }
+
+    @Test
+    void entriesFireOnTheFirstAdvancePastTheirTick(){
+        TimingWheel wheel = new TimingWheel(1000, START);
+        long[] levelBoundaries = {START + 1000, START + 64_000, START + 4_096_000, START + 262_144_000, START + 16_777_216_000L + 5000};
+        for(int i = 0; i < levelBoundaries.length; i++){
+            wheel.schedule(i, levelBoundaries[i]);
+        }
+
+        for(int i = 0; i < levelBoundaries.length; i++){
+            Map<Long, Long> fired = new HashMap<>();
+            wheel.advance(levelBoundaries[i] - 1000, fired::put);
+            assertThat(fired).as("before " + i).isEmpty();
+            wheel.advance(levelBoundaries[i], fired::put);
+            assertThat(fired).as("at " + i).containsOnlyKeys((long) i);
+        }
+    }
+
+    @Test
+    void pastDeadlinesFireOnTheNextAdvanceAndClearDropsEverything(){
+        TimingWheel wheel = new TimingWheel(10, START);
+        wheel.schedule(1, START - 500);
+        Map<Long, Long> fired = new HashMap<>();
+        assertThat(wheel.advance(START, fired::put)).isEqualTo(1);
+        assertThat(fired).containsEntry(1L, START - 500);
+
+        wheel.schedule(2, START + 100);
+        wheel.schedule(3, START + OVERFLOW_TICKS * 20);
+        wheel.clear();
+        assertThat(wheel.size()).isZero();
+        assertThat(wheel.advance(START + OVERFLOW_TICKS * 40, (id, deadline) -> fail("Cleared entry " + id + " fired"))).isZero();
+    }
+
+    private static long randomDelay(Random random){
+        return switch (random.nextInt(5)){
+            case 0 -> random.nextInt(64);
+            case 1 -> random.nextInt(4096);
+            case 2 -> random.nextInt(262_144);
+            case 3 -> (long) (random.nextDouble() * OVERFLOW_TICKS);
+            default -> OVERFLOW_TICKS + (long) (random.nextDouble() * OVERFLOW_TICKS);
+        };
+    }
+}
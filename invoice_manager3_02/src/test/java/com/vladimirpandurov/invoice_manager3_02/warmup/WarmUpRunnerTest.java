@@ -0,0 +1,29 @@
+package com.vladimirpandurov.invoice_manager3_02.warmup;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@SpringBootTest(properties = {"application.warmup.enabled=true", "application.warmup.iterations=50"})
+@ActiveProfiles("test")
+class WarmUpRunnerTest {
+
+    private static final String[] WARM_UP_QUERIES = {"SELECT_ROLE_BY_NAME_QUERY", "COUNT_USER_EMAIL_QUERY",
+            "SELECT_USER_BY_EMAIL_QUERY", "SELECT_ROLE_BY_USER_ID_QUERY"};
+
+    @Autowired
+    private MeterRegistry registry;
+
+    @Test
+    void warmUpTrafficIsNotRecordedInRequestMeters(){
+        assertThat(registry.get("warmup.iterations").gauge().value()).isEqualTo(50);
+        assertThat(registry.get("auth.stage").timers()).allSatisfy(timer -> assertThat(timer.count()).isZero());
+        for(String query : WARM_UP_QUERIES){
+            assertThat(registry.find("jdbc.query").tag("query", query).timers()).isEmpty();
+        }
+    }
+}